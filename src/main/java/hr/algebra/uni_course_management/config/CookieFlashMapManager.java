@@ -0,0 +1,108 @@
+package hr.algebra.uni_course_management.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps redirect attributes in a short-lived cookie so a redirect can land on any node without an HttpSession
+@Slf4j
+public class CookieFlashMapManager extends AbstractFlashMapManager {
+    public static final String COOKIE_NAME = "FLASH";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean secure;
+
+    public CookieFlashMapManager(boolean secure) {
+        this.secure = secure;
+    }
+
+    @Override
+    protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null || cookie.getValue().isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cookie.getValue());
+            List<StoredFlashMap> stored = objectMapper.readValue(json, new TypeReference<>() {});
+            List<FlashMap> flashMaps = new ArrayList<>();
+            for (StoredFlashMap entry : stored) {
+                FlashMap flashMap = new FlashMap();
+                flashMap.putAll(entry.getAttributes());
+                flashMap.setTargetRequestPath(entry.getTargetRequestPath());
+                flashMap.addTargetRequestParams(new LinkedMultiValueMap<>(entry.getTargetRequestParams()));
+                flashMap.setExpirationTime(entry.getExpirationTime());
+                flashMaps.add(flashMap);
+            }
+            return flashMaps;
+        } catch (Exception e) {
+            log.debug("Ignoring unreadable flash cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+        if (flashMaps.isEmpty()) {
+            writeCookie(response, "", Duration.ZERO);
+            return;
+        }
+        List<StoredFlashMap> stored = flashMaps.stream()
+                .map(flashMap -> new StoredFlashMap(
+                        new HashMap<>(flashMap),
+                        flashMap.getTargetRequestPath(),
+                        new HashMap<>(flashMap.getTargetRequestParams()),
+                        flashMap.getExpirationTime()))
+                .toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(stored);
+            writeCookie(response, Base64.getUrlEncoder().withoutPadding().encodeToString(json),
+                    Duration.ofSeconds(getFlashMapTimeout()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize flash attributes", e);
+        }
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    static class StoredFlashMap {
+        private Map<String, Object> attributes;
+        private String targetRequestPath;
+        private Map<String, List<String>> targetRequestParams;
+        private long expirationTime;
+    }
+}
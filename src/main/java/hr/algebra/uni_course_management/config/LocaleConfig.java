@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +8,7 @@ import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
@@ -14,8 +16,16 @@ import java.util.Locale;
 
 @Configuration
 public class LocaleConfig implements WebMvcConfigurer {
+    @Value("${security.web.stateless-session:false}")
+    private boolean statelessWebSession;
+
     @Bean
     public LocaleResolver localeResolver() {
+        if (statelessWebSession) {
+            CookieLocaleResolver clr = new CookieLocaleResolver("LOCALE");
+            clr.setDefaultLocale(Locale.ENGLISH);
+            return clr;
+        }
         SessionLocaleResolver slr = new SessionLocaleResolver();
         slr.setDefaultLocale(Locale.ENGLISH);
         return slr;
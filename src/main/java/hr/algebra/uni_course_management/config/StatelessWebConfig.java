@@ -0,0 +1,28 @@
+package hr.algebra.uni_course_management.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMapManager;
+
+@Configuration
+@ConditionalOnProperty(name = "security.web.stateless-session", havingValue = "true")
+public class StatelessWebConfig {
+    // Spring MVC already defines the flashMapManager bean, so it is swapped instead of redefined
+    @Bean
+    public static BeanPostProcessor cookieFlashMapManagerPostProcessor(Environment environment) {
+        boolean secure = environment.getProperty("security.web.jwt-cookie.secure", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof FlashMapManager && DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME.equals(beanName)) {
+                    return new CookieFlashMapManager(secure);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.model.ApiKey;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.service.ApiKeyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/api-keys")
+@RequiredArgsConstructor
+public class ApiKeyRestController {
+    private final ApiKeyService apiKeyService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getAllApiKeys() {
+        try {
+            List<Map<String, Object>> apiKeys = apiKeyService.findAll().stream()
+                    .map(this::toView)
+                    .toList();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "API keys retrieved successfully");
+            response.put("data", apiKeys);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to retrieve API keys: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> createApiKey(@RequestParam String name,
+                                          @RequestParam String role,
+                                          @RequestParam String allowedPaths) {
+        try {
+            String rawKey = apiKeyService.issue(name, UserRole.valueOf(role.toUpperCase()), allowedPaths);
+
+            // The raw key is only ever returned here; only its digest is stored
+            Map<String, Object> data = new HashMap<>();
+            data.put("name", name.trim());
+            data.put("apiKey", rawKey);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "API key created successfully");
+            response.put("data", data);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to create API key: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> revokeApiKey(@PathVariable Long id) {
+        try {
+            apiKeyService.revoke(id);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "API key revoked successfully");
+            response.put("data", null);
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to revoke API key: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    private Map<String, Object> toView(ApiKey apiKey) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("id", apiKey.getId());
+        view.put("name", apiKey.getName());
+        view.put("keyPrefix", apiKey.getKeyPrefix());
+        view.put("role", apiKey.getRole());
+        view.put("allowedPaths", apiKey.getAllowedPaths());
+        view.put("isActive", apiKey.getIsActive());
+        view.put("createdAt", apiKey.getCreatedAt());
+        return view;
+    }
+}
@@ -2,18 +2,22 @@ package hr.algebra.uni_course_management.controller.api;
 
 import hr.algebra.uni_course_management.jwt.*;
 import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import hr.algebra.uni_course_management.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -24,10 +28,12 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserService userService;
     private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRefresher accessTokenRefresher;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final MeterRegistry meterRegistry;
 
     @Value("${jwt.access-token-expiration}")
     private Long accessTokenExpiration;
@@ -35,25 +41,32 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
         try {
-            authenticationManager.authenticate(
+            Timer.Sample phase = Timer.start(meterRegistry);
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getUsername(),
                             loginRequest.getPassword()
                     )
             );
+            phase.stop(loginPhaseTimer("password_check"));
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-            User user = userService.findByUsername(loginRequest.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (!(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+                throw new IllegalStateException("Unsupported principal type");
+            }
+
+            phase = Timer.start(meterRegistry);
+            String accessToken = jwtUtil.generateAccessToken(principal);
+            phase.stop(loginPhaseTimer("token_mint"));
 
-            String accessToken = jwtUtil.generateAccessToken(userDetails, user.getRole().name());
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+            phase = Timer.start(meterRegistry);
+            String refreshToken = refreshTokenService.createRefreshToken(principal.getId(), principal.getUsername());
+            phase.stop(loginPhaseTimer("persistence"));
 
             AuthResponse authResponse = new AuthResponse(
                     accessToken,
-                    refreshToken.getToken(),
-                    user.getUsername(),
-                    user.getRole().name(),
+                    refreshToken,
+                    principal.getUsername(),
+                    principal.getRole().name(),
                     accessTokenExpiration / 1000
             );
 
@@ -61,6 +74,10 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse<>(false, "Invalid username or password", null));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, "An error occurred: " + e.getMessage(), null));
@@ -68,10 +85,11 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCurrentUser(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(name = JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
         try {
-            String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
+            String username = resolveClaims(authHeader, claims).getSubject();
             User user = userService.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -96,22 +114,14 @@ public class AuthController {
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
         try {
-            RefreshToken refreshToken = refreshTokenService.findByToken(request.getRefreshToken())
-                    .orElseThrow(() -> new RuntimeException("Refresh token not found"));
-
-            refreshToken = refreshTokenService.verifyExpiration(refreshToken);
-
-            User user = refreshToken.getUser();
-            UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-
-            String newAccessToken = jwtUtil.generateAccessToken(userDetails, user.getRole().name());
+            RefreshedAccessToken refreshed = accessTokenRefresher.refresh(request.getRefreshToken());
 
             AuthResponse authResponse = new AuthResponse(
-                    newAccessToken,
-                    refreshToken.getToken(),
-                    user.getUsername(),
-                    user.getRole().name(),
-                    accessTokenExpiration / 1000
+                    refreshed.getAccessToken(),
+                    request.getRefreshToken(),
+                    refreshed.getUser().getUsername(),
+                    refreshed.getUser().getRole().name(),
+                    refreshed.secondsRemaining()
             );
 
             return ResponseEntity.ok(new ApiResponse<>(true, "Token refreshed successfully", authResponse));
@@ -126,14 +136,16 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> logout(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestAttribute(name = JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
         try {
-            String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-            User user = userService.findByUsername(username)
+            Claims tokenClaims = resolveClaims(authHeader, claims);
+            User user = userService.findByUsername(tokenClaims.getSubject())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             refreshTokenService.deleteByUser(user);
+            accessTokenDenylist.revokeToken(tokenClaims.getId(), user.getId(), tokenClaims.getExpiration());
 
             return ResponseEntity.ok(new ApiResponse<>(true, "Logout successful", null));
         } catch (Exception e) {
@@ -149,4 +161,22 @@ public class AuthController {
         response.put("authorities", authentication.getAuthorities());
         return ResponseEntity.ok(response);
     }
+
+    private Timer loginPhaseTimer(String phase) {
+        return Timer.builder("auth.login.duration")
+                .description("Login latency by pipeline phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private Claims resolveClaims(String authHeader, Claims claims) {
+        if (claims != null) {
+            return claims;
+        }
+        Claims parsed = jwtUtil.parseClaims(authHeader.substring(7));
+        if (accessTokenDenylist.isRevoked(parsed, parsed.get(JwtUtil.USER_ID_CLAIM, Long.class))) {
+            throw new RuntimeException("Token has been revoked");
+        }
+        return parsed;
+    }
 }
\ No newline at end of file
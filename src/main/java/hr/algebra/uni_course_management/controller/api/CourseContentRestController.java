@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.CourseContentView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
 import hr.algebra.uni_course_management.model.ContentType;
 import hr.algebra.uni_course_management.model.CourseContent;
@@ -30,7 +31,7 @@ public class CourseContentRestController {
     public ResponseEntity<?> getCourseContent(@PathVariable @NotNull Long courseId) {
         try {
             courseService.getCourseById(courseId);
-            List<CourseContent> content = courseContentService.getAllCourseContents(courseId);
+            List<CourseContentView> content = courseContentService.getContentViews(courseId);
 
             if (content.isEmpty()) {
                 throw new ResourceNotFoundException("No content found for course with id: " + courseId);
@@ -77,7 +78,7 @@ public class CourseContentRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Content created successfully");
-            response.put("data", savedContent);
+            response.put("data", CourseContentView.from(savedContent));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -118,7 +119,7 @@ public class CourseContentRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Content updated successfully");
-            response.put("data", updatedContent);
+            response.put("data", CourseContentView.from(updatedContent));
 
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -179,7 +180,7 @@ public class CourseContentRestController {
             response.put("success", true);
             response.put("message", Boolean.TRUE.equals(content.getIsPublished()) ?
                     "Content published successfully!" : "Content unpublished successfully!");
-            response.put("data", content);
+            response.put("data", CourseContentView.from(content));
 
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException | IllegalArgumentException e) {
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.CourseView;
 import hr.algebra.uni_course_management.jwt.ApiResponse;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.service.CourseService;
@@ -22,7 +23,7 @@ public class CourseRestController {
     @GetMapping
     public ResponseEntity<?> getAllCourses() {
         try {
-            List<Course> courses = courseService.getAllCourses();
+            List<CourseView> courses = courseService.getCourseViews();
             return ResponseEntity.ok(new ApiResponse<>(true, "Courses retrieved successfully", courses));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -32,7 +33,7 @@ public class CourseRestController {
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getCourseById(@PathVariable Long id) {
-        Course course = courseService.getCourseById(id);
+        CourseView course = courseService.getCourseView(id);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -48,7 +49,7 @@ public class CourseRestController {
         try {
             Course savedCourse = courseService.createCourse(course);
             return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(new ApiResponse<>(true, "Course created successfully", savedCourse));
+                    .body(new ApiResponse<>(true, "Course created successfully", CourseView.from(savedCourse)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, "Error creating course: " + e.getMessage(), null));
@@ -68,7 +69,7 @@ public class CourseRestController {
             course.setSemester(courseDetails.getSemester());
 
             Course updatedCourse = courseService.updateCourse(id, course);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Course updated successfully", updatedCourse));
+            return ResponseEntity.ok(new ApiResponse<>(true, "Course updated successfully", CourseView.from(updatedCourse)));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse<>(false, e.getMessage(), null));
@@ -0,0 +1,52 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import hr.algebra.uni_course_management.service.EnrollmentImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/enrollments/import")
+@RequiredArgsConstructor
+public class EnrollmentImportRestController {
+    private final EnrollmentImportService enrollmentImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> importEnrollments(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Upload a non-empty CSV file");
+            error.put("data", null);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            ImportReport report = enrollmentImportService.importCsv(input);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", report.getFailed() == 0);
+            response.put("message", report.getImported() + " of " + report.getRows() + " enrollments imported");
+            response.put("data", report);
+
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Could not read upload: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+}
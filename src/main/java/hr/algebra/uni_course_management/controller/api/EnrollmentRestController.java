@@ -1,11 +1,17 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
-import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.service.EnrollmentBatcher;
+import hr.algebra.uni_course_management.service.EnrollmentQueueFullException;
+import hr.algebra.uni_course_management.service.EnrollmentRequest;
 import hr.algebra.uni_course_management.service.EnrollmentService;
+import hr.algebra.uni_course_management.service.LotteryService;
 import hr.algebra.uni_course_management.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,13 +29,15 @@ import java.util.Optional;
 public class EnrollmentRestController {
     private final EnrollmentService enrollmentService;
     private final UserService userService;
+    private final EnrollmentBatcher enrollmentBatcher;
+    private final LotteryService lotteryService;
 
     @GetMapping
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> getCurrentStudentEnrollments(Authentication authentication) {
         try {
             String username = authentication.getName();
-            List<Enrollment> enrollments = enrollmentService.findByStudentUsername(username);
+            List<TranscriptRow> enrollments = enrollmentService.getTranscript(username);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -48,13 +56,27 @@ public class EnrollmentRestController {
 
     @PostMapping("/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> enrollInCourse(@PathVariable Long courseId, Authentication authentication) {
+    public ResponseEntity<?> enrollInCourse(@PathVariable Long courseId,
+                                            @RequestParam(defaultValue = "0") long waitMs,
+                                            Authentication authentication) {
         try {
             String username = authentication.getName();
 
             Optional<User> student = userService.findByUsername(username);
             Long studentId = student.map(User::getId).orElseThrow(() -> new ResourceNotFoundException("Student not found"));
-            Enrollment enrollment = enrollmentService.enrollStudent(studentId, courseId);
+            if (enrollmentBatcher.isEnabled()) {
+                EnrollmentRequest request = enrollmentBatcher.submit(studentId, courseId);
+                if (waitMs > 0) {
+                    try {
+                        request.await(Math.min(waitMs, enrollmentBatcher.getMaxWaitMs()));
+                    } catch (InterruptedException e) {
+                        // The request stays queued and may still commit, so it is reported as pending, not failed
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return enrollmentRequestResponse(request);
+            }
+            EnrollmentView enrollment = enrollmentService.enrollStudent(studentId, courseId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -62,6 +84,14 @@ public class EnrollmentRestController {
             response.put("data", enrollment);
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (EnrollmentQueueFullException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, EnrollmentQueueFullException.RETRY_AFTER_SECONDS)
+                    .body(error);
         } catch (ResourceNotFoundException e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -83,6 +113,33 @@ public class EnrollmentRestController {
         }
     }
 
+    @GetMapping("/requests/{requestId}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> getEnrollmentRequest(@PathVariable String requestId, Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+            EnrollmentRequest request = enrollmentBatcher.find(requestId)
+                    .filter(r -> r.getStudentId().equals(studentId))
+                    .orElseThrow(() -> new ResourceNotFoundException("Enrollment request not found"));
+
+            return enrollmentRequestResponse(request);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to retrieve enrollment request: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     @DeleteMapping("/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> dropFromCourse(@PathVariable Long courseId, Authentication authentication) {
@@ -113,4 +170,191 @@ public class EnrollmentRestController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/preferences")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> getPreferences(Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Course preferences retrieved successfully");
+            response.put("data", Map.of(
+                    "windowOpen", lotteryService.isWindowOpen(),
+                    "courseIds", lotteryService.getPreferences(studentId)));
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to retrieve course preferences: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PutMapping("/preferences")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> submitPreferences(@RequestBody List<Long> courseIds, Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+
+            lotteryService.submitPreferences(studentId, courseIds);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Course preferences saved; the lottery places you in at most one of these courses");
+            response.put("data", Map.of("courseIds", courseIds));
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to save course preferences: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @PostMapping("/{courseId}/waitlist")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> joinWaitlist(@PathVariable Long courseId, Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+
+            int position = enrollmentService.joinWaitlist(studentId, courseId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Joined the waitlist");
+            response.put("data", Map.of("courseId", courseId, "position", position));
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to join the waitlist: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    @GetMapping("/{courseId}/waitlist")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Long courseId, Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+            int position = enrollmentService.getWaitlistPosition(studentId, courseId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Not on the waitlist for this course"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Waitlist position retrieved successfully");
+            response.put("data", Map.of("courseId", courseId, "position", position));
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to retrieve waitlist position: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @DeleteMapping("/{courseId}/waitlist")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long courseId, Authentication authentication) {
+        try {
+            Long studentId = userService.findByUsername(authentication.getName())
+                    .map(User::getId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+
+            enrollmentService.leaveWaitlist(studentId, courseId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Left the waitlist");
+            response.put("data", null);
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to leave the waitlist: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    private ResponseEntity<?> enrollmentRequestResponse(EnrollmentRequest request) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("requestId", request.getId());
+        data.put("courseId", request.getCourseId());
+        data.put("status", request.getStatus());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        switch (request.getStatus()) {
+            case ENROLLED -> {
+                response.put("success", true);
+                response.put("message", request.getMessage());
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+            case REJECTED -> {
+                response.put("success", false);
+                response.put("message", request.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+            default -> {
+                response.put("success", true);
+                response.put("message", "Enrollment request accepted and queued");
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.LOCATION, "/api/enrollments/requests/" + request.getId())
+                        .body(response);
+            }
+        }
+    }
+}
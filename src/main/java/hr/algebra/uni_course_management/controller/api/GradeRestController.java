@@ -1,14 +1,26 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import hr.algebra.uni_course_management.dto.GradeView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
-import hr.algebra.uni_course_management.model.Grade;
+import hr.algebra.uni_course_management.model.Course;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.service.CourseService;
 import hr.algebra.uni_course_management.service.GradeService;
+import hr.algebra.uni_course_management.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,12 +30,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GradeRestController {
     private final GradeService gradeService;
+    private final CourseService courseService;
+    private final UserService userService;
 
     @PostMapping
-    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMINISTRATOR')")
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
     public ResponseEntity<?> assignGrade(@RequestParam Long enrollmentId, @RequestParam Integer gradeValue) {
         try {
-            Grade grade = gradeService.assignGrade(enrollmentId, gradeValue);
+            GradeView grade = gradeService.assignGrade(enrollmentId, gradeValue);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -52,16 +66,66 @@ public class GradeRestController {
         }
     }
 
+    // Grades a whole roster in one request and one transaction; any invalid entry rejects the submission
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('PROFESSOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> assignGrades(@RequestParam Long courseId, @RequestBody List<GradeEntry> grades,
+                                          Authentication authentication) {
+        try {
+            if (!mayGrade(authentication, courseService.getCourseById(courseId))) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "You can only grade courses you teach");
+                error.put("data", null);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            List<GradeView> assigned = gradeService.assignGrades(courseId, grades);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", assigned.size() + " grade(s) assigned successfully");
+            response.put("data", assigned);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to assign grades: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     @GetMapping
-    @PreAuthorize("hasAnyRole('PROFESSOR', 'STUDENT', 'ADMINISTRATOR')")
+    @PreAuthorize("hasAnyRole('PROFESSOR', 'STUDENT', 'ADMIN')")
     public ResponseEntity<?> getGrades(@RequestParam(required = false) Long courseId,
-                                       @RequestParam(required = false) Long studentId) {
+                                       @RequestParam(required = false) Long studentId,
+                                       @RequestParam(required = false) Long afterId,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestParam(required = false) Integer minGrade,
+                                       @RequestParam(required = false) Integer maxGrade,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime gradedFrom,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime gradedTo) {
         try {
-            List<?> grades;
+            GradeFilter filter = new GradeFilter(minGrade, maxGrade, gradedFrom, gradedTo);
+            GradePage page;
             if (courseId != null) {
-                grades = gradeService.getGradesByCourse(courseId);
+                page = gradeService.getGradesByCourse(courseId, filter, afterId, limit);
             } else if (studentId != null) {
-                grades = gradeService.getGradesByStudent(studentId);
+                page = gradeService.getGradesByStudent(studentId, filter, afterId, limit);
             } else {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
@@ -73,7 +137,8 @@ public class GradeRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Grades retrieved successfully");
-            response.put("data", grades);
+            response.put("data", page.getGrades());
+            response.put("nextAfterId", page.getNextAfterId());
 
             return ResponseEntity.ok(response);
         } catch (ResourceNotFoundException e) {
@@ -82,6 +147,12 @@ public class GradeRestController {
             error.put("message", e.getMessage());
             error.put("data", null);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -90,4 +161,17 @@ public class GradeRestController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-}
\ No newline at end of file
+
+    // Administrators may grade any course, professors only the ones assigned to them
+    private boolean mayGrade(Authentication authentication, Course course) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> ("ROLE_" + UserRole.ADMIN.name()).equals(authority.getAuthority()));
+        if (admin) {
+            return true;
+        }
+        Long callerId = authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user.getId()
+                : userService.findByUsername(authentication.getName()).map(User::getId).orElse(null);
+        return callerId != null && course.getProfessor() != null && callerId.equals(course.getProfessor().getId());
+    }
+}
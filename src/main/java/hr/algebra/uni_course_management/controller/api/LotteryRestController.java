@@ -0,0 +1,64 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.LotteryResult;
+import hr.algebra.uni_course_management.service.LotteryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/lottery")
+@RequiredArgsConstructor
+public class LotteryRestController {
+    private final LotteryService lotteryService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Lottery status retrieved successfully");
+        response.put("data", Map.of("windowOpen", lotteryService.isWindowOpen()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/open")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> openWindow() {
+        lotteryService.openWindow();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Preference window opened");
+        response.put("data", Map.of("windowOpen", true));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/allocate")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> allocate() {
+        try {
+            LotteryResult result = lotteryService.allocate();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Lottery allocation completed");
+            response.put("data", result);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Lottery allocation failed: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
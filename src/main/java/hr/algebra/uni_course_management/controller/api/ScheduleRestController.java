@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.ScheduleEntryView;
 import hr.algebra.uni_course_management.model.ScheduleEntry;
 import hr.algebra.uni_course_management.service.AdminScheduleService;
 import lombok.RequiredArgsConstructor;
@@ -39,7 +40,7 @@ public class ScheduleRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Schedule entry created successfully");
-            response.put("data", savedSchedule);
+            response.put("data", ScheduleEntryView.from(savedSchedule));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
@@ -67,9 +68,7 @@ public class ScheduleRestController {
     @PreAuthorize("hasAnyRole('STUDENT', 'PROFESSOR', 'ROLE_ADMIN')")
     public ResponseEntity<?> getCourseSchedule(@PathVariable Long id) {
         try {
-            List<ScheduleEntry> schedules = adminScheduleService.findAllScheduleEntriesSorted().stream()
-                    .filter(se -> se.getCourse().getId().equals(id))
-                    .toList();
+            List<ScheduleEntryView> schedules = adminScheduleService.getScheduleViews(id);
             Map<String, Object> response = new HashMap<>();
 
             if (schedules.isEmpty()) {
@@ -97,7 +96,7 @@ public class ScheduleRestController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> getAllSchedules() {
         try {
-            List<ScheduleEntry> schedules = adminScheduleService.findAllScheduleEntriesSorted();
+            List<ScheduleEntryView> schedules = adminScheduleService.getScheduleViews(null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -134,7 +133,7 @@ public class ScheduleRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Schedule entry updated successfully");
-            response.put("data", updatedSchedule);
+            response.put("data", ScheduleEntryView.from(updatedSchedule));
 
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,65 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.model.Semester;
+import hr.algebra.uni_course_management.service.SemesterCloseJob;
+import hr.algebra.uni_course_management.service.SemesterCloseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/admin/semester-close")
+@RequiredArgsConstructor
+public class SemesterCloseRestController {
+    private final SemesterCloseService semesterCloseService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> startClose(@RequestParam Semester semester, @RequestParam String academicYear) {
+        try {
+            SemesterCloseJob job = semesterCloseService.start(semester, academicYear);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Semester close started");
+            response.put("data", job);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(e instanceof IllegalStateException ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST)
+                    .body(error);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> getProgress(@PathVariable String jobId) {
+        Optional<SemesterCloseJob> job = semesterCloseService.find(jobId);
+        if (job.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Semester close job not found");
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", job.get().getStatus() != SemesterCloseJob.Status.FAILED);
+        response.put("message", job.get().getStatus() == SemesterCloseJob.Status.RUNNING
+                ? job.get().getProcessed() + " of " + job.get().getTotal() + " enrollments closed"
+                : job.get().getMessage());
+        response.put("data", job.get());
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,77 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.StudentOverview;
+import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.jwt.JwtAuthenticationFilter;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.service.StudentOverviewService;
+import hr.algebra.uni_course_management.service.UserService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/student")
+@RequiredArgsConstructor
+public class StudentOverviewRestController {
+    private final StudentOverviewService studentOverviewService;
+    private final UserService userService;
+
+    // Enrollments, grades, today's schedule and upcoming assignments in one round trip
+    @GetMapping("/overview")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> getOverview(Authentication authentication,
+                                         @RequestAttribute(name = JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, required = false) Claims claims) {
+        try {
+            StudentOverview overview = studentOverviewService.getOverview(studentId(authentication, claims));
+            boolean partial = !overview.getUnavailableSections().isEmpty();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", partial
+                    ? "Overview retrieved without: " + String.join(", ", overview.getUnavailableSections())
+                    : "Overview retrieved successfully");
+            response.put("data", overview);
+
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to retrieve overview: " + e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    // The token and the principal already carry the id; the user is only looked up when neither does
+    private Long studentId(Authentication authentication, Claims claims) {
+        Long userId = claims == null ? null : claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        if (userId != null) {
+            return userId;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return userService.findByUsername(authentication.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+    }
+}
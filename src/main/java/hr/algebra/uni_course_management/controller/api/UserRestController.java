@@ -1,10 +1,13 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.UserView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import hr.algebra.uni_course_management.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,12 +27,8 @@ public class UserRestController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String role) {
         try {
-            List<User> users;
-            if (role != null && !role.isEmpty()) {
-                users = userService.getUsersByRole(UserRole.valueOf(role.toUpperCase()));
-            } else {
-                users = userService.getAllUsers();
-            }
+            UserRole userRole = role != null && !role.isEmpty() ? UserRole.valueOf(role.toUpperCase()) : null;
+            List<UserView> users = userService.getUserViews(userRole);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -56,7 +55,7 @@ public class UserRestController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<?> getUserById(@PathVariable Long id) {
         try {
-            User user = userService.getUserById(id);
+            UserView user = userService.getUserView(id);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -95,7 +94,7 @@ public class UserRestController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "User '" + username + "' created successfully");
-            response.put("data", user);
+            response.put("data", UserView.from(user));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
@@ -104,6 +103,14 @@ public class UserRestController {
             error.put("message", e.getMessage());
             error.put("data", null);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (PasswordHashingBusyException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                    .body(error);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -129,7 +136,7 @@ public class UserRestController {
                     role != null ? UserRole.valueOf(role.toUpperCase()) : null,
                     password, isActive);
 
-            User updatedUser = userService.getUserById(id);
+            UserView updatedUser = userService.getUserView(id);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -143,6 +150,14 @@ public class UserRestController {
             error.put("message", e.getMessage());
             error.put("data", null);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (PasswordHashingBusyException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("data", null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                    .body(error);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
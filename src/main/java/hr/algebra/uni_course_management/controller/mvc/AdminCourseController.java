@@ -4,6 +4,7 @@ import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Semester;
 import hr.algebra.uni_course_management.repository.UserRepository;
 import hr.algebra.uni_course_management.service.CourseService;
+import hr.algebra.uni_course_management.service.EnrollmentService;
 import hr.algebra.uni_course_management.service.GradeExportService;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
@@ -13,6 +14,8 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/admin/courses")
 @RequiredArgsConstructor
@@ -20,6 +23,7 @@ public class AdminCourseController {
     private final CourseService courseService;
     private final UserRepository userRepository;
     private final GradeExportService gradeExportService;
+    private final EnrollmentService enrollmentService;
 
     private static final String ADMIN_COURSES_EDIT = "admin/courses/edit";
     private static final String ADMIN_COURSES_CREATE = "admin/courses/create";
@@ -29,7 +33,10 @@ public class AdminCourseController {
 
     @GetMapping
     public String getCourses(Model model) {
-        model.addAttribute("courses", courseService.getAllCourses());
+        List<Course> courses = courseService.getAllCourses();
+        model.addAttribute("courses", courses);
+        model.addAttribute("enrollmentCounts",
+                enrollmentService.countActiveEnrollments(courses.stream().map(Course::getId).toList()));
         return "admin/courses/list";
     }
 
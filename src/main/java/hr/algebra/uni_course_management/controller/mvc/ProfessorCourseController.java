@@ -1,5 +1,7 @@
 package hr.algebra.uni_course_management.controller.mvc;
 
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.RosterGradeForm;
 import hr.algebra.uni_course_management.model.*;
 import hr.algebra.uni_course_management.service.*;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,6 +13,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/professor/courses")
@@ -27,8 +30,9 @@ public class ProfessorCourseController {
         User professor = userService.getCurrentUser(principal.getName());
         List<Course> courses = courseService.getCoursesByProfessorId(professor.getId());
 
+        Map<Long, Integer> counts = enrollmentService.countActiveEnrollments(courses.stream().map(Course::getId).toList());
         for (Course course : courses) {
-            course.setEnrolledStudents(enrollmentService.getActiveEnrollmentsForCourse(course.getId()).size());
+            course.setEnrolledStudents(counts.get(course.getId()));
         }
 
         model.addAttribute("courses", courses);
@@ -70,6 +74,34 @@ public class ProfessorCourseController {
         return "redirect:/professor/courses/" + courseId + "/students";
     }
 
+    @PostMapping("/{courseId}/grades")
+    public String assignGrades(
+            @PathVariable Long courseId,
+            @ModelAttribute RosterGradeForm form,
+            Principal principal,
+            RedirectAttributes redirectAttributes
+    ) {
+        User professor = userService.getCurrentUser(principal.getName());
+        Course course = courseService.getCourseById(courseId);
+
+        if (!course.getProfessor().getId().equals(professor.getId())) {
+            return "redirect:/professor/courses?error=unauthorized";
+        }
+
+        List<GradeEntry> entries = form.toEntries();
+        if (entries.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Enter at least one grade before saving.");
+        } else {
+            try {
+                gradeService.assignGrades(courseId, entries);
+                redirectAttributes.addFlashAttribute("success", entries.size() + " grade(s) saved successfully.");
+            } catch (IllegalArgumentException e) {
+                redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            }
+        }
+        return "redirect:/professor/courses/" + courseId + "/students";
+    }
+
     @GetMapping("/{courseId}/export-grades")
     public void exportCourseGrades(@PathVariable Long courseId, HttpServletResponse response, Principal principal) {
         User professor = userService.getCurrentUser(principal.getName());
@@ -1,10 +1,12 @@
 package hr.algebra.uni_course_management.controller.mvc;
 
+import hr.algebra.uni_course_management.dto.TranscriptRow;
 import hr.algebra.uni_course_management.model.Course;
-import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.EnrollmentStatus;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.service.CourseService;
+import hr.algebra.uni_course_management.service.EnrollmentBatcher;
+import hr.algebra.uni_course_management.service.EnrollmentRequest;
 import hr.algebra.uni_course_management.service.EnrollmentService;
 import hr.algebra.uni_course_management.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -27,31 +29,57 @@ public class StudentCourseController {
     private final CourseService courseService;
     private final EnrollmentService enrollmentService;
     private final UserService userService;
+    private final EnrollmentBatcher enrollmentBatcher;
 
     @GetMapping
     public String listAvailableCourses(Model model, Principal principal) {
         User current = userService.getCurrentUser(principal.getName());
-        List<Enrollment> studentEnrollments = enrollmentService.getEnrollmentsForStudent(current.getId());
+        List<TranscriptRow> transcript = enrollmentService.getTranscript(current.getId());
 
-        Set<Long> activeEnrollments = studentEnrollments.stream()
+        Set<Long> activeEnrollments = transcript.stream()
                 .filter(e -> e.getStatus() == EnrollmentStatus.ENROLLED)
-                .map(e -> e.getCourse().getId())
+                .map(TranscriptRow::getCourseId)
                 .collect(Collectors.toSet());
         List<Course> available = courseService.getActiveCourses().stream()
                 .filter(c -> !activeEnrollments.contains(c.getId()))
                 .toList();
 
         model.addAttribute("courses", available);
+        model.addAttribute("waitlistPositions", enrollmentService.getWaitlistPositions(current.getId()));
         return "student/courses/list";
     }
 
     @PostMapping("/enroll/{courseId}")
-    public String enroll(@PathVariable Long courseId, Principal principal) {
+    public String enroll(@PathVariable Long courseId, Principal principal) throws InterruptedException {
         User currentUser = userService.getCurrentUser(principal.getName());
+        if (enrollmentBatcher.isEnabled()) {
+            EnrollmentRequest request = enrollmentBatcher.submitAndWait(currentUser.getId(), courseId);
+            if (request.getStatus() == EnrollmentRequest.Status.REJECTED) {
+                throw new IllegalStateException(request.getMessage());
+            }
+            if (request.getStatus() == EnrollmentRequest.Status.PENDING) {
+                return "redirect:/student/courses?success=queued";
+            }
+            return "redirect:/student/courses?success=enrolled";
+        }
         enrollmentService.enrollStudent(currentUser.getId(), courseId);
         return "redirect:/student/courses?success=enrolled";
     }
 
+    @PostMapping("/waitlist/{courseId}")
+    public String joinWaitlist(@PathVariable Long courseId, Principal principal) {
+        User currentUser = userService.getCurrentUser(principal.getName());
+        enrollmentService.joinWaitlist(currentUser.getId(), courseId);
+        return "redirect:/student/courses?success=waitlisted";
+    }
+
+    @PostMapping("/waitlist/{courseId}/leave")
+    public String leaveWaitlist(@PathVariable Long courseId, Principal principal) {
+        User currentUser = userService.getCurrentUser(principal.getName());
+        enrollmentService.leaveWaitlist(currentUser.getId(), courseId);
+        return "redirect:/student/courses?success=left_waitlist";
+    }
+
     @PostMapping("/drop/{courseId}")
     public String dropCourse(@PathVariable Long courseId, Principal principal) {
         User current = userService.getCurrentUser(principal.getName());
@@ -62,10 +90,8 @@ public class StudentCourseController {
     @GetMapping("/my-courses")
     public String myCourses(Model model, Principal principal) {
         User currentUser = userService.getCurrentUser(principal.getName());
-        List<Enrollment> allEnrollments = enrollmentService.getEnrollmentsForStudent(currentUser.getId());
-
-        List<Enrollment> activeEnrollments = allEnrollments.stream()
-                .filter(e -> e.getCourse().getIsActive())
+        List<TranscriptRow> activeEnrollments = enrollmentService.getTranscript(currentUser.getId()).stream()
+                .filter(TranscriptRow::isCourseActive)
                 .toList();
 
         model.addAttribute("enrollments", activeEnrollments);
@@ -75,14 +101,12 @@ public class StudentCourseController {
     @GetMapping("/grades")
     public String viewGrades(Model model, Principal principal) {
         User currentUser = userService.getCurrentUser(principal.getName());
-        List<Enrollment> enrollments = enrollmentService.getEnrollmentsForStudent(currentUser.getId());
-
-        List<Enrollment> activeEnrollments = enrollments.stream()
-                .filter(e -> e.getCourse().getIsActive())
+        List<TranscriptRow> activeEnrollments = enrollmentService.getTranscript(currentUser.getId()).stream()
+                .filter(TranscriptRow::isCourseActive)
                 .toList();
 
         long gradedCount = activeEnrollments.stream()
-                .filter(e -> e.getTempGrade() != null)
+                .filter(TranscriptRow::isGraded)
                 .count();
         long pendingCount = activeEnrollments.size() - gradedCount;
 
@@ -0,0 +1,33 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.ContentType;
+import hr.algebra.uni_course_management.model.CourseContent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CourseContentView {
+    private Long id;
+    private Long courseId;
+    private ContentType contentType;
+    private String contentTitle;
+    private String contentDescription;
+    private String content;
+    private String fileUrl;
+    private String fileName;
+    private LocalDateTime publishDate;
+    private LocalDateTime dueDate;
+    private Boolean isPublished;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static CourseContentView from(CourseContent content) {
+        return new CourseContentView(content.getId(), content.getCourse().getId(), content.getContentType(),
+                content.getContentTitle(), content.getContentDescription(), content.getContent(),
+                content.getFileUrl(), content.getFileName(), content.getPublishDate(), content.getDueDate(),
+                content.getIsPublished(), content.getCreatedAt(), content.getUpdatedAt());
+    }
+}
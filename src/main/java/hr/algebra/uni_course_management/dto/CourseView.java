@@ -0,0 +1,34 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.Course;
+import hr.algebra.uni_course_management.model.Semester;
+import hr.algebra.uni_course_management.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// API shape of a course; the professor is flattened to id and name
+@Getter
+@AllArgsConstructor
+public class CourseView {
+    private Long id;
+    private String courseCode;
+    private String courseName;
+    private String description;
+    private Integer credits;
+    private Integer maxStudents;
+    private Integer enrolledStudents;
+    private Semester semester;
+    private String academicYear;
+    private Boolean isActive;
+    private Long professorId;
+    private String professorName;
+
+    public static CourseView from(Course course) {
+        User professor = course.getProfessor();
+        return new CourseView(course.getId(), course.getCourseCode(), course.getCourseName(), course.getDescription(),
+                course.getCredits(), course.getMaxStudents(), course.getEnrolledStudents(), course.getSemester(),
+                course.getAcademicYear(), course.getIsActive(),
+                professor != null ? professor.getId() : null,
+                professor != null ? professor.getFullName() : null);
+    }
+}
@@ -0,0 +1,24 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EnrollmentView {
+    private Long id;
+    private Long studentId;
+    private Long courseId;
+    private String courseCode;
+    private EnrollmentStatus status;
+    private LocalDateTime enrolledAt;
+
+    public static EnrollmentView from(Enrollment enrollment) {
+        return new EnrollmentView(enrollment.getId(), enrollment.getStudent().getId(), enrollment.getCourse().getId(),
+                enrollment.getCourse().getCourseCode(), enrollment.getStatus(), enrollment.getEnrolledAt());
+    }
+}
@@ -0,0 +1,16 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One line of a bulk grade submission
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeEntry {
+    private Long enrollmentId;
+    private Integer gradeValue;
+}
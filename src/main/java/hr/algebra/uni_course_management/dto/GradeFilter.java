@@ -0,0 +1,18 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Optional bounds for grade listings; a null bound is not applied, gradedTo is exclusive
+@Getter
+@AllArgsConstructor
+public class GradeFilter {
+    public static final GradeFilter NONE = new GradeFilter(null, null, null, null);
+
+    private Integer minGrade;
+    private Integer maxGrade;
+    private LocalDateTime gradedFrom;
+    private LocalDateTime gradedTo;
+}
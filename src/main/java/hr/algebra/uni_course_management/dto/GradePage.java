@@ -0,0 +1,14 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One keyset page of grades; nextAfterId is null on the last page
+@Getter
+@AllArgsConstructor
+public class GradePage {
+    private List<GradeView> grades;
+    private Long nextAfterId;
+}
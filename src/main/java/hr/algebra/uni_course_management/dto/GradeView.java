@@ -0,0 +1,29 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.Grade;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class GradeView {
+    private Long id;
+    private Long enrollmentId;
+    private Long studentId;
+    private String studentName;
+    private Long courseId;
+    private String courseCode;
+    private Integer gradeValue;
+    private LocalDateTime gradedAt;
+
+    public static GradeView from(Grade grade) {
+        Enrollment enrollment = grade.getEnrollment();
+        return new GradeView(grade.getId(), enrollment.getId(),
+                enrollment.getStudent().getId(), enrollment.getStudent().getFullName(),
+                enrollment.getCourse().getId(), enrollment.getCourse().getCourseCode(),
+                grade.getGradeValue(), grade.getGradedAt());
+    }
+}
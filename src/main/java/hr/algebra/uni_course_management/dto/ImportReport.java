@@ -0,0 +1,16 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private List<ImportRowError> errors;
+}
@@ -0,0 +1,13 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRowError {
+    private long line;
+    private String username;
+    private String courseCode;
+    private String message;
+}
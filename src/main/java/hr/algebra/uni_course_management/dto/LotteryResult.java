@@ -0,0 +1,15 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LotteryResult {
+    private long seed;
+    private int students;
+    private int assigned;
+    private int unassigned;
+    private long allocationMs;
+    private long totalMs;
+}
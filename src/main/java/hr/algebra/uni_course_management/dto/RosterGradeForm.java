@@ -0,0 +1,26 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Grading roster form, bound from grades[enrollmentId] inputs; rows left empty are not submitted
+@Getter
+@Setter
+public class RosterGradeForm {
+    private Map<Long, Integer> grades = new LinkedHashMap<>();
+
+    public List<GradeEntry> toEntries() {
+        List<GradeEntry> entries = new ArrayList<>();
+        grades.forEach((enrollmentId, gradeValue) -> {
+            if (gradeValue != null) {
+                entries.add(new GradeEntry(enrollmentId, gradeValue));
+            }
+        });
+        return entries;
+    }
+}
@@ -0,0 +1,27 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.ScheduleEntry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+@Getter
+@AllArgsConstructor
+public class ScheduleEntryView {
+    private Long id;
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private DayOfWeek dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String room;
+
+    public static ScheduleEntryView from(ScheduleEntry entry) {
+        return new ScheduleEntryView(entry.getId(), entry.getCourse().getId(), entry.getCourse().getCourseCode(),
+                entry.getCourse().getCourseName(), entry.getDayOfWeek(), entry.getStartTime(), entry.getEndTime(),
+                entry.getRoom());
+    }
+}
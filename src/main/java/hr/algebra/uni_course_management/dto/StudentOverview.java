@@ -0,0 +1,18 @@
+package hr.algebra.uni_course_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Sections that could not be loaded in time are null and listed in unavailableSections
+@Getter
+@AllArgsConstructor
+public class StudentOverview {
+    private Long studentId;
+    private List<TranscriptRow> enrollments;
+    private List<GradeView> grades;
+    private List<ScheduleRow> todaySchedule;
+    private List<CourseContentView> upcomingAssignments;
+    private List<String> unavailableSections;
+}
@@ -0,0 +1,29 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import hr.algebra.uni_course_management.model.Semester;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TranscriptRow {
+    private Long enrollmentId;
+    private Long courseId;
+    private String courseCode;
+    private String courseName;
+    private Integer credits;
+    private Semester semester;
+    private String professorName;
+    private boolean courseActive;
+    private EnrollmentStatus status;
+    private LocalDateTime enrolledAt;
+    private Integer gradeValue;
+    private LocalDateTime gradedAt;
+
+    public boolean isGraded() {
+        return gradeValue != null;
+    }
+}
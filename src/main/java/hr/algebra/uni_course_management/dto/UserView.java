@@ -0,0 +1,27 @@
+package hr.algebra.uni_course_management.dto;
+
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// API shape of a user account; never carries the password hash
+@Getter
+@AllArgsConstructor
+public class UserView {
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private UserRole role;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+
+    public static UserView from(User user) {
+        return new UserView(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getRole(), user.getIsActive(), user.getCreatedAt());
+    }
+}
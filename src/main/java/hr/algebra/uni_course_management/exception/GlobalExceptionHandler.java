@@ -1,7 +1,10 @@
 package hr.algebra.uni_course_management.exception;
 
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -45,4 +48,14 @@ public class GlobalExceptionHandler {
         model.addAttribute("errorMessage", ex.getMessage());
         return "error/400";
     }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handlePasswordHashingBusyException(PasswordHashingBusyException ex, HttpServletRequest request,
+                                                     HttpServletResponse response, Model model) {
+        log.warn("Password hashing saturated at URL: {}", request.getRequestURL());
+        response.setHeader(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS);
+        model.addAttribute("errorMessage", ex.getMessage());
+        return "error/500";
+    }
 }
\ No newline at end of file
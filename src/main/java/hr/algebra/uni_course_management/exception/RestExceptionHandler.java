@@ -1,6 +1,8 @@
 package hr.algebra.uni_course_management.exception;
 
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -107,4 +109,18 @@ public class RestExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<?> handlePasswordHashingBusyException(PasswordHashingBusyException ex, WebRequest request) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("timestamp", LocalDateTime.now());
+        error.put("message", ex.getMessage());
+        error.put("path", request.getDescription(false).replace("uri=", ""));
+        error.put("data", null);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, PasswordHashingBusyException.RETRY_AFTER_SECONDS)
+                .body(error);
+    }
 }
\ No newline at end of file
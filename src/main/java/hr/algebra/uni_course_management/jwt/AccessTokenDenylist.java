@@ -0,0 +1,159 @@
+package hr.algebra.uni_course_management.jwt;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked access tokens, by jti or by user and issue time; entries are dropped once the tokens would have expired anyway.
+// Revocations made on other nodes are picked up from revoked_access_token by revoked_at.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessTokenDenylist {
+    private static final int MIN_EXPECTED_ENTRIES = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final String SELECT_REVOCATIONS =
+            "SELECT jti, user_id, issued_before, expires_at, revoked_at FROM revoked_access_token WHERE expires_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // jti -> expiry of the revoked token, epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // user id -> tokens issued before this instant are revoked, epoch millis
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile RevocationBloomFilter bloomFilter =
+            new RevocationBloomFilter(MIN_EXPECTED_ENTRIES, FALSE_POSITIVE_RATE);
+    private final SyncWatermark watermark = new SyncWatermark();
+
+    @Value("${jwt.access-token-expiration}")
+    private Long accessTokenExpiration;
+
+    @Value("${security.state-sync.lookback-ms:30000}")
+    private long syncLookbackMillis;
+
+    // Hot path: no allocation and only hash lookups unless the token or its user was actually revoked
+    public boolean isRevoked(Claims claims, Long userId) {
+        if (!revokedTokens.isEmpty()) {
+            String jti = claims.getId();
+            if (jti != null && bloomFilter.mightContain(jti) && revokedTokens.containsKey(jti)) {
+                return true;
+            }
+        }
+        if (userId != null && !revokedBefore.isEmpty()) {
+            Long cutoff = revokedBefore.get(userId);
+            if (cutoff != null) {
+                return issuedBefore(claims, cutoff);
+            }
+        }
+        return false;
+    }
+
+    public synchronized void revokeToken(String jti, Long userId, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()
+                || revokedTokens.containsKey(jti)) {
+            return;
+        }
+
+        revokedTokens.put(jti, expiresAt.getTime());
+        bloomFilter.add(jti);
+        persist(jti, userId, null, expiresAt.getTime());
+    }
+
+    public synchronized void revokeAllForUser(Long userId) {
+        long cutoff = System.currentTimeMillis();
+        revokedBefore.merge(userId, cutoff, Math::max);
+        persist(null, userId, cutoff, cutoff + accessTokenExpiration);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        revokedTokens.clear();
+        revokedBefore.clear();
+        watermark.reset();
+        jdbcTemplate.query(SELECT_REVOCATIONS, this::apply, new Timestamp(System.currentTimeMillis()));
+        rebuildBloomFilter();
+        log.info("Loaded {} revoked access tokens and {} user revocations", revokedTokens.size(), revokedBefore.size());
+    }
+
+    @Scheduled(initialDelayString = "${security.state-sync.interval-ms:5000}",
+            fixedDelayString = "${security.state-sync.interval-ms:5000}")
+    public synchronized void syncChanges() {
+        jdbcTemplate.query(SELECT_REVOCATIONS + " AND revoked_at > ?", this::apply,
+                new Timestamp(System.currentTimeMillis()), watermark.since(syncLookbackMillis));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        boolean removed = revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + accessTokenExpiration <= now);
+        if (removed) {
+            rebuildBloomFilter();
+        }
+        jdbcTemplate.update("DELETE FROM revoked_access_token WHERE expires_at <= ?", new Timestamp(now));
+    }
+
+    int size() {
+        return revokedTokens.size() + revokedBefore.size();
+    }
+
+    // Tokens carrying the millisecond issue time are compared exactly, so one minted right after the revocation
+    // stays valid. Older tokens only have iat in whole seconds; one issued in the cutoff's second counts as revoked
+    private static boolean issuedBefore(Claims claims, long cutoff) {
+        Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis < cutoff;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutoff / 1000;
+    }
+
+    private void apply(ResultSet rs) throws SQLException {
+        String jti = rs.getString("jti");
+        Timestamp issuedBefore = rs.getTimestamp("issued_before");
+        if (jti != null) {
+            if (revokedTokens.put(jti, rs.getTimestamp("expires_at").getTime()) == null) {
+                bloomFilter.add(jti);
+            }
+        } else if (issuedBefore != null) {
+            revokedBefore.merge(rs.getLong("user_id"), issuedBefore.getTime(), Math::max);
+        }
+        watermark.advance(rs.getTimestamp("revoked_at"));
+    }
+
+    private void rebuildBloomFilter() {
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(
+                Math.max(MIN_EXPECTED_ENTRIES, revokedTokens.size() * 2), FALSE_POSITIVE_RATE);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+
+    private void persist(String jti, Long userId, Long issuedBefore, long expiresAt) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO revoked_access_token (jti, user_id, issued_before, expires_at) VALUES (?, ?, ?, ?)",
+                    jti,
+                    userId,
+                    issuedBefore != null ? new Timestamp(issuedBefore) : null,
+                    new Timestamp(expiresAt)
+            );
+        } catch (DataAccessException e) {
+            // Still enforced in memory; only survival across a restart is lost
+            log.error("Failed to persist access token revocation for user {}", userId, e);
+        }
+    }
+}
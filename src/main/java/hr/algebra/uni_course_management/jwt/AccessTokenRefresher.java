@@ -0,0 +1,101 @@
+package hr.algebra.uni_course_management.jwt;
+
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.service.MyUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Concurrent refreshes of the same refresh token share one mint, and the result is reused for a short grace window
+@Component
+@RequiredArgsConstructor
+public class AccessTokenRefresher {
+    private final RefreshTokenService refreshTokenService;
+    private final MyUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<RefreshedAccessToken>> refreshes = new ConcurrentHashMap<>();
+
+    @Value("${jwt.access-token-expiration}")
+    private Long accessTokenExpiration;
+
+    @Value("${jwt.refresh-coalescing.grace-ms:10000}")
+    private long graceMillis;
+
+    public RefreshedAccessToken refresh(String token) {
+        // Always resolved first, so a logged-out or rotated token never gets a cached access token
+        RefreshTokenEntry entry = refreshTokenService.findByToken(token)
+                .orElseThrow(() -> new RuntimeException("Refresh token not found"));
+
+        CompletableFuture<RefreshedAccessToken> candidate = new CompletableFuture<>();
+        CompletableFuture<RefreshedAccessToken> shared = refreshes.compute(entry.getTokenHash(),
+                (hash, current) -> current != null && isReusable(current) ? current : candidate);
+
+        if (shared != candidate) {
+            meterRegistry.counter("auth.refresh.requests", "result", "coalesced").increment();
+            return await(shared);
+        }
+
+        meterRegistry.counter("auth.refresh.requests", "result", "minted").increment();
+        try {
+            candidate.complete(mint(entry));
+        } catch (RuntimeException e) {
+            refreshes.remove(entry.getTokenHash(), candidate);
+            candidate.completeExceptionally(e);
+        }
+        return await(candidate);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-coalescing.grace-ms:10000}")
+    public void purgeExpired() {
+        refreshes.values().removeIf(future -> !isReusable(future));
+    }
+
+    int size() {
+        return refreshes.size();
+    }
+
+    private RefreshedAccessToken mint(RefreshTokenEntry entry) {
+        refreshTokenService.verifyExpiration(entry);
+
+        // The cached username may since belong to someone else, so only the id identifies the token's owner
+        AuthenticatedUser user = userDetailsService.loadUserById(entry.getUserId());
+        if (!entry.getUserId().equals(user.getId())) {
+            throw new RuntimeException("Refresh token does not belong to this user");
+        }
+
+        Instant issuedAt = Instant.now();
+        String accessToken = jwtUtil.generateAccessToken(user);
+        return new RefreshedAccessToken(user, accessToken, issuedAt, issuedAt.plusMillis(accessTokenExpiration));
+    }
+
+    private boolean isReusable(CompletableFuture<RefreshedAccessToken> future) {
+        if (!future.isDone()) {
+            return true;
+        }
+        if (future.isCompletedExceptionally()) {
+            return false;
+        }
+        return future.join().getIssuedAt().plusMillis(graceMillis).isAfter(Instant.now());
+    }
+
+    private RefreshedAccessToken await(CompletableFuture<RefreshedAccessToken> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package hr.algebra.uni_course_management.jwt;
+
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Users changed on other nodes are picked up from app_user by updated_at
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisabledUserRegistry {
+    private final UserRepository userRepository;
+
+    private final Set<Long> disabledUserIds = ConcurrentHashMap.newKeySet();
+    private final SyncWatermark watermark = new SyncWatermark();
+
+    @Value("${security.state-sync.lookback-ms:30000}")
+    private long syncLookbackMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        watermark.reset();
+        Set<Long> current = Set.copyOf(userRepository.findIdsByIsActiveFalse());
+        disabledUserIds.retainAll(current);
+        disabledUserIds.addAll(current);
+        log.info("Loaded {} disabled user(s) into registry", disabledUserIds.size());
+    }
+
+    @Scheduled(initialDelayString = "${security.state-sync.interval-ms:5000}",
+            fixedDelayString = "${security.state-sync.interval-ms:5000}")
+    public void syncChanges() {
+        for (User user : userRepository.findByUpdatedAtAfter(watermark.since(syncLookbackMillis).toLocalDateTime())) {
+            if (Boolean.FALSE.equals(user.getIsActive())) {
+                disabledUserIds.add(user.getId());
+            } else {
+                disabledUserIds.remove(user.getId());
+            }
+            watermark.advance(user.getUpdatedAt());
+        }
+    }
+
+    public boolean isDisabled(Long userId) {
+        return disabledUserIds.contains(userId);
+    }
+
+    public void markDisabled(Long userId) {
+        disabledUserIds.add(userId);
+    }
+
+    public void markActive(Long userId) {
+        disabledUserIds.remove(userId);
+    }
+}
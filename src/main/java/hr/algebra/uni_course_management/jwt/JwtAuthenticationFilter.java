@@ -1,11 +1,15 @@
 package hr.algebra.uni_course_management.jwt;
 
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,55 +23,96 @@ import java.io.IOException;
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String CLAIMS_ATTRIBUTE = "hr.algebra.uni_course_management.jwt.CLAIMS";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final DisabledUserRegistry disabledUserRegistry;
+    private final AccessTokenDenylist accessTokenDenylist;
+
+    @Value("${jwt.stateless-authentication:false}")
+    private boolean statelessAuthentication;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws IOException, ServletException {
-        log.info("Request URI: {}", request.getRequestURI());
+        log.debug("Request URI: {}", request.getRequestURI());
 
         final String authHeader = request.getHeader("Authorization");
 
-        final String jwt;
-        final String username;
-
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("No Bearer token found, continuing filter chain");
+            log.debug("No Bearer token found, continuing filter chain");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            jwt = authHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
-            log.info("Username extracted from token: {}", username);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (Boolean.FALSE.equals(jwtUtil.isTokenExpired(jwt))) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    log.error("Token is INVALID for user: {}", username);
-                }
+            Claims claims = jwtUtil.parseClaims(authHeader.substring(7));
+            Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+            if (accessTokenDenylist.isRevoked(claims, userId)) {
+                log.debug("Rejected revoked token for user: {}", claims.getSubject());
             } else {
-                if (username == null) {
-                    log.error("Username is NULL from token");
-                }
-                if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                    log.info("User already authenticated");
-                }
+                authenticate(request, claims, userId);
             }
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
         }
     }
-}
\ No newline at end of file
+
+    private void authenticate(HttpServletRequest request, Claims claims, Long userId) {
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        String username = claims.getSubject();
+        log.debug("Username extracted from token: {}", username);
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (statelessAuthentication && userId != null) {
+                authenticateFromClaims(claims, userId, username);
+            } else {
+                authenticateFromUserDetails(claims, username);
+            }
+        } else {
+            if (username == null) {
+                log.error("Username is NULL from token");
+            }
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                log.debug("User already authenticated");
+            }
+        }
+    }
+
+    private void authenticateFromUserDetails(Claims claims, String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtUtil.isTokenExpired(claims)) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        } else {
+            log.error("Token is INVALID for user: {}", username);
+        }
+    }
+
+    private void authenticateFromClaims(Claims claims, Long userId, String username) {
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        boolean active = !Boolean.FALSE.equals(claims.get(JwtUtil.ACTIVE_CLAIM, Boolean.class));
+
+        if (role == null || !active || disabledUserRegistry.isDisabled(userId) || jwtUtil.isTokenExpired(claims)) {
+            log.warn("Rejected stateless token for user: {}", username);
+            return;
+        }
+
+        // Same principal type as the database path, so callers can read the id without another lookup
+        AuthenticatedUser principal = new AuthenticatedUser(userId, username, "", UserRole.valueOf(role), true);
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+}
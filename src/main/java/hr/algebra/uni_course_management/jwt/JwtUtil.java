@@ -1,6 +1,10 @@
 package hr.algebra.uni_course_management.jwt;
 
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,21 +13,53 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ACTIVE_CLAIM = "active";
+    // iat only carries whole seconds; user-wide revocation needs the exact issue time
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.access-token-expiration}")
     private Long accessTokenExpiration;
 
+    // Key and parser are immutable and thread-safe, so they are built once and shared by all requests.
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
+    public Duration getAccessTokenLifetime() {
+        return Duration.ofMillis(accessTokenExpiration);
     }
 
     public String extractUsername(String token) {
@@ -35,14 +71,12 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+    public Claims parseClaims(String token) {
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -51,29 +85,52 @@ public class JwtUtil {
         return extractExpiration(token).before(new Date());
     }
 
+    public boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
+    }
+
     public String generateAccessToken(UserDetails userDetails, String role) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
         return createToken(claims, userDetails.getUsername(), accessTokenExpiration);
     }
 
+    public String generateAccessToken(User user) {
+        return generateAccessToken(user.getId(), user.getUsername(), user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public String generateAccessToken(AuthenticatedUser principal) {
+        return generateAccessToken(principal.getId(), principal.getUsername(), principal.getRole(), principal.isEnabled());
+    }
+
+    private String generateAccessToken(Long userId, String username, UserRole role, boolean active) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, role.name());
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ACTIVE_CLAIM, active);
+        return createToken(claims, username, accessTokenExpiration);
+    }
+
     private String createToken(Map<String, Object> claims, String subject, Long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
                 .signWith(getSigningKey())
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+        Claims claims = parseClaims(token);
+        return claims.get(ROLE_CLAIM, String.class);
     }
-}
\ No newline at end of file
+}
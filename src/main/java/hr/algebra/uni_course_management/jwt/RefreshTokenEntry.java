@@ -0,0 +1,20 @@
+package hr.algebra.uni_course_management.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RefreshTokenEntry {
+    private Long userId;
+    private String username;
+    private String tokenHash;
+    private LocalDateTime expiryDate;
+    private LocalDateTime createdDate;
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiryDate);
+    }
+}
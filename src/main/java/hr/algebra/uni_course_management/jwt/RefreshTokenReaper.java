@@ -0,0 +1,183 @@
+package hr.algebra.uni_course_management.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Deletes expired or revoked refresh_token rows in small id-ordered chunks, backing off while requests pile up.
+// Revoked rows are kept for the state-sync lookback, so every node sees the revocation before the row goes.
+// Runs on its own thread, so the pauses between chunks never hold up the shared @Scheduled thread.
+@Slf4j
+@Component
+public class RefreshTokenReaper {
+    // Separate passes, so each condition walks its own index; an OR of both would scan the table
+    private static final String EXPIRED = "expiry_date < ?";
+    private static final String REVOKED = "revoked_at < ?";
+    private static final String ACTIVE_REQUESTS_METER = "http.server.requests.active";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RefreshTokenStore refreshTokenStore;
+    private final MeterRegistry meterRegistry;
+    private final Counter reapedCounter;
+    private final Counter throttledCounter;
+    private final Timer chunkTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${jwt.refresh-token-reaper.interval-ms:60000}")
+    private long intervalMillis;
+
+    @Value("${jwt.refresh-token-reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${jwt.refresh-token-reaper.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Value("${jwt.refresh-token-reaper.pause-ms:50}")
+    private long pauseMillis;
+
+    @Value("${jwt.refresh-token-reaper.busy-threshold:50}")
+    private int busyThreshold;
+
+    @Value("${security.state-sync.lookback-ms:30000}")
+    private long syncLookbackMillis;
+
+    public RefreshTokenReaper(JdbcTemplate jdbcTemplate, RefreshTokenStore refreshTokenStore, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshTokenStore = refreshTokenStore;
+        this.meterRegistry = meterRegistry;
+        this.reapedCounter = Counter.builder("auth.refresh_token.reaper.reaped").register(meterRegistry);
+        this.throttledCounter = Counter.builder("auth.refresh_token.reaper.throttled").register(meterRegistry);
+        this.chunkTimer = Timer.builder("auth.refresh_token.reaper.chunk").register(meterRegistry);
+        Gauge.builder("auth.refresh_token.reaper.backlog", backlog, AtomicLong::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                reap();
+            } catch (RuntimeException e) {
+                log.error("Refresh token reaper run failed", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int reap() {
+        refreshTokenStore.evictExpired();
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp revokedBefore = new Timestamp(now.getTime() - syncLookbackMillis);
+        Run run = new Run();
+        reapWhere(EXPIRED, now, run);
+        if (run.drained) {
+            reapWhere(REVOKED, revokedBefore, run);
+        }
+
+        // A drained run leaves nothing behind; otherwise the rest is counted, but never beyond one run's worth
+        if (run.drained) {
+            backlog.set(0);
+        } else {
+            int bound = chunkSize * maxChunksPerRun;
+            backlog.set(Math.min(bound, countUpTo(EXPIRED, now, bound) + countUpTo(REVOKED, revokedBefore, bound)));
+        }
+
+        if (run.reaped > 0) {
+            log.info("Reaped {} expired or revoked refresh tokens, {} remaining", run.reaped, backlog.get());
+        }
+        return run.reaped;
+    }
+
+    private void reapWhere(String condition, Timestamp cutoff, Run run) {
+        long lastId = 0;
+        run.drained = false;
+        while (run.chunks < maxChunksPerRun) {
+            if (isBusy()) {
+                throttledCounter.increment();
+                log.debug("Refresh token reaper backing off, server is busy");
+                return;
+            }
+            if (run.chunks > 0 && !pause()) {
+                return;
+            }
+            run.chunks++;
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM refresh_token WHERE id > ? AND " + condition + " ORDER BY id LIMIT ?",
+                    Long.class, lastId, cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                run.drained = true;
+                return;
+            }
+
+            long firstId = ids.get(0);
+            lastId = ids.get(ids.size() - 1);
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM refresh_token WHERE id BETWEEN ? AND ? AND " + condition,
+                    firstId, lastId, cutoff);
+            sample.stop(chunkTimer);
+            reapedCounter.increment(deleted);
+            run.reaped += deleted;
+
+            if (ids.size() < chunkSize) {
+                run.drained = true;
+                return;
+            }
+        }
+    }
+
+    private long countUpTo(String condition, Timestamp cutoff, int limit) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM refresh_token WHERE " + condition + " LIMIT ?)",
+                Long.class, cutoff, limit);
+        return count != null ? count : 0;
+    }
+
+    private boolean isBusy() {
+        LongTaskTimer activeRequests = meterRegistry.find(ACTIVE_REQUESTS_METER).longTaskTimer();
+        return activeRequests != null && activeRequests.activeTasks() >= busyThreshold;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Run {
+        private int chunks;
+        private int reaped;
+        private boolean drained;
+    }
+}
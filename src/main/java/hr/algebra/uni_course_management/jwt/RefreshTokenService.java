@@ -4,7 +4,6 @@ import hr.algebra.uni_course_management.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -14,44 +13,39 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
 
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
-    @Transactional
-    public RefreshToken createRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000));
-        refreshToken.setRevoked(false);
-
-        return refreshTokenRepository.save(refreshToken);
+    // Returns the raw token for the client; only its hash is kept in memory and in refresh_token
+    public String createRefreshToken(Long userId, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+
+        refreshTokenStore.put(new RefreshTokenEntry(
+                userId,
+                username,
+                RefreshTokenStore.hash(token),
+                now.plusSeconds(refreshTokenExpiration / 1000),
+                now
+        ));
+        return token;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public Optional<RefreshTokenEntry> findByToken(String token) {
+        return refreshTokenStore.find(token);
     }
 
-    @Transactional
-    public RefreshToken verifyExpiration(RefreshToken token) {
+    public RefreshTokenEntry verifyExpiration(RefreshTokenEntry token) {
         if (token.isExpired()) {
-            refreshTokenRepository.delete(token);
+            refreshTokenStore.remove(token);
             throw new RuntimeException("Refresh token expired. Please sign in again.");
         }
         return token;
     }
 
-    @Transactional
     public void deleteByUser(User user) {
-        refreshTokenRepository.deleteByUser(user);
-    }
-
-    @Transactional
-    public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        refreshTokenStore.removeForUser(user.getId());
     }
-}
\ No newline at end of file
+}
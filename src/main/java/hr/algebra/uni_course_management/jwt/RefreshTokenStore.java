@@ -0,0 +1,273 @@
+package hr.algebra.uni_course_management.jwt;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Serves refresh-token lookups from memory; changes reach refresh_token in periodic batches. Removed tokens are
+// marked revoked rather than deleted, so other nodes can pick up issued and revoked tokens from the table.
+@Slf4j
+@Component
+public class RefreshTokenStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, RefreshTokenEntry> tokensByHash = new ConcurrentHashMap<>();
+    private final Map<Long, String> hashByUser = new ConcurrentHashMap<>();
+    // Latest state per user waiting to be written; an empty Optional means the user's row should be deleted
+    private final Map<Long, Optional<RefreshTokenEntry>> pendingWrites = new ConcurrentHashMap<>();
+    private final SyncWatermark issuedWatermark = new SyncWatermark();
+    private final SyncWatermark revokedWatermark = new SyncWatermark();
+
+    @Value("${security.state-sync.lookback-ms:30000}")
+    private long syncLookbackMillis;
+
+    public RefreshTokenStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private static final String SELECT_ISSUED = """
+            SELECT rt.user_id, u.username, rt.token, rt.expiry_date, rt.created_date
+            FROM refresh_token rt
+            JOIN app_user u ON u.id = rt.user_id
+            WHERE rt.revoked = FALSE
+            """;
+    private static final RowMapper<RefreshTokenEntry> ENTRY_MAPPER = (rs, rowNum) -> new RefreshTokenEntry(
+            rs.getLong("user_id"),
+            rs.getString("username"),
+            rs.getString("token"),
+            rs.getTimestamp("expiry_date").toLocalDateTime(),
+            rs.getTimestamp("created_date").toLocalDateTime()
+    );
+
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public Optional<RefreshTokenEntry> find(String token) {
+        return Optional.ofNullable(tokensByHash.get(hash(token)));
+    }
+
+    public void put(RefreshTokenEntry entry) {
+        hashByUser.compute(entry.getUserId(), (userId, previousHash) -> {
+            if (previousHash != null) {
+                tokensByHash.remove(previousHash);
+            }
+            tokensByHash.put(entry.getTokenHash(), entry);
+            pendingWrites.put(userId, Optional.of(entry));
+            return entry.getTokenHash();
+        });
+    }
+
+    public void remove(RefreshTokenEntry entry) {
+        hashByUser.computeIfPresent(entry.getUserId(), (userId, currentHash) -> {
+            if (!currentHash.equals(entry.getTokenHash())) {
+                return currentHash;
+            }
+            tokensByHash.remove(currentHash);
+            pendingWrites.put(userId, Optional.empty());
+            return null;
+        });
+    }
+
+    public void removeForUser(Long userId) {
+        hashByUser.compute(userId, (id, currentHash) -> {
+            if (currentHash != null) {
+                tokensByHash.remove(currentHash);
+            }
+            pendingWrites.put(id, Optional.empty());
+            return null;
+        });
+    }
+
+    public int evictExpired() {
+        List<RefreshTokenEntry> expired = tokensByHash.values().stream()
+                .filter(RefreshTokenEntry::isExpired)
+                .toList();
+        expired.forEach(entry -> hashByUser.computeIfPresent(entry.getUserId(), (userId, currentHash) -> {
+            if (!currentHash.equals(entry.getTokenHash())) {
+                return currentHash;
+            }
+            tokensByHash.remove(currentHash);
+            return null;
+        }));
+        return expired.size();
+    }
+
+    public int size() {
+        return tokensByHash.size();
+    }
+
+    public int pendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        issuedWatermark.reset();
+        revokedWatermark.reset();
+        List<RefreshTokenEntry> entries = jdbcTemplate.query(
+                SELECT_ISSUED + " AND rt.expiry_date > ? ORDER BY rt.created_date",
+                ENTRY_MAPPER,
+                Timestamp.valueOf(LocalDateTime.now())
+        );
+
+        tokensByHash.clear();
+        hashByUser.clear();
+        // Ordered by creation, so the newest row wins if a user still has several
+        for (RefreshTokenEntry entry : entries) {
+            String previousHash = hashByUser.put(entry.getUserId(), entry.getTokenHash());
+            if (previousHash != null) {
+                tokensByHash.remove(previousHash);
+            }
+            tokensByHash.put(entry.getTokenHash(), entry);
+        }
+        log.info("Loaded {} refresh tokens into memory", tokensByHash.size());
+    }
+
+    // Rows are flushed after their created_date, so the lookback has to cover the flush interval as well
+    @Scheduled(initialDelayString = "${security.state-sync.interval-ms:5000}",
+            fixedDelayString = "${security.state-sync.interval-ms:5000}")
+    public void syncChanges() {
+        List<RefreshTokenEntry> issued = jdbcTemplate.query(
+                SELECT_ISSUED + " AND rt.created_date > ? ORDER BY rt.created_date",
+                ENTRY_MAPPER,
+                issuedWatermark.since(syncLookbackMillis)
+        );
+        for (RefreshTokenEntry entry : issued) {
+            applyIssued(entry);
+            issuedWatermark.advance(entry.getCreatedDate());
+        }
+
+        jdbcTemplate.query(
+                "SELECT user_id, token, revoked_at FROM refresh_token WHERE revoked_at > ?",
+                rs -> {
+                    applyRevoked(rs.getLong("user_id"), rs.getString("token"));
+                    revokedWatermark.advance(rs.getTimestamp("revoked_at"));
+                },
+                revokedWatermark.since(syncLookbackMillis)
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-store.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Optional<RefreshTokenEntry>> batch = new HashMap<>();
+        for (Long userId : pendingWrites.keySet()) {
+            Optional<RefreshTokenEntry> change = pendingWrites.remove(userId);
+            if (change != null) {
+                batch.put(userId, change);
+            }
+        }
+
+        try {
+            // A user's DELETE and INSERT commit together, so a failed batch never leaves them without a row
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            log.debug("Flushed {} refresh token changes", batch.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to flush {} refresh token changes, will retry", batch.size(), e);
+            // Newer changes queued meanwhile take precedence over the failed batch
+            batch.forEach(pendingWrites::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(Map<Long, Optional<RefreshTokenEntry>> batch) {
+        List<Object[]> revokes = batch.entrySet().stream()
+                .filter(change -> change.getValue().isEmpty())
+                .map(change -> new Object[]{change.getKey()})
+                .toList();
+        if (!revokes.isEmpty()) {
+            jdbcTemplate.batchUpdate("""
+                    UPDATE refresh_token SET revoked = TRUE, revoked_at = CURRENT_TIMESTAMP
+                    WHERE user_id = ? AND revoked = FALSE
+                    """, revokes);
+        }
+
+        List<RefreshTokenEntry> issued = batch.values().stream()
+                .flatMap(Optional::stream)
+                .toList();
+        if (!issued.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM refresh_token WHERE user_id = ?", issued.stream()
+                    .map(entry -> new Object[]{entry.getUserId()})
+                    .toList());
+            // Selecting from app_user skips users deleted before the flush instead of failing the batch
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO refresh_token (token, user_id, expiry_date, created_date, revoked)
+                    SELECT ?, id, ?, ?, FALSE FROM app_user WHERE id = ?
+                    """, issued.stream()
+                    .map(entry -> new Object[]{
+                            entry.getTokenHash(),
+                            Timestamp.valueOf(entry.getExpiryDate()),
+                            Timestamp.valueOf(entry.getCreatedDate()),
+                            entry.getUserId()
+                    })
+                    .toList());
+        }
+    }
+
+    // A token issued elsewhere replaces an older one here, unless this node has a change of its own still queued
+    private void applyIssued(RefreshTokenEntry entry) {
+        if (entry.isExpired()) {
+            return;
+        }
+        hashByUser.compute(entry.getUserId(), (userId, currentHash) -> {
+            if (pendingWrites.containsKey(userId)) {
+                return currentHash;
+            }
+            RefreshTokenEntry current = currentHash != null ? tokensByHash.get(currentHash) : null;
+            if (current != null && !current.getCreatedDate().isBefore(entry.getCreatedDate())) {
+                return currentHash;
+            }
+            if (currentHash != null) {
+                tokensByHash.remove(currentHash);
+            }
+            tokensByHash.put(entry.getTokenHash(), entry);
+            return entry.getTokenHash();
+        });
+    }
+
+    private void applyRevoked(Long userId, String tokenHash) {
+        hashByUser.computeIfPresent(userId, (id, currentHash) -> {
+            if (!currentHash.equals(tokenHash)) {
+                return currentHash;
+            }
+            tokensByHash.remove(currentHash);
+            return null;
+        });
+    }
+}
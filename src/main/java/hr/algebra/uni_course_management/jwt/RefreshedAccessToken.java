@@ -0,0 +1,21 @@
+package hr.algebra.uni_course_management.jwt;
+
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class RefreshedAccessToken {
+    private AuthenticatedUser user;
+    private String accessToken;
+    private Instant issuedAt;
+    private Instant expiresAt;
+
+    public long secondsRemaining() {
+        return Math.max(0, Duration.between(Instant.now(), expiresAt).getSeconds());
+    }
+}
@@ -0,0 +1,30 @@
+package hr.algebra.uni_course_management.jwt;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Newest change time a node has applied from a table. Delta reads start a lookback before it, because a row
+// written by another node can commit after rows stamped later than it; re-reading a row must be harmless.
+public class SyncWatermark {
+    private volatile long appliedUpTo = System.currentTimeMillis();
+
+    public void reset() {
+        appliedUpTo = System.currentTimeMillis();
+    }
+
+    public Timestamp since(long lookbackMillis) {
+        return new Timestamp(appliedUpTo - lookbackMillis);
+    }
+
+    public void advance(Timestamp changedAt) {
+        if (changedAt != null && changedAt.getTime() > appliedUpTo) {
+            appliedUpTo = changedAt.getTime();
+        }
+    }
+
+    public void advance(LocalDateTime changedAt) {
+        if (changedAt != null) {
+            advance(Timestamp.valueOf(changedAt));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package hr.algebra.uni_course_management.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Entity
+@Table(name = "api_key")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "key_prefix", nullable = false)
+    private String keyPrefix;
+
+    @Column(name = "key_hash", nullable = false, unique = true)
+    private String keyHash;
+
+    @Column(name = "role_user", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private UserRole role;
+
+    // Comma-separated Ant-style patterns, e.g. /api/courses/**
+    @Column(name = "allowed_paths", nullable = false)
+    private String allowedPaths;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public List<String> getAllowedPathPatterns() {
+        return Arrays.stream(allowedPaths.split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .toList();
+    }
+}
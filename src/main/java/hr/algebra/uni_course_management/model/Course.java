@@ -36,7 +36,8 @@ public class Course {
     @Column(name = "max_students")
     private Integer maxStudents;
 
-    @Column(name = "enrolled_students")
+    // Maintained only by CourseSeatService's conditional updates, never written back from the entity
+    @Column(name = "enrolled_students", insertable = false, updatable = false)
     private Integer enrolledStudents;
 
     @Enumerated(EnumType.STRING)
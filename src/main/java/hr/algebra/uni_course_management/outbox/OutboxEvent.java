@@ -0,0 +1,30 @@
+package hr.algebra.uni_course_management.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class OutboxEvent {
+    private Long id;
+    private String aggregateType;
+    private Long aggregateId;
+    private OutboxEventType type;
+    private Map<String, Object> payload;
+    private LocalDateTime createdAt;
+    private int attempts;
+
+    // JSON numbers come back as Integer or Long depending on size
+    public Long getLong(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public String getString(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,7 @@
+package hr.algebra.uni_course_management.outbox;
+
+public enum OutboxEventType {
+    STUDENT_ENROLLED,
+    STUDENT_DROPPED,
+    GRADE_ASSIGNED
+}
@@ -0,0 +1,75 @@
+package hr.algebra.uni_course_management.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.algebra.uni_course_management.dto.GradeView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Writes domain events to outbox_event in the caller's transaction, so an event exists exactly when its change committed
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+    public static final String ENROLLMENT = "Enrollment";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String aggregateType, Long aggregateId, OutboxEventType type, Map<String, Object> payload) {
+        jdbcTemplate.update(
+                "INSERT INTO outbox_event (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)",
+                aggregateType, aggregateId, type.name(), toJson(payload));
+    }
+
+    // One STUDENT_ENROLLED event per seated student in a single batch; each row takes its enrollment id from the
+    // enrollment the caller has just written in this transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishEnrollments(Long courseId, Collection<Long> studentIds, String source) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(studentIds.size());
+        for (Long studentId : studentIds) {
+            String payload = toJson(Map.of("studentId", studentId, "courseId", courseId, "source", source));
+            rows.add(new Object[]{ENROLLMENT, OutboxEventType.STUDENT_ENROLLED.name(), payload, courseId, studentId});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO outbox_event (aggregate_type, aggregate_id, event_type, payload)
+                SELECT ?, id, ?, ? FROM enrollment WHERE course_id = ? AND student_id = ?
+                """, rows);
+    }
+
+    // One GRADE_ASSIGNED event per graded enrollment in a single batch, keyed like the single-grade event so both
+    // paths share the enrollment's place in the relay order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishGrades(Collection<GradeView> grades) {
+        if (grades.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(grades.size());
+        for (GradeView grade : grades) {
+            String payload = toJson(Map.of("studentId", grade.getStudentId(), "courseId", grade.getCourseId(),
+                    "gradeValue", grade.getGradeValue()));
+            rows.add(new Object[]{ENROLLMENT, grade.getEnrollmentId(), OutboxEventType.GRADE_ASSIGNED.name(), payload});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO outbox_event (aggregate_type, aggregate_id, event_type, payload) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
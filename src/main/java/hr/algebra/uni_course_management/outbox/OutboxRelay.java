@@ -0,0 +1,201 @@
+package hr.algebra.uni_course_management.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Delivers pending outbox events to the subscribers in id order, a batch at a time. An event is marked published
+// only after every subscriber accepted it, and a failure holds back the later events of the same aggregate until
+// it succeeds or is parked after max-attempts. Only the node holding the job_lease row relays, so each event is
+// delivered by one node and the per-aggregate order holds across the cluster.
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final TypeReference<Map<String, Object>> PAYLOAD = new TypeReference<>() {
+    };
+    static final String LEASE = "outbox-relay";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<OutboxSubscriber> subscribers;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final AtomicLong pending = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+    private boolean leader;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${outbox.relay.lease-ms:30000}")
+    private long leaseMillis;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, List<OutboxSubscriber> subscribers,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.subscribers = subscribers;
+        this.deliveredCounter = Counter.builder("outbox.relay.delivered").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed").register(meterRegistry);
+        Gauge.builder("outbox.relay.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${outbox.relay.interval-ms:500}",
+            fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public synchronized int relay() {
+        if (!holdLease()) {
+            return 0;
+        }
+        Set<String> blocked = new HashSet<>();
+        long lastId = 0;
+        int delivered = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = fetchPending(lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            delivered += deliver(batch, blocked);
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize && holdLease());
+
+        Long left = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_event WHERE published_at IS NULL AND parked = FALSE", Long.class);
+        pending.set(left == null ? 0 : left);
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE published_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        return delivered;
+    }
+
+    // Puts retained events from the given id onwards back in the queue, parked ones included
+    public synchronized int replayFrom(long eventId) {
+        int count = jdbcTemplate.update("""
+                UPDATE outbox_event SET published_at = NULL, parked = FALSE, attempts = 0, last_error = NULL
+                WHERE id >= ?
+                """, eventId);
+        log.info("Outbox replay requeued {} event(s) from id {}", count, eventId);
+        return count;
+    }
+
+    // Lets another node take over right away instead of waiting for the lease to run out
+    @PreDestroy
+    public void releaseLease() {
+        jdbcTemplate.update("UPDATE job_lease SET expires_at = CURRENT_TIMESTAMP WHERE job_name = ? AND owner = ?",
+                LEASE, nodeId);
+    }
+
+    // Takes or renews the lease, which is free once its holder has not renewed it for lease-ms. Times come from
+    // the database clock, so clock drift between nodes cannot hand the lease to two of them
+    private boolean holdLease() {
+        boolean held = jdbcTemplate.update("""
+                UPDATE job_lease SET owner = ?, expires_at = DATEADD(MILLISECOND, CAST(? AS BIGINT), CURRENT_TIMESTAMP)
+                WHERE job_name = ? AND (owner = ? OR expires_at < CURRENT_TIMESTAMP)
+                """, nodeId, leaseMillis, LEASE, nodeId) > 0;
+        if (!held) {
+            try {
+                jdbcTemplate.update("""
+                        INSERT INTO job_lease (job_name, owner, expires_at)
+                        VALUES (?, ?, DATEADD(MILLISECOND, CAST(? AS BIGINT), CURRENT_TIMESTAMP))
+                        """, LEASE, nodeId, leaseMillis);
+                held = true;
+            } catch (DuplicateKeyException e) {
+                held = false;
+            }
+        }
+        if (held != leader) {
+            log.info(held ? "Outbox relay lease taken by node {}" : "Outbox relay lease lost by node {}", nodeId);
+            leader = held;
+        }
+        return held;
+    }
+
+    private List<OutboxEvent> fetchPending(long afterId) {
+        return jdbcTemplate.query("""
+                SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at, attempts
+                FROM outbox_event
+                WHERE published_at IS NULL AND parked = FALSE AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getLong(3),
+                OutboxEventType.valueOf(rs.getString(4)),
+                readPayload(rs.getString(5)),
+                rs.getTimestamp(6).toLocalDateTime(),
+                rs.getInt(7)), afterId, batchSize);
+    }
+
+    private int deliver(List<OutboxEvent> batch, Set<String> blocked) {
+        List<Object[]> published = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            try {
+                for (OutboxSubscriber subscriber : subscribers) {
+                    subscriber.handle(event);
+                }
+                published.add(new Object[]{event.getId()});
+            } catch (RuntimeException e) {
+                blocked.add(aggregate);
+                recordFailure(event, e);
+            }
+        }
+        if (!published.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE outbox_event SET published_at = CURRENT_TIMESTAMP WHERE id = ?", published);
+            deliveredCounter.increment(published.size());
+        }
+        return published.size();
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException e) {
+        failedCounter.increment();
+        int attempts = event.getAttempts() + 1;
+        boolean park = attempts >= maxAttempts;
+        String error = String.valueOf(e.getMessage());
+        jdbcTemplate.update("UPDATE outbox_event SET attempts = ?, last_error = ?, parked = ? WHERE id = ?",
+                attempts, error.length() > 500 ? error.substring(0, 500) : error, park, event.getId());
+        if (park) {
+            log.error("Outbox event {} ({} for {} {}) parked after {} attempts",
+                    event.getId(), event.getType(), event.getAggregateType(), event.getAggregateId(), attempts, e);
+        } else {
+            log.warn("Outbox event {} ({}) failed on attempt {}: {}", event.getId(), event.getType(), attempts, error);
+        }
+    }
+
+    private Map<String, Object> readPayload(String json) {
+        try {
+            return objectMapper.readValue(json, PAYLOAD);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload", e);
+        }
+    }
+}
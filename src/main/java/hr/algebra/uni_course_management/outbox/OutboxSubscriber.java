@@ -0,0 +1,7 @@
+package hr.algebra.uni_course_management.outbox;
+
+// In-process consumer of relayed events. Delivery is at least once, so a handler may see the same event again
+// after a crash or a failure in another subscriber; throwing makes the relay retry the event later.
+public interface OutboxSubscriber {
+    void handle(OutboxEvent event);
+}
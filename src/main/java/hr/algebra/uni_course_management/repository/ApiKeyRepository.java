@@ -0,0 +1,15 @@
+package hr.algebra.uni_course_management.repository;
+
+import hr.algebra.uni_course_management.model.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
+    List<ApiKey> findByIsActiveTrue();
+
+    List<ApiKey> findByCreatedAtAfterOrRevokedAtAfter(LocalDateTime createdAfter, LocalDateTime revokedAfter);
+}
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.repository;
 
+import hr.algebra.uni_course_management.dto.CourseContentView;
 import hr.algebra.uni_course_management.model.ContentType;
 import hr.algebra.uni_course_management.model.CourseContent;
 import org.springframework.data.jpa.repository.Query;
@@ -30,4 +31,26 @@ public interface CourseContentRepository extends CrudRepository<CourseContent, L
 
     @Query("SELECT COUNT(cc) FROM CourseContent cc WHERE cc.course.professor.id = :professorId")
     Long countByProfessorId(@Param("professorId") Long professorId);
-}
\ No newline at end of file
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.CourseContentView(
+                cc.id, cc.course.id, cc.contentType, cc.contentTitle, cc.contentDescription, cc.content, cc.fileUrl,
+                cc.fileName, cc.publishDate, cc.dueDate, cc.isPublished, cc.createdAt, cc.updatedAt)
+            FROM CourseContent cc
+            WHERE cc.course.id = :courseId
+            """)
+    List<CourseContentView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+    // Upcoming assignments of every course the student is enrolled in, soonest first
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.CourseContentView(
+                cc.id, cc.course.id, cc.contentType, cc.contentTitle, cc.contentDescription, cc.content, cc.fileUrl,
+                cc.fileName, cc.publishDate, cc.dueDate, cc.isPublished, cc.createdAt, cc.updatedAt)
+            FROM CourseContent cc, Enrollment e
+            WHERE e.course = cc.course AND e.student.id = :studentId AND e.status = 'ENROLLED'
+              AND cc.contentType = 'ASSIGNMENT' AND cc.dueDate > :now AND cc.isPublished = true
+            ORDER BY cc.dueDate ASC
+            """)
+    List<CourseContentView> findUpcomingAssignmentViewsForStudent(@Param("studentId") Long studentId,
+                                                                  @Param("now") LocalDateTime now);
+}
@@ -1,8 +1,10 @@
 package hr.algebra.uni_course_management.repository;
 
+import hr.algebra.uni_course_management.dto.CourseView;
 import hr.algebra.uni_course_management.model.Course;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +22,24 @@ public interface CourseRepository extends CrudRepository<Course, Long> {
     List<Course> searchByName(String keyword);
 
     boolean existsByCourseCode(String courseCode);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.CourseView(
+                c.id, c.courseCode, c.courseName, c.description, c.credits, c.maxStudents, c.enrolledStudents,
+                c.semester, c.academicYear, c.isActive, p.id,
+                CASE WHEN p.id IS NULL THEN NULL ELSE CONCAT(p.firstName, ' ', p.lastName) END)
+            FROM Course c LEFT JOIN c.professor p
+            ORDER BY c.id
+            """)
+    List<CourseView> findAllViews();
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.CourseView(
+                c.id, c.courseCode, c.courseName, c.description, c.credits, c.maxStudents, c.enrolledStudents,
+                c.semester, c.academicYear, c.isActive, p.id,
+                CASE WHEN p.id IS NULL THEN NULL ELSE CONCAT(p.firstName, ' ', p.lastName) END)
+            FROM Course c LEFT JOIN c.professor p
+            WHERE c.id = :id
+            """)
+    Optional<CourseView> findViewById(@Param("id") Long id);
 }
\ No newline at end of file
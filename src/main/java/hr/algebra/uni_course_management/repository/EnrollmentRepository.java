@@ -4,9 +4,14 @@ import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.EnrollmentStatus;
 import hr.algebra.uni_course_management.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +23,23 @@ public interface EnrollmentRepository extends CrudRepository<Enrollment, Long> {
 
     Optional<Enrollment> findByStudentAndCourseAndStatus(User student, Course course, EnrollmentStatus status);
 
+    // Row lock so concurrent enroll/drop requests for the same student and course cannot both move a seat
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Enrollment e WHERE e.student = :student AND e.course = :course")
+    Optional<Enrollment> lockByStudentAndCourse(@Param("student") User student, @Param("course") Course course);
+
     List<Enrollment> findByStudentAndStatusIn(User student, List<EnrollmentStatus> statuses);
 
     List<Enrollment> findByCourseId(Long courseId);
 
     List<Enrollment> findByStudentId(Long studentId);
+
+    // One grouped query for a set of courses; courses without a matching enrollment are absent from the result
+    @Query("""
+            SELECT e.course.id, COUNT(e) FROM Enrollment e
+            WHERE e.course.id IN :courseIds AND e.status = :status AND e.student.isActive = true
+            GROUP BY e.course.id
+            """)
+    List<Object[]> countByCourseIdsAndStatus(@Param("courseIds") Collection<Long> courseIds,
+                                             @Param("status") EnrollmentStatus status);
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package hr.algebra.uni_course_management.repository;
 
+import hr.algebra.uni_course_management.dto.GradeView;
 import hr.algebra.uni_course_management.model.Grade;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,57 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
 
     @Query("SELECT g FROM Grade g WHERE g.enrollment.course.id = :courseId")
     List<Grade> getGradesForCourse(@Param("courseId") Long courseId);
-}
\ No newline at end of file
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.GradeView(
+                g.id, e.id, s.id, CONCAT(s.firstName, ' ', s.lastName), c.id, c.courseCode, g.gradeValue, g.gradedAt)
+            FROM Grade g JOIN g.enrollment e JOIN e.student s JOIN e.course c
+            WHERE c.id = :courseId
+            ORDER BY g.id
+            """)
+    List<GradeView> findViewsByCourseId(@Param("courseId") Long courseId);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.GradeView(
+                g.id, e.id, s.id, CONCAT(s.firstName, ' ', s.lastName), c.id, c.courseCode, g.gradeValue, g.gradedAt)
+            FROM Grade g JOIN g.enrollment e JOIN e.student s JOIN e.course c
+            WHERE s.id = :studentId
+            ORDER BY g.id
+            """)
+    List<GradeView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+    // Keyset pages: rows after afterId in id order, with optional grade and graded-at bounds (null means unbounded)
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.GradeView(
+                g.id, e.id, s.id, CONCAT(s.firstName, ' ', s.lastName), c.id, c.courseCode, g.gradeValue, g.gradedAt)
+            FROM Grade g JOIN g.enrollment e JOIN e.student s JOIN e.course c
+            WHERE c.id = :courseId AND g.id > :afterId
+              AND (:minGrade IS NULL OR g.gradeValue >= :minGrade) AND (:maxGrade IS NULL OR g.gradeValue <= :maxGrade)
+              AND (:gradedFrom IS NULL OR g.gradedAt >= :gradedFrom) AND (:gradedTo IS NULL OR g.gradedAt < :gradedTo)
+            ORDER BY g.id
+            """)
+    List<GradeView> findViewPageByCourseId(@Param("courseId") Long courseId,
+                                           @Param("afterId") Long afterId,
+                                           @Param("minGrade") Integer minGrade,
+                                           @Param("maxGrade") Integer maxGrade,
+                                           @Param("gradedFrom") LocalDateTime gradedFrom,
+                                           @Param("gradedTo") LocalDateTime gradedTo,
+                                           Pageable page);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.GradeView(
+                g.id, e.id, s.id, CONCAT(s.firstName, ' ', s.lastName), c.id, c.courseCode, g.gradeValue, g.gradedAt)
+            FROM Grade g JOIN g.enrollment e JOIN e.student s JOIN e.course c
+            WHERE s.id = :studentId AND g.id > :afterId
+              AND (:minGrade IS NULL OR g.gradeValue >= :minGrade) AND (:maxGrade IS NULL OR g.gradeValue <= :maxGrade)
+              AND (:gradedFrom IS NULL OR g.gradedAt >= :gradedFrom) AND (:gradedTo IS NULL OR g.gradedAt < :gradedTo)
+            ORDER BY g.id
+            """)
+    List<GradeView> findViewPageByStudentId(@Param("studentId") Long studentId,
+                                            @Param("afterId") Long afterId,
+                                            @Param("minGrade") Integer minGrade,
+                                            @Param("maxGrade") Integer maxGrade,
+                                            @Param("gradedFrom") LocalDateTime gradedFrom,
+                                            @Param("gradedTo") LocalDateTime gradedTo,
+                                            Pageable page);
+}
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.repository;
 
+import hr.algebra.uni_course_management.dto.ScheduleEntryView;
 import hr.algebra.uni_course_management.model.ScheduleEntry;
 import hr.algebra.uni_course_management.model.User;
 import org.springframework.data.jpa.repository.Query;
@@ -18,4 +19,13 @@ public interface ScheduleEntryRepository extends CrudRepository<ScheduleEntry, L
             "WHERE se.course.id IN (SELECT e.course.id FROM Enrollment e WHERE e.student = :student) " +
             "AND se.dayOfWeek = :dayOfWeek")
     List<ScheduleEntry> findByStudentAndDayOfWeek(@Param("student") User student, @Param("dayOfWeek") DayOfWeek dayOfWeek);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.ScheduleEntryView(
+                se.id, c.id, c.courseCode, c.courseName, se.dayOfWeek, se.startTime, se.endTime, se.room)
+            FROM ScheduleEntry se JOIN se.course c
+            WHERE :courseId IS NULL OR c.id = :courseId
+            ORDER BY se.dayOfWeek, se.startTime
+            """)
+    List<ScheduleEntryView> findViews(@Param("courseId") Long courseId);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package hr.algebra.uni_course_management.repository;
 
+import hr.algebra.uni_course_management.dto.UserView;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findIdsByIsActiveFalse();
+
+    List<User> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.UserView(
+                u.id, u.username, u.firstName, u.lastName, u.email, u.role, u.isActive, u.createdAt)
+            FROM User u
+            WHERE :role IS NULL OR u.role = :role
+            ORDER BY u.id
+            """)
+    List<UserView> findViews(@Param("role") UserRole role);
+
+    @Query("""
+            SELECT new hr.algebra.uni_course_management.dto.UserView(
+                u.id, u.username, u.firstName, u.lastName, u.email, u.role, u.isActive, u.createdAt)
+            FROM User u
+            WHERE u.id = :id
+            """)
+    Optional<UserView> findViewById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package hr.algebra.uni_course_management.scheduler;
+
+import hr.algebra.uni_course_management.outbox.OutboxEvent;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxSubscriber;
+import hr.algebra.uni_course_management.repository.CourseRepository;
+import hr.algebra.uni_course_management.repository.GradeRepository;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import hr.algebra.uni_course_management.service.EnrollmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Turns relayed outbox events into the grade and waitlist emails that used to be sent from the services.
+// The mails go out on the relay thread and a failed send fails the event, so the relay retries it
+@Component
+@RequiredArgsConstructor
+public class EmailNotificationSubscriber implements OutboxSubscriber {
+    private final GradeRepository gradeRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EmailService emailService;
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (event.getType() == OutboxEventType.GRADE_ASSIGNED) {
+            gradeRepository.findByEnrollmentId(event.getAggregateId())
+                    .ifPresent(grade -> emailService.sendGradeNotification(grade.getEnrollment().getStudent(), grade));
+        } else if (event.getType() == OutboxEventType.STUDENT_ENROLLED
+                && EnrollmentService.SOURCE_WAITLIST.equals(event.getString("source"))) {
+            userRepository.findById(event.getLong("studentId")).ifPresent(student ->
+                    courseRepository.findById(event.getLong("courseId"))
+                            .ifPresent(course -> emailService.sendWaitlistPromotion(student, course)));
+        }
+    }
+}
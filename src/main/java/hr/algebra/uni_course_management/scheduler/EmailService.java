@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.scheduler;
 
+import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Grade;
 import hr.algebra.uni_course_management.model.ScheduleEntry;
 import hr.algebra.uni_course_management.model.User;
@@ -19,24 +20,25 @@ import java.util.List;
 public class EmailService {
     private final JavaMailSender mailSender;
 
-    @Async
+    // Grade and waitlist mails are sent by the outbox relay: they run on its thread and throw on failure,
+    // so the relay retries the event instead of marking it published
     public void sendGradeNotification(User student, Grade grade) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(student.getEmail());
-            message.setSubject("New grade posted for " + grade.getEnrollment().getCourse().getCourseName());
-            message.setText("Dear " + student.getFirstName() + ",\n\n" +
-                    "A new grade has been posted for your course " + grade.getEnrollment().getCourse().getCourseName() + ".\n" +
-                    "Grade: " + grade.getGradeValue() + "\n\n" +
-                    "Graded on: " + grade.getGradedAt().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")) + "\n\n" +
-                    "Best regards,\n" +
-                    "University Course Management System");
+        mailSender.send(gradeMessage(student, grade));
+        log.info("Grade notification email sent to {}", student.getEmail());
+    }
 
-            mailSender.send(message);
-            log.info("Grade notification email sent to {}", student.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send grade notification email to {}: {}", student.getEmail(), e.getMessage());
-        }
+    public void sendWaitlistPromotion(User student, Course course) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(student.getEmail());
+        message.setSubject("You are now enrolled in " + course.getCourseName());
+        message.setText("Dear " + student.getFirstName() + ",\n\n" +
+                "A seat opened up in " + course.getCourseName() + " (" + course.getCourseCode() + ") " +
+                "and you have been enrolled from the waitlist.\n\n" +
+                "Best regards,\n" +
+                "University Course Management System");
+
+        mailSender.send(message);
+        log.info("Waitlist promotion email sent to {}", student.getEmail());
     }
 
     @Async
@@ -75,4 +77,17 @@ public class EmailService {
             log.error("Failed to send daily schedule email to {}: {}", student.getEmail(), e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private SimpleMailMessage gradeMessage(User student, Grade grade) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(student.getEmail());
+        message.setSubject("New grade posted for " + grade.getEnrollment().getCourse().getCourseName());
+        message.setText("Dear " + student.getFirstName() + ",\n\n" +
+                "A new grade has been posted for your course " + grade.getEnrollment().getCourse().getCourseName() + ".\n" +
+                "Grade: " + grade.getGradeValue() + "\n\n" +
+                "Graded on: " + grade.getGradedAt().format(DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")) + "\n\n" +
+                "Best regards,\n" +
+                "University Course Management System");
+        return message;
+    }
+}
@@ -0,0 +1,62 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.service.ApiKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String PRINCIPAL_PREFIX = "api-key:";
+
+    private final ApiKeyService apiKeyService;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    // Keys are only honoured on the stateless API; the MVC chain stays session-only
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !urlPathHelper.getPathWithinApplication(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws IOException, ServletException {
+        String rawKey = request.getHeader(API_KEY_HEADER);
+
+        if (rawKey != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String path = urlPathHelper.getPathWithinApplication(request);
+            apiKeyService.authenticate(rawKey, path).ifPresentOrElse(apiKey -> {
+                UserDetails principal = User.withUsername(PRINCIPAL_PREFIX + apiKey.getName())
+                        .password("")
+                        .roles(apiKey.getRole().name())
+                        .build();
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.getAuthorities()
+                );
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }, () -> log.warn("Rejected API key for {} {}", request.getMethod(), path));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
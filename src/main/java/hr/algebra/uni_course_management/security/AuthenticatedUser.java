@@ -0,0 +1,31 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.model.UserRole;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+@Getter
+public class AuthenticatedUser extends User {
+    private final Long id;
+    private final UserRole role;
+
+    public AuthenticatedUser(Long id, String username, String password, UserRole role, boolean active) {
+        super(username, password, active, true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.role = role;
+    }
+
+    public static AuthenticatedUser from(hr.algebra.uni_course_management.model.User user) {
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getIsActive())
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.DisabledUserRegistry;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+// Not a @Component: it is only added to the web chain when security.web.stateless-session is enabled
+@RequiredArgsConstructor
+@Slf4j
+public class JwtCookieAuthenticationFilter extends OncePerRequestFilter {
+    private final JwtUtil jwtUtil;
+    private final JwtCookieIssuer jwtCookieIssuer;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final DisabledUserRegistry disabledUserRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws IOException, ServletException {
+        Cookie cookie = WebUtils.getCookie(request, JwtCookieIssuer.COOKIE_NAME);
+
+        if (cookie != null && !cookie.getValue().isEmpty()
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                authenticate(cookie.getValue(), response);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Discarding invalid access token cookie: {}", e.getMessage());
+                jwtCookieIssuer.clear(response);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String token, HttpServletResponse response) {
+        Claims claims = jwtUtil.parseClaims(token);
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+        boolean active = !Boolean.FALSE.equals(claims.get(JwtUtil.ACTIVE_CLAIM, Boolean.class));
+
+        if (userId == null || role == null || !active
+                || disabledUserRegistry.isDisabled(userId)
+                || accessTokenDenylist.isRevoked(claims, userId)) {
+            log.debug("Rejected access token cookie for user: {}", claims.getSubject());
+            jwtCookieIssuer.clear(response);
+            return;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), "", UserRole.valueOf(role), true);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Sliding expiry: once half of the lifetime has passed, silently hand out a fresh token
+        long lifetime = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
+        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+        if (remaining < lifetime / 2) {
+            jwtCookieIssuer.issue(response, principal);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+
+@RequiredArgsConstructor
+public class JwtCookieIssuer {
+    public static final String COOKIE_NAME = "ACCESS_TOKEN";
+
+    private final JwtUtil jwtUtil;
+    private final boolean secure;
+
+    public void issue(HttpServletResponse response, AuthenticatedUser principal) {
+        // exp is kept in whole seconds, so the cookie takes the configured lifetime rather than a value derived from it
+        write(response, jwtUtil.generateAccessToken(principal), jwtUtil.getAccessTokenLifetime());
+    }
+
+    public void clear(HttpServletResponse response) {
+        write(response, "", Duration.ZERO);
+    }
+
+    private void write(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,30 @@
+package hr.algebra.uni_course_management.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+
+import java.io.IOException;
+
+public class JwtCookieLoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
+    private final JwtCookieIssuer jwtCookieIssuer;
+
+    public JwtCookieLoginSuccessHandler(JwtCookieIssuer jwtCookieIssuer, String defaultTargetUrl) {
+        super(defaultTargetUrl);
+        setAlwaysUseDefaultTargetUrl(true);
+        this.jwtCookieIssuer = jwtCookieIssuer;
+    }
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        Authentication authentication) throws IOException, ServletException {
+        if (!(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new IllegalStateException("Unexpected principal type: " + authentication.getPrincipal().getClass());
+        }
+        jwtCookieIssuer.issue(response, principal);
+        super.onAuthenticationSuccess(request, response, authentication);
+    }
+}
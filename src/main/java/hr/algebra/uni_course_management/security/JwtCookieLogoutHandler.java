@@ -0,0 +1,38 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.web.util.WebUtils;
+
+@RequiredArgsConstructor
+@Slf4j
+public class JwtCookieLogoutHandler implements LogoutHandler {
+    private final JwtUtil jwtUtil;
+    private final JwtCookieIssuer jwtCookieIssuer;
+    private final AccessTokenDenylist accessTokenDenylist;
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        Cookie cookie = WebUtils.getCookie(request, JwtCookieIssuer.COOKIE_NAME);
+        if (cookie != null && !cookie.getValue().isEmpty()) {
+            try {
+                // Revoke the token itself so a copied cookie stops working too
+                Claims claims = jwtUtil.parseClaims(cookie.getValue());
+                accessTokenDenylist.revokeToken(claims.getId(),
+                        claims.get(JwtUtil.USER_ID_CLAIM, Long.class), claims.getExpiration());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Ignoring invalid access token cookie on logout: {}", e.getMessage());
+            }
+        }
+        jwtCookieIssuer.clear(response);
+    }
+}
@@ -0,0 +1,35 @@
+package hr.algebra.uni_course_management.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Maps login failures to the login page flags. DaoAuthenticationProvider wraps whatever the user lookup throws
+// (a disabled account included) in InternalAuthenticationServiceException, so that wrapper is unwrapped first.
+public class LoginFailureHandler extends ExceptionMappingAuthenticationFailureHandler {
+    public LoginFailureHandler(boolean allowSessionCreation) {
+        setDefaultFailureUrl("/login?error=true");
+        setExceptionMappings(Map.of(
+                PasswordHashingBusyException.class.getName(), "/login?busy=true",
+                DisabledException.class.getName(), "/login?error=true&disabled=true"));
+        setAllowSessionCreation(allowSessionCreation);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception.getClass() == InternalAuthenticationServiceException.class
+                && exception.getCause() instanceof AuthenticationException cause) {
+            exception = cause;
+        }
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
@@ -0,0 +1,16 @@
+package hr.algebra.uni_course_management.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+// Extends InternalAuthenticationServiceException so ProviderManager rethrows it instead of trying other providers
+public class PasswordHashingBusyException extends InternalAuthenticationServiceException {
+    public static final String RETRY_AFTER_SECONDS = "1";
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
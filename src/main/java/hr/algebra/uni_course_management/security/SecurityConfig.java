@@ -1,9 +1,14 @@
 package hr.algebra.uni_course_management.security;
 
 import hr.algebra.uni_course_management.exception.CustomAccessDeniedHandler;
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.DisabledUserRegistry;
 import hr.algebra.uni_course_management.jwt.JwtAuthenticationEntryPoint;
 import hr.algebra.uni_course_management.jwt.JwtAuthenticationFilter;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -19,7 +24,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 @Configuration
 @RequiredArgsConstructor
@@ -27,13 +34,25 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
     private static final String LOGIN = "/login";
+    private static final String DASHBOARD = "/dashboard";
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Value("${security.web.stateless-session:false}")
+    private boolean statelessWebSession;
+
+    @Value("${security.web.jwt-cookie.secure:false}")
+    private boolean secureJwtCookie;
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${security.password-hashing.pool-size:4}") int poolSize,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -58,20 +77,24 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint)
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(apiKeyAuthenticationFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
     @Order(2)
-    public SecurityFilterChain webSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain webSecurityFilterChain(HttpSecurity http,
+                                                      JwtUtil jwtUtil,
+                                                      AccessTokenDenylist accessTokenDenylist,
+                                                      DisabledUserRegistry disabledUserRegistry) throws Exception {
         http
                 .securityMatcher("/**")
                 .csrf(AbstractHttpConfigurer::disable)
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::disable))
                 .authorizeHttpRequests(request -> request
-                        .requestMatchers(LOGIN, "/dashboard", "/h2-console/**", "/error/**", "/actuator/**").permitAll()
+                        .requestMatchers(LOGIN, DASHBOARD, "/h2-console/**", "/error/**", "/actuator/**").permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/professor/**").hasRole("PROFESSOR")
                         .requestMatchers("/student/**").hasRole("STUDENT")
@@ -82,8 +105,8 @@ public class SecurityConfig {
                 .formLogin(form -> form
                         .loginPage(LOGIN)
                         .loginProcessingUrl(LOGIN)
-                        .defaultSuccessUrl("/dashboard", true)
-                        .failureUrl("/login?error=true")
+                        .defaultSuccessUrl(DASHBOARD, true)
+                        .failureHandler(loginFailureHandler())
                         .permitAll())
                 .logout(logout -> logout
                         .logoutUrl("/logout")
@@ -91,9 +114,28 @@ public class SecurityConfig {
                         .invalidateHttpSession(true)
                         .deleteCookies("JSESSIONID")
                         .permitAll());
+
+        if (statelessWebSession) {
+            // Pages authenticate from a signed JWT cookie, so any node can serve any request
+            var jwtCookieIssuer = new JwtCookieIssuer(jwtUtil, secureJwtCookie);
+            http
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                    .formLogin(form -> form
+                            .successHandler(new JwtCookieLoginSuccessHandler(jwtCookieIssuer, DASHBOARD)))
+                    .logout(logout -> logout
+                            .addLogoutHandler(new JwtCookieLogoutHandler(jwtUtil, jwtCookieIssuer, accessTokenDenylist)))
+                    .addFilterBefore(new JwtCookieAuthenticationFilter(jwtUtil, jwtCookieIssuer,
+                            accessTokenDenylist, disabledUserRegistry), UsernamePasswordAuthenticationFilter.class);
+        }
         return http.build();
     }
 
+    private AuthenticationFailureHandler loginFailureHandler() {
+        // The stateless mode must not open a session just to carry the last login error
+        return new LoginFailureHandler(!statelessWebSession);
+    }
+
     @Bean
     public RoleHierarchy roleHierarchy() {
         var roleHierarchy = new RoleHierarchyImpl();
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.ScheduleEntryView;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.ScheduleEntry;
 import hr.algebra.uni_course_management.repository.CourseRepository;
@@ -16,6 +17,7 @@ import java.util.List;
 public class AdminScheduleService {
     private final ScheduleEntryRepository scheduleEntryRepository;
     private final CourseRepository courseRepository;
+    private final TimetableService timetableService;
 
     private static final String NOT_FOUND = " not found.";
 
@@ -23,6 +25,11 @@ public class AdminScheduleService {
         return scheduleEntryRepository.findAllByOrderByDayOfWeekAscStartTimeAsc();
     }
 
+    // A null course id lists the whole timetable
+    public List<ScheduleEntryView> getScheduleViews(Long courseId) {
+        return scheduleEntryRepository.findViews(courseId);
+    }
+
     public ScheduleEntry getScheduleEntryById(Long id) {
         return scheduleEntryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Schedule entry with ID " + id + NOT_FOUND));
@@ -33,6 +40,7 @@ public class AdminScheduleService {
                 .orElseThrow(() -> new IllegalArgumentException("Course with ID " + courseId + NOT_FOUND));
         scheduleEntry.setCourse(course);
         scheduleEntryRepository.save(scheduleEntry);
+        timetableService.evictAll();
         return scheduleEntry;
     }
 
@@ -48,6 +56,7 @@ public class AdminScheduleService {
         existingEntry.setRoom(updatedEntry.getRoom());
 
         scheduleEntryRepository.save(existingEntry);
+        timetableService.evictAll();
         return existingEntry;
     }
 
@@ -56,5 +65,6 @@ public class AdminScheduleService {
             throw new IllegalArgumentException("Schedule entry with ID " + id + NOT_FOUND);
         }
         scheduleEntryRepository.deleteById(id);
+        timetableService.evictAll();
     }
 }
\ No newline at end of file
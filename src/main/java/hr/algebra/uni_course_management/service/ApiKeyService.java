@@ -0,0 +1,164 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.jwt.SyncWatermark;
+import hr.algebra.uni_course_management.model.ApiKey;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.repository.ApiKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.AntPathMatcher;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyService {
+    public static final String KEY_PREFIX = "ucm_";
+    private static final int KEY_BYTES = 32;
+    private static final int DISPLAY_PREFIX_LENGTH = 12;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ApiKeyRepository apiKeyRepository;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // Active keys by digest; lookups never touch the database
+    private final Map<String, ApiKey> activeKeysByHash = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    // Keys issued or revoked on other nodes are picked up by created_at and revoked_at
+    private final SyncWatermark watermark = new SyncWatermark();
+
+    @Value("${security.api-keys.pepper}")
+    private String pepper;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${security.state-sync.lookback-ms:30000}")
+    private long syncLookbackMillis;
+
+    // Every stored digest depends on the pepper, so it has its own secret; rotating the JWT key must not void the keys
+    @PostConstruct
+    void checkPepper() {
+        if (pepper == null || pepper.isBlank()) {
+            throw new IllegalStateException("security.api-keys.pepper (API_KEY_PEPPER) must be set");
+        }
+        if (pepper.equals(jwtSecret)) {
+            throw new IllegalStateException("security.api-keys.pepper must not reuse jwt.secret");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        watermark.reset();
+        List<ApiKey> activeKeys = apiKeyRepository.findByIsActiveTrue();
+        activeKeysByHash.clear();
+        activeKeys.forEach(key -> activeKeysByHash.put(key.getKeyHash(), key));
+        log.info("Loaded {} active API key(s)", activeKeysByHash.size());
+    }
+
+    @Scheduled(initialDelayString = "${security.state-sync.interval-ms:5000}",
+            fixedDelayString = "${security.state-sync.interval-ms:5000}")
+    public void syncChanges() {
+        LocalDateTime since = watermark.since(syncLookbackMillis).toLocalDateTime();
+        for (ApiKey apiKey : apiKeyRepository.findByCreatedAtAfterOrRevokedAtAfter(since, since)) {
+            if (Boolean.TRUE.equals(apiKey.getIsActive())) {
+                activeKeysByHash.put(apiKey.getKeyHash(), apiKey);
+            } else {
+                activeKeysByHash.remove(apiKey.getKeyHash());
+            }
+            watermark.advance(apiKey.getCreatedAt());
+            watermark.advance(apiKey.getRevokedAt());
+        }
+    }
+
+    public List<ApiKey> findAll() {
+        return apiKeyRepository.findAll();
+    }
+
+    @Transactional
+    public String issue(String name, UserRole role, String allowedPaths) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("API key name is required");
+        }
+        if (role == null) {
+            throw new IllegalArgumentException("API key role is required");
+        }
+        if (allowedPaths == null || allowedPaths.isBlank()) {
+            throw new IllegalArgumentException("At least one allowed path is required");
+        }
+
+        byte[] secret = new byte[KEY_BYTES];
+        secureRandom.nextBytes(secret);
+        String rawKey = KEY_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        ApiKey apiKey = new ApiKey();
+        apiKey.setName(name.trim());
+        apiKey.setKeyPrefix(rawKey.substring(0, DISPLAY_PREFIX_LENGTH));
+        apiKey.setKeyHash(hash(rawKey));
+        apiKey.setRole(role);
+        apiKey.setAllowedPaths(allowedPaths.trim());
+        apiKey.setIsActive(true);
+        ApiKey saved = apiKeyRepository.save(apiKey);
+        activeKeysByHash.put(saved.getKeyHash(), saved);
+        return rawKey;
+    }
+
+    @Transactional
+    public void revoke(Long id) {
+        ApiKey apiKey = apiKeyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("API key not found with id: " + id));
+        apiKey.setIsActive(false);
+        apiKey.setRevokedAt(LocalDateTime.now());
+        apiKeyRepository.save(apiKey);
+        activeKeysByHash.remove(apiKey.getKeyHash());
+    }
+
+    public Optional<ApiKey> authenticate(String rawKey, String path) {
+        if (rawKey == null || !rawKey.startsWith(KEY_PREFIX)) {
+            return Optional.empty();
+        }
+        ApiKey apiKey = activeKeysByHash.get(hash(rawKey));
+        if (apiKey == null) {
+            return Optional.empty();
+        }
+        boolean inScope = apiKey.getAllowedPathPatterns().stream()
+                .anyMatch(pattern -> pathMatcher.match(pattern, path));
+        return inScope ? Optional.of(apiKey) : Optional.empty();
+    }
+
+    String hash(String rawKey) {
+        byte[] digest = macs.get().doFinal(rawKey.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.CourseContentView;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.CourseContent;
 import hr.algebra.uni_course_management.repository.CourseContentRepository;
@@ -22,6 +23,10 @@ public class CourseContentService {
         return courseContentRepository.findByCourseId(courseId);
     }
 
+    public List<CourseContentView> getContentViews(Long courseId) {
+        return courseContentRepository.findViewsByCourseId(courseId);
+    }
+
     public List<CourseContent> getPublishedCourseContents(Long courseId) {
         return courseContentRepository.findByCourseIdAndIsPublishedTrue(courseId);
     }
@@ -0,0 +1,169 @@
+package hr.algebra.uni_course_management.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSeatService {
+    public static final String COURSE_FULL = "Course is full";
+
+    private static final String RESERVE_SEATS_SQL = """
+            UPDATE course
+            SET enrolled_students = COALESCE(enrolled_students, 0) + ?
+            WHERE id = ?
+              AND (max_students IS NULL OR COALESCE(enrolled_students, 0) + ? <= max_students)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // In-memory seat hints per course; the conditional UPDATE on course is the source of truth
+    private final Map<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${enrollment.seat-hint.refresh-ms:1000}")
+    private long hintRefreshMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        String sql = """
+                UPDATE course c
+                SET enrolled_students = (
+                    SELECT COUNT(*) FROM enrollment e
+                    WHERE e.course_id = c.id AND e.status = 'ENROLLED'
+                )
+                """;
+        int courses = jdbcTemplate.update(sql);
+        counters.clear();
+        log.info("Reconciled seat counts for {} course(s)", courses);
+    }
+
+    // Cheap pre-check so requests for a course that is known to be full never take the course row lock
+    public void checkAvailable(Long courseId) {
+        SeatCounter counter = counterFor(courseId);
+        if (counter.isFull() && counter.isStale(hintRefreshMs)) {
+            counter = resync(courseId);
+        }
+        if (counter.isFull()) {
+            throw new IllegalStateException(COURSE_FULL);
+        }
+    }
+
+    public void reserveSeat(Long courseId) {
+        reserveSeats(courseId, 1);
+    }
+
+    public void reserveSeats(Long courseId, int seats) {
+        if (jdbcTemplate.update(RESERVE_SEATS_SQL, seats, courseId, seats) == 0) {
+            resync(courseId);
+            throw new IllegalStateException(COURSE_FULL);
+        }
+        TransactionCallbacks.afterCommit(() -> applyDelta(courseId, seats));
+    }
+
+    // One batched statement for many courses; a full course throws, so the caller's transaction must roll back
+    public void reserveSeats(Map<Long, Integer> seatsByCourse) {
+        List<Long> courseIds = new ArrayList<>(seatsByCourse.keySet());
+        List<Object[]> args = new ArrayList<>(courseIds.size());
+        for (Long courseId : courseIds) {
+            int seats = seatsByCourse.get(courseId);
+            args.add(new Object[]{seats, courseId, seats});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SEATS_SQL, args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                resync(courseIds.get(i));
+                throw new IllegalStateException(COURSE_FULL);
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> seatsByCourse.forEach(this::applyDelta));
+    }
+
+    public void releaseSeat(Long courseId) {
+        releaseSeats(courseId, 1);
+    }
+
+    public void releaseSeats(Long courseId, int seats) {
+        String sql = """
+                UPDATE course
+                SET enrolled_students = enrolled_students - ?
+                WHERE id = ? AND enrolled_students >= ?
+                """;
+        if (jdbcTemplate.update(sql, seats, courseId, seats) == 0) {
+            log.warn("Seat count for course {} was below {} on release", courseId, seats);
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> applyDelta(courseId, -seats));
+    }
+
+    // Counts were rewritten in bulk (semester close); the next check reads them afresh
+    public void clear(Collection<Long> courseIds) {
+        TransactionCallbacks.afterCommit(() -> counters.keySet().removeAll(courseIds));
+    }
+
+    int cachedEnrolled(Long courseId) {
+        SeatCounter counter = counters.get(courseId);
+        return counter == null ? -1 : counter.enrolled();
+    }
+
+    private SeatCounter counterFor(Long courseId) {
+        SeatCounter counter = counters.get(courseId);
+        return counter != null ? counter : resync(courseId);
+    }
+
+    private SeatCounter resync(Long courseId) {
+        String sql = "SELECT max_students, COALESCE(enrolled_students, 0) FROM course WHERE id = ?";
+        SeatCounter fresh = jdbcTemplate.query(sql, rs -> rs.next()
+                ? new SeatCounter((Integer) rs.getObject(1), rs.getInt(2))
+                : new SeatCounter(null, 0), courseId);
+        counters.put(courseId, fresh);
+        return fresh;
+    }
+
+    // Rolled-back reservations must not leak into the hint, so deltas are applied on commit only
+    private void applyDelta(Long courseId, int delta) {
+        SeatCounter counter = counters.get(courseId);
+        if (counter != null) {
+            counter.add(delta);
+        }
+    }
+
+    static final class SeatCounter {
+        private final Integer capacity;
+        private final LongAdder enrolled = new LongAdder();
+        private final long syncedAt = System.currentTimeMillis();
+
+        SeatCounter(Integer capacity, int enrolled) {
+            this.capacity = capacity;
+            this.enrolled.add(enrolled);
+        }
+
+        void add(int delta) {
+            enrolled.add(delta);
+        }
+
+        int enrolled() {
+            return enrolled.intValue();
+        }
+
+        boolean isFull() {
+            return capacity != null && enrolled.sum() >= capacity;
+        }
+
+        boolean isStale(long refreshMs) {
+            return System.currentTimeMillis() - syncedAt >= refreshMs;
+        }
+    }
+}
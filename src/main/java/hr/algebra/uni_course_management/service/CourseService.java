@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.CourseView;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,11 +14,21 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CourseService {
     private final CourseRepository courseRepository;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
 
     public List<Course> getAllCourses() {
         return (List<Course>) courseRepository.findAll();
     }
 
+    public List<CourseView> getCourseViews() {
+        return courseRepository.findAllViews();
+    }
+
+    public CourseView getCourseView(Long id) {
+        return courseRepository.findViewById(id).orElseThrow(() -> new IllegalArgumentException("Invalid course ID: " + id));
+    }
+
     public List<Course> getActiveCourses() {
         return courseRepository.findByIsActiveTrue();
     }
@@ -50,11 +61,15 @@ public class CourseService {
         existingCourse.setProfessor(updatedCourse.getProfessor());
 
         courseRepository.save(existingCourse);
+        transcriptService.evictAll();
+        timetableService.evictAll();
         return existingCourse;
     }
 
     public void deleteCourse(Long id) {
         Course existingCourse = getCourseById(id);
         courseRepository.delete(existingCourse);
+        transcriptService.evictAll();
+        timetableService.evictAll();
     }
 }
\ No newline at end of file
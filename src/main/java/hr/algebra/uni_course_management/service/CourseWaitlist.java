@@ -0,0 +1,119 @@
+package hr.algebra.uni_course_management.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// In-memory mirror of one course's waitlist. Tickets are the persisted positions; a Fenwick tree over
+// ticket slots answers "how many are ahead of me" in O(log n), and leaving from anywhere is O(log n) too
+final class CourseWaitlist {
+    private static final int MIN_CAPACITY = 16;
+
+    private final Map<Long, Long> ticketByStudent = new HashMap<>();
+    private long base = 1;
+    private long lastTicket;
+    private int head;
+    private int[] tree = new int[MIN_CAPACITY + 1];
+    private boolean[] occupied = new boolean[MIN_CAPACITY];
+    // Running sums compared with the table by the sync, so only courses changed elsewhere are reloaded
+    private long studentSum;
+    private long weightedSum;
+
+    synchronized boolean contains(long studentId) {
+        return ticketByStudent.containsKey(studentId);
+    }
+
+    synchronized int size() {
+        return ticketByStudent.size();
+    }
+
+    synchronized Signature signature() {
+        return new Signature(ticketByStudent.size(), studentSum, weightedSum);
+    }
+
+    synchronized void add(long ticket, long studentId) {
+        if (ticketByStudent.containsKey(studentId)) {
+            return;
+        }
+        lastTicket = Math.max(lastTicket, ticket);
+        if (ticketByStudent.isEmpty()) {
+            base = ticket;
+            head = 0;
+        } else if (ticket < base || ticket - base >= occupied.length) {
+            rebuild(Math.min(base + head, ticket), Math.max(ticket, lastTicket));
+        }
+        ticketByStudent.put(studentId, ticket);
+        studentSum += studentId;
+        weightedSum += studentId * ticket;
+        int slot = (int) (ticket - base);
+        occupied[slot] = true;
+        update(slot, 1);
+        head = Math.min(head, slot);
+    }
+
+    synchronized boolean remove(long studentId) {
+        Long ticket = ticketByStudent.remove(studentId);
+        if (ticket == null) {
+            return false;
+        }
+        studentSum -= studentId;
+        weightedSum -= studentId * ticket;
+        int slot = (int) (ticket - base);
+        occupied[slot] = false;
+        update(slot, -1);
+        while (head < occupied.length && !occupied[head]) {
+            head++;
+        }
+        // Keep the arrays proportional to the waiting span rather than to every ticket ever issued
+        if (capacityFor(base + head, lastTicket) < occupied.length) {
+            rebuild(base + head, lastTicket);
+        }
+        return true;
+    }
+
+    // 1-based position, or 0 when the student is not waiting
+    synchronized int position(long studentId) {
+        Long ticket = ticketByStudent.get(studentId);
+        return ticket == null ? 0 : prefix((int) (ticket - base) + 1);
+    }
+
+    private void rebuild(long newBase, long maxTicket) {
+        int capacity = capacityFor(newBase, maxTicket);
+        base = newBase;
+        tree = new int[capacity + 1];
+        occupied = new boolean[capacity];
+        head = capacity;
+        for (long ticket : ticketByStudent.values()) {
+            int slot = (int) (ticket - base);
+            occupied[slot] = true;
+            update(slot, 1);
+            head = Math.min(head, slot);
+        }
+    }
+
+    // Twice the span so a burst of joins does not trigger a rebuild per ticket
+    private static int capacityFor(long firstTicket, long lastTicket) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * (lastTicket - firstTicket + 1)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefix(int slots) {
+        int sum = 0;
+        for (int i = slots; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Waiting count, sum of student ids and sum of student id * ticket; equal to the table's when in sync
+    record Signature(int size, long studentSum, long weightedSum) {
+    }
+}
@@ -0,0 +1,374 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Registration-day burst mode: enrollments are queued per course and committed in groups. Each request is also
+// recorded in enrollment_request and its outcome written in the group's transaction, so a poll that reaches
+// another node still finds it
+@Slf4j
+@Service
+public class EnrollmentBatcher {
+    private static final String COURSE_NOT_FOUND = "Course not found";
+    private static final String STUDENT_NOT_FOUND = "Student not found";
+    private static final String ALREADY_ENROLLED = "Student is already enrolled in this course";
+    private static final String INACTIVE_COURSE = "Cannot enroll in inactive course";
+    private static final String RECORD_OUTCOME_SQL = """
+            UPDATE enrollment_request SET status = ?, message = ?, completed_at = CURRENT_TIMESTAMP WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseSeatService courseSeatService;
+    private final WaitlistService waitlistService;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final OutboxPublisher outboxPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMs;
+    private final int queueCapacity;
+    private final long waitMs;
+    private final long resultTtlMs;
+
+    private final Map<Long, CourseQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, EnrollmentRequest> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ScheduledThreadPoolExecutor executor;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter enrolledCounter;
+    private final Counter rejectedCounter;
+
+    public EnrollmentBatcher(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             CourseSeatService courseSeatService,
+                             WaitlistService waitlistService,
+                             TranscriptService transcriptService,
+                             TimetableService timetableService,
+                             OutboxPublisher outboxPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${enrollment.burst-mode.enabled:false}") boolean enabled,
+                             @Value("${enrollment.burst-mode.batch-size:50}") int batchSize,
+                             @Value("${enrollment.burst-mode.linger-ms:5}") long lingerMs,
+                             @Value("${enrollment.burst-mode.worker-threads:4}") int workerThreads,
+                             @Value("${enrollment.burst-mode.queue-capacity:10000}") int queueCapacity,
+                             @Value("${enrollment.burst-mode.wait-ms:2000}") long waitMs,
+                             @Value("${enrollment.burst-mode.result-ttl-ms:300000}") long resultTtlMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.courseSeatService = courseSeatService;
+        this.waitlistService = waitlistService;
+        this.transcriptService = transcriptService;
+        this.timetableService = timetableService;
+        this.outboxPublisher = outboxPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.queueCapacity = queueCapacity;
+        this.waitMs = waitMs;
+        this.resultTtlMs = resultTtlMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("enrollment.burst.queue.depth", pendingCount, AtomicInteger::get).register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("enrollment.burst.batch.size").register(meterRegistry);
+        this.enrolledCounter = Counter.builder("enrollment.burst.requests").tag("result", "enrolled").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("enrollment.burst.requests").tag("result", "rejected").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public EnrollmentRequest submit(Long studentId, Long courseId) {
+        if (pendingCount.incrementAndGet() > queueCapacity) {
+            pendingCount.decrementAndGet();
+            throw new EnrollmentQueueFullException();
+        }
+
+        EnrollmentRequest request = new EnrollmentRequest(studentId, courseId);
+        try {
+            courseSeatService.checkAvailable(courseId);
+        } catch (IllegalStateException e) {
+            pendingCount.decrementAndGet();
+            reject(request, e.getMessage());
+        }
+        try {
+            // Written before the request is queued, so its group commit always finds the row to update
+            record(request);
+        } catch (RuntimeException e) {
+            if (request.getStatus() == EnrollmentRequest.Status.PENDING) {
+                pendingCount.decrementAndGet();
+            }
+            throw e;
+        }
+        requests.put(request.getId(), request);
+        if (request.getStatus() != EnrollmentRequest.Status.PENDING) {
+            return request;
+        }
+
+        CourseQueue queue = queues.computeIfAbsent(courseId, id -> new CourseQueue());
+        queue.pending.add(request);
+        if (queue.scheduled.compareAndSet(false, true)) {
+            // A short linger lets the first group of a spike fill up before it is committed
+            executor.schedule(() -> drain(courseId, queue), lingerMs, TimeUnit.MILLISECONDS);
+        }
+        return request;
+    }
+
+    // Upper bound for any caller-requested wait, so a request cannot hold a servlet thread for longer
+    public long getMaxWaitMs() {
+        return waitMs;
+    }
+
+    public EnrollmentRequest submitAndWait(Long studentId, Long courseId) throws InterruptedException {
+        return submit(studentId, courseId).await(waitMs);
+    }
+
+    // Requests accepted by this node are answered from memory, any other from enrollment_request
+    public Optional<EnrollmentRequest> find(String requestId) {
+        EnrollmentRequest local = requests.get(requestId);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        return jdbcTemplate.query("""
+                SELECT student_id, course_id, submitted_at, status, message, completed_at
+                FROM enrollment_request WHERE id = ?
+                """, rs -> rs.next()
+                ? Optional.of(EnrollmentRequest.restore(requestId, rs.getLong(1), rs.getLong(2),
+                rs.getTimestamp(3).getTime(), EnrollmentRequest.Status.valueOf(rs.getString(4)), rs.getString(5),
+                rs.getTimestamp(6) == null ? 0 : rs.getTimestamp(6).getTime()))
+                : Optional.empty(), requestId);
+    }
+
+    // Requests settle within seconds of submission, so rows are aged by submission time; that also clears
+    // requests that were still queued on a node that went down
+    @Scheduled(fixedDelayString = "${enrollment.burst-mode.result-ttl-ms:300000}")
+    public void purgeCompleted() {
+        long cutoff = System.currentTimeMillis() - resultTtlMs;
+        requests.values().removeIf(request -> request.getStatus() != EnrollmentRequest.Status.PENDING
+                && request.getCompletedAt() < cutoff);
+        jdbcTemplate.update("DELETE FROM enrollment_request WHERE submitted_at < ?", new Timestamp(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        List<EnrollmentRequest> abandoned = new ArrayList<>();
+        queues.values().forEach(queue -> {
+            EnrollmentRequest request;
+            while ((request = queue.pending.poll()) != null) {
+                abandoned.add(request);
+            }
+        });
+        rejectAll(abandoned, "Server is shutting down. Please try again.");
+    }
+
+    private void drain(Long courseId, CourseQueue queue) {
+        List<EnrollmentRequest> group = new ArrayList<>(batchSize);
+        EnrollmentRequest next;
+        while (group.size() < batchSize && (next = queue.pending.poll()) != null) {
+            group.add(next);
+        }
+        if (!group.isEmpty()) {
+            pendingCount.addAndGet(-group.size());
+            commitGroup(courseId, group);
+        }
+
+        if (!queue.pending.isEmpty()) {
+            executor.execute(() -> drain(courseId, queue));
+            return;
+        }
+        queue.scheduled.set(false);
+        // Requests added between the last poll and the flag reset must not be stranded
+        if (!queue.pending.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(courseId, queue));
+        }
+    }
+
+    void commitGroup(Long courseId, List<EnrollmentRequest> group) {
+        batchSizeSummary.record(group.size());
+        Map<EnrollmentRequest, String> rejections = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rejections.clear();
+                rejections.putAll(applyGroup(courseId, group));
+                recordOutcomes(group, rejections::get);
+            });
+        } catch (RuntimeException e) {
+            log.error("Enrollment group for course {} failed", courseId, e);
+            rejectAll(group, "Enrollment failed: " + e.getMessage());
+            return;
+        }
+        for (EnrollmentRequest request : group) {
+            String reason = rejections.get(request);
+            if (reason == null) {
+                request.enrolled();
+                enrolledCounter.increment();
+            } else {
+                reject(request, reason);
+            }
+        }
+    }
+
+    // Locks in the same order as EnrollmentService (enrollment rows, then the course row) and writes with batched statements
+    private Map<EnrollmentRequest, String> applyGroup(Long courseId, List<EnrollmentRequest> group) {
+        List<Long> studentIds = group.stream().map(EnrollmentRequest::getStudentId).distinct().toList();
+        String placeholders = String.join(",", Collections.nCopies(studentIds.size(), "?"));
+        List<Object> args = new ArrayList<>();
+        args.add(courseId);
+        args.addAll(studentIds);
+
+        Map<Long, String> existingStatus = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, status FROM enrollment WHERE course_id = ? AND student_id IN (" + placeholders + ") FOR UPDATE",
+                rs -> {
+                    existingStatus.put(rs.getLong(1), rs.getString(2));
+                }, args.toArray());
+        Set<Long> knownStudents = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM app_user WHERE id IN (" + placeholders + ")", Long.class, studentIds.toArray()));
+        List<Map<String, Object>> courseRows = jdbcTemplate.queryForList(
+                "SELECT is_active, max_students, COALESCE(enrolled_students, 0) AS enrolled FROM course WHERE id = ? FOR UPDATE",
+                courseId);
+
+        Map<EnrollmentRequest, String> rejections = new HashMap<>();
+        if (courseRows.isEmpty()) {
+            group.forEach(request -> rejections.put(request, COURSE_NOT_FOUND));
+            return rejections;
+        }
+        Map<String, Object> course = courseRows.get(0);
+        if (Boolean.FALSE.equals(course.get("IS_ACTIVE"))) {
+            group.forEach(request -> rejections.put(request, INACTIVE_COURSE));
+            return rejections;
+        }
+        Integer capacity = (Integer) course.get("MAX_STUDENTS");
+        int enrolled = ((Number) course.get("ENROLLED")).intValue();
+
+        Map<Long, String> clashes = new HashMap<>();
+        timetableService.occupancies(studentIds).forEach((studentId, occupancy) -> {
+            String clash = "ENROLLED".equals(existingStatus.get(studentId))
+                    ? null : timetableService.clashReason(studentId, occupancy, courseId);
+            if (clash != null) {
+                clashes.put(studentId, clash);
+            }
+        });
+        Set<Long> accepted = new HashSet<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (EnrollmentRequest request : group) {
+            Long studentId = request.getStudentId();
+            if (!knownStudents.contains(studentId)) {
+                rejections.put(request, STUDENT_NOT_FOUND);
+            } else if (accepted.contains(studentId) || "ENROLLED".equals(existingStatus.get(studentId))) {
+                rejections.put(request, ALREADY_ENROLLED);
+            } else if (clashes.containsKey(studentId)) {
+                rejections.put(request, clashes.get(studentId));
+            } else if (capacity != null && enrolled + accepted.size() >= capacity) {
+                rejections.put(request, CourseSeatService.COURSE_FULL);
+            } else {
+                accepted.add(studentId);
+                if (existingStatus.containsKey(studentId)) {
+                    updates.add(new Object[]{courseId, studentId});
+                } else {
+                    inserts.add(new Object[]{studentId, courseId});
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO enrollment (student_id, course_id, enrolled_at, status) VALUES (?, ?, CURRENT_TIMESTAMP, 'ENROLLED')",
+                    inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE enrollment SET status = 'ENROLLED' WHERE course_id = ? AND student_id = ?",
+                    updates);
+        }
+        if (!accepted.isEmpty()) {
+            courseSeatService.reserveSeats(courseId, accepted.size());
+            waitlistService.remove(courseId, accepted);
+            transcriptService.evict(accepted);
+            timetableService.recordEnrollments(courseId, accepted);
+            outboxPublisher.publishEnrollments(courseId, accepted, EnrollmentService.SOURCE_DIRECT);
+        }
+        return rejections;
+    }
+
+    private void reject(EnrollmentRequest request, String reason) {
+        request.rejected(reason);
+        rejectedCounter.increment();
+    }
+
+    // Outside any group transaction; a failed write only costs other nodes the answer to a poll
+    private void rejectAll(List<EnrollmentRequest> group, String reason) {
+        group.forEach(request -> reject(request, reason));
+        try {
+            recordOutcomes(group, request -> reason);
+        } catch (RuntimeException e) {
+            log.warn("Could not record the outcome of {} enrollment request(s): {}", group.size(), e.getMessage());
+        }
+    }
+
+    private void record(EnrollmentRequest request) {
+        jdbcTemplate.update("""
+                INSERT INTO enrollment_request (id, student_id, course_id, status, message, submitted_at, completed_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, request.getId(), request.getStudentId(), request.getCourseId(), request.getStatus().name(),
+                request.getMessage(), new Timestamp(request.getSubmittedAt()),
+                request.getCompletedAt() == 0 ? null : new Timestamp(request.getCompletedAt()));
+    }
+
+    // A null rejection reason means the request was enrolled
+    private void recordOutcomes(List<EnrollmentRequest> group, Function<EnrollmentRequest, String> rejections) {
+        List<Object[]> rows = new ArrayList<>(group.size());
+        for (EnrollmentRequest request : group) {
+            String reason = rejections.apply(request);
+            rows.add(reason == null
+                    ? new Object[]{EnrollmentRequest.Status.ENROLLED.name(), EnrollmentRequest.ENROLLED_MESSAGE, request.getId()}
+                    : new Object[]{EnrollmentRequest.Status.REJECTED.name(),
+                    reason.length() > 500 ? reason.substring(0, 500) : reason, request.getId()});
+        }
+        jdbcTemplate.batchUpdate(RECORD_OUTCOME_SQL, rows);
+    }
+
+    private static final class CourseQueue {
+        private final ConcurrentLinkedQueue<EnrollmentRequest> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,291 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import hr.algebra.uni_course_management.dto.ImportRowError;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Registrar CSV imports (username,course_code per line): streamed line by line and written in bounded chunks
+@Slf4j
+@Service
+public class EnrollmentImportService {
+    static final String MALFORMED_ROW = "Expected username,course_code";
+    static final String STUDENT_NOT_FOUND = "Student not found";
+    static final String INACTIVE_STUDENT = "Student account is inactive";
+    static final String COURSE_NOT_FOUND = "Course not found";
+    static final String INACTIVE_COURSE = "Cannot enroll in inactive course";
+    static final String DUPLICATE_ROW = "Duplicate of an earlier row";
+    static final String ALREADY_ENROLLED = "Student is already enrolled in this course";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseSeatService courseSeatService;
+    private final WaitlistService waitlistService;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final OutboxPublisher outboxPublisher;
+    private final int chunkSize;
+
+    public EnrollmentImportService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   CourseSeatService courseSeatService,
+                                   WaitlistService waitlistService,
+                                   TranscriptService transcriptService,
+                                   TimetableService timetableService,
+                                   OutboxPublisher outboxPublisher,
+                                   @Value("${enrollment.import.chunk-size:5000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.courseSeatService = courseSeatService;
+        this.waitlistService = waitlistService;
+        this.transcriptService = transcriptService;
+        this.timetableService = timetableService;
+        this.outboxPublisher = outboxPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    // Each chunk commits on its own, so a failed chunk is reported row by row without undoing the rest
+    public ImportReport importCsv(InputStream input) throws IOException {
+        long started = System.currentTimeMillis();
+        Map<String, Ref> students = loadRefs("SELECT username, id, is_active FROM app_user WHERE role_user = 'STUDENT'");
+        Map<String, Ref> courses = loadRefs("SELECT course_code, id, is_active FROM course");
+
+        Set<Long> seenPairs = new HashSet<>();
+        List<ImportRowError> errors = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        long imported = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    line = line.replace("\uFEFF", "");
+                    if (line.trim().toLowerCase().startsWith("username")) {
+                        continue;
+                    }
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                rows++;
+                Row row = resolve(lineNumber, line, students, courses, seenPairs, errors);
+                if (row != null) {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        imported += writeChunk(chunk, errors);
+                        chunk.clear();
+                    }
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += writeChunk(chunk, errors);
+        }
+
+        errors.sort(Comparator.comparingLong(ImportRowError::getLine));
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Enrollment import: {} of {} row(s) imported in {} ms", imported, rows, durationMs);
+        return new ImportReport(rows, imported, rows - imported, durationMs, errors);
+    }
+
+    private Row resolve(long lineNumber, String line, Map<String, Ref> students, Map<String, Ref> courses,
+                        Set<Long> seenPairs, List<ImportRowError> errors) {
+        String[] fields = line.split(",", -1);
+        String username = fields.length > 0 ? unquote(fields[0]) : "";
+        String courseCode = fields.length > 1 ? unquote(fields[1]) : "";
+        Row row = new Row(lineNumber, username, courseCode);
+
+        if (fields.length != 2 || username.isEmpty() || courseCode.isEmpty()) {
+            errors.add(row.error(MALFORMED_ROW));
+            return null;
+        }
+        Ref student = students.get(username);
+        if (student == null) {
+            errors.add(row.error(STUDENT_NOT_FOUND));
+            return null;
+        }
+        if (!student.active) {
+            errors.add(row.error(INACTIVE_STUDENT));
+            return null;
+        }
+        Ref course = courses.get(courseCode);
+        if (course == null) {
+            errors.add(row.error(COURSE_NOT_FOUND));
+            return null;
+        }
+        if (!course.active) {
+            errors.add(row.error(INACTIVE_COURSE));
+            return null;
+        }
+        if (!seenPairs.add(pairKey(student.id, course.id))) {
+            errors.add(row.error(DUPLICATE_ROW));
+            return null;
+        }
+        row.studentId = student.id;
+        row.courseId = course.id;
+        return row;
+    }
+
+    private int writeChunk(List<Row> chunk, List<ImportRowError> errors) {
+        Map<Row, String> rejections = new HashMap<>();
+        int[] accepted = new int[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rejections.clear();
+                accepted[0] = applyChunk(chunk, rejections);
+            });
+        } catch (RuntimeException e) {
+            log.error("Enrollment import chunk starting at line {} failed", chunk.get(0).line, e);
+            chunk.forEach(row -> errors.add(row.error("Import failed: " + e.getMessage())));
+            return 0;
+        }
+        rejections.forEach((row, message) -> errors.add(row.error(message)));
+        return accepted[0];
+    }
+
+    // Locks in the same order as EnrollmentService (enrollment rows, then course rows) and writes with batched statements
+    private int applyChunk(List<Row> chunk, Map<Row, String> rejections) {
+        List<Long> studentIds = chunk.stream().map(row -> row.studentId).distinct().toList();
+        List<Long> courseIds = chunk.stream().map(row -> row.courseId).distinct().sorted().toList();
+
+        // uq_enr_student_course allows one row per pair, so existing rows are reactivated rather than inserted.
+        // Filtering on student_id alone walks the unique index prefix; adding a course_id list made H2 scan instead.
+        Map<Long, String> existingStatus = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, course_id, status FROM enrollment WHERE student_id IN ("
+                        + placeholders(studentIds.size()) + ") FOR UPDATE",
+                rs -> {
+                    existingStatus.put(pairKey(rs.getLong(1), rs.getLong(2)), rs.getString(3));
+                }, studentIds.toArray());
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        jdbcTemplate.query("SELECT id, max_students, COALESCE(enrolled_students, 0) FROM course WHERE id IN ("
+                        + placeholders(courseIds.size()) + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                    Integer max = (Integer) rs.getObject(2);
+                    remaining.put(rs.getLong(1), max == null ? Integer.MAX_VALUE : Math.max(0, max - rs.getInt(3)));
+                }, courseIds.toArray());
+
+        // Rows accepted earlier in the file count towards the student's timetable for the rows after them
+        Map<Long, WeeklyOccupancy> occupancies = timetableService.occupancies(studentIds);
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Map<Long, List<Long>> seated = new HashMap<>();
+        for (Row row : chunk) {
+            String status = existingStatus.get(pairKey(row.studentId, row.courseId));
+            int seatsLeft = remaining.getOrDefault(row.courseId, 0);
+            String rejection = "ENROLLED".equals(status)
+                    ? ALREADY_ENROLLED
+                    : timetableService.clashReason(row.studentId, occupancies.get(row.studentId), row.courseId);
+            if (rejection == null && seatsLeft <= 0) {
+                rejection = CourseSeatService.COURSE_FULL;
+            }
+            if (rejection != null) {
+                rejections.put(row, rejection);
+            } else {
+                occupancies.computeIfPresent(row.studentId, (id, occupancy) -> timetableService.withCourse(occupancy, row.courseId));
+                remaining.put(row.courseId, seatsLeft - 1);
+                seated.computeIfAbsent(row.courseId, id -> new ArrayList<>()).add(row.studentId);
+                if (status != null) {
+                    updates.add(new Object[]{row.courseId, row.studentId});
+                } else {
+                    inserts.add(new Object[]{row.studentId, row.courseId});
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO enrollment (student_id, course_id, enrolled_at, status) VALUES (?, ?, CURRENT_TIMESTAMP, 'ENROLLED')",
+                    inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE enrollment SET status = 'ENROLLED' WHERE course_id = ? AND student_id = ?",
+                    updates);
+        }
+        if (!seated.isEmpty()) {
+            Map<Long, Integer> seats = new HashMap<>();
+            seated.forEach((courseId, students) -> seats.put(courseId, students.size()));
+            courseSeatService.reserveSeats(seats);
+            seated.forEach(waitlistService::remove);
+            seated.forEach(timetableService::recordEnrollments);
+            seated.forEach((courseId, students) ->
+                    outboxPublisher.publishEnrollments(courseId, students, EnrollmentService.SOURCE_IMPORT));
+            transcriptService.evict(studentIds);
+        }
+        return inserts.size() + updates.size();
+    }
+
+    private Map<String, Ref> loadRefs(String sql) {
+        Map<String, Ref> refs = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            refs.putIfAbsent(rs.getString(1), new Ref(rs.getLong(2), !Boolean.FALSE.equals(rs.getObject(3))));
+        });
+        return refs;
+    }
+
+    private static String unquote(String field) {
+        String value = field.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static long pairKey(long studentId, long courseId) {
+        return (studentId << 32) | courseId;
+    }
+
+    private static final class Ref {
+        private final long id;
+        private final boolean active;
+
+        private Ref(long id, boolean active) {
+            this.id = id;
+            this.active = active;
+        }
+    }
+
+    private static final class Row {
+        private final long line;
+        private final String username;
+        private final String courseCode;
+        private long studentId;
+        private long courseId;
+
+        private Row(long line, String username, String courseCode) {
+            this.line = line;
+            this.username = username;
+            this.courseCode = courseCode;
+        }
+
+        private ImportRowError error(String message) {
+            return new ImportRowError(line, username, courseCode, message);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package hr.algebra.uni_course_management.service;
+
+public class EnrollmentQueueFullException extends IllegalStateException {
+    public static final String RETRY_AFTER_SECONDS = "1";
+
+    public EnrollmentQueueFullException() {
+        super("Too many pending enrollment requests. Please try again shortly.");
+    }
+}
@@ -0,0 +1,82 @@
+package hr.algebra.uni_course_management.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// A queued burst-mode enrollment; callers poll its status or wait on it
+@Getter
+public class EnrollmentRequest {
+    public enum Status {
+        PENDING,
+        ENROLLED,
+        REJECTED
+    }
+
+    static final String ENROLLED_MESSAGE = "Successfully enrolled in course";
+
+    private final String id;
+    private final Long studentId;
+    private final Long courseId;
+    private final long submittedAt;
+    private volatile Status status = Status.PENDING;
+    private volatile String message;
+    private volatile long completedAt;
+
+    @Getter(AccessLevel.NONE)
+    private final CompletableFuture<EnrollmentRequest> result = new CompletableFuture<>();
+
+    public EnrollmentRequest(Long studentId, Long courseId) {
+        this(UUID.randomUUID().toString(), studentId, courseId, System.currentTimeMillis());
+    }
+
+    private EnrollmentRequest(String id, Long studentId, Long courseId, long submittedAt) {
+        this.id = id;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.submittedAt = submittedAt;
+    }
+
+    // A request read back from enrollment_request, typically one accepted by another node
+    static EnrollmentRequest restore(String id, Long studentId, Long courseId, long submittedAt,
+                                     Status status, String message, long completedAt) {
+        EnrollmentRequest request = new EnrollmentRequest(id, studentId, courseId, submittedAt);
+        if (status != Status.PENDING) {
+            request.complete(status, message);
+            request.completedAt = completedAt;
+        }
+        return request;
+    }
+
+    public CompletableFuture<EnrollmentRequest> asFuture() {
+        return result;
+    }
+
+    public EnrollmentRequest await(long timeoutMs) throws InterruptedException {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return this;
+        }
+    }
+
+    void enrolled() {
+        complete(Status.ENROLLED, ENROLLED_MESSAGE);
+    }
+
+    void rejected(String reason) {
+        complete(Status.REJECTED, reason);
+    }
+
+    private void complete(Status outcome, String reason) {
+        this.message = reason;
+        this.completedAt = System.currentTimeMillis();
+        this.status = outcome;
+        result.complete(this);
+    }
+}
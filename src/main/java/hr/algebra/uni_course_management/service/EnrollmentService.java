@@ -1,18 +1,25 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.EnrollmentStatus;
 import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
 import hr.algebra.uni_course_management.repository.CourseRepository;
 import hr.algebra.uni_course_management.repository.EnrollmentRepository;
-import hr.algebra.uni_course_management.repository.GradeRepository;
 import hr.algebra.uni_course_management.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,64 +29,71 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
-    private final GradeRepository gradeRepository;
+    private final CourseSeatService courseSeatService;
+    private final WaitlistService waitlistService;
+    private final OutboxPublisher outboxPublisher;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final EnrollmentUpsertService enrollmentUpsertService;
 
     private static final String STUDENT_NOT_FOUND = "Student not found";
     private static final String COURSE_NOT_FOUND = "Course not found";
+    private static final int PROMOTION_SCAN = 20;
+    public static final String SOURCE_DIRECT = "DIRECT";
+    public static final String SOURCE_WAITLIST = "WAITLIST";
+    public static final String SOURCE_LOTTERY = "LOTTERY";
+    public static final String SOURCE_IMPORT = "IMPORT";
+
+    // The MERGE checks student and course, inserts or reactivates the row and keeps it locked until commit
+    public EnrollmentView enrollStudent(Long studentId, Long courseId) {
+        // Lock-free checks first, so full or clashing courses are rejected without taking the MERGE row locks
+        WeeklyOccupancy occupancy = this.timetableService.occupancy(studentId);
+        this.timetableService.checkClash(studentId, occupancy, courseId);
+        this.courseSeatService.checkAvailable(courseId);
+        EnrollmentView enrollment = this.enrollmentUpsertService.enroll(studentId, courseId);
+
+        // Taken last so the course row lock is held only until commit
+        this.courseSeatService.reserveSeat(courseId);
+        this.waitlistService.remove(courseId, List.of(studentId));
+        this.transcriptService.evict(studentId);
+        this.timetableService.recordEnrollment(studentId, courseId);
+        publish(enrollment.getId(), studentId, courseId, OutboxEventType.STUDENT_ENROLLED, SOURCE_DIRECT);
+        return enrollment;
+    }
 
-    public Enrollment enrollStudent(Long studentId, Long courseId) {
+    public int joinWaitlist(Long studentId, Long courseId) {
         User student = this.userRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException(STUDENT_NOT_FOUND));
         Course course = this.courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException(COURSE_NOT_FOUND));
 
         if (Boolean.FALSE.equals(course.getIsActive())) {
-            throw new IllegalStateException("Cannot enroll in inactive course");
+            throw new IllegalStateException("Cannot join the waitlist of an inactive course");
+        }
+        if (this.enrollmentRepository.findByStudentAndCourseAndStatus(student, course, EnrollmentStatus.ENROLLED).isPresent()) {
+            throw new IllegalStateException("Student is already enrolled in this course");
         }
+        return this.waitlistService.join(courseId, studentId);
+    }
 
-        Optional<Enrollment> existing = this.enrollmentRepository.findByStudentAndCourse(student, course);
+    public void leaveWaitlist(Long studentId, Long courseId) {
+        this.waitlistService.leave(courseId, studentId);
+    }
 
-        Enrollment enrollment;
-        if (existing.isPresent()) {
-            enrollment = existing.get();
-            if (enrollment.getStatus() == EnrollmentStatus.ENROLLED) {
-                throw new IllegalStateException("Student is already enrolled in this course");
-            }
-        } else {
-            enrollment = new Enrollment();
-            enrollment.setStudent(student);
-            enrollment.setCourse(course);
-        }
+    public Optional<Integer> getWaitlistPosition(Long studentId, Long courseId) {
+        return this.waitlistService.position(courseId, studentId);
+    }
 
-        enrollment.setStatus(EnrollmentStatus.ENROLLED);
-        this.enrollmentRepository.save(enrollment);
-        return enrollment;
+    public Map<Long, Integer> getWaitlistPositions(Long studentId) {
+        return this.waitlistService.positionsFor(studentId);
     }
 
-    public List<Enrollment> getEnrollmentsForStudent(Long studentId) {
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new IllegalArgumentException(STUDENT_NOT_FOUND));
-        List<Enrollment> enrollments = enrollmentRepository
-                .findByStudentAndStatusIn(
-                        student,
-                        List.of(EnrollmentStatus.ENROLLED, EnrollmentStatus.COMPLETED));
-        enrollments.forEach(enrollment -> gradeRepository.findByEnrollmentId(enrollment.getId())
-                .ifPresent(enrollment::setTempGrade));
-
-        return enrollments;
+    public List<TranscriptRow> getTranscript(Long studentId) {
+        return this.transcriptService.getTranscript(studentId);
     }
 
-    public List<Enrollment> findByStudentUsername(String username) {
-        User student = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException(STUDENT_NOT_FOUND));
-        List<Enrollment> enrollments = enrollmentRepository
-                .findByStudentAndStatusIn(
-                        student,
-                        List.of(EnrollmentStatus.ENROLLED, EnrollmentStatus.COMPLETED));
-        enrollments.forEach(enrollment -> gradeRepository.findByEnrollmentId(enrollment.getId())
-                .ifPresent(enrollment::setTempGrade));
-
-        return enrollments;
+    public List<TranscriptRow> getTranscript(String username) {
+        return this.transcriptService.getTranscript(username);
     }
 
     public List<Enrollment> getActiveEnrollmentsForCourse(Long courseId) {
@@ -91,6 +105,19 @@ public class EnrollmentService {
                 .toList();
     }
 
+    // Enrolled students with an active account per course; every requested course gets an entry, zero included
+    public Map<Long, Integer> countActiveEnrollments(Collection<Long> courseIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return counts;
+        }
+        courseIds.forEach(courseId -> counts.put(courseId, 0));
+        for (Object[] row : enrollmentRepository.countByCourseIdsAndStatus(courseIds, EnrollmentStatus.ENROLLED)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
     public void dropStudent(Long studentId, Long courseId) {
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException(STUDENT_NOT_FOUND));
@@ -98,13 +125,67 @@ public class EnrollmentService {
                 .orElseThrow(() -> new IllegalArgumentException(COURSE_NOT_FOUND));
 
         Optional<Enrollment> enrollment = enrollmentRepository
-                .findByStudentAndCourseAndStatus(student, course, EnrollmentStatus.ENROLLED);
+                .lockByStudentAndCourse(student, course)
+                .filter(e -> e.getStatus() == EnrollmentStatus.ENROLLED);
 
         if (enrollment.isPresent()) {
             enrollment.get().setStatus(EnrollmentStatus.DROPPED);
             enrollmentRepository.save(enrollment.get());
+            courseSeatService.releaseSeat(courseId);
+            transcriptService.evict(studentId);
+            timetableService.recordRelease(studentId, courseId);
+            publish(enrollment.get().getId(), studentId, courseId, OutboxEventType.STUDENT_DROPPED, SOURCE_DIRECT);
+            promoteFromWaitlist(course);
         } else {
             throw new IllegalStateException("No active enrollment found");
         }
     }
-}
\ No newline at end of file
+
+    // Runs inside the drop transaction, so the freed seat and the promotion commit or roll back together
+    private void promoteFromWaitlist(Course course) {
+        Long courseId = course.getId();
+        List<Long> candidates;
+        while (!(candidates = waitlistService.lockHead(courseId, PROMOTION_SCAN)).isEmpty()) {
+            List<Long> stale = new ArrayList<>();
+            for (Long candidateId : candidates) {
+                Optional<User> candidate = userRepository.findById(candidateId)
+                        .filter(user -> Boolean.TRUE.equals(user.getIsActive()));
+                Optional<Enrollment> existing = candidate
+                        .flatMap(user -> enrollmentRepository.lockByStudentAndCourse(user, course));
+                // Candidates who meanwhile took a course in the same time slot are passed over like inactive ones
+                if (candidate.isEmpty() || existing.filter(e -> e.getStatus() == EnrollmentStatus.ENROLLED).isPresent()
+                        || timetableService.clashReason(candidateId, courseId) != null) {
+                    stale.add(candidateId);
+                    continue;
+                }
+                try {
+                    courseSeatService.reserveSeat(courseId);
+                } catch (IllegalStateException e) {
+                    // Capacity was lowered below the current headcount; the queue waits for the next drop
+                    waitlistService.remove(courseId, stale);
+                    return;
+                }
+                Enrollment enrollment = existing.orElseGet(() -> {
+                    Enrollment promoted = new Enrollment();
+                    promoted.setStudent(candidate.get());
+                    promoted.setCourse(course);
+                    return promoted;
+                });
+                enrollment.setStatus(EnrollmentStatus.ENROLLED);
+                enrollmentRepository.save(enrollment);
+                stale.add(candidateId);
+                waitlistService.remove(courseId, stale);
+                transcriptService.evict(candidateId);
+                timetableService.recordEnrollment(candidateId, courseId);
+                publish(enrollment.getId(), candidateId, courseId, OutboxEventType.STUDENT_ENROLLED, SOURCE_WAITLIST);
+                return;
+            }
+            waitlistService.remove(courseId, stale);
+        }
+    }
+
+    private void publish(Long enrollmentId, Long studentId, Long courseId, OutboxEventType type, String source) {
+        outboxPublisher.publish(OutboxPublisher.ENROLLMENT, enrollmentId, type,
+                Map.of("studentId", studentId, "courseId", courseId, "source", source));
+    }
+}
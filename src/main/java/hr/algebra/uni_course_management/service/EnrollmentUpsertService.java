@@ -0,0 +1,211 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.GradeView;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Single-statement write paths for enrolling and grading. Each MERGE validates, inserts or reactivates and returns
+// the row in one round trip; the slower lookups only run to explain a statement that changed nothing.
+// Callers own the transaction, and the row locks these statements take are held until it commits.
+@Service
+@RequiredArgsConstructor
+public class EnrollmentUpsertService {
+    static final String STUDENT_NOT_FOUND = "Student not found";
+    static final String COURSE_NOT_FOUND = "Course not found";
+    static final String INACTIVE_COURSE = "Cannot enroll in inactive course";
+    static final String ALREADY_ENROLLED = "Student is already enrolled in this course";
+    static final String INVALID_ENROLLMENT = "Invalid enrollment ID: ";
+
+    // Matches nothing for a missing student, a missing or inactive course, or an enrollment that is already active
+    private static final String ENROLL_SQL = """
+            SELECT e.id, e.enrolled_at, c.course_code
+            FROM FINAL TABLE (
+                MERGE INTO enrollment e
+                USING (
+                    SELECT u.id AS student_id, c.id AS course_id
+                    FROM app_user u
+                    JOIN course c ON c.id = ? AND c.is_active IS NOT FALSE
+                    WHERE u.id = ?
+                ) v
+                ON e.student_id = v.student_id AND e.course_id = v.course_id
+                WHEN MATCHED AND e.status <> 'ENROLLED' THEN
+                    UPDATE SET status = 'ENROLLED'
+                WHEN NOT MATCHED THEN
+                    INSERT (student_id, course_id, enrolled_at, status)
+                    VALUES (v.student_id, v.course_id, CURRENT_TIMESTAMP, 'ENROLLED')
+            ) e
+            JOIN course c ON c.id = e.course_id
+            """;
+
+    // OLD TABLE returns the rows as they were before the update, so the caller learns which ones still held a seat
+    private static final String COMPLETE_SQL = """
+            SELECT e.student_id, u.first_name, u.last_name, e.course_id, c.course_code, e.status
+            FROM OLD TABLE (UPDATE enrollment SET status = 'COMPLETED' WHERE id = ?) e
+            JOIN app_user u ON u.id = e.student_id
+            JOIN course c ON c.id = e.course_id
+            """;
+
+    private static final String GRADE_SQL = """
+            SELECT id, graded_at
+            FROM FINAL TABLE (
+                MERGE INTO grade g
+                USING (VALUES (CAST(? AS INT), CAST(? AS INT))) v(enrollment_id, grade_value)
+                ON g.enrollment_id = v.enrollment_id
+                WHEN MATCHED THEN
+                    UPDATE SET grade_value = v.grade_value, graded_at = CURRENT_TIMESTAMP
+                WHEN NOT MATCHED THEN
+                    INSERT (enrollment_id, grade_value, graded_at)
+                    VALUES (v.enrollment_id, v.grade_value, CURRENT_TIMESTAMP)
+            )
+            """;
+
+    private static final String COMPLETE_ALL_SQL = """
+            SELECT e.id, e.student_id, u.first_name, u.last_name, c.course_code, e.status
+            FROM OLD TABLE (UPDATE enrollment SET status = 'COMPLETED' WHERE course_id = ? AND id IN (%s)) e
+            JOIN app_user u ON u.id = e.student_id
+            JOIN course c ON c.id = e.course_id
+            """;
+
+    private static final String GRADE_ALL_SQL = """
+            SELECT id, enrollment_id, graded_at
+            FROM FINAL TABLE (
+                MERGE INTO grade g
+                USING (VALUES %s) v(enrollment_id, grade_value)
+                ON g.enrollment_id = v.enrollment_id
+                WHEN MATCHED THEN
+                    UPDATE SET grade_value = v.grade_value, graded_at = CURRENT_TIMESTAMP
+                WHEN NOT MATCHED THEN
+                    INSERT (enrollment_id, grade_value, graded_at)
+                    VALUES (v.enrollment_id, v.grade_value, CURRENT_TIMESTAMP)
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // A written grade, and whether completing its enrollment freed the seat the ENROLLED row was holding
+    public record GradedEnrollment(GradeView grade, boolean seatReleased) {
+    }
+
+    public EnrollmentView enroll(Long studentId, Long courseId) {
+        EnrollmentView enrollment;
+        try {
+            enrollment = jdbcTemplate.query(ENROLL_SQL, rs -> rs.next()
+                    ? new EnrollmentView(rs.getLong(1), studentId, courseId, rs.getString(3),
+                    EnrollmentStatus.ENROLLED, rs.getObject(2, LocalDateTime.class))
+                    : null, courseId, studentId);
+        } catch (DuplicateKeyException e) {
+            // A concurrent request inserted the same pair first and has since committed
+            throw new IllegalStateException(ALREADY_ENROLLED);
+        }
+        if (enrollment == null) {
+            throw rejection(studentId, courseId);
+        }
+        return enrollment;
+    }
+
+    // Completing the enrollment locks its row first, so concurrent grades for it queue instead of racing the insert
+    public GradedEnrollment assignGrade(Long enrollmentId, Integer gradeValue) {
+        GradedEnrollment completed = jdbcTemplate.query(COMPLETE_SQL, rs -> rs.next()
+                ? new GradedEnrollment(new GradeView(null, enrollmentId, rs.getLong(1),
+                rs.getString(2) + " " + rs.getString(3), rs.getLong(4), rs.getString(5), gradeValue, null),
+                wasEnrolled(rs.getString(6)))
+                : null, enrollmentId);
+        if (completed == null) {
+            throw new IllegalArgumentException(INVALID_ENROLLMENT + enrollmentId);
+        }
+        GradeView view = completed.grade();
+        return jdbcTemplate.query(GRADE_SQL, rs -> {
+            rs.next();
+            return new GradedEnrollment(new GradeView(rs.getLong(1), enrollmentId, view.getStudentId(),
+                    view.getStudentName(), view.getCourseId(), view.getCourseCode(), gradeValue,
+                    rs.getObject(2, LocalDateTime.class)), completed.seatReleased());
+        }, enrollmentId, gradeValue);
+    }
+
+    // Enrollments among the given ids that do not belong to the course
+    public List<Long> foreignEnrollments(Long courseId, Collection<Long> enrollmentIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(courseId);
+        args.addAll(enrollmentIds);
+        Set<Long> found = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM enrollment WHERE course_id = ? AND id IN (" + placeholders(enrollmentIds.size()) + ")",
+                Long.class, args.toArray()));
+        return enrollmentIds.stream().filter(id -> !found.contains(id)).toList();
+    }
+
+    // A whole roster in two statements: one UPDATE completes and locks the enrollments, one MERGE writes their grades
+    public List<GradedEnrollment> assignGrades(Long courseId, Map<Long, Integer> grades) {
+        Map<Long, GradedEnrollment> completed = new HashMap<>();
+        List<Object> completeArgs = new ArrayList<>();
+        completeArgs.add(courseId);
+        completeArgs.addAll(grades.keySet());
+        jdbcTemplate.query(COMPLETE_ALL_SQL.formatted(placeholders(grades.size())), rs -> {
+            long enrollmentId = rs.getLong(1);
+            completed.put(enrollmentId, new GradedEnrollment(new GradeView(null, enrollmentId, rs.getLong(2),
+                    rs.getString(3) + " " + rs.getString(4), courseId, rs.getString(5), grades.get(enrollmentId), null),
+                    wasEnrolled(rs.getString(6))));
+        }, completeArgs.toArray());
+        if (completed.size() != grades.size()) {
+            Long missing = grades.keySet().stream().filter(id -> !completed.containsKey(id)).findFirst().orElseThrow();
+            throw new IllegalArgumentException(INVALID_ENROLLMENT + missing);
+        }
+
+        List<Object> gradeArgs = new ArrayList<>();
+        grades.forEach((enrollmentId, gradeValue) -> {
+            gradeArgs.add(enrollmentId);
+            gradeArgs.add(gradeValue);
+        });
+        String rows = String.join(", ", Collections.nCopies(grades.size(), "(CAST(? AS INT), CAST(? AS INT))"));
+        Map<Long, GradedEnrollment> written = new HashMap<>();
+        jdbcTemplate.query(GRADE_ALL_SQL.formatted(rows), rs -> {
+            GradedEnrollment entry = completed.get(rs.getLong(2));
+            GradeView view = entry.grade();
+            written.put(view.getEnrollmentId(), new GradedEnrollment(new GradeView(rs.getLong(1), view.getEnrollmentId(),
+                    view.getStudentId(), view.getStudentName(), courseId, view.getCourseCode(), view.getGradeValue(),
+                    rs.getObject(3, LocalDateTime.class)), entry.seatReleased()));
+        }, gradeArgs.toArray());
+        return grades.keySet().stream().map(written::get).toList();
+    }
+
+    private RuntimeException rejection(Long studentId, Long courseId) {
+        return jdbcTemplate.query("""
+                SELECT (SELECT COUNT(*) FROM app_user WHERE id = ?),
+                       (SELECT COUNT(*) FROM course WHERE id = ?),
+                       (SELECT is_active FROM course WHERE id = ?)
+                """, rs -> {
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                return new IllegalArgumentException(STUDENT_NOT_FOUND);
+            }
+            if (rs.getInt(2) == 0) {
+                return new IllegalArgumentException(COURSE_NOT_FOUND);
+            }
+            if (Boolean.FALSE.equals(rs.getObject(3))) {
+                return new IllegalStateException(INACTIVE_COURSE);
+            }
+            return new IllegalStateException(ALREADY_ENROLLED);
+        }, studentId, courseId, courseId);
+    }
+
+    private static boolean wasEnrolled(String previousStatus) {
+        return EnrollmentStatus.ENROLLED.name().equals(previousStatus);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
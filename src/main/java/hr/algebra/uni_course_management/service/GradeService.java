@@ -1,48 +1,101 @@
 package hr.algebra.uni_course_management.service;
 
-import hr.algebra.uni_course_management.model.Enrollment;
-import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import hr.algebra.uni_course_management.dto.GradeView;
 import hr.algebra.uni_course_management.model.Grade;
-import hr.algebra.uni_course_management.repository.EnrollmentRepository;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
 import hr.algebra.uni_course_management.repository.GradeRepository;
-import hr.algebra.uni_course_management.scheduler.EmailService;
+import hr.algebra.uni_course_management.service.EnrollmentUpsertService.GradedEnrollment;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class GradeService {
-    private final GradeRepository gradeRepository;
-    private final EnrollmentRepository enrollmentRepository;
-    private final EmailService emailService;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_GRADES = 1000;
 
-    public Grade assignGrade(Long enrollmentId, Integer gradeValue) {
-        var enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid enrollment ID: " + enrollmentId));
+    private final GradeRepository gradeRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final EnrollmentUpsertService enrollmentUpsertService;
+    private final CourseSeatService courseSeatService;
 
-        if (gradeValue < 1 || gradeValue > 5) {
+    public GradeView assignGrade(Long enrollmentId, Integer gradeValue) {
+        if (gradeValue == null || gradeValue < 1 || gradeValue > 5) {
             throw new IllegalArgumentException("Grade value must be between 1 and 5.");
         }
 
-        Grade grade = gradeRepository.findByEnrollmentId(enrollmentId)
-                .orElseGet(() -> {
-                    Grade newGrade = new Grade();
-                    newGrade.setEnrollment(enrollment);
-                    return newGrade;
-                });
+        GradedEnrollment graded = enrollmentUpsertService.assignGrade(enrollmentId, gradeValue);
+        GradeView grade = graded.grade();
+        transcriptService.evict(grade.getStudentId());
+        timetableService.recordRelease(grade.getStudentId(), grade.getCourseId());
+        if (graded.seatReleased()) {
+            courseSeatService.releaseSeats(grade.getCourseId(), 1);
+        }
+        outboxPublisher.publish(OutboxPublisher.ENROLLMENT, enrollmentId, OutboxEventType.GRADE_ASSIGNED, Map.of(
+                "studentId", grade.getStudentId(),
+                "courseId", grade.getCourseId(),
+                "gradeValue", gradeValue));
+        return grade;
+    }
 
-        grade.setGradeValue(gradeValue);
-        grade.setGradedAt(LocalDateTime.now());
+    // A roster is checked as a whole and written all or nothing; each graded enrollment gets its own event
+    public List<GradeView> assignGrades(Long courseId, List<GradeEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("No grades submitted.");
+        }
+        if (entries.size() > MAX_BULK_GRADES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_GRADES + " grades can be submitted at once.");
+        }
 
-        gradeRepository.save(grade);
-        emailService.sendGradeNotification(enrollment.getStudent(), grade);
-        enrollment.setStatus(EnrollmentStatus.COMPLETED);
-        return grade;
+        List<String> problems = new ArrayList<>();
+        Map<Long, Integer> grades = new LinkedHashMap<>();
+        for (GradeEntry entry : entries) {
+            Integer gradeValue = entry.getGradeValue();
+            if (entry.getEnrollmentId() == null) {
+                problems.add("missing enrollment ID");
+            } else if (grades.containsKey(entry.getEnrollmentId())) {
+                problems.add("enrollment " + entry.getEnrollmentId() + " is listed more than once");
+            } else if (gradeValue == null || gradeValue < 1 || gradeValue > 5) {
+                problems.add("enrollment " + entry.getEnrollmentId() + " has a grade outside 1-5");
+            }
+            if (entry.getEnrollmentId() != null) {
+                grades.putIfAbsent(entry.getEnrollmentId(), gradeValue);
+            }
+        }
+        if (!grades.isEmpty()) {
+            enrollmentUpsertService.foreignEnrollments(courseId, grades.keySet())
+                    .forEach(id -> problems.add("enrollment " + id + " is not part of this course"));
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid grades: " + String.join("; ", problems) + ".");
+        }
+
+        List<GradedEnrollment> graded = enrollmentUpsertService.assignGrades(courseId, grades);
+        List<GradeView> assigned = graded.stream().map(GradedEnrollment::grade).toList();
+        List<Long> studentIds = assigned.stream().map(GradeView::getStudentId).toList();
+        transcriptService.evict(studentIds);
+        timetableService.recordReleases(courseId, studentIds);
+        int released = (int) graded.stream().filter(GradedEnrollment::seatReleased).count();
+        if (released > 0) {
+            courseSeatService.releaseSeats(courseId, released);
+        }
+        outboxPublisher.publishGrades(assigned);
+        return assigned;
     }
 
     public Grade getGradeForEnrollment(Long enrollmentId) {
@@ -50,19 +103,49 @@ public class GradeService {
                 .orElse(null);
     }
 
-    public List<Grade> getGradesByCourse(Long courseId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-        return gradeRepository.findAll().stream()
-                .filter(grade -> enrollments.stream()
-                        .anyMatch(enrollment -> enrollment.getId().equals(grade.getEnrollment().getId())))
-                .toList();
+    public List<GradeView> getGradesByCourse(Long courseId) {
+        return gradeRepository.findViewsByCourseId(courseId);
     }
 
-    public List<Grade> getGradesByStudent(Long studentId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByStudentId(studentId);
-        return gradeRepository.findAll().stream()
-                .filter(grade -> enrollments.stream()
-                        .anyMatch(enrollment -> enrollment.getId().equals(grade.getEnrollment().getId())))
-                .toList();
+    public List<GradeView> getGradesByStudent(Long studentId) {
+        return gradeRepository.findViewsByStudentId(studentId);
+    }
+
+    // Keyset pages start after the last grade id of the previous page, so deep pages cost the same as the first
+    public GradePage getGradesByCourse(Long courseId, GradeFilter filter, Long afterId, Integer limit) {
+        int size = pageSize(filter, limit);
+        return page(gradeRepository.findViewPageByCourseId(courseId, afterId == null ? 0L : afterId,
+                filter.getMinGrade(), filter.getMaxGrade(), filter.getGradedFrom(), filter.getGradedTo(),
+                PageRequest.of(0, size + 1)), size);
+    }
+
+    public GradePage getGradesByStudent(Long studentId, GradeFilter filter, Long afterId, Integer limit) {
+        int size = pageSize(filter, limit);
+        return page(gradeRepository.findViewPageByStudentId(studentId, afterId == null ? 0L : afterId,
+                filter.getMinGrade(), filter.getMaxGrade(), filter.getGradedFrom(), filter.getGradedTo(),
+                PageRequest.of(0, size + 1)), size);
+    }
+
+    private static int pageSize(GradeFilter filter, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (filter.getMinGrade() != null && filter.getMaxGrade() != null && filter.getMinGrade() > filter.getMaxGrade()) {
+            throw new IllegalArgumentException("minGrade must not be greater than maxGrade.");
+        }
+        if (filter.getGradedFrom() != null && filter.getGradedTo() != null && !filter.getGradedFrom().isBefore(filter.getGradedTo())) {
+            throw new IllegalArgumentException("gradedFrom must be before gradedTo.");
+        }
+        return size;
+    }
+
+    // One row past the page is fetched to tell whether another page follows
+    private static GradePage page(List<GradeView> rows, int size) {
+        if (rows.size() <= size) {
+            return new GradePage(rows, null);
+        }
+        List<GradeView> grades = rows.subList(0, size);
+        return new GradePage(grades, grades.get(size - 1).getId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package hr.algebra.uni_course_management.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Student-proposing deferred acceptance with a single lottery tie-break, which yields the stable matching
+// that favours students. Each round is data-parallel: every unmatched student proposes to their next choice,
+// then every course that received proposals keeps its best lottery numbers up to capacity.
+// Each student is placed in at most one course: the first of their choices that still had room for their ticket.
+final class LotteryAllocator {
+    static final int UNASSIGNED = -1;
+
+    private final ForkJoinPool pool;
+
+    LotteryAllocator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // preferences[s] lists course indexes in rank order; returns the course index per student or UNASSIGNED
+    int[] allocate(int[][] preferences, int[] capacities, long seed) {
+        int[] ticket = lotteryTickets(preferences.length, seed);
+        int[] next = new int[preferences.length];
+        long[][] held = new long[capacities.length][];
+        int[] proposers = IntStream.range(0, preferences.length)
+                .filter(s -> preferences[s].length > 0)
+                .toArray();
+
+        while (proposers.length > 0) {
+            int[] round = proposers;
+            int[] target = new int[round.length];
+            run(() -> IntStream.range(0, round.length).parallel().forEach(i -> {
+                int student = round[i];
+                target[i] = preferences[student][next[student]++];
+            }));
+
+            // Counting sort of this round's proposals by course
+            int[] offsets = new int[capacities.length + 1];
+            for (int course : target) {
+                offsets[course + 1]++;
+            }
+            for (int c = 0; c < capacities.length; c++) {
+                offsets[c + 1] += offsets[c];
+            }
+            int[] fill = Arrays.copyOf(offsets, capacities.length);
+            int[] grouped = new int[round.length];
+            for (int i = 0; i < round.length; i++) {
+                grouped[fill[target[i]]++] = round[i];
+            }
+            int[] courses = IntStream.range(0, capacities.length)
+                    .filter(c -> offsets[c + 1] > offsets[c])
+                    .toArray();
+
+            int[][] rejected = new int[courses.length][];
+            run(() -> IntStream.range(0, courses.length).parallel().forEach(i -> {
+                int course = courses[i];
+                long[] current = held[course] == null ? new long[0] : held[course];
+                long[] candidates = Arrays.copyOf(current, current.length + offsets[course + 1] - offsets[course]);
+                for (int k = offsets[course], j = current.length; k < offsets[course + 1]; k++, j++) {
+                    candidates[j] = ((long) ticket[grouped[k]] << 32) | grouped[k];
+                }
+                Arrays.sort(candidates);
+                int keep = Math.min(capacities[course], candidates.length);
+                held[course] = Arrays.copyOf(candidates, keep);
+                int[] bumped = new int[candidates.length - keep];
+                for (int k = keep; k < candidates.length; k++) {
+                    bumped[k - keep] = (int) candidates[k];
+                }
+                rejected[i] = bumped;
+            }));
+
+            proposers = Arrays.stream(rejected)
+                    .flatMapToInt(Arrays::stream)
+                    .filter(s -> next[s] < preferences[s].length)
+                    .toArray();
+        }
+
+        int[] assignment = new int[preferences.length];
+        Arrays.fill(assignment, UNASSIGNED);
+        for (int c = 0; c < held.length; c++) {
+            if (held[c] != null) {
+                for (long entry : held[c]) {
+                    assignment[(int) entry] = c;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    // ticket[s] is the student's lottery draw; lower tickets win contested seats
+    private static int[] lotteryTickets(int students, long seed) {
+        int[] order = IntStream.range(0, students).toArray();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = students - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        int[] ticket = new int[students];
+        for (int i = 0; i < students; i++) {
+            ticket[order[i]] = i;
+        }
+        return ticket;
+    }
+
+    private void run(Runnable parallelStep) {
+        // Parallel streams started from inside the pool run on the pool's workers instead of the common pool
+        pool.submit(parallelStep).join();
+    }
+}
@@ -0,0 +1,259 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.LotteryResult;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+// Preference-based allocation: students rank courses while the window is open, seats are assigned in one batch.
+// A draw seats each student in at most one of their ranked courses; the list is fallbacks, not a shopping cart.
+// The window state lives in app_setting, so it survives restarts and every node agrees on it.
+@Slf4j
+@Service
+public class LotteryService {
+    static final String WINDOW_SETTING = "enrollment.lottery.window-open";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CourseSeatService courseSeatService;
+    private final WaitlistService waitlistService;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final OutboxPublisher outboxPublisher;
+    private final int maxPreferences;
+    private final ForkJoinPool pool;
+    private final LotteryAllocator allocator;
+    // Used until an admin opens or the lottery closes the window for the first time
+    private final boolean windowOpenByDefault;
+
+    public LotteryService(JdbcTemplate jdbcTemplate,
+                          CourseSeatService courseSeatService,
+                          WaitlistService waitlistService,
+                          TranscriptService transcriptService,
+                          TimetableService timetableService,
+                          OutboxPublisher outboxPublisher,
+                          @Value("${enrollment.lottery.max-preferences:5}") int maxPreferences,
+                          @Value("${enrollment.lottery.parallelism:0}") int parallelism,
+                          @Value("${enrollment.lottery.window-open:false}") boolean windowOpen) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.courseSeatService = courseSeatService;
+        this.waitlistService = waitlistService;
+        this.transcriptService = transcriptService;
+        this.timetableService = timetableService;
+        this.outboxPublisher = outboxPublisher;
+        this.maxPreferences = maxPreferences;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.allocator = new LotteryAllocator(pool);
+        this.windowOpenByDefault = windowOpen;
+    }
+
+    public boolean isWindowOpen() {
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT setting_value FROM app_setting WHERE setting_key = ?", String.class, WINDOW_SETTING);
+        return values.isEmpty() ? windowOpenByDefault : Boolean.parseBoolean(values.get(0));
+    }
+
+    public void openWindow() {
+        setWindowOpen(true);
+        log.info("Enrollment lottery window opened");
+    }
+
+    @Transactional
+    public void submitPreferences(Long studentId, List<Long> courseIds) {
+        if (!isWindowOpen()) {
+            throw new IllegalStateException("The preference window is closed");
+        }
+        Set<Long> unique = new LinkedHashSet<>(courseIds);
+        if (unique.isEmpty() || unique.size() != courseIds.size()) {
+            throw new IllegalArgumentException("Preferences must list distinct courses");
+        }
+        if (unique.size() > maxPreferences) {
+            throw new IllegalArgumentException("At most " + maxPreferences + " preferences are allowed");
+        }
+        String placeholders = String.join(",", Collections.nCopies(unique.size(), "?"));
+        Integer activeCourses = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM course WHERE is_active = TRUE AND id IN (" + placeholders + ")",
+                Integer.class, unique.toArray());
+        if (activeCourses == null || activeCourses != unique.size()) {
+            throw new IllegalArgumentException("Preferences may only list active courses");
+        }
+
+        jdbcTemplate.update("DELETE FROM course_preference WHERE student_id = ?", studentId);
+        List<Object[]> rows = new ArrayList<>();
+        int rank = 1;
+        for (Long courseId : unique) {
+            rows.add(new Object[]{studentId, courseId, rank++});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO course_preference (student_id, course_id, preference_rank) VALUES (?, ?, ?)", rows);
+    }
+
+    public List<Long> getPreferences(Long studentId) {
+        return jdbcTemplate.queryForList(
+                "SELECT course_id FROM course_preference WHERE student_id = ? ORDER BY preference_rank",
+                Long.class, studentId);
+    }
+
+    // Closes the window and assigns seats for every submitted preference list in one transaction, one course per student
+    @Transactional
+    public LotteryResult allocate() {
+        long started = System.currentTimeMillis();
+        // Closed in the allocation's transaction: a failed allocation leaves the window open
+        setWindowOpen(false);
+
+        // Course rows stay locked until commit, so first-come enrollments cannot take the seats being handed out
+        List<Long> courseIds = new ArrayList<>();
+        List<Integer> capacities = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT id, max_students, COALESCE(enrolled_students, 0)
+                FROM course
+                WHERE is_active = TRUE AND id IN (SELECT DISTINCT course_id FROM course_preference)
+                ORDER BY id
+                FOR UPDATE
+                """, rs -> {
+            courseIds.add(rs.getLong(1));
+            Integer max = (Integer) rs.getObject(2);
+            capacities.add(max == null ? Integer.MAX_VALUE : Math.max(0, max - rs.getInt(3)));
+        });
+        Map<Long, Integer> courseIndex = new HashMap<>();
+        for (int i = 0; i < courseIds.size(); i++) {
+            courseIndex.put(courseIds.get(i), i);
+        }
+
+        List<Long> studentIds = new ArrayList<>();
+        List<int[]> preferenceLists = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        long[] lastStudent = {-1};
+        jdbcTemplate.query("""
+                SELECT p.student_id, p.course_id
+                FROM course_preference p
+                JOIN app_user u ON u.id = p.student_id AND u.is_active = TRUE
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM enrollment e
+                    WHERE e.student_id = p.student_id AND e.course_id = p.course_id AND e.status = 'ENROLLED'
+                )
+                ORDER BY p.student_id, p.preference_rank
+                """, rs -> {
+            long studentId = rs.getLong(1);
+            Integer course = courseIndex.get(rs.getLong(2));
+            if (studentId != lastStudent[0]) {
+                if (lastStudent[0] != -1) {
+                    preferenceLists.add(current.stream().mapToInt(Integer::intValue).toArray());
+                }
+                studentIds.add(studentId);
+                current.clear();
+                lastStudent[0] = studentId;
+            }
+            if (course != null) {
+                current.add(course);
+            }
+        });
+        if (lastStudent[0] != -1) {
+            preferenceLists.add(current.stream().mapToInt(Integer::intValue).toArray());
+        }
+        // Courses clashing with a student's current timetable are struck from their list before the draw
+        Map<Long, WeeklyOccupancy> occupancies = timetableService.occupancies(studentIds);
+        for (int s = 0; s < studentIds.size(); s++) {
+            Long studentId = studentIds.get(s);
+            WeeklyOccupancy occupancy = occupancies.get(studentId);
+            preferenceLists.set(s, Arrays.stream(preferenceLists.get(s))
+                    .filter(course -> timetableService.clashReason(studentId, occupancy, courseIds.get(course)) == null)
+                    .toArray());
+        }
+
+        long seed = new SecureRandom().nextLong();
+        long allocationStarted = System.currentTimeMillis();
+        int[] assignment = allocator.allocate(
+                preferenceLists.toArray(int[][]::new),
+                capacities.stream().mapToInt(Integer::intValue).toArray(),
+                seed);
+        long allocationMs = System.currentTimeMillis() - allocationStarted;
+
+        int assigned = writeEnrollments(studentIds, courseIds, assignment);
+        jdbcTemplate.update("DELETE FROM course_preference");
+
+        long totalMs = System.currentTimeMillis() - started;
+        log.info("Enrollment lottery (seed {}) assigned {} of {} students in {} ms ({} ms allocating)",
+                seed, assigned, studentIds.size(), totalMs, allocationMs);
+        return new LotteryResult(seed, studentIds.size(), assigned, studentIds.size() - assigned, allocationMs, totalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void setWindowOpen(boolean open) {
+        jdbcTemplate.update("""
+                MERGE INTO app_setting (setting_key, setting_value, updated_at)
+                KEY (setting_key) VALUES (?, ?, CURRENT_TIMESTAMP)
+                """, WINDOW_SETTING, Boolean.toString(open));
+    }
+
+    private int writeEnrollments(List<Long> studentIds, List<Long> courseIds, int[] assignment) {
+        // Students who dropped a course earlier already have a row for it, which is reactivated instead
+        Set<Long> existing = new HashSet<>();
+        jdbcTemplate.query("""
+                SELECT e.student_id, e.course_id
+                FROM enrollment e
+                JOIN course_preference p ON p.student_id = e.student_id AND p.course_id = e.course_id
+                """, rs -> {
+            existing.add(pairKey(rs.getLong(1), rs.getLong(2)));
+        });
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Map<Long, List<Long>> seated = new HashMap<>();
+        for (int s = 0; s < assignment.length; s++) {
+            if (assignment[s] == LotteryAllocator.UNASSIGNED) {
+                continue;
+            }
+            Long studentId = studentIds.get(s);
+            Long courseId = courseIds.get(assignment[s]);
+            seated.computeIfAbsent(courseId, id -> new ArrayList<>()).add(studentId);
+            if (existing.contains(pairKey(studentId, courseId))) {
+                updates.add(new Object[]{courseId, studentId});
+            } else {
+                inserts.add(new Object[]{studentId, courseId});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO enrollment (student_id, course_id, enrolled_at, status) VALUES (?, ?, CURRENT_TIMESTAMP, 'ENROLLED')",
+                    inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE enrollment SET status = 'ENROLLED' WHERE course_id = ? AND student_id = ?",
+                    updates);
+        }
+        seated.forEach((courseId, students) -> {
+            courseSeatService.reserveSeats(courseId, students.size());
+            waitlistService.remove(courseId, students);
+            transcriptService.evict(students);
+            timetableService.recordEnrollments(courseId, students);
+            outboxPublisher.publishEnrollments(courseId, students, EnrollmentService.SOURCE_LOTTERY);
+        });
+        return inserts.size() + updates.size();
+    }
+
+    private static long pairKey(long studentId, long courseId) {
+        return (studentId << 32) | courseId;
+    }
+}
@@ -2,16 +2,20 @@ package hr.algebra.uni_course_management.service;
 
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.repository.UserRepository;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     @Override
@@ -24,11 +28,33 @@ public class MyUserDetailsService implements UserDetailsService {
             throw new DisabledException("User account is disabled");
         }
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().name())
-                .disabled(!user.getIsActive())
-                .build();
+        return AuthenticatedUser.from(user);
     }
-}
\ No newline at end of file
+
+    // Refresh tokens outlive renames, so they resolve their owner by id rather than by the username they were issued to
+    public AuthenticatedUser loadUserById(Long id) {
+        User user = userRepository
+                .findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+
+        if (Boolean.FALSE.equals(user.getIsActive())) {
+            throw new DisabledException("User account is disabled");
+        }
+
+        return AuthenticatedUser.from(user);
+    }
+
+    // Called after a successful login when the stored hash uses a weaker work factor than configured
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository
+                .findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        User savedUser = userRepository.save(user);
+        log.info("Rehashed password for user {} with the current work factor", savedUser.getUsername());
+
+        return AuthenticatedUser.from(savedUser);
+    }
+}
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.util.List;
 
 @Service
@@ -58,4 +59,24 @@ public class ScheduleViewService {
                 )
         );
     }
-}
\ No newline at end of file
+
+    public List<ScheduleRow> getStudentSchedule(Long studentId, DayOfWeek day) {
+        return jdbcTemplate.query("""
+                        SELECT se.day_of_week, se.start_time, se.end_time, c.course_name, c.course_code, se.room
+                        FROM schedule_entry se
+                        JOIN course c ON se.course_id = c.id
+                        JOIN enrollment e ON c.id = e.course_id
+                        WHERE e.student_id = ? AND e.status = 'ENROLLED' AND c.is_active = TRUE AND se.day_of_week = ?
+                        ORDER BY se.start_time
+                        """,
+                (rs, rowNum) -> new ScheduleRow(
+                        rs.getString("day_of_week"),
+                        rs.getTime("start_time").toLocalTime(),
+                        rs.getTime("end_time").toLocalTime(),
+                        rs.getString("course_name"),
+                        rs.getString("course_code"),
+                        rs.getString("room")
+                ),
+                studentId, day.name());
+    }
+}
@@ -0,0 +1,82 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.model.Semester;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// Progress of one semester close; counters are updated after every committed chunk
+@Getter
+public class SemesterCloseJob {
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final Semester semester;
+    private final String academicYear;
+    private final long startedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile int courses;
+    private volatile long total;
+    private volatile long completed;
+    private volatile long dropped;
+    private volatile String message;
+    private volatile long finishedAt;
+
+    public SemesterCloseJob(Semester semester, String academicYear) {
+        this(UUID.randomUUID().toString(), semester, academicYear, System.currentTimeMillis());
+    }
+
+    private SemesterCloseJob(String id, Semester semester, String academicYear, long startedAt) {
+        this.id = id;
+        this.semester = semester;
+        this.academicYear = academicYear;
+        this.startedAt = startedAt;
+    }
+
+    // A job read back from semester_close_job, typically one running or run on another node
+    static SemesterCloseJob restore(String id, Semester semester, String academicYear, long startedAt, Status status,
+                                    int courses, long total, long completed, long dropped, String message,
+                                    long finishedAt) {
+        SemesterCloseJob job = new SemesterCloseJob(id, semester, academicYear, startedAt);
+        job.status = status;
+        job.courses = courses;
+        job.total = total;
+        job.completed = completed;
+        job.dropped = dropped;
+        job.message = message;
+        job.finishedAt = finishedAt;
+        return job;
+    }
+
+    public long getProcessed() {
+        return completed + dropped;
+    }
+
+    void started(int courses, long total) {
+        this.courses = courses;
+        this.total = total;
+    }
+
+    void progressed(int completedInChunk, int droppedInChunk) {
+        this.completed += completedInChunk;
+        this.dropped += droppedInChunk;
+    }
+
+    void finished() {
+        finish(Status.COMPLETED, "Closed " + courses + " course(s): " + completed + " completed, " + dropped + " dropped");
+    }
+
+    void failed(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    private void finish(Status outcome, String reason) {
+        this.message = reason;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = outcome;
+    }
+}
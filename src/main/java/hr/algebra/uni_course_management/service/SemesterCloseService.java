@@ -0,0 +1,250 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.model.Semester;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// End-of-semester close: every still-enrolled row of the term's courses becomes COMPLETED (graded) or DROPPED
+// through set-based UPDATEs over bounded groups of courses, one transaction per chunk, without loading any entities.
+// Job progress is kept in semester_close_job and written with each chunk, so any node can report on it.
+@Slf4j
+@Service
+public class SemesterCloseService {
+    static final String ALREADY_RUNNING = "This semester is already being closed";
+    private static final String ABANDONED = "Semester close was abandoned; no progress was recorded in time";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TranscriptService transcriptService;
+    private final TimetableService timetableService;
+    private final CourseSeatService courseSeatService;
+    private final WaitlistService waitlistService;
+    private final int chunkSize;
+    private final long staleAfterMs;
+
+    private final Map<String, SemesterCloseJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "semester-close");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SemesterCloseService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                TranscriptService transcriptService,
+                                TimetableService timetableService,
+                                CourseSeatService courseSeatService,
+                                WaitlistService waitlistService,
+                                @Value("${enrollment.semester-close.chunk-size:5000}") int chunkSize,
+                                @Value("${enrollment.semester-close.stale-after-ms:600000}") long staleAfterMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transcriptService = transcriptService;
+        this.timetableService = timetableService;
+        this.courseSeatService = courseSeatService;
+        this.waitlistService = waitlistService;
+        this.chunkSize = chunkSize;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    // Runs in the background; poll the returned job through find
+    public SemesterCloseJob start(Semester semester, String academicYear) {
+        SemesterCloseJob job = register(semester, academicYear);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    public SemesterCloseJob close(Semester semester, String academicYear) {
+        SemesterCloseJob job = register(semester, academicYear);
+        run(job);
+        return job;
+    }
+
+    // Jobs started on this node are answered from memory, any other from semester_close_job
+    public Optional<SemesterCloseJob> find(String jobId) {
+        SemesterCloseJob local = jobs.get(jobId);
+        if (local != null) {
+            return Optional.of(local);
+        }
+        return jdbcTemplate.query("""
+                SELECT semester, academic_year, started_at, status, courses, total, completed, dropped, message, finished_at
+                FROM semester_close_job WHERE id = ?
+                """, rs -> rs.next()
+                ? Optional.of(SemesterCloseJob.restore(jobId, Semester.valueOf(rs.getString(1)), rs.getString(2),
+                rs.getTimestamp(3).getTime(), SemesterCloseJob.Status.valueOf(rs.getString(4)), rs.getInt(5),
+                rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getString(9),
+                rs.getTimestamp(10) == null ? 0 : rs.getTimestamp(10).getTime()))
+                : Optional.empty(), jobId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // The running_term unique constraint is the guard, so two nodes cannot close the same term at once
+    private SemesterCloseJob register(Semester semester, String academicYear) {
+        if (semester == null || academicYear == null || academicYear.isBlank()) {
+            throw new IllegalArgumentException("Semester and academic year are required");
+        }
+        SemesterCloseJob job = new SemesterCloseJob(semester, academicYear.trim());
+        String term = semester.name() + " " + job.getAcademicYear();
+        long now = System.currentTimeMillis();
+        // A job whose node went down mid-run would otherwise block its term for good
+        jdbcTemplate.update("""
+                UPDATE semester_close_job SET status = 'FAILED', running_term = NULL, message = ?, finished_at = ?
+                WHERE running_term = ? AND updated_at < ?
+                """, ABANDONED, new Timestamp(now), term, new Timestamp(now - staleAfterMs));
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO semester_close_job (id, semester, academic_year, running_term, status, started_at, updated_at)
+                    VALUES (?, ?, ?, ?, ?, ?, ?)
+                    """, job.getId(), semester.name(), job.getAcademicYear(), term, job.getStatus().name(),
+                    new Timestamp(job.getStartedAt()), new Timestamp(now));
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException(ALREADY_RUNNING);
+        }
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void run(SemesterCloseJob job) {
+        try {
+            List<Long> courseIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM course WHERE semester = ? AND academic_year = ? ORDER BY id",
+                    Long.class, job.getSemester().name(), job.getAcademicYear());
+            if (!courseIds.isEmpty()) {
+                closeCourses(job, courseIds);
+            }
+            job.finished();
+            log.info("Semester close {} {}: {}", job.getSemester(), job.getAcademicYear(), job.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Semester close {} {} failed after {} enrollment(s)",
+                    job.getSemester(), job.getAcademicYear(), job.getProcessed(), e);
+            job.failed("Semester close failed: " + e.getMessage());
+        }
+        recordOutcome(job);
+    }
+
+    // A failed write leaves the term blocked until the job counts as abandoned
+    private void recordOutcome(SemesterCloseJob job) {
+        String message = job.getMessage();
+        try {
+            jdbcTemplate.update("""
+                    UPDATE semester_close_job
+                    SET status = ?, running_term = NULL, message = ?, completed = ?, dropped = ?,
+                        updated_at = ?, finished_at = ?
+                    WHERE id = ?
+                    """, job.getStatus().name(), message != null && message.length() > 500 ? message.substring(0, 500) : message,
+                    job.getCompleted(), job.getDropped(), new Timestamp(job.getFinishedAt()),
+                    new Timestamp(job.getFinishedAt()), job.getId());
+        } catch (RuntimeException e) {
+            log.warn("Could not record the outcome of semester close {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void closeCourses(SemesterCloseJob job, List<Long> courseIds) {
+        String placeholders = placeholders(courseIds.size());
+        Object[] courseArgs = courseIds.toArray();
+
+        // Deactivated first, so no new enrollments arrive behind the chunks
+        jdbcTemplate.update("UPDATE course SET is_active = FALSE WHERE id IN (" + placeholders + ")", courseArgs);
+        Map<Long, Long> enrolled = new HashMap<>();
+        jdbcTemplate.query("SELECT course_id, COUNT(*) FROM enrollment WHERE status = 'ENROLLED' AND course_id IN ("
+                + placeholders + ") GROUP BY course_id", rs -> {
+            enrolled.put(rs.getLong(1), rs.getLong(2));
+        }, courseArgs);
+        job.started(courseIds.size(), enrolled.values().stream().mapToLong(Long::longValue).sum());
+        jdbcTemplate.update("UPDATE semester_close_job SET courses = ?, total = ?, updated_at = ? WHERE id = ?",
+                job.getCourses(), job.getTotal(), new Timestamp(System.currentTimeMillis()), job.getId());
+
+        // Chunks are whole courses packed up to the chunk size, so each UPDATE walks only its own courses'
+        // rows in the course_id index; a course larger than a chunk is split further by enrollment id
+        List<Long> batch = new ArrayList<>();
+        long batchRows = 0;
+        for (Long courseId : courseIds) {
+            long rows = enrolled.getOrDefault(courseId, 0L);
+            if (rows > chunkSize) {
+                closeLargeCourse(job, courseId);
+                continue;
+            }
+            if (rows == 0) {
+                continue;
+            }
+            if (batchRows + rows > chunkSize) {
+                closeChunk(job, batch, "");
+                batch.clear();
+                batchRows = 0;
+            }
+            batch.add(courseId);
+            batchRows += rows;
+        }
+        if (!batch.isEmpty()) {
+            closeChunk(job, batch, "");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE course SET enrolled_students = 0 WHERE id IN (" + placeholders + ")", courseArgs);
+            jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id IN (" + placeholders + ")", courseArgs);
+            jdbcTemplate.update("DELETE FROM course_preference WHERE course_id IN (" + placeholders + ")", courseArgs);
+            courseSeatService.clear(courseIds);
+            waitlistService.clear(courseIds);
+        });
+        transcriptService.evictAll();
+        timetableService.evictAll();
+    }
+
+    private void closeLargeCourse(SemesterCloseJob job, Long courseId) {
+        long lastId = 0;
+        List<Long> chunk;
+        while (!(chunk = jdbcTemplate.queryForList(
+                "SELECT id FROM enrollment WHERE course_id = ? AND status = 'ENROLLED' AND id > ? ORDER BY id LIMIT ?",
+                Long.class, courseId, lastId, chunkSize)).isEmpty()) {
+            lastId = chunk.get(chunk.size() - 1);
+            closeChunk(job, List.of(courseId), " AND e.id BETWEEN ? AND ?", chunk.get(0), lastId);
+        }
+    }
+
+    // COMPLETED when graded, DROPPED otherwise; both statements share the chunk's transaction
+    private void closeChunk(SemesterCloseJob job, List<Long> courseIds, String idRange, Object... rangeArgs) {
+        String where = " WHERE e.status = 'ENROLLED' AND e.course_id IN (" + placeholders(courseIds.size()) + ")" + idRange;
+        List<Object> params = new ArrayList<>(courseIds);
+        params.addAll(List.of(rangeArgs));
+        Object[] args = params.toArray();
+        int[] counts = transactionTemplate.execute(status -> {
+            int completed = jdbcTemplate.update("UPDATE enrollment e SET status = 'COMPLETED'" + where
+                    + " AND EXISTS (SELECT 1 FROM grade g WHERE g.enrollment_id = e.id)", args);
+            int dropped = jdbcTemplate.update("UPDATE enrollment e SET status = 'DROPPED'" + where, args);
+            // Progress commits with the chunk, and doubles as the heartbeat that keeps the job from looking abandoned
+            jdbcTemplate.update("""
+                    UPDATE semester_close_job SET completed = completed + ?, dropped = dropped + ?, updated_at = ?
+                    WHERE id = ?
+                    """, completed, dropped, new Timestamp(System.currentTimeMillis()), job.getId());
+            return new int[]{completed, dropped};
+        });
+        job.progressed(counts[0], counts[1]);
+        log.debug("Semester close {} {}: {} of {} enrollment(s)",
+                job.getSemester(), job.getAcademicYear(), job.getProcessed(), job.getTotal());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,153 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.CourseContentView;
+import hr.algebra.uni_course_management.dto.GradeView;
+import hr.algebra.uni_course_management.dto.ScheduleRow;
+import hr.algebra.uni_course_management.dto.StudentOverview;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
+import hr.algebra.uni_course_management.repository.CourseContentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Student landing data in one call: the sections are read concurrently on a bounded pool and share one deadline.
+// A section that is late, fails or finds the pool full is left out and named, so the rest still gets through.
+@Slf4j
+@Service
+public class StudentOverviewService {
+    static final String ENROLLMENTS = "enrollments";
+    static final String GRADES = "grades";
+    static final String TODAY_SCHEDULE = "todaySchedule";
+    static final String UPCOMING_ASSIGNMENTS = "upcomingAssignments";
+
+    private final TranscriptService transcriptService;
+    private final GradeService gradeService;
+    private final ScheduleViewService scheduleViewService;
+    private final CourseContentRepository courseContentRepository;
+    private final MeterRegistry meterRegistry;
+    private final long sectionTimeoutNanos;
+    private final ThreadPoolExecutor executor;
+    private final Timer overviewTimer;
+
+    public StudentOverviewService(TranscriptService transcriptService,
+                                  GradeService gradeService,
+                                  ScheduleViewService scheduleViewService,
+                                  CourseContentRepository courseContentRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${student.overview.pool-size:8}") int poolSize,
+                                  @Value("${student.overview.queue-capacity:256}") int queueCapacity,
+                                  @Value("${student.overview.section-timeout-ms:1500}") long sectionTimeoutMs) {
+        this.transcriptService = transcriptService;
+        this.gradeService = gradeService;
+        this.scheduleViewService = scheduleViewService;
+        this.courseContentRepository = courseContentRepository;
+        this.meterRegistry = meterRegistry;
+        this.sectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "student-overview-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        Gauge.builder("student.overview.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        this.overviewTimer = Timer.builder("student.overview.duration").register(meterRegistry);
+    }
+
+    public StudentOverview getOverview(Long studentId) {
+        return getOverview(studentId, LocalDateTime.now());
+    }
+
+    StudentOverview getOverview(Long studentId, LocalDateTime now) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + sectionTimeoutNanos;
+        List<String> unavailable = new ArrayList<>();
+
+        Future<List<TranscriptRow>> enrollments = submit(ENROLLMENTS,
+                () -> transcriptService.getTranscript(studentId), unavailable);
+        Future<List<GradeView>> grades = submit(GRADES,
+                () -> gradeService.getGradesByStudent(studentId), unavailable);
+        Future<List<ScheduleRow>> todaySchedule = submit(TODAY_SCHEDULE,
+                () -> scheduleViewService.getStudentSchedule(studentId, now.getDayOfWeek()), unavailable);
+        Future<List<CourseContentView>> upcomingAssignments = submit(UPCOMING_ASSIGNMENTS,
+                () -> courseContentRepository.findUpcomingAssignmentViewsForStudent(studentId, now), unavailable);
+
+        StudentOverview overview = new StudentOverview(studentId,
+                await(ENROLLMENTS, enrollments, deadline, unavailable),
+                await(GRADES, grades, deadline, unavailable),
+                await(TODAY_SCHEDULE, todaySchedule, deadline, unavailable),
+                await(UPCOMING_ASSIGNMENTS, upcomingAssignments, deadline, unavailable),
+                unavailable);
+        overviewTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return overview;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(String section, Callable<T> read, List<String> unavailable) {
+        try {
+            return executor.submit(read);
+        } catch (RejectedExecutionException e) {
+            unavailable(section, "rejected", unavailable);
+            return null;
+        }
+    }
+
+    private <T> T await(String section, Future<T> future, long deadline, List<String> unavailable) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            unavailable(section, "timeout", unavailable);
+        } catch (ExecutionException e) {
+            log.warn("Student overview section {} failed", section, e.getCause());
+            unavailable(section, "error", unavailable);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            unavailable(section, "interrupted", unavailable);
+        }
+        return null;
+    }
+
+    private void unavailable(String section, String reason, List<String> unavailable) {
+        unavailable.add(section);
+        Counter.builder("student.overview.section.unavailable")
+                .tag("section", section)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,277 @@
+package hr.algebra.uni_course_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import hr.algebra.uni_course_management.model.Semester;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Timetable clash checks for enrollments. Every course's schedule_entry rows are kept as minute intervals on one
+// timeline where each semester and academic year gets its own week, so courses from different terms never clash.
+// Students' occupancies are cached and patched on commit as they enroll and drop. Both caches expire after the TTL,
+// counted from the load so local patches never extend it, which bounds how long changes from other nodes go unseen.
+@Slf4j
+@Service
+public class TimetableService {
+    static final String CLASH = "Schedule clashes with ";
+    private static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+    private static final int IN_CHUNK = 1000;
+    // Keeps the last term's week within int minutes
+    private static final int MAX_START_YEAR = 9999;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean rejectClashes;
+    private final long ttlNanos;
+    private final Counter clashCounter;
+
+    private volatile Timetable courses;
+    private final Cache<Long, WeeklyOccupancy> students;
+    // Bumped on every change, so a load that raced a commit never stays cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TimetableService(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${enrollment.timetable.reject-clashes:true}") boolean rejectClashes,
+                            @Value("${enrollment.timetable.cache.max-entries:50000}") int maxEntries,
+                            @Value("${enrollment.timetable.cache.ttl-ms:30000}") long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rejectClashes = rejectClashes;
+        this.ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+        this.students = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<Long, WeeklyOccupancy>() {
+                    @Override
+                    public long expireAfterCreate(Long studentId, WeeklyOccupancy occupancy, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long studentId, WeeklyOccupancy occupancy, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long studentId, WeeklyOccupancy occupancy, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.clashCounter = Counter.builder("enrollment.timetable.clashes").register(meterRegistry);
+    }
+
+    // Runs before the MERGE, so the course itself is ignored: re-enrolling is reported as a duplicate, not a clash
+    void checkClash(Long studentId, WeeklyOccupancy occupancy, Long courseId) {
+        String reason = clashReason(studentId, occupancy.without(courseId), courseId);
+        if (reason != null) {
+            throw new IllegalStateException(reason);
+        }
+    }
+
+    public String clashReason(Long studentId, Long courseId) {
+        return clashReason(studentId, occupancy(studentId), courseId);
+    }
+
+    // Rejection message for enrolling the student in the course, or null when it fits (or clashes are only logged)
+    String clashReason(Long studentId, WeeklyOccupancy occupancy, Long courseId) {
+        Map<Long, CourseSlots> timetable = courses();
+        CourseSlots slots = timetable.get(courseId);
+        Long clashing = slots == null ? null : occupancy.findClash(slots.slots);
+        if (clashing == null) {
+            return null;
+        }
+        clashCounter.increment();
+        String reason = CLASH + timetable.get(clashing).courseCode;
+        if (!rejectClashes) {
+            log.warn("Student {} enrolled in course {} despite clash: {}", studentId, courseId, reason);
+            return null;
+        }
+        return reason;
+    }
+
+    WeeklyOccupancy occupancy(Long studentId) {
+        return occupancies(List.of(studentId)).get(studentId);
+    }
+
+    // Cached occupancies plus one query per chunk of misses; every requested student gets an entry
+    Map<Long, WeeklyOccupancy> occupancies(Collection<Long> studentIds) {
+        Map<Long, WeeklyOccupancy> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            WeeklyOccupancy cached = students.getIfPresent(studentId);
+            if (cached != null) {
+                result.put(studentId, cached);
+            } else {
+                missing.add(studentId);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += IN_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(from + IN_CHUNK, missing.size()));
+            long loadedAt = generation.get();
+            Map<Long, WeeklyOccupancy> loaded = load(chunk);
+            for (Long studentId : chunk) {
+                WeeklyOccupancy occupancy = loaded.getOrDefault(studentId, WeeklyOccupancy.EMPTY);
+                result.put(studentId, occupancy);
+                students.put(studentId, occupancy);
+            }
+            if (generation.get() != loadedAt) {
+                students.invalidateAll(chunk);
+            }
+        }
+        return result;
+    }
+
+    WeeklyOccupancy withCourse(WeeklyOccupancy occupancy, Long courseId) {
+        CourseSlots slots = courses().get(courseId);
+        return slots == null ? occupancy : occupancy.with(courseId, slots.slots);
+    }
+
+    public void recordEnrollment(Long studentId, Long courseId) {
+        recordEnrollments(courseId, List.of(studentId));
+    }
+
+    public void recordEnrollments(Long courseId, Collection<Long> studentIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            CourseSlots slots = courses().get(courseId);
+            if (slots != null) {
+                studentIds.forEach(studentId ->
+                        students.asMap().computeIfPresent(studentId, (id, occupancy) -> occupancy.with(courseId, slots.slots)));
+            }
+        });
+    }
+
+    // The course no longer occupies the student's week (dropped or completed)
+    public void recordRelease(Long studentId, Long courseId) {
+        recordReleases(courseId, List.of(studentId));
+    }
+
+    public void recordReleases(Long courseId, Collection<Long> studentIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            studentIds.forEach(studentId ->
+                    students.asMap().computeIfPresent(studentId, (id, occupancy) -> occupancy.without(courseId)));
+        });
+    }
+
+    // Schedule entries or course terms changed; rare enough to rebuild everything on the next check
+    public void evictAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            courses = null;
+            students.invalidateAll();
+        });
+    }
+
+    private Map<Long, CourseSlots> courses() {
+        Timetable loaded = courses;
+        if (loaded == null || System.nanoTime() - loaded.loadedAt() > ttlNanos) {
+            long loadedAt = generation.get();
+            loaded = new Timetable(loadCourses(), System.nanoTime());
+            if (generation.get() == loadedAt) {
+                courses = loaded;
+            }
+        }
+        return loaded.slots();
+    }
+
+    private Map<Long, WeeklyOccupancy> load(List<Long> studentIds) {
+        Map<Long, CourseSlots> timetable = courses();
+        Map<Long, WeeklyOccupancy> loaded = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, course_id FROM enrollment WHERE status = 'ENROLLED' AND student_id IN ("
+                        + String.join(",", Collections.nCopies(studentIds.size(), "?")) + ")",
+                rs -> {
+                    long courseId = rs.getLong(2);
+                    CourseSlots slots = timetable.get(courseId);
+                    if (slots != null) {
+                        long studentId = rs.getLong(1);
+                        loaded.put(studentId, loaded.getOrDefault(studentId, WeeklyOccupancy.EMPTY).with(courseId, slots.slots));
+                    }
+                }, studentIds.toArray());
+        return loaded;
+    }
+
+    private Map<Long, CourseSlots> loadCourses() {
+        Map<Long, String> codes = new HashMap<>();
+        Map<Long, List<Integer>> minutes = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT c.id, c.course_code, c.semester, c.academic_year, s.day_of_week, s.start_time, s.end_time
+                FROM schedule_entry s
+                JOIN course c ON c.id = s.course_id
+                """, rs -> {
+            long courseId = rs.getLong(1);
+            int week = termWeek(rs.getString(3), rs.getString(4));
+            int day = (DayOfWeek.valueOf(rs.getString(5)).getValue() - 1) * 24 * 60;
+            codes.put(courseId, rs.getString(2));
+            List<Integer> slots = minutes.computeIfAbsent(courseId, id -> new ArrayList<>());
+            slots.add(week + day + minuteOfDay(rs.getObject(6, LocalTime.class)));
+            slots.add(week + day + minuteOfDay(rs.getObject(7, LocalTime.class)));
+        });
+        Map<Long, CourseSlots> loaded = new HashMap<>();
+        minutes.forEach((courseId, slots) -> loaded.put(courseId,
+                new CourseSlots(codes.get(courseId), slots.stream().mapToInt(Integer::intValue).toArray())));
+        return loaded;
+    }
+
+    // Derived from the term alone, so every load on every node lays out the same timeline and occupancies cached
+    // before a reload still line up with the courses loaded after it. Terms without a known semester or start year
+    // share a slot of their own
+    static int termWeek(String semester, String academicYear) {
+        int slots = Semester.values().length + 1;
+        int slot = slots - 1;
+        for (Semester candidate : Semester.values()) {
+            if (candidate.name().equals(semester)) {
+                slot = candidate.ordinal();
+            }
+        }
+        return (startYear(academicYear) * slots + slot) * MINUTES_PER_WEEK;
+    }
+
+    // "2024/2025" starts in 2024; anything unreadable maps to year 0
+    private static int startYear(String academicYear) {
+        if (academicYear == null) {
+            return 0;
+        }
+        int end = academicYear.indexOf('/');
+        try {
+            int year = Integer.parseInt((end < 0 ? academicYear : academicYear.substring(0, end)).trim());
+            return year >= 0 && year <= MAX_START_YEAR ? year : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record Timetable(Map<Long, CourseSlots> slots, long loadedAt) {
+    }
+
+    private static final class CourseSlots {
+        private final String courseCode;
+        private final int[] slots;
+
+        private CourseSlots(String courseCode, int[] slots) {
+            this.courseCode = courseCode;
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package hr.algebra.uni_course_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import hr.algebra.uni_course_management.model.Semester;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Enrollments, courses and grades of one student in a single joined query, cached per student. Writes on this node
+// evict on commit; writes on other nodes are picked up once the entry expires.
+@Service
+public class TranscriptService {
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, List<TranscriptRow>> cache;
+    // Bumped on every eviction, so a load that raced a commit never stays cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TranscriptService(JdbcTemplate jdbcTemplate,
+                             @Value("${enrollment.transcript-cache.max-entries:50000}") int maxEntries,
+                             @Value("${enrollment.transcript-cache.ttl-ms:30000}") long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    public List<TranscriptRow> getTranscript(Long studentId) {
+        List<TranscriptRow> cached = cache.getIfPresent(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        List<TranscriptRow> rows = List.copyOf(load(studentId));
+        cache.put(studentId, rows);
+        if (generation.get() != loadedAt) {
+            cache.asMap().remove(studentId, rows);
+        }
+        return rows;
+    }
+
+    public List<TranscriptRow> getTranscript(String username) {
+        Long studentId = jdbcTemplate.query("SELECT id FROM app_user WHERE username = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, username);
+        if (studentId == null) {
+            throw new IllegalArgumentException("Student not found");
+        }
+        return getTranscript(studentId);
+    }
+
+    public void evict(Long studentId) {
+        evict(List.of(studentId));
+    }
+
+    // Applied on commit; evicting earlier would let a concurrent read cache the old rows again
+    public void evict(Collection<Long> studentIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.invalidateAll(studentIds);
+        });
+    }
+
+    // Course and professor details are denormalised into every row, so edits to them drop the whole cache
+    public void evictAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        });
+    }
+
+    private List<TranscriptRow> load(Long studentId) {
+        String sql = """
+                SELECT e.id, c.id AS course_id, c.course_code, c.course_name, c.credits, c.semester,
+                       p.first_name, p.last_name, c.is_active, e.status, e.enrolled_at, g.grade_value, g.graded_at
+                FROM enrollment e
+                JOIN course c ON c.id = e.course_id
+                LEFT JOIN app_user p ON p.id = c.professor_id
+                LEFT JOIN grade g ON g.enrollment_id = e.id
+                WHERE e.student_id = ? AND e.status IN ('ENROLLED', 'COMPLETED')
+                ORDER BY e.id
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            String semester = rs.getString("semester");
+            String professorFirstName = rs.getString("first_name");
+            Timestamp gradedAt = rs.getTimestamp("graded_at");
+            return new TranscriptRow(
+                    rs.getLong("id"),
+                    rs.getLong("course_id"),
+                    rs.getString("course_code"),
+                    rs.getString("course_name"),
+                    (Integer) rs.getObject("credits"),
+                    semester != null ? Semester.valueOf(semester) : null,
+                    professorFirstName != null ? professorFirstName + " " + rs.getString("last_name") : null,
+                    !Boolean.FALSE.equals(rs.getObject("is_active")),
+                    EnrollmentStatus.valueOf(rs.getString("status")),
+                    rs.getTimestamp("enrolled_at").toLocalDateTime(),
+                    (Integer) rs.getObject("grade_value"),
+                    gradedAt != null ? gradedAt.toLocalDateTime() : null
+            );
+        }, studentId);
+    }
+}
@@ -1,5 +1,9 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.UserView;
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.DisabledUserRegistry;
+import hr.algebra.uni_course_management.jwt.RefreshTokenStore;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
 import hr.algebra.uni_course_management.repository.UserRepository;
@@ -17,11 +21,24 @@ import java.util.Optional;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DisabledUserRegistry disabledUserRegistry;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final TranscriptService transcriptService;
+    private final RefreshTokenStore refreshTokenStore;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       DisabledUserRegistry disabledUserRegistry,
+                       AccessTokenDenylist accessTokenDenylist,
+                       TranscriptService transcriptService,
+                       RefreshTokenStore refreshTokenStore) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.disabledUserRegistry = disabledUserRegistry;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.transcriptService = transcriptService;
+        this.refreshTokenStore = refreshTokenStore;
     }
 
     public User registerUser(String username, String password, String firstName, String lastName, String email, UserRole role) {
@@ -61,6 +78,16 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
     }
 
+    // A null role lists every account
+    public List<UserView> getUserViews(UserRole role) {
+        return userRepository.findViews(role);
+    }
+
+    public UserView getUserView(Long id) {
+        return userRepository.findViewById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -79,7 +106,16 @@ public class UserService {
         if (!existingUser.getUsername().equals(username) && userRepository.findByUsername(username).isPresent()) {
             throw new IllegalArgumentException("Username already exists: " + username);
         }
-        if (!existingUser.getUsername().equals(username)) {
+        // Professor names appear on transcripts
+        boolean professor = existingUser.getRole() == UserRole.PROFESSOR || role == UserRole.PROFESSOR;
+        boolean renamed = !existingUser.getUsername().equals(username);
+        // Tokens already issued carry the old username, role and password state
+        boolean revokeIssuedTokens = renamed
+                || existingUser.getRole() != role
+                || (Boolean.TRUE.equals(existingUser.getIsActive()) && !isActive)
+                || (password != null && !password.isEmpty());
+
+        if (renamed) {
             existingUser.setUsername(username);
         }
 
@@ -95,9 +131,29 @@ public class UserService {
         }
 
         userRepository.save(existingUser);
+
+        if (isActive) {
+            disabledUserRegistry.markActive(id);
+        } else {
+            disabledUserRegistry.markDisabled(id);
+        }
+        if (revokeIssuedTokens) {
+            accessTokenDenylist.revokeAllForUser(id);
+        }
+        if (renamed) {
+            refreshTokenStore.removeForUser(id);
+        }
+        if (professor) {
+            transcriptService.evictAll();
+        }
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        transcriptService.evictAll();
+        disabledUserRegistry.markDisabled(id);
+        accessTokenDenylist.revokeAllForUser(id);
+        // The refresh_token row cascades away, but this node would keep serving the cached entry
+        refreshTokenStore.removeForUser(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package hr.algebra.uni_course_management.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// course_waitlist is the source of truth and hands out tickets under the course row lock, so every node agrees on
+// the order. Each node mirrors the queues per course in a CourseWaitlist, so position lookups are O(log n) without a
+// query. Local changes reach the mirror on commit; syncChanges compares per-course checksums with the table and
+// reloads only the courses that differ, so a change made on another node shows here within one sync interval.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    public static final String ALREADY_WAITLISTED = "Student is already on the waitlist for this course";
+    public static final String NOT_WAITLISTED = "Student is not on the waitlist for this course";
+    public static final String SEATS_AVAILABLE = "Course still has free seats; enroll directly";
+    private static final int IN_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Each course has its own mirror and its own lock
+    private final Map<Long, CourseWaitlist> waitlists = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        waitlists.clear();
+        syncChanges();
+        log.info("Loaded waitlists for {} course(s)", waitlists.size());
+    }
+
+    @Scheduled(initialDelayString = "${security.state-sync.interval-ms:5000}",
+            fixedDelayString = "${security.state-sync.interval-ms:5000}")
+    public synchronized void syncChanges() {
+        Map<Long, CourseWaitlist.Signature> current = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT course_id, COUNT(*), SUM(student_id), SUM(student_id * position)
+                FROM course_waitlist GROUP BY course_id
+                """, rs -> {
+            current.put(rs.getLong(1), new CourseWaitlist.Signature(rs.getInt(2), rs.getLong(3), rs.getLong(4)));
+        });
+        waitlists.keySet().retainAll(current.keySet());
+        List<Long> changed = new ArrayList<>();
+        current.forEach((courseId, signature) -> {
+            CourseWaitlist mirrored = waitlists.get(courseId);
+            if (mirrored == null || !mirrored.signature().equals(signature)) {
+                changed.add(courseId);
+            }
+        });
+        for (int from = 0; from < changed.size(); from += IN_CHUNK) {
+            List<Long> chunk = changed.subList(from, Math.min(from + IN_CHUNK, changed.size()));
+            Map<Long, CourseWaitlist> loaded = new HashMap<>();
+            jdbcTemplate.query("SELECT course_id, student_id, position FROM course_waitlist WHERE course_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", rs -> {
+                loaded.computeIfAbsent(rs.getLong(1), id -> new CourseWaitlist()).add(rs.getLong(3), rs.getLong(2));
+            }, chunk.toArray());
+            waitlists.putAll(loaded);
+        }
+    }
+
+    // Returns the 1-based position the student will hold once the surrounding transaction commits
+    public int join(Long courseId, Long studentId) {
+        // Locking the course row serialises joins with drops, so nobody is queued behind a seat that was just freed.
+        // It also serialises joins with each other on every node, so the next ticket below cannot be handed out twice.
+        Boolean full = jdbcTemplate.query("""
+                SELECT max_students IS NOT NULL AND COALESCE(enrolled_students, 0) >= max_students
+                FROM course WHERE id = ? FOR UPDATE
+                """, rs -> rs.next() ? rs.getBoolean(1) : null, courseId);
+        if (full == null) {
+            throw new IllegalArgumentException("Course not found");
+        }
+        if (!full) {
+            throw new IllegalStateException(SEATS_AVAILABLE);
+        }
+
+        try {
+            jdbcTemplate.update("""
+                    INSERT INTO course_waitlist (course_id, student_id, position)
+                    SELECT ?, ?, COALESCE(MAX(position), 0) + 1 FROM course_waitlist WHERE course_id = ?
+                    """, courseId, studentId, courseId);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException(ALREADY_WAITLISTED);
+        }
+        // The joiner's answer has to be exact, so the queue is read back while the lock is held; the copy also
+        // replaces this node's mirror of the course, which may not have seen joins made on other nodes yet
+        CourseWaitlist waitlist = new CourseWaitlist();
+        jdbcTemplate.query("SELECT student_id, position FROM course_waitlist WHERE course_id = ?",
+                rs -> {
+                    waitlist.add(rs.getLong(2), rs.getLong(1));
+                }, courseId);
+        TransactionCallbacks.afterCommit(() -> waitlists.put(courseId, waitlist));
+        return waitlist.position(studentId);
+    }
+
+    public void leave(Long courseId, Long studentId) {
+        int removed = jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ? AND student_id = ?",
+                courseId, studentId);
+        if (removed == 0) {
+            throw new IllegalStateException(NOT_WAITLISTED);
+        }
+        TransactionCallbacks.afterCommit(() -> removeMirrored(courseId, List.of(studentId)));
+    }
+
+    // Students who are not waiting are skipped, so enrollment paths can call this for everyone they enroll
+    public void remove(Long courseId, Collection<Long> studentIds) {
+        List<Long> ids = List.copyOf(studentIds);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(courseId);
+            args.addAll(chunk);
+            jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ? AND student_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", args.toArray());
+        }
+        if (!ids.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> removeMirrored(courseId, ids));
+        }
+    }
+
+    // For callers that empty whole queues with their own DELETE, such as the semester close
+    public void clear(Collection<Long> courseIds) {
+        TransactionCallbacks.afterCommit(() -> waitlists.keySet().removeAll(courseIds));
+    }
+
+    // Head of the queue, row-locked so a concurrent leave cannot race a promotion
+    public List<Long> lockHead(Long courseId, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT student_id FROM course_waitlist
+                WHERE course_id = ?
+                ORDER BY position
+                FETCH FIRST ? ROWS ONLY
+                FOR UPDATE
+                """, Long.class, courseId, limit);
+    }
+
+    public Optional<Integer> position(Long courseId, Long studentId) {
+        CourseWaitlist waitlist = waitlists.get(courseId);
+        int position = waitlist == null ? 0 : waitlist.position(studentId);
+        return position > 0 ? Optional.of(position) : countPosition(courseId, studentId);
+    }
+
+    // The student's courses come from the student_id index, their places from the mirrors
+    public Map<Long, Integer> positionsFor(Long studentId) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (Long courseId : jdbcTemplate.queryForList(
+                "SELECT course_id FROM course_waitlist WHERE student_id = ?", Long.class, studentId)) {
+            position(courseId, studentId).ifPresent(position -> positions.put(courseId, position));
+        }
+        return positions;
+    }
+
+    public int size(Long courseId) {
+        CourseWaitlist waitlist = waitlists.get(courseId);
+        if (waitlist != null) {
+            return waitlist.size();
+        }
+        Integer size = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_waitlist WHERE course_id = ?",
+                Integer.class, courseId);
+        return size == null ? 0 : size;
+    }
+
+    private void removeMirrored(Long courseId, Collection<Long> studentIds) {
+        CourseWaitlist waitlist = waitlists.get(courseId);
+        if (waitlist != null) {
+            studentIds.forEach(waitlist::remove);
+        }
+    }
+
+    // Fallback for a student this node has not mirrored yet, e.g. one who joined on another node since the last
+    // sync; counts the tickets up to theirs on the (course_id, position) index
+    private Optional<Integer> countPosition(Long courseId, Long studentId) {
+        Integer position = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM course_waitlist w
+                JOIN course_waitlist mine ON mine.course_id = w.course_id AND mine.student_id = ?
+                WHERE w.course_id = ? AND w.position <= mine.position
+                """, Integer.class, studentId, courseId);
+        return position == null || position == 0 ? Optional.empty() : Optional.of(position);
+    }
+}
@@ -0,0 +1,126 @@
+package hr.algebra.uni_course_management.service;
+
+import java.util.Arrays;
+
+// Immutable timetable of one student: the slots of their enrolled courses as half-open [start, end) minute
+// intervals, sorted by start. maxEnds[i] is the latest end among intervals 0..i, so whether a slot overlaps
+// anything is one binary search: only intervals starting before the slot ends matter, and they overlap it
+// exactly when the latest of their ends lies after the slot's start.
+final class WeeklyOccupancy {
+    static final WeeklyOccupancy EMPTY = new WeeklyOccupancy(new long[0], new int[0], new int[0]);
+
+    private final long[] courseIds;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] maxEnds;
+
+    private WeeklyOccupancy(long[] courseIds, int[] starts, int[] ends) {
+        this.courseIds = courseIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new int[ends.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    // slots holds start/end pairs; returns the id of an enrolled course overlapping one of them, or null
+    Long findClash(int[] slots) {
+        for (int i = 0; i < slots.length; i += 2) {
+            int start = slots[i];
+            int before = countStartingBefore(slots[i + 1]);
+            if (before > 0 && maxEnds[before - 1] > start) {
+                for (int j = before - 1; j >= 0; j--) {
+                    if (ends[j] > start) {
+                        return courseIds[j];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    WeeklyOccupancy with(long courseId, int[] slots) {
+        int added = slots.length / 2;
+        if (added == 0) {
+            return this;
+        }
+        int[] order = orderByStart(slots);
+        int size = starts.length + added;
+        long[] mergedCourses = new long[size];
+        int[] mergedStarts = new int[size];
+        int[] mergedEnds = new int[size];
+        int a = 0;
+        int b = 0;
+        for (int k = 0; k < size; k++) {
+            if (b == added || (a < starts.length && starts[a] <= slots[order[b]])) {
+                mergedCourses[k] = courseIds[a];
+                mergedStarts[k] = starts[a];
+                mergedEnds[k] = ends[a++];
+            } else {
+                mergedCourses[k] = courseId;
+                mergedStarts[k] = slots[order[b]];
+                mergedEnds[k] = slots[order[b++] + 1];
+            }
+        }
+        return new WeeklyOccupancy(mergedCourses, mergedStarts, mergedEnds);
+    }
+
+    WeeklyOccupancy without(long courseId) {
+        int kept = 0;
+        for (long id : courseIds) {
+            if (id != courseId) {
+                kept++;
+            }
+        }
+        if (kept == courseIds.length) {
+            return this;
+        }
+        long[] keptCourses = new long[kept];
+        int[] keptStarts = new int[kept];
+        int[] keptEnds = new int[kept];
+        int k = 0;
+        for (int i = 0; i < courseIds.length; i++) {
+            if (courseIds[i] != courseId) {
+                keptCourses[k] = courseIds[i];
+                keptStarts[k] = starts[i];
+                keptEnds[k++] = ends[i];
+            }
+        }
+        return new WeeklyOccupancy(keptCourses, keptStarts, keptEnds);
+    }
+
+    private int countStartingBefore(int minute) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Offsets of the start values in slots, ordered by start; minutes are non-negative, so start and offset share a long
+    private static int[] orderByStart(int[] slots) {
+        long[] keyed = new long[slots.length / 2];
+        for (int i = 0; i < keyed.length; i++) {
+            keyed[i] = ((long) slots[2 * i] << 32) | (2L * i);
+        }
+        Arrays.sort(keyed);
+        int[] order = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            order[i] = (int) keyed[i];
+        }
+        return order;
+    }
+}
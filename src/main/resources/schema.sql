@@ -11,6 +11,8 @@ CREATE TABLE IF NOT EXISTS app_user (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE INDEX IF NOT EXISTS idx_app_user_updated_at ON app_user(updated_at);
+
 CREATE TABLE IF NOT EXISTS course (
     id INT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     course_code VARCHAR(20) UNIQUE NOT NULL,
@@ -82,5 +84,119 @@ CREATE TABLE IF NOT EXISTS refresh_token (
     expiry_date TIMESTAMP NOT NULL,
     created_date TIMESTAMP NOT NULL,
     revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    revoked_at TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_expiry_date ON refresh_token(expiry_date);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_created_date ON refresh_token(created_date);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_revoked_at ON refresh_token(revoked_at);
+
+CREATE TABLE IF NOT EXISTS revoked_access_token (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64),
+    user_id BIGINT,
+    issued_before TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_access_token_expires_at ON revoked_access_token(expires_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_access_token_revoked_at ON revoked_access_token(revoked_at);
+
+CREATE TABLE IF NOT EXISTS api_key (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    key_prefix VARCHAR(20) NOT NULL,
+    key_hash VARCHAR(64) NOT NULL UNIQUE,
+    role_user VARCHAR(10) NOT NULL,
+    allowed_paths VARCHAR(500) NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    revoked_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS course_waitlist (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    course_id INT NOT NULL,
+    student_id INT NOT NULL,
+    position BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT fk_waitlist_course FOREIGN KEY (course_id) REFERENCES course(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_student FOREIGN KEY (student_id) REFERENCES app_user(id) ON DELETE CASCADE,
+    CONSTRAINT uq_waitlist_course_student UNIQUE (course_id, student_id),
+    CONSTRAINT uq_waitlist_course_position UNIQUE (course_id, position)
+);
+
+CREATE INDEX IF NOT EXISTS idx_course_waitlist_student ON course_waitlist(student_id);
+
+-- Burst-mode request outcomes, so a poll can be answered by any node; no foreign keys, a request may name unknown ids
+CREATE TABLE IF NOT EXISTS enrollment_request (
+    id VARCHAR(36) PRIMARY KEY,
+    student_id INT NOT NULL,
+    course_id INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    message VARCHAR(500),
+    submitted_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_enrollment_request_submitted_at ON enrollment_request(submitted_at);
+
+-- Semester close progress, so any node can report on a job; running_term is set only while the job runs, so the
+-- unique constraint allows one running close per term across all nodes
+CREATE TABLE IF NOT EXISTS semester_close_job (
+    id VARCHAR(36) PRIMARY KEY,
+    semester VARCHAR(20) NOT NULL,
+    academic_year VARCHAR(20) NOT NULL,
+    running_term VARCHAR(41),
+    status VARCHAR(20) NOT NULL,
+    courses INT DEFAULT 0 NOT NULL,
+    total BIGINT DEFAULT 0 NOT NULL,
+    completed BIGINT DEFAULT 0 NOT NULL,
+    dropped BIGINT DEFAULT 0 NOT NULL,
+    message VARCHAR(500),
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    CONSTRAINT uq_semester_close_running UNIQUE (running_term)
+);
+
+CREATE TABLE IF NOT EXISTS course_preference (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    student_id INT NOT NULL,
+    course_id INT NOT NULL,
+    preference_rank INT NOT NULL,
+    submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT fk_preference_student FOREIGN KEY (student_id) REFERENCES app_user(id) ON DELETE CASCADE,
+    CONSTRAINT fk_preference_course FOREIGN KEY (course_id) REFERENCES course(id) ON DELETE CASCADE,
+    CONSTRAINT uq_preference_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT uq_preference_student_rank UNIQUE (student_id, preference_rank)
+);
+
+CREATE TABLE IF NOT EXISTS app_setting (
+    setting_key VARCHAR(100) PRIMARY KEY,
+    setting_value VARCHAR(255) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_lease (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload CLOB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    attempts INT DEFAULT 0 NOT NULL,
+    last_error VARCHAR(500),
+    parked BOOLEAN DEFAULT FALSE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending ON outbox_event(published_at, id);
@@ -0,0 +1,73 @@
+package hr.algebra.uni_course_management.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.FlashMap;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CookieFlashMapManagerTest {
+    private final CookieFlashMapManager manager = new CookieFlashMapManager(false);
+
+    @Test
+    void flashAttributes_SurviveRedirectWithoutSession() {
+        MockHttpServletRequest postRequest = new MockHttpServletRequest("POST", "/admin/users/1");
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        FlashMap output = new FlashMap();
+        output.put("successMessage", "User updated successfully!");
+        output.setTargetRequestPath("/admin/users");
+
+        manager.saveOutputFlashMap(output, postRequest, postResponse);
+
+        String setCookie = postResponse.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).startsWith(CookieFlashMapManager.COOKIE_NAME + "=").contains("HttpOnly");
+        assertThat(postRequest.getSession(false)).isNull();
+
+        MockHttpServletRequest getRequest = new MockHttpServletRequest("GET", "/admin/users");
+        getRequest.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME,
+                setCookie.substring(CookieFlashMapManager.COOKIE_NAME.length() + 1, setCookie.indexOf(';'))));
+        MockHttpServletResponse getResponse = new MockHttpServletResponse();
+
+        Map<String, Object> input = manager.retrieveAndUpdate(getRequest, getResponse);
+
+        assertThat(input).containsEntry("successMessage", "User updated successfully!");
+        assertThat(getResponse.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+        assertThat(getRequest.getSession(false)).isNull();
+    }
+
+    @Test
+    void flashAttributes_ForAnotherPath_AreKept() {
+        MockHttpServletRequest postRequest = new MockHttpServletRequest("POST", "/admin/users/1");
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        FlashMap output = new FlashMap();
+        output.put("successMessage", "Saved");
+        output.setTargetRequestPath("/admin/users");
+        manager.saveOutputFlashMap(output, postRequest, postResponse);
+        String setCookie = postResponse.getHeader(HttpHeaders.SET_COOKIE);
+
+        MockHttpServletRequest otherRequest = new MockHttpServletRequest("GET", "/dashboard");
+        otherRequest.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME,
+                setCookie.substring(CookieFlashMapManager.COOKIE_NAME.length() + 1, setCookie.indexOf(';'))));
+        MockHttpServletResponse otherResponse = new MockHttpServletResponse();
+
+        Map<String, Object> input = manager.retrieveAndUpdate(otherRequest, otherResponse);
+
+        assertThat(input).isNull();
+        assertThat(otherResponse.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    void unreadableCookie_IsIgnored() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/users");
+        request.setCookies(new Cookie(CookieFlashMapManager.COOKIE_NAME, "garbage!"));
+
+        Map<String, Object> input = manager.retrieveAndUpdate(request, new MockHttpServletResponse());
+
+        assertThat(input).isNull();
+    }
+}
@@ -3,7 +3,9 @@ package hr.algebra.uni_course_management.config;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.MessageSource;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
 import org.springframework.web.servlet.i18n.SessionLocaleResolver;
 
@@ -23,6 +25,17 @@ class LocaleConfigTest {
                 .isEqualTo(Locale.ENGLISH);
     }
 
+    @Test
+    void localeResolver_StatelessWebSession_UsesCookie() {
+        LocaleConfig statelessConfig = new LocaleConfig();
+        ReflectionTestUtils.setField(statelessConfig, "statelessWebSession", true);
+
+        LocaleResolver resolver = statelessConfig.localeResolver();
+
+        assertThat(resolver).isInstanceOf(CookieLocaleResolver.class);
+        assertThat(resolver.resolveLocale(new MockHttpServletRequest())).isEqualTo(Locale.ENGLISH);
+    }
+
     @Test
     void localeChangeInterceptor_UsesLangParameter() {
         LocaleChangeInterceptor interceptor = localeConfig.localeChangeInterceptor();
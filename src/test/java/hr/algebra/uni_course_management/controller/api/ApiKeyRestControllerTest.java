@@ -0,0 +1,88 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.model.ApiKey;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.service.ApiKeyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyRestControllerTest {
+    @Mock
+    private ApiKeyService apiKeyService;
+    @InjectMocks
+    private ApiKeyRestController controller;
+
+    @Test
+    void getAllApiKeys_OmitsKeyHash() {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setId(1L);
+        apiKey.setName("catalog");
+        apiKey.setKeyPrefix("ucm_abcdefgh");
+        apiKey.setKeyHash("secret-digest");
+        apiKey.setRole(UserRole.STUDENT);
+        apiKey.setAllowedPaths("/api/courses/**");
+        when(apiKeyService.findAll()).thenReturn(List.of(apiKey));
+
+        ResponseEntity<?> response = controller.getAllApiKeys();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> data = (List<Map<String, Object>>) body.get("data");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(data).hasSize(1);
+        assertThat(data.get(0)).containsEntry("keyPrefix", "ucm_abcdefgh").doesNotContainKey("keyHash");
+    }
+
+    @Test
+    void createApiKey_ReturnsRawKeyOnce() {
+        when(apiKeyService.issue("catalog", UserRole.STUDENT, "/api/courses/**")).thenReturn("ucm_raw");
+
+        ResponseEntity<?> response = controller.createApiKey("catalog", "student", "/api/courses/**");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) body.get("data");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(data).containsEntry("apiKey", "ucm_raw");
+    }
+
+    @Test
+    void createApiKey_InvalidRole_ReturnsBadRequest() {
+        ResponseEntity<?> response = controller.createApiKey("catalog", "robot", "/api/courses/**");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(apiKeyService);
+    }
+
+    @Test
+    void revokeApiKey_Success() {
+        ResponseEntity<?> response = controller.revokeApiKey(4L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(apiKeyService).revoke(4L);
+    }
+
+    @Test
+    void revokeApiKey_NotFound() {
+        doThrow(new ResourceNotFoundException("API key not found with id: 4")).when(apiKeyService).revoke(4L);
+
+        ResponseEntity<?> response = controller.revokeApiKey(4L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,128 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.repository.EnrollmentRepository;
+import hr.algebra.uni_course_management.repository.GradeRepository;
+import hr.algebra.uni_course_management.service.CourseService;
+import hr.algebra.uni_course_management.service.GradeService;
+import hr.algebra.uni_course_management.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Not part of the default test run; execute with: mvn test -Dtest=ApiPayloadBenchmark
+// Compares the serialized entity graphs the list endpoints used to return with the projected views they return now
+@SpringBootTest
+class ApiPayloadBenchmark {
+    private static final int PROFESSORS = 200;
+    private static final int STUDENTS = 5_000;
+    private static final int COURSES = 2_000;
+    private static final int GRADED_PER_COURSE = 500;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private GradeRepository gradeRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long gradedCourse;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (int p = 0; p < PROFESSORS; p++) {
+            users.add(new Object[]{"pbp" + p, "pbp" + p + "@test.com", "PROFESSOR"});
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            users.add(new Object[]{"pbs" + s, "pbs" + s + "@test.com", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO app_user (username, password, first_name, last_name, email, role_user)
+                VALUES (?, '$2a$10$abcdefghijklmnopqrstuuOPQRSTUVWXYZabcdefghijklmnopqrs', 'Payload', 'Benchmark', ?, ?)
+                """, users);
+        List<Long> professorIds = jdbcTemplate.queryForList(
+                "SELECT id FROM app_user WHERE username LIKE 'pbp%' ORDER BY id", Long.class);
+        List<Object[]> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            courses.add(new Object[]{"PB" + c, professorIds.get(c % PROFESSORS)});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO course (course_code, course_name, description, credits, max_students, is_active, professor_id)
+                VALUES (?, 'Payload Benchmark', 'A course created for the payload benchmark.', 5, 600, TRUE, ?)
+                """, courses);
+
+        gradedCourse = jdbcTemplate.queryForObject("SELECT id FROM course WHERE course_code = 'PB0'", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO enrollment (student_id, course_id, enrolled_at, status)
+                SELECT id, ?, CURRENT_TIMESTAMP, 'COMPLETED' FROM app_user WHERE username LIKE 'pbs%' ORDER BY id FETCH FIRST ? ROWS ONLY
+                """, gradedCourse, GRADED_PER_COURSE);
+        jdbcTemplate.update("""
+                INSERT INTO grade (enrollment_id, grade_value, graded_at)
+                SELECT id, 4, CURRENT_TIMESTAMP FROM enrollment WHERE course_id = ?
+                """, gradedCourse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM grade WHERE enrollment_id IN (SELECT id FROM enrollment WHERE course_id = ?)", gradedCourse);
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id = ?", gradedCourse);
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'PB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'pb%'");
+    }
+
+    @Test
+    void compareListEndpoints() throws Exception {
+        compare("GET /api/courses", courseService::getAllCourses, courseService::getCourseViews);
+        compare("GET /api/users", userService::getAllUsers, () -> userService.getUserViews(null));
+        compare("GET /api/users?role=STUDENT", () -> userService.getUsersByRole(UserRole.STUDENT),
+                () -> userService.getUserViews(UserRole.STUDENT));
+        // The previous grade lookup loaded every grade and matched it against the course's enrollments
+        compare("GET /api/grades?courseId", () -> {
+            List<Enrollment> enrollments = enrollmentRepository.findByCourseId(gradedCourse);
+            return gradeRepository.findAll().stream()
+                    .filter(grade -> enrollments.stream()
+                            .anyMatch(enrollment -> enrollment.getId().equals(grade.getEnrollment().getId())))
+                    .toList();
+        }, () -> gradeService.getGradesByCourse(gradedCourse));
+    }
+
+    private void compare(String endpoint, Callable<List<?>> entities, Callable<List<?>> views) throws Exception {
+        long[] before = measure(entities);
+        long[] after = measure(views);
+        System.out.printf("%-28s entities: %,10d bytes %,8.1f ms | views: %,10d bytes %,8.1f ms | %.1fx smaller, %.1fx faster%n",
+                endpoint, before[0], before[1] / 1e6, after[0], after[1] / 1e6,
+                (double) before[0] / after[0], (double) before[1] / after[1]);
+    }
+
+    // Returns {payload bytes, mean nanoseconds per load-and-serialize round}
+    private long[] measure(Callable<List<?>> loader) throws Exception {
+        int bytes = 0;
+        for (int i = 0; i < 3; i++) {
+            bytes = objectMapper.writeValueAsBytes(loader.call()).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            objectMapper.writeValueAsBytes(loader.call());
+        }
+        return new long[]{bytes, (System.nanoTime() - start) / ROUNDS};
+    }
+}
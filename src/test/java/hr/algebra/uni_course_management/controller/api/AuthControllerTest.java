@@ -3,22 +3,31 @@ package hr.algebra.uni_course_management.controller.api;
 import hr.algebra.uni_course_management.jwt.*;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import hr.algebra.uni_course_management.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
+import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
 
@@ -31,10 +40,12 @@ import static org.springframework.security.core.userdetails.User.withUsername;
 class AuthControllerTest {
     @Mock
     private AuthenticationManager authenticationManager;
-    @Mock private UserDetailsService userDetailsService;
     @Mock private JwtUtil jwtUtil;
     @Mock private UserService userService;
     @Mock private RefreshTokenService refreshTokenService;
+    @Mock private AccessTokenRefresher accessTokenRefresher;
+    @Mock private AccessTokenDenylist accessTokenDenylist;
+    @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private AuthController controller;
@@ -43,7 +54,6 @@ class AuthControllerTest {
     private User user;
     private UserDetails userDetails;
     private String accessToken;
-    private RefreshToken refreshToken;
 
     @BeforeEach
     void setUp() {
@@ -58,20 +68,17 @@ class AuthControllerTest {
                 .roles("ADMIN")
                 .build();
         accessToken = "jwt.access.token";
-        refreshToken = new RefreshToken();
-        refreshToken.setToken("refresh.token");
-        refreshToken.setUser(user);
         ReflectionTestUtils.setField(controller, "accessTokenExpiration", 86400000L);
     }
 
     @Test
     void login_success_returnsOkWithTokens() {
         // Given
-        doAnswer(invocation -> null).when(authenticationManager).authenticate(any());
-        when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails);
-        when(userService.findByUsername("admin")).thenReturn(Optional.of(user));
-        when(jwtUtil.generateAccessToken(userDetails, "ADMIN")).thenReturn(accessToken);
-        when(refreshTokenService.createRefreshToken(user)).thenReturn(refreshToken);
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "admin", "password", UserRole.ADMIN, true);
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(jwtUtil.generateAccessToken(principal)).thenReturn(accessToken);
+        when(refreshTokenService.createRefreshToken(1L, "admin")).thenReturn("refresh.token");
 
         // When
         var response = controller.login(loginRequest);
@@ -80,7 +87,15 @@ class AuthControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).extracting("success").isEqualTo(true);
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(refreshTokenService).createRefreshToken(user);
+        verify(refreshTokenService).createRefreshToken(1L, "admin");
+        assertThat(response.getBody()).extracting("data").extracting("refreshToken").isEqualTo("refresh.token");
+        verifyNoInteractions(accessTokenRefresher, userService);
+        assertThat(meterRegistry.get("auth.login.duration").tag("phase", "password_check").timer().count())
+                .isEqualTo(1L);
+        assertThat(meterRegistry.get("auth.login.duration").tag("phase", "token_mint").timer().count())
+                .isEqualTo(1L);
+        assertThat(meterRegistry.get("auth.login.duration").tag("phase", "persistence").timer().count())
+                .isEqualTo(1L);
     }
 
     @Test
@@ -99,42 +114,78 @@ class AuthControllerTest {
     }
 
     @Test
-    void login_userNotFound_returnsInternalServerError() {
+    void login_passwordHashingSaturated_returnsServiceUnavailable() {
         // Given
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(mock(Authentication.class));
+                .thenThrow(new PasswordHashingBusyException("Server is busy, please try again shortly"));
 
-        when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails);
-        when(userService.findByUsername("admin")).thenReturn(Optional.empty());
+        // When
+        var response = controller.login(loginRequest);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).extracting("success").isEqualTo(false);
+        verifyNoInteractions(refreshTokenService);
+    }
+
+    @Test
+    void login_unexpectedPrincipal_returnsInternalServerError() {
+        // Given
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
 
         // When
         var response = controller.login(loginRequest);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
-        verify(userService).findByUsername("admin");
+        verifyNoInteractions(refreshTokenService);
     }
 
     @Test
     void getCurrentUser_validToken_returnsUserData() {
         String authHeader = "Bearer valid.token";
-        when(jwtUtil.extractUsername("valid.token")).thenReturn("admin");
+        when(jwtUtil.parseClaims("valid.token")).thenReturn(Jwts.claims().subject("admin").build());
         when(userService.findByUsername("admin")).thenReturn(Optional.of(user));
 
-        var response = controller.getCurrentUser(authHeader);
+        var response = controller.getCurrentUser(authHeader, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("username")).isEqualTo("admin");
         assertThat(body.get("role")).isEqualTo("ADMIN");
-        verify(jwtUtil).extractUsername("valid.token");
+        verify(jwtUtil).parseClaims("valid.token");
+    }
+
+    @Test
+    void getCurrentUser_revokedToken_returnsUnauthorized() {
+        Claims claims = Jwts.claims().subject("admin").build();
+        when(jwtUtil.parseClaims("revoked.token")).thenReturn(claims);
+        when(accessTokenDenylist.isRevoked(claims, null)).thenReturn(true);
+
+        var response = controller.getCurrentUser("Bearer revoked.token", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getCurrentUser_claimsFromFilter_doesNotReparseToken() {
+        Claims claims = Jwts.claims().subject("admin").build();
+        when(userService.findByUsername("admin")).thenReturn(Optional.of(user));
+
+        var response = controller.getCurrentUser("Bearer valid.token", claims);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(jwtUtil, never()).parseClaims(any());
     }
 
     @Test
     void getCurrentUser_invalidToken_returnsUnauthorized() {
         String authHeader = "Bearer invalid.token";
-        var response = controller.getCurrentUser(authHeader);
+        var response = controller.getCurrentUser(authHeader, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
 
         @SuppressWarnings("unchecked")
@@ -146,11 +197,10 @@ class AuthControllerTest {
     void refreshToken_valid_returnsNewAccessToken() {
         // Given
         RefreshTokenRequest request = new RefreshTokenRequest("valid.refresh");
-        when(refreshTokenService.findByToken("valid.refresh")).thenReturn(Optional.of(refreshToken));
-        when(refreshTokenService.verifyExpiration(refreshToken)).thenReturn(refreshToken);
-        when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails);
-
-        when(jwtUtil.generateAccessToken(userDetails, "ADMIN")).thenReturn("new.access.token");
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "admin", "password", UserRole.ADMIN, true);
+        Instant issuedAt = Instant.now();
+        when(accessTokenRefresher.refresh("valid.refresh")).thenReturn(
+                new RefreshedAccessToken(principal, "new.access.token", issuedAt, issuedAt.plusSeconds(900)));
 
         // When
         var response = controller.refreshToken(request);
@@ -158,14 +208,31 @@ class AuthControllerTest {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).extracting("success").isEqualTo(true);
-        verify(refreshTokenService).verifyExpiration(refreshToken);
+        assertThat(response.getBody()).extracting("data").extracting("accessToken").isEqualTo("new.access.token");
+        assertThat(response.getBody()).extracting("data").extracting("refreshToken").isEqualTo("valid.refresh");
+        assertThat(response.getBody()).extracting("data").extracting("role").isEqualTo("ADMIN");
+    }
+
+    @Test
+    void refreshToken_expired_returnsUnauthorized() {
+        // Given
+        RefreshTokenRequest request = new RefreshTokenRequest("valid.refresh");
+        when(accessTokenRefresher.refresh("valid.refresh"))
+                .thenThrow(new RuntimeException("Refresh token expired. Please sign in again."));
+
+        // When
+        var response = controller.refreshToken(request);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(response.getBody()).extracting("message").isEqualTo("Refresh token expired. Please sign in again.");
     }
 
     @Test
     void refreshToken_notFound_returnsUnauthorized() {
         // Given
         RefreshTokenRequest request = new RefreshTokenRequest("invalid.refresh");
-        when(refreshTokenService.findByToken("invalid.refresh")).thenReturn(Optional.empty());
+        when(accessTokenRefresher.refresh("invalid.refresh")).thenThrow(new RuntimeException("Refresh token not found"));
 
         // When
         var response = controller.refreshToken(request);
@@ -179,16 +246,19 @@ class AuthControllerTest {
     void logout_success_returnsOk() {
         // Given
         String authHeader = "Bearer logout.token";
-        when(jwtUtil.extractUsername("logout.token")).thenReturn("admin");
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        when(jwtUtil.parseClaims("logout.token"))
+                .thenReturn(Jwts.claims().subject("admin").id("jti-1").expiration(expiration).build());
         when(userService.findByUsername("admin")).thenReturn(Optional.of(user));
 
         // When
-        var response = controller.logout(authHeader);
+        var response = controller.logout(authHeader, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).extracting("success").isEqualTo(true);
         verify(refreshTokenService).deleteByUser(user);
+        verify(accessTokenDenylist).revokeToken(eq("jti-1"), eq(1L), any(Date.class));
     }
 
     @Test
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.CourseContentView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
 import hr.algebra.uni_course_management.model.ContentType;
 import hr.algebra.uni_course_management.model.Course;
@@ -43,6 +44,7 @@ class CourseContentRestControllerTest {
         content = new CourseContent();
         content.setId(10L);
         content.setContentTitle("Test Content");
+        content.setCourse(course);
 
         contents = List.of(content);
     }
@@ -51,7 +53,7 @@ class CourseContentRestControllerTest {
     void getCourseContent_empty_returnsNotFound() {
         // Given
         when(courseService.getCourseById(1L)).thenReturn(course);
-        when(courseContentService.getAllCourseContents(1L)).thenReturn(List.of());
+        when(courseContentService.getContentViews(1L)).thenReturn(List.of());
 
         // When
         var response = controller.getCourseContent(1L);
@@ -61,7 +63,7 @@ class CourseContentRestControllerTest {
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(false);
-        verify(courseContentService).getAllCourseContents(1L);
+        verify(courseContentService).getContentViews(1L);
     }
 
     @Test
@@ -91,6 +93,7 @@ class CourseContentRestControllerTest {
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
+        assertThat(((CourseContentView) body.get("data")).getCourseId()).isEqualTo(1L);
         verify(courseContentService).createContent(eq(1L), any(CourseContent.class));
     }
 
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.CourseView;
 import hr.algebra.uni_course_management.jwt.ApiResponse;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.service.CourseService;
@@ -39,7 +40,7 @@ class CourseRestControllerTest {
     @Test
     void getAllCourses_success_returnsOk() {
         // Given
-        when(courseService.getAllCourses()).thenReturn(courses);
+        when(courseService.getCourseViews()).thenReturn(courses.stream().map(CourseView::from).toList());
 
         // When
         var response = controller.getAllCourses();
@@ -48,16 +49,17 @@ class CourseRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
         @SuppressWarnings("unchecked")
-        ApiResponse<List<Course>> apiResponse = (ApiResponse<List<Course>>) response.getBody();
+        ApiResponse<List<CourseView>> apiResponse = (ApiResponse<List<CourseView>>) response.getBody();
         assertThat(apiResponse.getData()).hasSize(1);
         assertThat(apiResponse.getMessage()).isEqualTo("Courses retrieved successfully");
-        verify(courseService).getAllCourses();
+        verify(courseService).getCourseViews();
+        verify(courseService, never()).getAllCourses();
     }
 
     @Test
     void getCourseById_success_returnsOk() {
         // Given
-        when(courseService.getCourseById(1L)).thenReturn(course);
+        when(courseService.getCourseView(1L)).thenReturn(CourseView.from(course));
 
         // When
         var response = controller.getCourseById(1L);
@@ -67,10 +69,9 @@ class CourseRestControllerTest {
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
-        @SuppressWarnings("unchecked")
-        Course data = (Course) body.get("data");
+        CourseView data = (CourseView) body.get("data");
         assertThat(data.getCourseName()).isEqualTo("Test Course");
-        verify(courseService).getCourseById(1L);
+        verify(courseService).getCourseView(1L);
     }
 
     @Test
@@ -87,7 +88,7 @@ class CourseRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
 
         @SuppressWarnings("unchecked")
-        ApiResponse<Course> apiResponse = (ApiResponse<Course>) response.getBody();
+        ApiResponse<CourseView> apiResponse = (ApiResponse<CourseView>) response.getBody();
         assertThat(apiResponse.getData().getCourseName()).isEqualTo("New Course");
         verify(courseService).createCourse(any(Course.class));
     }
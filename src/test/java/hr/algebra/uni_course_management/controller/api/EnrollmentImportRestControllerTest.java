@@ -0,0 +1,77 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import hr.algebra.uni_course_management.dto.ImportRowError;
+import hr.algebra.uni_course_management.service.EnrollmentImportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentImportRestControllerTest {
+    @Mock
+    private EnrollmentImportService enrollmentImportService;
+    @InjectMocks
+    private EnrollmentImportRestController controller;
+
+    @Test
+    void importEnrollments_returnsReport() throws IOException {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "enrollments.csv", "text/csv", "sivanovic,CS101\nx,CS101\n".getBytes());
+        ImportReport report = new ImportReport(2, 1, 1, 5L, List.of(new ImportRowError(2, "x", "CS101", "Student not found")));
+        when(enrollmentImportService.importCsv(any(InputStream.class))).thenReturn(report);
+
+        // When
+        var response = controller.importEnrollments(file);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("success")).isEqualTo(false);
+        assertThat(body.get("message")).isEqualTo("1 of 2 enrollments imported");
+        assertThat(body.get("data")).isSameAs(report);
+    }
+
+    @Test
+    void importEnrollments_emptyFile_returnsBadRequest() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "enrollments.csv", "text/csv", new byte[0]);
+
+        // When
+        var response = controller.importEnrollments(file);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(enrollmentImportService);
+    }
+
+    @Test
+    void importEnrollments_unreadableUpload_returnsBadRequest() throws IOException {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "enrollments.csv", "text/csv", "a,b\n".getBytes());
+        when(enrollmentImportService.importCsv(any(InputStream.class))).thenThrow(new IOException("stream closed"));
+
+        // When
+        var response = controller.importEnrollments(file);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("message")).isEqualTo("Could not read upload: stream closed");
+    }
+}
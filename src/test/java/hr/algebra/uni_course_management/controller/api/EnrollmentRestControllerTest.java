@@ -1,8 +1,16 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
+import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
 import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.service.EnrollmentBatcher;
+import hr.algebra.uni_course_management.service.EnrollmentQueueFullException;
+import hr.algebra.uni_course_management.service.EnrollmentRequest;
 import hr.algebra.uni_course_management.service.EnrollmentService;
+import hr.algebra.uni_course_management.service.LotteryService;
 import hr.algebra.uni_course_management.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +18,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,11 +37,15 @@ class EnrollmentRestControllerTest {
     @Mock
     private UserService userService;
     @Mock
+    private EnrollmentBatcher enrollmentBatcher;
+    @Mock
+    private LotteryService lotteryService;
+    @Mock
     private Authentication authentication;
     @InjectMocks
     private EnrollmentRestController controller;
     private User student;
-    private List<Enrollment> enrollments;
+    private List<TranscriptRow> enrollments;
     private Enrollment enrollment;
 
     @BeforeEach
@@ -40,10 +54,17 @@ class EnrollmentRestControllerTest {
         student.setId(1L);
         student.setUsername("student1");
 
+        Course course = new Course();
+        course.setId(10L);
+        course.setCourseCode("CS101");
         enrollment = new Enrollment();
         enrollment.setId(1L);
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        enrollment.setStatus(EnrollmentStatus.ENROLLED);
 
-        enrollments = List.of(enrollment);
+        enrollments = List.of(new TranscriptRow(1L, 10L, "CS101", "Programming", 6, null, null, true,
+                EnrollmentStatus.ENROLLED, LocalDateTime.now(), null, null));
 
         when(authentication.getName()).thenReturn("student1");
     }
@@ -51,7 +72,7 @@ class EnrollmentRestControllerTest {
     @Test
     void getCurrentStudentEnrollments_success_returnsOk() {
         // Given
-        when(enrollmentService.findByStudentUsername("student1")).thenReturn(enrollments);
+        when(enrollmentService.getTranscript("student1")).thenReturn(enrollments);
 
         // When
         var response = controller.getCurrentStudentEnrollments(authentication);
@@ -64,13 +85,13 @@ class EnrollmentRestControllerTest {
         @SuppressWarnings("unchecked")
         List<?> data = (List<?>) body.get("data");
         assertThat(data).hasSize(1);
-        verify(enrollmentService).findByStudentUsername("student1");
+        verify(enrollmentService).getTranscript("student1");
     }
 
     @Test
     void getCurrentStudentEnrollments_error_returnsInternalServerError() {
         // Given
-        when(enrollmentService.findByStudentUsername("student1"))
+        when(enrollmentService.getTranscript("student1"))
                 .thenThrow(new RuntimeException("Database error"));
 
         // When
@@ -81,23 +102,26 @@ class EnrollmentRestControllerTest {
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(false);
-        verify(enrollmentService).findByStudentUsername("student1");
+        verify(enrollmentService).getTranscript("student1");
     }
 
     @Test
     void enrollInCourse_success_returnsCreated() {
         // Given
         when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
-        when(enrollmentService.enrollStudent(1L, 10L)).thenReturn(enrollment);
+        when(enrollmentService.enrollStudent(1L, 10L)).thenReturn(EnrollmentView.from(enrollment));
 
         // When
-        var response = controller.enrollInCourse(10L, authentication);
+        var response = controller.enrollInCourse(10L, 0L, authentication);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
+        EnrollmentView data = (EnrollmentView) body.get("data");
+        assertThat(data.getStudentId()).isEqualTo(1L);
+        assertThat(data.getCourseCode()).isEqualTo("CS101");
         verify(enrollmentService).enrollStudent(1L, 10L);
     }
 
@@ -107,7 +131,7 @@ class EnrollmentRestControllerTest {
         when(userService.findByUsername("student1")).thenReturn(Optional.empty());
 
         // When
-        var response = controller.enrollInCourse(10L, authentication);
+        var response = controller.enrollInCourse(10L, 0L, authentication);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -126,13 +150,284 @@ class EnrollmentRestControllerTest {
                 .thenThrow(new RuntimeException("Course full"));
 
         // When
-        var response = controller.enrollInCourse(10L, authentication);
+        var response = controller.enrollInCourse(10L, 0L, authentication);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         verify(enrollmentService).enrollStudent(1L, 10L);
     }
 
+    @Test
+    void enrollInCourse_burstMode_returnsAcceptedWithLocation() {
+        // Given
+        EnrollmentRequest request = new EnrollmentRequest(1L, 10L);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenReturn(request);
+
+        // When
+        var response = controller.enrollInCourse(10L, 0L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LOCATION))
+                .isEqualTo("/api/enrollments/requests/" + request.getId());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) ((Map<String, Object>) response.getBody()).get("data");
+        assertThat(data.get("status")).isEqualTo(EnrollmentRequest.Status.PENDING);
+        verifyNoInteractions(enrollmentService);
+    }
+
+    @Test
+    void enrollInCourse_burstModeRejected_returnsBadRequest() {
+        // Given
+        EnrollmentRequest request = mock(EnrollmentRequest.class);
+        when(request.getStatus()).thenReturn(EnrollmentRequest.Status.REJECTED);
+        when(request.getMessage()).thenReturn("Course is full");
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenReturn(request);
+
+        // When
+        var response = controller.enrollInCourse(10L, 0L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("message")).isEqualTo("Course is full");
+    }
+
+    @Test
+    void enrollInCourse_burstModeWithWait_returnsCreatedWhenCommitted() throws Exception {
+        // Given
+        EnrollmentRequest request = mock(EnrollmentRequest.class);
+        when(request.getStatus()).thenReturn(EnrollmentRequest.Status.ENROLLED);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenReturn(request);
+        when(enrollmentBatcher.getMaxWaitMs()).thenReturn(2_000L);
+
+        // When
+        var response = controller.enrollInCourse(10L, 500L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        verify(request).await(500L);
+    }
+
+    @Test
+    void enrollInCourse_burstModeWaitAboveLimit_isClampedToConfiguredWait() throws Exception {
+        // Given
+        EnrollmentRequest request = mock(EnrollmentRequest.class);
+        when(request.getStatus()).thenReturn(EnrollmentRequest.Status.PENDING);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenReturn(request);
+        when(enrollmentBatcher.getMaxWaitMs()).thenReturn(2_000L);
+
+        // When
+        controller.enrollInCourse(10L, 3_600_000L, authentication);
+
+        // Then
+        verify(request).await(2_000L);
+    }
+
+    @Test
+    void enrollInCourse_burstModeWaitInterrupted_returnsAcceptedAndKeepsInterruptFlag() throws Exception {
+        // Given
+        EnrollmentRequest request = mock(EnrollmentRequest.class);
+        when(request.getId()).thenReturn("request-1");
+        when(request.getStatus()).thenReturn(EnrollmentRequest.Status.PENDING);
+        when(request.await(500L)).thenThrow(new InterruptedException());
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenReturn(request);
+        when(enrollmentBatcher.getMaxWaitMs()).thenReturn(2_000L);
+
+        // When
+        var response = controller.enrollInCourse(10L, 500L, authentication);
+
+        // Then
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LOCATION)).isEqualTo("/api/enrollments/requests/request-1");
+    }
+
+    @Test
+    void enrollInCourse_queueFull_returnsServiceUnavailable() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submit(1L, 10L)).thenThrow(new EnrollmentQueueFullException());
+
+        // When
+        var response = controller.enrollInCourse(10L, 0L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                .isEqualTo(EnrollmentQueueFullException.RETRY_AFTER_SECONDS);
+    }
+
+    @Test
+    void getEnrollmentRequest_ownRequest_returnsStatus() {
+        // Given
+        EnrollmentRequest request = new EnrollmentRequest(1L, 10L);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.find(request.getId())).thenReturn(Optional.of(request));
+
+        // When
+        var response = controller.getEnrollmentRequest(request.getId(), authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+    }
+
+    @Test
+    void getEnrollmentRequest_otherStudentsRequest_returnsNotFound() {
+        // Given
+        EnrollmentRequest request = new EnrollmentRequest(2L, 10L);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentBatcher.find(request.getId())).thenReturn(Optional.of(request));
+
+        // When
+        var response = controller.getEnrollmentRequest(request.getId(), authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getPreferences_success_returnsRankedCourses() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(lotteryService.isWindowOpen()).thenReturn(true);
+        when(lotteryService.getPreferences(1L)).thenReturn(List.of(12L, 10L));
+
+        // When
+        var response = controller.getPreferences(authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) ((Map<String, Object>) response.getBody()).get("data");
+        assertThat(data.get("courseIds")).isEqualTo(List.of(12L, 10L));
+        assertThat(data.get("windowOpen")).isEqualTo(true);
+    }
+
+    @Test
+    void submitPreferences_success_returnsOk() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+
+        // When
+        var response = controller.submitPreferences(List.of(12L, 10L), authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(lotteryService).submitPreferences(1L, List.of(12L, 10L));
+    }
+
+    @Test
+    void submitPreferences_windowClosed_returnsConflict() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        doThrow(new IllegalStateException("The preference window is closed"))
+                .when(lotteryService).submitPreferences(1L, List.of(12L));
+
+        // When
+        var response = controller.submitPreferences(List.of(12L), authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void submitPreferences_invalidList_returnsBadRequest() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        doThrow(new IllegalArgumentException("Preferences must list distinct courses"))
+                .when(lotteryService).submitPreferences(1L, List.of(12L, 12L));
+
+        // When
+        var response = controller.submitPreferences(List.of(12L, 12L), authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void joinWaitlist_success_returnsCreatedWithPosition() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentService.joinWaitlist(1L, 10L)).thenReturn(4);
+
+        // When
+        var response = controller.joinWaitlist(10L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) ((Map<String, Object>) response.getBody()).get("data");
+        assertThat(data.get("position")).isEqualTo(4);
+    }
+
+    @Test
+    void joinWaitlist_seatsAvailable_returnsBadRequest() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentService.joinWaitlist(1L, 10L)).thenThrow(new IllegalStateException("Course still has free seats"));
+
+        // When
+        var response = controller.joinWaitlist(10L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void getWaitlistPosition_waiting_returnsPosition() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentService.getWaitlistPosition(1L, 10L)).thenReturn(Optional.of(2));
+
+        // When
+        var response = controller.getWaitlistPosition(10L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) ((Map<String, Object>) response.getBody()).get("data");
+        assertThat(data.get("position")).isEqualTo(2);
+    }
+
+    @Test
+    void getWaitlistPosition_notWaiting_returnsNotFound() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(enrollmentService.getWaitlistPosition(1L, 10L)).thenReturn(Optional.empty());
+
+        // When
+        var response = controller.getWaitlistPosition(10L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void leaveWaitlist_success_returnsOk() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+
+        // When
+        var response = controller.leaveWaitlist(10L, authentication);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(enrollmentService).leaveWaitlist(1L, 10L);
+    }
+
     @Test
     void dropFromCourse_success_returnsOk() {
         // Given
@@ -1,16 +1,31 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import hr.algebra.uni_course_management.dto.GradeView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.model.Course;
+import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.Grade;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.service.CourseService;
 import hr.algebra.uni_course_management.service.GradeService;
+import hr.algebra.uni_course_management.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,23 +36,46 @@ import static org.mockito.Mockito.*;
 class GradeRestControllerTest {
     @Mock
     private GradeService gradeService;
+    @Mock
+    private CourseService courseService;
+    @Mock
+    private UserService userService;
     @InjectMocks
     private GradeRestController controller;
     private Grade grade;
-    private List<Grade> grades;
+    private List<GradeView> grades;
+    private Course taughtCourse;
 
     @BeforeEach
     void setUp() {
+        User student = new User();
+        student.setId(2L);
+        student.setFirstName("Ana");
+        student.setLastName("Anic");
+        Course course = new Course();
+        course.setId(1L);
+        course.setCourseCode("CS101");
+        Enrollment enrollment = new Enrollment();
+        enrollment.setId(10L);
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+
         grade = new Grade();
         grade.setId(1L);
         grade.setGradeValue(95);
-        grades = List.of(grade);
+        grade.setEnrollment(enrollment);
+        grades = List.of(GradeView.from(grade));
+
+        User professor = new User();
+        professor.setId(5L);
+        course.setProfessor(professor);
+        taughtCourse = course;
     }
 
     @Test
     void assignGrade_success_returnsCreated() {
         // Given
-        when(gradeService.assignGrade(10L, 95)).thenReturn(grade);
+        when(gradeService.assignGrade(10L, 95)).thenReturn(GradeView.from(grade));
 
         // When
         var response = controller.assignGrade(10L, 95);
@@ -47,9 +85,11 @@ class GradeRestControllerTest {
         @SuppressWarnings("unchecked")
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
-        @SuppressWarnings("unchecked")
-        Grade data = (Grade) body.get("data");
+        GradeView data = (GradeView) body.get("data");
         assertThat(data.getGradeValue()).isEqualTo(95);
+        assertThat(data.getEnrollmentId()).isEqualTo(10L);
+        assertThat(data.getStudentName()).isEqualTo("Ana Anic");
+        assertThat(data.getCourseCode()).isEqualTo("CS101");
         verify(gradeService).assignGrade(10L, 95);
     }
 
@@ -84,13 +124,91 @@ class GradeRestControllerTest {
         verify(gradeService).assignGrade(10L, 95);
     }
 
+    @Test
+    void assignGrades_teachingProfessor_returnsCreated() {
+        // Given
+        List<GradeEntry> entries = List.of(new GradeEntry(10L, 4));
+        when(courseService.getCourseById(1L)).thenReturn(taughtCourse);
+        when(gradeService.assignGrades(1L, entries)).thenReturn(grades);
+
+        // When
+        var response = controller.assignGrades(1L, entries, authentication(5L, UserRole.PROFESSOR));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("success")).isEqualTo(true);
+        assertThat(body.get("data")).isSameAs(grades);
+    }
+
+    @Test
+    void assignGrades_otherProfessor_returnsForbidden() {
+        // Given
+        when(courseService.getCourseById(1L)).thenReturn(taughtCourse);
+
+        // When
+        var response = controller.assignGrades(1L, List.of(new GradeEntry(10L, 4)), authentication(6L, UserRole.PROFESSOR));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        verifyNoInteractions(gradeService);
+    }
+
+    @Test
+    void assignGrades_admin_mayGradeAnyCourse() {
+        // Given
+        List<GradeEntry> entries = List.of(new GradeEntry(10L, 4));
+        when(courseService.getCourseById(1L)).thenReturn(taughtCourse);
+        when(gradeService.assignGrades(1L, entries)).thenReturn(grades);
+
+        // When
+        var response = controller.assignGrades(1L, entries, authentication(9L, UserRole.ADMIN));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void assignGrades_invalidRoster_returnsBadRequest() {
+        // Given
+        List<GradeEntry> entries = List.of(new GradeEntry(10L, 7));
+        when(courseService.getCourseById(1L)).thenReturn(taughtCourse);
+        when(gradeService.assignGrades(1L, entries))
+                .thenThrow(new IllegalArgumentException("Invalid grades: enrollment 10 has a grade outside 1-5."));
+
+        // When
+        var response = controller.assignGrades(1L, entries, authentication(5L, UserRole.PROFESSOR));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat((String) body.get("message")).contains("enrollment 10");
+    }
+
+    @Test
+    void assignGrades_stateConflict_returnsConflict() {
+        // Given
+        List<GradeEntry> entries = List.of(new GradeEntry(10L, 4));
+        when(courseService.getCourseById(1L)).thenReturn(taughtCourse);
+        when(gradeService.assignGrades(1L, entries)).thenThrow(new IllegalStateException("Timeout trying to lock table"));
+
+        // When
+        var response = controller.assignGrades(1L, entries, authentication(5L, UserRole.PROFESSOR));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
     @Test
     void getGrades_byCourse_success_returnsOk() {
         // Given
-        when(gradeService.getGradesByCourse(1L)).thenReturn(grades);
+        when(gradeService.getGradesByCourse(eq(1L), any(GradeFilter.class), isNull(), isNull()))
+                .thenReturn(new GradePage(grades, null));
 
         // When
-        var response = controller.getGrades(1L, null);
+        var response = controller.getGrades(1L, null, null, null, null, null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -98,18 +216,19 @@ class GradeRestControllerTest {
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
         @SuppressWarnings("unchecked")
-        List<Grade> data = (List<Grade>) body.get("data");
+        List<GradeView> data = (List<GradeView>) body.get("data");
         assertThat(data).hasSize(1);
-        verify(gradeService).getGradesByCourse(1L);
+        verify(gradeService).getGradesByCourse(eq(1L), any(GradeFilter.class), isNull(), isNull());
     }
 
     @Test
     void getGrades_byStudent_success_returnsOk() {
         // Given
-        when(gradeService.getGradesByStudent(2L)).thenReturn(grades);
+        when(gradeService.getGradesByStudent(eq(2L), any(GradeFilter.class), isNull(), isNull()))
+                .thenReturn(new GradePage(grades, null));
 
         // When
-        var response = controller.getGrades(null, 2L);
+        var response = controller.getGrades(null, 2L, null, null, null, null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -117,15 +236,15 @@ class GradeRestControllerTest {
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(body.get("success")).isEqualTo(true);
         @SuppressWarnings("unchecked")
-        List<Grade> data = (List<Grade>) body.get("data");
+        List<GradeView> data = (List<GradeView>) body.get("data");
         assertThat(data).hasSize(1);
-        verify(gradeService).getGradesByStudent(2L);
+        verify(gradeService).getGradesByStudent(eq(2L), any(GradeFilter.class), isNull(), isNull());
     }
 
     @Test
     void getGrades_noParams_returnsBadRequest() {
         // When
-        var response = controller.getGrades(null, null);
+        var response = controller.getGrades(null, null, null, null, null, null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -139,28 +258,72 @@ class GradeRestControllerTest {
     @Test
     void getGrades_courseNotFound_returnsNotFound() {
         // Given
-        when(gradeService.getGradesByCourse(999L))
+        when(gradeService.getGradesByCourse(eq(999L), any(GradeFilter.class), isNull(), isNull()))
                 .thenThrow(new ResourceNotFoundException("Course not found"));
 
         // When
-        var response = controller.getGrades(999L, null);
+        var response = controller.getGrades(999L, null, null, null, null, null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
-        verify(gradeService).getGradesByCourse(999L);
+        verify(gradeService).getGradesByCourse(eq(999L), any(GradeFilter.class), isNull(), isNull());
     }
 
     @Test
     void getGrades_studentNotFound_returnsNotFound() {
         // Given
-        when(gradeService.getGradesByStudent(999L))
+        when(gradeService.getGradesByStudent(eq(999L), any(GradeFilter.class), isNull(), isNull()))
                 .thenThrow(new ResourceNotFoundException("Student not found"));
 
         // When
-        var response = controller.getGrades(null, 999L);
+        var response = controller.getGrades(null, 999L, null, null, null, null, null, null);
 
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
-        verify(gradeService).getGradesByStudent(999L);
+        verify(gradeService).getGradesByStudent(eq(999L), any(GradeFilter.class), isNull(), isNull());
+    }
+
+    @Test
+    void getGrades_withFilterAndCursor_passesThemOnAndReturnsNextAfterId() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(gradeService.getGradesByCourse(eq(1L), any(GradeFilter.class), eq(40L), eq(1)))
+                .thenReturn(new GradePage(grades, 41L));
+
+        // When
+        var response = controller.getGrades(1L, null, 40L, 1, 3, 5, from, null);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("nextAfterId")).isEqualTo(41L);
+        ArgumentCaptor<GradeFilter> filter = ArgumentCaptor.forClass(GradeFilter.class);
+        verify(gradeService).getGradesByCourse(eq(1L), filter.capture(), eq(40L), eq(1));
+        assertThat(filter.getValue().getMinGrade()).isEqualTo(3);
+        assertThat(filter.getValue().getMaxGrade()).isEqualTo(5);
+        assertThat(filter.getValue().getGradedFrom()).isEqualTo(from);
+        assertThat(filter.getValue().getGradedTo()).isNull();
+    }
+
+    @Test
+    void getGrades_invalidLimit_returnsBadRequest() {
+        // Given
+        when(gradeService.getGradesByStudent(eq(2L), any(GradeFilter.class), isNull(), eq(0)))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 500."));
+
+        // When
+        var response = controller.getGrades(null, 2L, null, 0, null, null, null, null);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat((String) body.get("message")).contains("Limit");
+    }
+
+    private static Authentication authentication(Long userId, UserRole role) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, "x", role, true);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
     }
-}
\ No newline at end of file
+}
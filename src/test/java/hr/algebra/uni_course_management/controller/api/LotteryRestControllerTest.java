@@ -0,0 +1,76 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.LotteryResult;
+import hr.algebra.uni_course_management.service.LotteryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LotteryRestControllerTest {
+    @Mock
+    private LotteryService lotteryService;
+    @InjectMocks
+    private LotteryRestController controller;
+
+    @Test
+    void getStatus_returnsWindowState() {
+        // Given
+        when(lotteryService.isWindowOpen()).thenReturn(true);
+
+        // When
+        var response = controller.getStatus();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) ((Map<String, Object>) response.getBody()).get("data");
+        assertThat(data.get("windowOpen")).isEqualTo(true);
+    }
+
+    @Test
+    void openWindow_opensPreferenceWindow() {
+        // When
+        var response = controller.openWindow();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(lotteryService).openWindow();
+    }
+
+    @Test
+    void allocate_success_returnsResult() {
+        // Given
+        LotteryResult result = new LotteryResult(1L, 10, 8, 2, 3L, 20L);
+        when(lotteryService.allocate()).thenReturn(result);
+
+        // When
+        var response = controller.allocate();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("data")).isSameAs(result);
+    }
+
+    @Test
+    void allocate_failure_returnsInternalServerError() {
+        // Given
+        when(lotteryService.allocate()).thenThrow(new RuntimeException("Database error"));
+
+        // When
+        var response = controller.allocate();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
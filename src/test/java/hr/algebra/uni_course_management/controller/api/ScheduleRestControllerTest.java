@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.ScheduleEntryView;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.ScheduleEntry;
 import hr.algebra.uni_course_management.service.AdminScheduleService;
@@ -62,7 +63,7 @@ class ScheduleRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(body.get("message")).isEqualTo("Schedule entry created successfully");
-        assertThat(((ScheduleEntry) body.get("data")).getRoom()).isEqualTo("A101");
+        assertThat(((ScheduleEntryView) body.get("data")).getRoom()).isEqualTo("A101");
         verify(adminScheduleService).createScheduleEntry(eq(1L), any(ScheduleEntry.class));
     }
 
@@ -110,7 +111,7 @@ class ScheduleRestControllerTest {
     @WithMockUser(roles = "STUDENT")
     void getCourseSchedule_success_returnsOk() {
         // Given
-        when(adminScheduleService.findAllScheduleEntriesSorted()).thenReturn(List.of(sampleSchedule));
+        when(adminScheduleService.getScheduleViews(1L)).thenReturn(List.of(ScheduleEntryView.from(sampleSchedule)));
 
         // When
         ResponseEntity<?> response = controller.getCourseSchedule(1L);
@@ -121,14 +122,15 @@ class ScheduleRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(((List<?>) body.get("data"))).hasSize(1);
-        verify(adminScheduleService).findAllScheduleEntriesSorted();
+        verify(adminScheduleService).getScheduleViews(1L);
+        verify(adminScheduleService, never()).findAllScheduleEntriesSorted();
     }
 
     @Test
     @WithMockUser(roles = "STUDENT")
     void getCourseSchedule_noSchedules_returnsNotFound() {
         // Given
-        when(adminScheduleService.findAllScheduleEntriesSorted()).thenReturn(Collections.emptyList());
+        when(adminScheduleService.getScheduleViews(999L)).thenReturn(Collections.emptyList());
 
         // When
         ResponseEntity<?> response = controller.getCourseSchedule(999L);
@@ -139,14 +141,14 @@ class ScheduleRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(body.get("success")).isEqualTo(false);
         assertThat(body.get("message")).isEqualTo("No schedule found for the specified course");
-        verify(adminScheduleService).findAllScheduleEntriesSorted();
+        verify(adminScheduleService).getScheduleViews(999L);
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getAllSchedules_success_returnsOk() {
         // Given
-        when(adminScheduleService.findAllScheduleEntriesSorted()).thenReturn(List.of(sampleSchedule));
+        when(adminScheduleService.getScheduleViews(null)).thenReturn(List.of(ScheduleEntryView.from(sampleSchedule)));
 
         // When
         ResponseEntity<?> response = controller.getAllSchedules();
@@ -157,7 +159,7 @@ class ScheduleRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(((List<?>) body.get("data"))).hasSize(1);
-        verify(adminScheduleService).findAllScheduleEntriesSorted();
+        verify(adminScheduleService).getScheduleViews(null);
     }
 
     @Test
@@ -177,7 +179,7 @@ class ScheduleRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(body.get("message")).isEqualTo("Schedule entry updated successfully");
-        assertThat(((ScheduleEntry) body.get("data")).getId()).isEqualTo(1L);
+        assertThat(((ScheduleEntryView) body.get("data")).getId()).isEqualTo(1L);
         verify(adminScheduleService).updateScheduleEntry(eq(1L), eq(1L), any(ScheduleEntry.class));
     }
 
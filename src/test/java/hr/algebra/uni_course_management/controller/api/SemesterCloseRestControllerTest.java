@@ -0,0 +1,96 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.model.Semester;
+import hr.algebra.uni_course_management.service.SemesterCloseJob;
+import hr.algebra.uni_course_management.service.SemesterCloseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SemesterCloseRestControllerTest {
+    @Mock
+    private SemesterCloseService semesterCloseService;
+    @InjectMocks
+    private SemesterCloseRestController controller;
+
+    @Test
+    void startClose_returnsAcceptedWithJob() {
+        // Given
+        SemesterCloseJob job = new SemesterCloseJob(Semester.SUMMER, "2024/2025");
+        when(semesterCloseService.start(Semester.SUMMER, "2024/2025")).thenReturn(job);
+
+        // When
+        var response = controller.startClose(Semester.SUMMER, "2024/2025");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("data")).isSameAs(job);
+    }
+
+    @Test
+    void startClose_alreadyRunning_returnsConflict() {
+        // Given
+        when(semesterCloseService.start(Semester.SUMMER, "2024/2025"))
+                .thenThrow(new IllegalStateException("This semester is already being closed"));
+
+        // When
+        var response = controller.startClose(Semester.SUMMER, "2024/2025");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void startClose_blankYear_returnsBadRequest() {
+        // Given
+        when(semesterCloseService.start(Semester.WINTER, ""))
+                .thenThrow(new IllegalArgumentException("Semester and academic year are required"));
+
+        // When
+        var response = controller.startClose(Semester.WINTER, "");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void getProgress_runningJob_reportsCounts() {
+        // Given
+        SemesterCloseJob job = new SemesterCloseJob(Semester.SUMMER, "2024/2025");
+        when(semesterCloseService.find(job.getId())).thenReturn(Optional.of(job));
+
+        // When
+        var response = controller.getProgress(job.getId());
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("message")).isEqualTo("0 of 0 enrollments closed");
+        assertThat(body.get("data")).isSameAs(job);
+    }
+
+    @Test
+    void getProgress_unknownJob_returnsNotFound() {
+        // Given
+        when(semesterCloseService.find("missing")).thenReturn(Optional.empty());
+
+        // When
+        var response = controller.getProgress("missing");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
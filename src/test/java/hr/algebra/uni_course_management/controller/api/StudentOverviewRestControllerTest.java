@@ -0,0 +1,88 @@
+package hr.algebra.uni_course_management.controller.api;
+
+import hr.algebra.uni_course_management.dto.StudentOverview;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.service.StudentOverviewService;
+import hr.algebra.uni_course_management.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentOverviewRestControllerTest {
+    @Mock
+    private StudentOverviewService studentOverviewService;
+    @Mock
+    private UserService userService;
+    @InjectMocks
+    private StudentOverviewRestController controller;
+
+    private final Authentication authentication = new UsernamePasswordAuthenticationToken("student1", null, List.of());
+
+    @Test
+    void getOverview_tokenCarriesUserId_skipsUserLookup() {
+        // Given
+        Claims claims = Jwts.claims().subject("student1").add(JwtUtil.USER_ID_CLAIM, 7L).build();
+        StudentOverview overview = new StudentOverview(7L, List.of(), List.of(), List.of(), List.of(), List.of());
+        when(studentOverviewService.getOverview(7L)).thenReturn(overview);
+
+        // When
+        var response = controller.getOverview(authentication, claims);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("message")).isEqualTo("Overview retrieved successfully");
+        assertThat(body.get("data")).isSameAs(overview);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getOverview_noClaims_fallsBackToUsername() {
+        // Given
+        User student = new User();
+        student.setId(3L);
+        when(userService.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(studentOverviewService.getOverview(3L))
+                .thenReturn(new StudentOverview(3L, List.of(), null, List.of(), List.of(), List.of("grades")));
+
+        // When
+        var response = controller.getOverview(authentication, null);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertThat(body.get("success")).isEqualTo(true);
+        assertThat(body.get("message")).isEqualTo("Overview retrieved without: grades");
+    }
+
+    @Test
+    void getOverview_unknownUser_returnsNotFound() {
+        // Given
+        when(userService.findByUsername("student1")).thenReturn(Optional.empty());
+
+        // When
+        var response = controller.getOverview(authentication, null);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(studentOverviewService);
+    }
+}
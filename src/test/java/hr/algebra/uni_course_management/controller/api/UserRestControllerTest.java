@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.api;
 
+import hr.algebra.uni_course_management.dto.UserView;
 import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
@@ -44,7 +45,7 @@ class UserRestControllerTest {
     @WithMockUser(roles = "ADMIN")
     void getAllUsers_noRole_returnsAllUsers() {
         // Given
-        when(userService.getAllUsers()).thenReturn(List.of(sampleUser));
+        when(userService.getUserViews(null)).thenReturn(List.of(UserView.from(sampleUser)));
 
         // When
         ResponseEntity<?> response = controller.getAllUsers(null);
@@ -55,14 +56,14 @@ class UserRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(((List<?>) body.get("data"))).hasSize(1);
-        verify(userService).getAllUsers();
+        verify(userService).getUserViews(null);
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getAllUsers_withValidRole_returnsFilteredUsers() {
         // Given
-        when(userService.getUsersByRole(UserRole.ADMIN)).thenReturn(List.of(sampleUser));
+        when(userService.getUserViews(UserRole.ADMIN)).thenReturn(List.of(UserView.from(sampleUser)));
 
         // When
         ResponseEntity<?> response = controller.getAllUsers("admin");
@@ -73,14 +74,14 @@ class UserRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat(((List<?>) body.get("data"))).hasSize(1);
-        verify(userService).getUsersByRole(UserRole.ADMIN);
+        verify(userService).getUserViews(UserRole.ADMIN);
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getUserById_success_returnsOk() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(sampleUser);
+        when(userService.getUserView(1L)).thenReturn(UserView.from(sampleUser));
 
         // When
         ResponseEntity<?> response = controller.getUserById(1L);
@@ -90,15 +91,15 @@ class UserRestControllerTest {
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(body.get("success")).isEqualTo(true);
-        assertThat(((User) body.get("data")).getUsername()).isEqualTo("testuser");
-        verify(userService).getUserById(1L);
+        assertThat(((UserView) body.get("data")).getUsername()).isEqualTo("testuser");
+        verify(userService).getUserView(1L);
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getUserById_notFound_returnsNotFound() {
         // Given
-        when(userService.getUserById(999L)).thenThrow(new ResourceNotFoundException("User not found"));
+        when(userService.getUserView(999L)).thenThrow(new ResourceNotFoundException("User not found"));
 
         // When
         ResponseEntity<?> response = controller.getUserById(999L);
@@ -109,7 +110,7 @@ class UserRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(body.get("success")).isEqualTo(false);
         assertThat(body.get("message")).isEqualTo("User not found");
-        verify(userService).getUserById(999L);
+        verify(userService).getUserView(999L);
     }
 
     @Test
@@ -128,6 +129,7 @@ class UserRestControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(body.get("success")).isEqualTo(true);
         assertThat((String) body.get("message")).contains("newuser");
+        assertThat(body.get("data")).isInstanceOf(UserView.class);
         verify(userService).registerUser("newuser", "password123", "New", "User", "new@example.com", UserRole.STUDENT);
     }
 
@@ -5,6 +5,7 @@ import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
 import hr.algebra.uni_course_management.repository.UserRepository;
 import hr.algebra.uni_course_management.service.CourseService;
+import hr.algebra.uni_course_management.service.EnrollmentService;
 import hr.algebra.uni_course_management.service.GradeExportService;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.springframework.validation.BindingResult;
 
 import java.io.PrintWriter;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,6 +33,8 @@ class AdminCourseControllerTest {
     private UserRepository userRepository;
     @Mock(lenient = true)
     private GradeExportService gradeExportService;
+    @Mock(lenient = true)
+    private EnrollmentService enrollmentService;
     @Mock private Model model;
     @Mock private BindingResult bindingResult;
     @InjectMocks private AdminCourseController controller;
@@ -46,12 +50,14 @@ class AdminCourseControllerTest {
     void getCourses_addsCourses_returnsListView() {
         List<Course> courses = List.of(testCourse);
         when(courseService.getAllCourses()).thenReturn(courses);
+        when(enrollmentService.countActiveEnrollments(List.of(1L))).thenReturn(Map.of(1L, 3));
 
         String viewName = controller.getCourses(model);
 
         assertEquals("admin/courses/list", viewName);
         verify(courseService).getAllCourses();
         verify(model).addAttribute("courses", courses);
+        verify(model).addAttribute("enrollmentCounts", Map.of(1L, 3));
     }
 
     @Test
@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.controller.mvc;
 
+import hr.algebra.uni_course_management.dto.RosterGradeForm;
 import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.Grade;
@@ -18,6 +19,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.io.PrintWriter;
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.*;
@@ -65,10 +67,8 @@ class ProfessorCourseControllerTest {
 
         when(courseService.getCoursesByProfessorId(1L))
                 .thenReturn(List.of(c1, c2));
-        when(enrollmentService.getActiveEnrollmentsForCourse(10L))
-                .thenReturn(List.of(new Enrollment(), new Enrollment())); // 2 students
-        when(enrollmentService.getActiveEnrollmentsForCourse(20L))
-                .thenReturn(List.of(new Enrollment())); // 1 student
+        when(enrollmentService.countActiveEnrollments(List.of(10L, 20L)))
+                .thenReturn(Map.of(10L, 2, 20L, 1));
 
         String viewName = controller.professorCourses(model, principal);
 
@@ -78,8 +78,8 @@ class ProfessorCourseControllerTest {
 
         verify(model).addAttribute("courses", List.of(c1, c2));
         verify(courseService).getCoursesByProfessorId(1L);
-        verify(enrollmentService).getActiveEnrollmentsForCourse(10L);
-        verify(enrollmentService).getActiveEnrollmentsForCourse(20L);
+        verify(enrollmentService).countActiveEnrollments(List.of(10L, 20L));
+        verify(enrollmentService, never()).getActiveEnrollmentsForCourse(anyLong());
     }
 
     @Test
@@ -134,6 +134,68 @@ class ProfessorCourseControllerTest {
         ));
     }
 
+    @Test
+    void assignGrades_unauthorizedProfessor_redirectsWithoutGrading() {
+        User other = new User();
+        other.setId(2L);
+        Course course = new Course();
+        course.setProfessor(other);
+        when(courseService.getCourseById(10L)).thenReturn(course);
+
+        String viewName = controller.assignGrades(10L, new RosterGradeForm(), principal, redirectAttributes);
+
+        assertThat(viewName).isEqualTo("redirect:/professor/courses?error=unauthorized");
+        verifyNoInteractions(gradeService);
+    }
+
+    @Test
+    void assignGrades_filledRows_submitsThemTogether() {
+        Course course = new Course();
+        course.setProfessor(professor);
+        when(courseService.getCourseById(10L)).thenReturn(course);
+        RosterGradeForm form = new RosterGradeForm();
+        form.getGrades().put(100L, 4);
+        form.getGrades().put(200L, null);
+        form.getGrades().put(300L, 5);
+
+        String viewName = controller.assignGrades(10L, form, principal, redirectAttributes);
+
+        assertThat(viewName).isEqualTo("redirect:/professor/courses/10/students");
+        verify(gradeService).assignGrades(eq(10L), argThat(entries -> entries.size() == 2
+                && entries.get(0).getEnrollmentId() == 100L && entries.get(0).getGradeValue() == 4
+                && entries.get(1).getEnrollmentId() == 300L && entries.get(1).getGradeValue() == 5));
+        verify(redirectAttributes).addFlashAttribute("success", "2 grade(s) saved successfully.");
+    }
+
+    @Test
+    void assignGrades_invalidRoster_flashesErrorMessage() {
+        Course course = new Course();
+        course.setProfessor(professor);
+        when(courseService.getCourseById(10L)).thenReturn(course);
+        RosterGradeForm form = new RosterGradeForm();
+        form.getGrades().put(100L, 9);
+        when(gradeService.assignGrades(eq(10L), anyList()))
+                .thenThrow(new IllegalArgumentException("Invalid grades: enrollment 100 has a grade outside 1-5."));
+
+        String viewName = controller.assignGrades(10L, form, principal, redirectAttributes);
+
+        assertThat(viewName).isEqualTo("redirect:/professor/courses/10/students");
+        verify(redirectAttributes).addFlashAttribute("errorMessage",
+                "Invalid grades: enrollment 100 has a grade outside 1-5.");
+    }
+
+    @Test
+    void assignGrades_emptyForm_flashesErrorWithoutGrading() {
+        Course course = new Course();
+        course.setProfessor(professor);
+        when(courseService.getCourseById(10L)).thenReturn(course);
+
+        controller.assignGrades(10L, new RosterGradeForm(), principal, redirectAttributes);
+
+        verify(redirectAttributes).addFlashAttribute("errorMessage", "Enter at least one grade before saving.");
+        verifyNoInteractions(gradeService);
+    }
+
     @Test
     void exportCourseGrades_unauthorized_setsForbiddenAndReturns() {
         Course course = new Course();
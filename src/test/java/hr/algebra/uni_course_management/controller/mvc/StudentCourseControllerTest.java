@@ -1,7 +1,10 @@
 package hr.algebra.uni_course_management.controller.mvc;
 
+import hr.algebra.uni_course_management.dto.TranscriptRow;
 import hr.algebra.uni_course_management.model.*;
 import hr.algebra.uni_course_management.service.CourseService;
+import hr.algebra.uni_course_management.service.EnrollmentBatcher;
+import hr.algebra.uni_course_management.service.EnrollmentRequest;
 import hr.algebra.uni_course_management.service.EnrollmentService;
 import hr.algebra.uni_course_management.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,12 +16,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ui.Model;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +38,8 @@ class StudentCourseControllerTest {
     @Mock
     private UserService userService;
     @Mock
+    private EnrollmentBatcher enrollmentBatcher;
+    @Mock
     private Model model;
     @Mock
     private Principal principal;
@@ -48,14 +58,6 @@ class StudentCourseControllerTest {
 
     @Test
     void listAvailableCourses_filtersAlreadyEnrolled() {
-        Course enrolledCourse = new Course();
-        enrolledCourse.setId(10L);
-        enrolledCourse.setIsActive(true);
-
-        Enrollment enrollment = new Enrollment();
-        enrollment.setCourse(enrolledCourse);
-        enrollment.setStatus(EnrollmentStatus.ENROLLED);
-
         Course active1 = new Course();
         active1.setId(10L);
         active1.setIsActive(true);
@@ -64,8 +66,8 @@ class StudentCourseControllerTest {
         active2.setId(20L);
         active2.setIsActive(true);
 
-        when(enrollmentService.getEnrollmentsForStudent(1L))
-                .thenReturn(List.of(enrollment));
+        when(enrollmentService.getTranscript(1L))
+                .thenReturn(List.of(row(10L, true, null), row(30L, true, 4)));
         when(courseService.getActiveCourses())
                 .thenReturn(List.of(active1, active2));
 
@@ -77,18 +79,59 @@ class StudentCourseControllerTest {
                         l.size() == 1 &&
                         ((Course) l.get(0)).getId().equals(20L)
         ));
-        verify(enrollmentService).getEnrollmentsForStudent(1L);
+        verify(model).addAttribute("waitlistPositions", Map.of());
+        verify(enrollmentService).getTranscript(1L);
         verify(courseService).getActiveCourses();
     }
 
     @Test
-    void enroll_redirectsWithSuccessParam() {
+    void enroll_redirectsWithSuccessParam() throws Exception {
         String viewName = controller.enroll(5L, principal);
 
         assertThat(viewName).isEqualTo("redirect:/student/courses?success=enrolled");
         verify(enrollmentService).enrollStudent(1L, 5L);
     }
 
+    @Test
+    void enroll_burstModeStillQueued_redirectsWithQueuedParam() throws Exception {
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submitAndWait(1L, 5L)).thenReturn(new EnrollmentRequest(1L, 5L));
+
+        String viewName = controller.enroll(5L, principal);
+
+        assertThat(viewName).isEqualTo("redirect:/student/courses?success=queued");
+        verifyNoInteractions(enrollmentService);
+    }
+
+    @Test
+    void enroll_burstModeRejected_throwsWithReason() throws Exception {
+        EnrollmentRequest request = mock(EnrollmentRequest.class);
+        when(request.getStatus()).thenReturn(EnrollmentRequest.Status.REJECTED);
+        when(request.getMessage()).thenReturn("Course is full");
+        when(enrollmentBatcher.isEnabled()).thenReturn(true);
+        when(enrollmentBatcher.submitAndWait(1L, 5L)).thenReturn(request);
+
+        assertThatThrownBy(() -> controller.enroll(5L, principal))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Course is full");
+    }
+
+    @Test
+    void joinWaitlist_redirectsWithWaitlistedParam() {
+        String viewName = controller.joinWaitlist(5L, principal);
+
+        assertThat(viewName).isEqualTo("redirect:/student/courses?success=waitlisted");
+        verify(enrollmentService).joinWaitlist(1L, 5L);
+    }
+
+    @Test
+    void leaveWaitlist_redirectsWithLeftParam() {
+        String viewName = controller.leaveWaitlist(5L, principal);
+
+        assertThat(viewName).isEqualTo("redirect:/student/courses?success=left_waitlist");
+        verify(enrollmentService).leaveWaitlist(1L, 5L);
+    }
+
     @Test
     void dropCourse_redirectsToMyCourses() {
         String viewName = controller.dropCourse(7L, principal);
@@ -99,22 +142,8 @@ class StudentCourseControllerTest {
 
     @Test
     void myCourses_addsOnlyActiveCourseEnrollments() {
-        Course activeCourse = new Course();
-        activeCourse.setId(1L);
-        activeCourse.setIsActive(true);
-
-        Course inactiveCourse = new Course();
-        inactiveCourse.setId(2L);
-        inactiveCourse.setIsActive(false);
-
-        Enrollment activeEnrollment = new Enrollment();
-        activeEnrollment.setCourse(activeCourse);
-
-        Enrollment inactiveEnrollment = new Enrollment();
-        inactiveEnrollment.setCourse(inactiveCourse);
-
-        when(enrollmentService.getEnrollmentsForStudent(1L))
-                .thenReturn(List.of(activeEnrollment, inactiveEnrollment));
+        when(enrollmentService.getTranscript(1L))
+                .thenReturn(List.of(row(1L, true, null), row(2L, false, null)));
 
         String viewName = controller.myCourses(model, principal);
 
@@ -122,42 +151,14 @@ class StudentCourseControllerTest {
         verify(model).addAttribute(eq("enrollments"), argThat(list ->
                 list instanceof List<?> l &&
                         l.size() == 1 &&
-                        ((Enrollment) l.get(0)).getCourse().getId().equals(1L)
+                        ((TranscriptRow) l.get(0)).getCourseId().equals(1L)
         ));
     }
 
     @Test
     void viewGrades_setsCountsAndActiveEnrollments() {
-        Course activeCourse1 = new Course();
-        activeCourse1.setId(1L);
-        activeCourse1.setIsActive(true);
-
-        Course activeCourse2 = new Course();
-        activeCourse2.setId(2L);
-        activeCourse2.setIsActive(true);
-
-        Course inactiveCourse = new Course();
-        inactiveCourse.setId(3L);
-        inactiveCourse.setIsActive(false);
-
-        Enrollment graded = new Enrollment();
-        graded.setCourse(activeCourse1);
-        Grade grade5 = new Grade();
-        grade5.setGradeValue(5);
-        graded.setTempGrade(grade5);
-
-        Enrollment pending = new Enrollment();
-        pending.setCourse(activeCourse2);
-        pending.setTempGrade(null);
-
-        Enrollment inactive = new Enrollment();
-        inactive.setCourse(inactiveCourse);
-        Grade grade4 = new Grade();
-        grade4.setGradeValue(4);
-        inactive.setTempGrade(grade4);
-
-        when(enrollmentService.getEnrollmentsForStudent(1L))
-                .thenReturn(List.of(graded, pending, inactive));
+        when(enrollmentService.getTranscript(1L))
+                .thenReturn(List.of(row(1L, true, 5), row(2L, true, null), row(3L, false, 4)));
 
         String viewName = controller.viewGrades(model, principal);
 
@@ -168,4 +169,10 @@ class StudentCourseControllerTest {
         verify(model).addAttribute("gradedCount", 1L);
         verify(model).addAttribute("pendingCount", 1L);
     }
-}
\ No newline at end of file
+
+    private static TranscriptRow row(Long courseId, boolean courseActive, Integer gradeValue) {
+        return new TranscriptRow(courseId * 100, courseId, "C" + courseId, "Course " + courseId, 5, null, null, courseActive,
+                gradeValue == null ? EnrollmentStatus.ENROLLED : EnrollmentStatus.COMPLETED, LocalDateTime.now(), gradeValue,
+                gradeValue == null ? null : LocalDateTime.now());
+    }
+}
@@ -0,0 +1,39 @@
+package hr.algebra.uni_course_management.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.algebra.uni_course_management.model.Course;
+import hr.algebra.uni_course_management.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseViewTest {
+    @Test
+    void from_FlattensProfessorWithoutCredentials() throws Exception {
+        User professor = new User();
+        professor.setId(2L);
+        professor.setFirstName("Milica");
+        professor.setLastName("Krmpotic");
+        professor.setPassword("$2a$10$hash");
+        Course course = new Course("CS101", "Programming", "Basics", 6);
+        course.setId(1L);
+        course.setProfessor(professor);
+
+        CourseView view = CourseView.from(course);
+        String json = new ObjectMapper().writeValueAsString(view);
+
+        assertThat(view.getProfessorId()).isEqualTo(2L);
+        assertThat(view.getProfessorName()).isEqualTo("Milica Krmpotic");
+        assertThat(json).contains("\"isActive\":true").doesNotContain("password").doesNotContain("$2a$");
+    }
+
+    @Test
+    void from_WithoutProfessor_LeavesProfessorFieldsEmpty() {
+        Course course = new Course("CS102", "Algorithms", null, 5);
+
+        CourseView view = CourseView.from(course);
+
+        assertThat(view.getProfessorId()).isNull();
+        assertThat(view.getProfessorName()).isNull();
+    }
+}
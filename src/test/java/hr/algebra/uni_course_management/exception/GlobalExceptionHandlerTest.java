@@ -1,6 +1,8 @@
 package hr.algebra.uni_course_management.exception;
 
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpMethod;
 import org.springframework.ui.Model;
@@ -66,4 +68,19 @@ class GlobalExceptionHandlerTest {
         assertThat(view).isEqualTo("error/400");
         verify(model).addAttribute("errorMessage", "Bad input");
     }
-}
\ No newline at end of file
+
+    @Test
+    void handlePasswordHashingBusyException_Returns500ViewWithRetryAfter() {
+        PasswordHashingBusyException ex = new PasswordHashingBusyException("Server is busy, please try again shortly");
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/admin/users/register"));
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        Model model = mock(Model.class);
+
+        String view = handler.handlePasswordHashingBusyException(ex, request, response, model);
+
+        assertThat(view).isEqualTo("error/500");
+        verify(response).setHeader("Retry-After", "1");
+        verify(model).addAttribute("errorMessage", "Server is busy, please try again shortly");
+    }
+}
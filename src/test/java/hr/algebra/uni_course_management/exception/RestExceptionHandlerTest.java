@@ -1,5 +1,6 @@
 package hr.algebra.uni_course_management.exception;
 
+import hr.algebra.uni_course_management.security.PasswordHashingBusyException;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -128,4 +129,18 @@ class RestExceptionHandlerTest {
         assertThat(body.get("message")).isEqualTo("not found");
         assertThat(body.get("path")).isEqualTo("/api/missing");
     }
-}
\ No newline at end of file
+
+    @Test
+    void handlePasswordHashingBusyException_Returns503WithRetryAfter() {
+        PasswordHashingBusyException ex = new PasswordHashingBusyException("Server is busy, please try again shortly");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("uri=/api/users");
+
+        ResponseEntity<?> response = handler.handlePasswordHashingBusyException(ex, request);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertThat(body.get("message")).isEqualTo("Server is busy, please try again shortly");
+    }
+}
@@ -0,0 +1,189 @@
+package hr.algebra.uni_course_management.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenDenylistTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(denylist, "accessTokenExpiration", 900_000L);
+    }
+
+    @Test
+    void isRevoked_NothingRevoked_ReturnsFalse() {
+        assertThat(denylist.isRevoked(claims("jti-1", -1_000), 1L)).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revokeToken_MatchesOnlyThatTokenAndPersists() {
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        denylist.revokeToken("jti-1", 1L, expiresAt);
+
+        assertThat(denylist.isRevoked(claims("jti-1", -1_000), 1L)).isTrue();
+        assertThat(denylist.isRevoked(claims("jti-2", -1_000), 1L)).isFalse();
+        verify(jdbcTemplate).update(startsWith("INSERT INTO revoked_access_token"),
+                eq("jti-1"), eq(1L), isNull(), eq(new Timestamp(expiresAt.getTime())));
+    }
+
+    @Test
+    void revokeToken_AlreadyExpired_IsIgnored() {
+        denylist.revokeToken("jti-1", 1L, new Date(System.currentTimeMillis() - 1_000));
+
+        assertThat(denylist.size()).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revokeToken_PersistFailure_StillRevokesInMemory() {
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        denylist.revokeToken("jti-1", 1L, new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(denylist.isRevoked(claims("jti-1", -1_000), 1L)).isTrue();
+    }
+
+    @Test
+    void revokeAllForUser_RevokesTokensIssuedBeforeCutoffOnly() {
+        Claims olderToken = claims("jti-1", -5_000);
+
+        denylist.revokeAllForUser(1L);
+
+        assertThat(denylist.isRevoked(olderToken, 1L)).isTrue();
+        assertThat(denylist.isRevoked(claims("jti-2", 5_000), 1L)).isFalse();
+        assertThat(denylist.isRevoked(olderToken, 2L)).isFalse();
+    }
+
+    @Test
+    void revokeAllForUser_MillisecondIssueTime_IsComparedExactly() {
+        long cutoff = revokeAllAndCaptureCutoff(1L);
+
+        assertThat(denylist.isRevoked(claimsIssuedAtMillis(cutoff - 1), 1L)).isTrue();
+        assertThat(denylist.isRevoked(claimsIssuedAtMillis(cutoff), 1L)).isFalse();
+    }
+
+    @Test
+    void revokeAllForUser_WholeSecondIssueTimeOnly_RevokesTokensFromTheCutoffSecond() {
+        long cutoff = revokeAllAndCaptureCutoff(1L);
+        long cutoffSecond = cutoff / 1_000 * 1_000;
+
+        assertThat(denylist.isRevoked(claimsIssuedAt(cutoffSecond), 1L)).isTrue();
+        assertThat(denylist.isRevoked(claimsIssuedAt(cutoffSecond + 1_000), 1L)).isFalse();
+    }
+
+    @Test
+    void purgeExpired_DropsEntriesPastTokenLifetime() {
+        ReflectionTestUtils.setField(denylist, "accessTokenExpiration", 0L);
+        denylist.revokeToken("jti-1", 1L, new Date(System.currentTimeMillis() + 60_000));
+        denylist.revokeAllForUser(2L);
+
+        denylist.purgeExpired();
+
+        assertThat(denylist.size()).isEqualTo(1);
+        assertThat(denylist.isRevoked(claims("jti-1", -1_000), 1L)).isTrue();
+        verify(jdbcTemplate).update(startsWith("DELETE FROM revoked_access_token"), any(Timestamp.class));
+    }
+
+    @Test
+    void reload_RestoresTokenAndUserRevocations() throws Exception {
+        ResultSet tokenRow = mock(ResultSet.class);
+        when(tokenRow.getString("jti")).thenReturn("jti-1");
+        when(tokenRow.getTimestamp("expires_at")).thenReturn(new Timestamp(System.currentTimeMillis() + 60_000));
+        when(tokenRow.getTimestamp("issued_before")).thenReturn(null);
+        ResultSet userRow = mock(ResultSet.class);
+        when(userRow.getTimestamp("issued_before")).thenReturn(new Timestamp(System.currentTimeMillis()));
+        when(userRow.getLong("user_id")).thenReturn(2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(tokenRow);
+            handler.processRow(userRow);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Timestamp.class));
+
+        denylist.reload();
+
+        assertThat(denylist.isRevoked(claims("jti-1", -1_000), 1L)).isTrue();
+        assertThat(denylist.isRevoked(claims("jti-9", -5_000), 2L)).isTrue();
+    }
+
+    @Test
+    void syncChanges_AppliesRevocationsMadeOnOtherNodes() throws Exception {
+        ResultSet tokenRow = mock(ResultSet.class);
+        when(tokenRow.getString("jti")).thenReturn("jti-remote");
+        when(tokenRow.getTimestamp("issued_before")).thenReturn(null);
+        when(tokenRow.getTimestamp("expires_at")).thenReturn(new Timestamp(System.currentTimeMillis() + 60_000));
+        when(tokenRow.getTimestamp("revoked_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(tokenRow);
+            return null;
+        }).when(jdbcTemplate).query(contains("revoked_at > ?"), any(RowCallbackHandler.class),
+                any(Timestamp.class), any(Timestamp.class));
+
+        denylist.syncChanges();
+
+        assertThat(denylist.isRevoked(claims("jti-remote", -1_000), 1L)).isTrue();
+        assertThat(denylist.isRevoked(claims("jti-other", -1_000), 1L)).isFalse();
+    }
+
+    private long revokeAllAndCaptureCutoff(Long userId) {
+        denylist.revokeAllForUser(userId);
+
+        ArgumentCaptor<Timestamp> issuedBefore = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO revoked_access_token"),
+                isNull(), eq(userId), issuedBefore.capture(), any(Timestamp.class));
+        return issuedBefore.getValue().getTime();
+    }
+
+    private static Claims claimsIssuedAtMillis(long issuedAtMillis) {
+        return Jwts.claims()
+                .id("jti-issued")
+                .issuedAt(new Date(issuedAtMillis / 1_000 * 1_000))
+                .add(JwtUtil.ISSUED_AT_MILLIS_CLAIM, issuedAtMillis)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+
+    private static Claims claimsIssuedAt(long issuedAtMillis) {
+        return Jwts.claims()
+                .id("jti-issued")
+                .issuedAt(new Date(issuedAtMillis))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+
+    private static Claims claims(String jti, long issuedOffsetMillis) {
+        return Jwts.claims()
+                .id(jti)
+                .issuedAt(new Date(System.currentTimeMillis() + issuedOffsetMillis))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package hr.algebra.uni_course_management.jwt;
+
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import hr.algebra.uni_course_management.service.MyUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenRefresherTest {
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private MyUserDetailsService userDetailsService;
+    @Mock
+    private JwtUtil jwtUtil;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @InjectMocks
+    private AccessTokenRefresher refresher;
+
+    private RefreshTokenEntry entry;
+    private AuthenticatedUser principal;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refresher, "accessTokenExpiration", 900_000L);
+        ReflectionTestUtils.setField(refresher, "graceMillis", 10_000L);
+        entry = new RefreshTokenEntry(1L, "john", RefreshTokenStore.hash("refresh"),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now());
+        principal = new AuthenticatedUser(1L, "john", "pass", UserRole.STUDENT, true);
+    }
+
+    @Test
+    void refresh_ConcurrentCallsForSameToken_ShareOneMint() throws Exception {
+        CountDownLatch minting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(userDetailsService.loadUserById(1L)).thenAnswer(invocation -> {
+            minting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return principal;
+        });
+        when(jwtUtil.generateAccessToken(principal)).thenReturn("access");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RefreshedAccessToken>> results = new ArrayList<>();
+            results.add(pool.submit(() -> refresher.refresh("refresh")));
+            assertThat(minting.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> refresher.refresh("refresh")));
+            }
+            while (meterRegistry.counter("auth.refresh.requests", "result", "coalesced").count() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<RefreshedAccessToken> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getAccessToken()).isEqualTo("access");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(userDetailsService, times(1)).loadUserById(1L);
+        verify(jwtUtil, times(1)).generateAccessToken(principal);
+        assertThat(meterRegistry.counter("auth.refresh.requests", "result", "minted").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void refresh_WithinGraceWindow_ReusesAccessToken() {
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(userDetailsService.loadUserById(1L)).thenReturn(principal);
+        when(jwtUtil.generateAccessToken(principal)).thenReturn("access");
+
+        RefreshedAccessToken first = refresher.refresh("refresh");
+        RefreshedAccessToken second = refresher.refresh("refresh");
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.secondsRemaining()).isBetween(890L, 900L);
+        verify(jwtUtil, times(1)).generateAccessToken(principal);
+    }
+
+    @Test
+    void refresh_AfterGraceWindow_MintsAgain() {
+        ReflectionTestUtils.setField(refresher, "graceMillis", 0L);
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(userDetailsService.loadUserById(1L)).thenReturn(principal);
+        when(jwtUtil.generateAccessToken(principal)).thenReturn("access");
+
+        refresher.refresh("refresh");
+        refresher.refresh("refresh");
+
+        verify(jwtUtil, times(2)).generateAccessToken(principal);
+        refresher.purgeExpired();
+        assertThat(refresher.size()).isZero();
+    }
+
+    @Test
+    void refresh_UnknownToken_ThrowsWithoutMinting() {
+        when(refreshTokenService.findByToken("missing")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refresher.refresh("missing"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Refresh token not found");
+        verifyNoInteractions(userDetailsService, jwtUtil);
+    }
+
+    @Test
+    void refresh_FailedMint_IsNotCached() {
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(refreshTokenService.verifyExpiration(entry))
+                .thenThrow(new RuntimeException("Refresh token expired. Please sign in again."))
+                .thenReturn(entry);
+        when(userDetailsService.loadUserById(1L)).thenReturn(principal);
+        when(jwtUtil.generateAccessToken(principal)).thenReturn("access");
+
+        assertThatThrownBy(() -> refresher.refresh("refresh"))
+                .hasMessage("Refresh token expired. Please sign in again.");
+        assertThat(refresher.refresh("refresh").getAccessToken()).isEqualTo("access");
+    }
+
+    @Test
+    void refresh_DeletedUser_IsRejectedWithoutMinting() {
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(userDetailsService.loadUserById(1L)).thenThrow(new UsernameNotFoundException("User not found with id: 1"));
+
+        assertThatThrownBy(() -> refresher.refresh("refresh"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    void refresh_PrincipalWithDifferentId_IsRejected() {
+        when(refreshTokenService.findByToken("refresh")).thenReturn(Optional.of(entry));
+        when(userDetailsService.loadUserById(1L))
+                .thenReturn(new AuthenticatedUser(2L, "john", "pass", UserRole.STUDENT, true));
+
+        assertThatThrownBy(() -> refresher.refresh("refresh"))
+                .hasMessage("Refresh token does not belong to this user");
+        verifyNoInteractions(jwtUtil);
+    }
+}
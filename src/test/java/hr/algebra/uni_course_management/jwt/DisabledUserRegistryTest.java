@@ -0,0 +1,65 @@
+package hr.algebra.uni_course_management.jwt;
+
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisabledUserRegistryTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DisabledUserRegistry registry;
+
+    @Test
+    void reload_ReplacesContentsWithInactiveUsersFromDatabase() {
+        registry.markDisabled(99L);
+        when(userRepository.findIdsByIsActiveFalse()).thenReturn(List.of(1L, 2L));
+
+        registry.reload();
+
+        assertThat(registry.isDisabled(1L)).isTrue();
+        assertThat(registry.isDisabled(2L)).isTrue();
+        assertThat(registry.isDisabled(99L)).isFalse();
+    }
+
+    @Test
+    void syncChanges_AppliesUsersChangedOnOtherNodes() {
+        registry.markDisabled(1L);
+        when(userRepository.findByUpdatedAtAfter(any())).thenReturn(List.of(user(1L, true), user(2L, false)));
+
+        registry.syncChanges();
+
+        assertThat(registry.isDisabled(1L)).isFalse();
+        assertThat(registry.isDisabled(2L)).isTrue();
+    }
+
+    @Test
+    void markDisabledAndMarkActive_ToggleMembership() {
+        registry.markDisabled(5L);
+        assertThat(registry.isDisabled(5L)).isTrue();
+
+        registry.markActive(5L);
+        assertThat(registry.isDisabled(5L)).isFalse();
+    }
+
+    private static User user(Long id, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setIsActive(active);
+        user.setUpdatedAt(LocalDateTime.now());
+        return user;
+    }
+}
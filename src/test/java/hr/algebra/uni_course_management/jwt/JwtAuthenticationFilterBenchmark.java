@@ -0,0 +1,89 @@
+package hr.algebra.uni_course_management.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=JwtAuthenticationFilterBenchmark
+class JwtAuthenticationFilterBenchmark {
+    private static final String SECRET = "benchmark-secret-key-1234567890123456789";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void filterSinglePassVersusLegacyDoubleParse() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 3600_000L);
+
+        UserDetails userDetails = new User("john", "pass", Collections.emptyList());
+        String token = jwtUtil.generateAccessToken(userDetails, "STUDENT");
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, username -> userDetails, null, new AccessTokenDenylist(null));
+
+        run(() -> legacyFilter(token), WARMUP);
+        long legacyNanos = run(() -> legacyFilter(token), ITERATIONS);
+
+        run(() -> currentFilter(filter, token), WARMUP);
+        long currentNanos = run(() -> currentFilter(filter, token), ITERATIONS);
+
+        System.out.printf("JwtAuthenticationFilter legacy (2 parses, key+parser per call): %,d ns/op%n",
+                legacyNanos / ITERATIONS);
+        System.out.printf("JwtAuthenticationFilter single pass (cached key+parser):        %,d ns/op%n",
+                currentNanos / ITERATIONS);
+
+        assertThat(currentNanos).isPositive();
+    }
+
+    private static void currentFilter(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+    }
+
+    // Mirrors the previous filter: extractUsername and isTokenExpired each rebuilt the key and the parser.
+    private static void legacyFilter(String token) {
+        String username = legacyParse(token).getSubject();
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+        if (username == null || expired) {
+            throw new IllegalStateException("Unexpected token state");
+        }
+    }
+
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static long run(ThrowingRunnable action, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
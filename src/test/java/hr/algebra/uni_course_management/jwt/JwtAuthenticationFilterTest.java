@@ -1,5 +1,9 @@
 package hr.algebra.uni_course_management.jwt;
 
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,10 +18,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +37,12 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private DisabledUserRegistry disabledUserRegistry;
+
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+
     @Mock
     private HttpServletRequest request;
 
@@ -68,16 +83,19 @@ class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_ValidToken_SetsAuthenticationAndContinues() throws Exception {
         String jwt = "jwt-token";
+        Claims claims = claims("john", 60_000);
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtil.extractUsername(jwt)).thenReturn("john");
-        when(jwtUtil.isTokenExpired(jwt)).thenReturn(false);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtil.isTokenExpired(claims)).thenReturn(false);
 
         UserDetails userDetails = new User("john", "password", emptyList());
         when(userDetailsService.loadUserByUsername("john")).thenReturn(userDetails);
 
         filter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil).extractUsername(jwt);
+        verify(jwtUtil).parseClaims(jwt);
+        verify(jwtUtil, never()).extractUsername(jwt);
+        verify(request).setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
         verify(userDetailsService).loadUserByUsername("john");
         verify(filterChain).doFilter(request, response);
 
@@ -89,14 +107,31 @@ class JwtAuthenticationFilterTest {
     @Test
     void doFilterInternal_ExpiredToken_DoesNotAuthenticate() throws Exception {
         String jwt = "expired-jwt";
+        Claims claims = claims("john", -60_000);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtil.isTokenExpired(claims)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtil).parseClaims(jwt);
+        verify(jwtUtil).isTokenExpired(claims);
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilterInternal_RevokedToken_DoesNotAuthenticateOrExposeClaims() throws Exception {
+        String jwt = "revoked-jwt";
+        Claims claims = claims("john", 60_000);
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtil.extractUsername(jwt)).thenReturn("john");
-        when(jwtUtil.isTokenExpired(jwt)).thenReturn(true);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims);
+        when(accessTokenDenylist.isRevoked(claims, null)).thenReturn(true);
 
         filter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtil).extractUsername(jwt);
-        verify(jwtUtil).isTokenExpired(jwt);
+        verifyNoInteractions(userDetailsService);
+        verify(request, never()).setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
@@ -105,7 +140,7 @@ class JwtAuthenticationFilterTest {
     void doFilterInternal_ExceptionDuringProcessing_StillContinuesChain() throws Exception {
         String jwt = "bad-jwt";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtil.extractUsername(jwt)).thenThrow(new RuntimeException("parse error"));
+        when(jwtUtil.parseClaims(jwt)).thenThrow(new RuntimeException("parse error"));
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -120,11 +155,83 @@ class JwtAuthenticationFilterTest {
 
         String jwt = "jwt-token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtil.extractUsername(jwt)).thenReturn("john");
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims("john", 60_000));
 
         filter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isSameAs(existingAuth);
     }
+
+    @Test
+    void doFilterInternal_StatelessMode_AuthenticatesFromClaimsWithoutUserLookup() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", true);
+        String jwt = "jwt-token";
+        Claims claims = statelessClaims(true);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtil.isTokenExpired(claims)).thenReturn(false);
+        when(disabledUserRegistry.isDisabled(5L)).thenReturn(false);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth.getName()).isEqualTo("john");
+        assertThat(auth.getAuthorities().iterator().next().getAuthority()).isEqualTo("ROLE_STUDENT");
+        assertThat(auth.getPrincipal()).isInstanceOfSatisfying(AuthenticatedUser.class, principal -> {
+            assertThat(principal.getId()).isEqualTo(5L);
+            assertThat(principal.getRole()).isEqualTo(UserRole.STUDENT);
+        });
+    }
+
+    @Test
+    void doFilterInternal_StatelessMode_DisabledUser_DoesNotAuthenticate() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", true);
+        String jwt = "jwt-token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(statelessClaims(true));
+        when(disabledUserRegistry.isDisabled(5L)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void doFilterInternal_StatelessMode_TokenWithoutUserId_FallsBackToUserLookup() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", true);
+        String jwt = "jwt-token";
+        Claims claims = claims("john", 60_000);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtil.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtil.isTokenExpired(claims)).thenReturn(false);
+        when(userDetailsService.loadUserByUsername("john"))
+                .thenReturn(new User("john", "password", emptyList()));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(userDetailsService).loadUserByUsername("john");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("john");
+    }
+
+    private static Claims statelessClaims(boolean active) {
+        return Jwts.claims()
+                .subject("john")
+                .add(JwtUtil.USER_ID_CLAIM, 5L)
+                .add(JwtUtil.ROLE_CLAIM, "STUDENT")
+                .add(JwtUtil.ACTIVE_CLAIM, active)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+
+    private static Claims claims(String subject, long expiresInMillis) {
+        return Jwts.claims()
+                .subject(subject)
+                .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .build();
+    }
 }
\ No newline at end of file
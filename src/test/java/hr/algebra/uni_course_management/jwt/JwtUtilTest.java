@@ -1,5 +1,8 @@
 package hr.algebra.uni_course_management.jwt;
 
+import hr.algebra.uni_course_management.model.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.User;
@@ -10,6 +13,7 @@ import java.util.Collections;
 import java.util.Date;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 class JwtUtilTest {
     private JwtUtil jwtUtil;
@@ -52,4 +56,74 @@ class JwtUtilTest {
         Boolean valid = jwtUtil.validateToken(token, userDetails);
         assertThat(valid).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseClaims_ReturnsVerifiedClaimsAndReusesParser() {
+        String token = jwtUtil.generateAccessToken(
+                new User("john", "pass", Collections.emptyList()),
+                "ROLE_STUDENT"
+        );
+
+        Claims first = jwtUtil.parseClaims(token);
+        Object parser = ReflectionTestUtils.getField(jwtUtil, "jwtParser");
+        Claims second = jwtUtil.parseClaims(token);
+
+        assertThat(first.getSubject()).isEqualTo("john");
+        assertThat(second.get("role", String.class)).isEqualTo("ROLE_STUDENT");
+        assertThat(jwtUtil.isTokenExpired(first)).isFalse();
+        assertThat(ReflectionTestUtils.getField(jwtUtil, "jwtParser")).isSameAs(parser);
+    }
+
+    @Test
+    void parseClaims_RejectsTokenSignedWithDifferentKey() {
+        JwtUtil other = new JwtUtil();
+        ReflectionTestUtils.setField(other, "secret", "another-secret-key-1234567890123456789");
+        ReflectionTestUtils.setField(other, "accessTokenExpiration", 3600_000L);
+        String foreignToken = other.generateAccessToken(
+                new User("john", "pass", Collections.emptyList()),
+                "ROLE_STUDENT"
+        );
+
+        assertThatThrownBy(() -> jwtUtil.parseClaims(foreignToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void generateAccessToken_ForEntity_CarriesUserIdRoleAndActiveClaims() {
+        hr.algebra.uni_course_management.model.User user = new hr.algebra.uni_course_management.model.User();
+        user.setId(7L);
+        user.setUsername("ana");
+        user.setRole(UserRole.PROFESSOR);
+        user.setIsActive(true);
+
+        Claims claims = jwtUtil.parseClaims(jwtUtil.generateAccessToken(user));
+
+        assertThat(claims.getSubject()).isEqualTo("ana");
+        assertThat(claims.get(JwtUtil.USER_ID_CLAIM, Long.class)).isEqualTo(7L);
+        assertThat(claims.get(JwtUtil.ROLE_CLAIM, String.class)).isEqualTo("PROFESSOR");
+        assertThat(claims.get(JwtUtil.ACTIVE_CLAIM, Boolean.class)).isTrue();
+    }
+
+    @Test
+    void generateAccessToken_CarriesMillisecondIssueTime() {
+        UserDetails userDetails = new User("john", "pass", Collections.emptyList());
+        long before = System.currentTimeMillis();
+
+        Claims claims = jwtUtil.parseClaims(jwtUtil.generateAccessToken(userDetails, "STUDENT"));
+
+        Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+        assertThat(issuedAtMillis).isBetween(before, System.currentTimeMillis());
+        assertThat(issuedAtMillis / 1_000 * 1_000).isEqualTo(claims.getIssuedAt().getTime());
+    }
+
+    @Test
+    void generateAccessToken_EachTokenGetsUniqueId() {
+        UserDetails userDetails = new User("john", "pass", Collections.emptyList());
+
+        String firstId = jwtUtil.parseClaims(jwtUtil.generateAccessToken(userDetails, "STUDENT")).getId();
+        String secondId = jwtUtil.parseClaims(jwtUtil.generateAccessToken(userDetails, "STUDENT")).getId();
+
+        assertThat(firstId).isNotBlank();
+        assertThat(firstId).isNotEqualTo(secondId);
+    }
+}
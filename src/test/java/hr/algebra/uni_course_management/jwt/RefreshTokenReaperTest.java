@@ -0,0 +1,93 @@
+package hr.algebra.uni_course_management.jwt;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenReaperTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RefreshTokenReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new RefreshTokenReaper(jdbcTemplate, refreshTokenStore, meterRegistry);
+        ReflectionTestUtils.setField(reaper, "chunkSize", 2);
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 10);
+        ReflectionTestUtils.setField(reaper, "pauseMillis", 0L);
+        ReflectionTestUtils.setField(reaper, "busyThreshold", 1);
+    }
+
+    @Test
+    void reap_DeletesInIdRangeChunksAndRecordsMetrics() {
+        when(jdbcTemplate.queryForList(contains("expiry_date < ?"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(1L, 4L), List.of(7L));
+        when(jdbcTemplate.queryForList(contains("revoked_at < ?"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(9L));
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(1L), eq(4L), any())).thenReturn(2);
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(7L), eq(7L), any())).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(9L), eq(9L), any())).thenReturn(1);
+
+        int reaped = reaper.reap();
+
+        assertThat(reaped).isEqualTo(4);
+        verify(refreshTokenStore).evictExpired();
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE"), anyLong(), anyLong(), any());
+        verify(jdbcTemplate, never()).update(contains(" OR "), any(Object[].class));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.reaped").counter().count()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.chunk").timer().count()).isEqualTo(3L);
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.backlog").gauge().value()).isZero();
+    }
+
+    @Test
+    void reap_StopsAtMaxChunksAndReportsBoundedBacklog() {
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 1);
+        when(jdbcTemplate.queryForList(contains("expiry_date < ?"), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.update(startsWith("DELETE"), eq(1L), eq(2L), any())).thenReturn(2);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT"), eq(Long.class), any(Object[].class)))
+                .thenReturn(2L, 1L);
+
+        int reaped = reaper.reap();
+
+        assertThat(reaped).isEqualTo(2);
+        verify(jdbcTemplate, never()).queryForList(contains("revoked_at < ?"), eq(Long.class), any(Object[].class));
+        verify(jdbcTemplate, times(2)).queryForObject(contains("LIMIT ?"), eq(Long.class), any(), eq(2));
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.backlog").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void reap_ServerBusy_BacksOffWithoutDeleting() {
+        LongTaskTimer activeRequests = LongTaskTimer.builder("http.server.requests.active").register(meterRegistry);
+        LongTaskTimer.Sample inFlight = activeRequests.start();
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT"), eq(Long.class), any(Object[].class)))
+                .thenReturn(5L, 0L);
+
+        int reaped = reaper.reap();
+
+        inFlight.stop();
+        assertThat(reaped).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.throttled").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("auth.refresh_token.reaper.backlog").gauge().value()).isEqualTo(5.0);
+    }
+}
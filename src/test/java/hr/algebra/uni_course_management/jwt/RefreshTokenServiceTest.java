@@ -4,6 +4,7 @@ import hr.algebra.uni_course_management.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,7 +21,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class RefreshTokenServiceTest {
     @Mock
-    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenStore refreshTokenStore;
     @InjectMocks
     private RefreshTokenService refreshTokenService;
     private User user;
@@ -34,64 +35,57 @@ class RefreshTokenServiceTest {
     }
 
     @Test
-    void createRefreshToken_DeletesOldAndCreatesNew() {
-        when(refreshTokenRepository.save(any(RefreshToken.class)))
-                .thenAnswer(inv -> inv.getArgument(0));
-
-        RefreshToken token = refreshTokenService.createRefreshToken(user);
-
-        verify(refreshTokenRepository).deleteByUser(user);
-        verify(refreshTokenRepository).save(any(RefreshToken.class));
-        assertThat(token.getUser()).isEqualTo(user);
-        assertThat(token.getToken()).isNotBlank();
-        assertThat(token.getExpiryDate()).isAfter(LocalDateTime.now());
-        assertThat(token.getRevoked()).isFalse();
+    void createRefreshToken_StoresHashInMemory() {
+        String token = refreshTokenService.createRefreshToken(1L, "john");
+
+        ArgumentCaptor<RefreshTokenEntry> captor = ArgumentCaptor.forClass(RefreshTokenEntry.class);
+        verify(refreshTokenStore).put(captor.capture());
+        RefreshTokenEntry entry = captor.getValue();
+        assertThat(token).isNotBlank();
+        assertThat(entry.getUserId()).isEqualTo(1L);
+        assertThat(entry.getUsername()).isEqualTo("john");
+        assertThat(entry.getTokenHash()).isEqualTo(RefreshTokenStore.hash(token));
+        assertThat(entry.getExpiryDate()).isAfter(LocalDateTime.now());
     }
 
     @Test
-    void findByToken_DelegatesToRepository() {
-        RefreshToken token = new RefreshToken();
-        when(refreshTokenRepository.findByToken("abc"))
-                .thenReturn(Optional.of(token));
+    void findByToken_DelegatesToStore() {
+        RefreshTokenEntry entry = entry(LocalDateTime.now().plusMinutes(5));
+        when(refreshTokenStore.find("abc")).thenReturn(Optional.of(entry));
 
-        Optional<RefreshToken> result = refreshTokenService.findByToken("abc");
+        Optional<RefreshTokenEntry> result = refreshTokenService.findByToken("abc");
 
-        assertThat(result).contains(token);
-        verify(refreshTokenRepository).findByToken("abc");
+        assertThat(result).contains(entry);
     }
 
     @Test
     void verifyExpiration_NotExpired_ReturnsToken() {
-        RefreshToken token = new RefreshToken();
-        token.setExpiryDate(LocalDateTime.now().plusMinutes(5));
+        RefreshTokenEntry entry = entry(LocalDateTime.now().plusMinutes(5));
 
-        RefreshToken result = refreshTokenService.verifyExpiration(token);
+        RefreshTokenEntry result = refreshTokenService.verifyExpiration(entry);
 
-        assertThat(result).isSameAs(token);
-        verify(refreshTokenRepository, never()).delete(any());
+        assertThat(result).isSameAs(entry);
+        verify(refreshTokenStore, never()).remove(any());
     }
 
     @Test
-    void verifyExpiration_Expired_DeletesAndThrows() {
-        RefreshToken token = new RefreshToken();
-        token.setExpiryDate(LocalDateTime.now().minusMinutes(1));
+    void verifyExpiration_Expired_RemovesAndThrows() {
+        RefreshTokenEntry entry = entry(LocalDateTime.now().minusMinutes(1));
 
-        assertThatThrownBy(() -> refreshTokenService.verifyExpiration(token))
+        assertThatThrownBy(() -> refreshTokenService.verifyExpiration(entry))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Refresh token expired. Please sign in again.");
 
-        verify(refreshTokenRepository).delete(token);
+        verify(refreshTokenStore).remove(entry);
     }
 
     @Test
-    void deleteByUser_DelegatesToRepository() {
+    void deleteByUser_RemovesFromStore() {
         refreshTokenService.deleteByUser(user);
-        verify(refreshTokenRepository).deleteByUser(user);
+        verify(refreshTokenStore).removeForUser(1L);
     }
 
-    @Test
-    void deleteExpiredTokens_DelegatesWithCurrentTime() {
-        refreshTokenService.deleteExpiredTokens();
-        verify(refreshTokenRepository).deleteExpiredTokens(any(LocalDateTime.class));
+    private RefreshTokenEntry entry(LocalDateTime expiryDate) {
+        return new RefreshTokenEntry(1L, "john", RefreshTokenStore.hash("abc"), expiryDate, LocalDateTime.now());
     }
-}
\ No newline at end of file
+}
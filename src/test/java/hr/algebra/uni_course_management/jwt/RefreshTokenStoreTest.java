@@ -0,0 +1,219 @@
+package hr.algebra.uni_course_management.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @InjectMocks
+    private RefreshTokenStore store;
+
+    @Test
+    void put_ThenFind_ResolvesByRawTokenWithoutDatabase() {
+        RefreshTokenEntry entry = entry(1L, "token-1", 5);
+
+        store.put(entry);
+
+        assertThat(store.find("token-1")).containsSame(entry);
+        assertThat(store.find("other")).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void put_SameUser_ReplacesPreviousToken() {
+        store.put(entry(1L, "old", 5));
+        store.put(entry(1L, "new", 5));
+
+        assertThat(store.find("old")).isEmpty();
+        assertThat(store.find("new")).isPresent();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.pendingWriteCount()).isEqualTo(1);
+    }
+
+    @Test
+    void removeForUser_DropsTokenAndQueuesRevocation() {
+        store.put(entry(1L, "token-1", 5));
+        store.flush();
+        clearInvocations(jdbcTemplate);
+
+        store.removeForUser(1L);
+        store.flush();
+
+        assertThat(store.find("token-1")).isEmpty();
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE refresh_token SET revoked = TRUE"), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void remove_StaleEntry_KeepsNewerToken() {
+        RefreshTokenEntry stale = entry(1L, "old", -1);
+        store.put(stale);
+        store.put(entry(1L, "new", 5));
+
+        store.remove(stale);
+
+        assertThat(store.find("new")).isPresent();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_CoalescesChangesPerUserIntoOneBatch() {
+        store.put(entry(1L, "a", 5));
+        store.put(entry(1L, "b", 5));
+        store.put(entry(2L, "c", 5));
+
+        store.flush();
+
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("DELETE FROM refresh_token WHERE user_id = ?"), anyList());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO refresh_token"), inserts.capture());
+        assertThat(inserts.getValue()).hasSize(2);
+        assertThat(inserts.getValue()).extracting(row -> row[0])
+                .containsExactlyInAnyOrder(RefreshTokenStore.hash("b"), RefreshTokenStore.hash("c"));
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    void flush_DatabaseFailure_RollsBackAndKeepsChangesForRetry() {
+        store.put(entry(1L, "a", 5));
+        // The DELETE goes through and the INSERT fails, so the transaction must undo the DELETE
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenReturn(new int[]{1})
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        store.flush();
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertThat(store.pendingWriteCount()).isEqualTo(1);
+        assertThat(store.find("a")).isPresent();
+    }
+
+    @Test
+    void flush_WritesDeleteAndInsertInOneTransaction() {
+        store.put(entry(1L, "a", 5));
+
+        store.flush();
+
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).batchUpdate(eq("DELETE FROM refresh_token WHERE user_id = ?"), anyList());
+        inOrder.verify(jdbcTemplate).batchUpdate(contains("INSERT INTO refresh_token"), anyList());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void flush_NothingPending_SkipsDatabase() {
+        store.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reload_IndexesPersistedRowsKeepingNewestPerUser() {
+        RefreshTokenEntry older = entry(1L, "older", 5);
+        RefreshTokenEntry newer = entry(1L, "newer", 5);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(older, newer));
+
+        store.reload();
+
+        assertThat(store.find("older")).isEmpty();
+        assertThat(store.find("newer")).containsSame(newer);
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncChanges_TokenIssuedElsewhere_ReplacesOlderToken() {
+        store.put(entry(1L, "local", 5));
+        store.flush();
+        RefreshTokenEntry remote = new RefreshTokenEntry(1L, "user1", RefreshTokenStore.hash("remote"),
+                LocalDateTime.now().plusMinutes(5), LocalDateTime.now().plusSeconds(1));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(remote));
+
+        store.syncChanges();
+
+        assertThat(store.find("local")).isEmpty();
+        assertThat(store.find("remote")).containsSame(remote);
+        assertThat(store.pendingWriteCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncChanges_LocalChangePending_KeepsLocalToken() {
+        store.put(entry(1L, "local", 5));
+        RefreshTokenEntry remote = new RefreshTokenEntry(1L, "user1", RefreshTokenStore.hash("remote"),
+                LocalDateTime.now().plusMinutes(5), LocalDateTime.now().plusSeconds(1));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(remote));
+
+        store.syncChanges();
+
+        assertThat(store.find("local")).isPresent();
+        assertThat(store.find("remote")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncChanges_TokenRevokedElsewhere_DropsIt() throws Exception {
+        store.put(entry(1L, "token-1", 5));
+        store.put(entry(2L, "token-2", 5));
+        store.flush();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        ResultSet revokedRow = mock(ResultSet.class);
+        when(revokedRow.getLong("user_id")).thenReturn(1L);
+        when(revokedRow.getString("token")).thenReturn(RefreshTokenStore.hash("token-1"));
+        when(revokedRow.getTimestamp("revoked_at")).thenReturn(new Timestamp(System.currentTimeMillis()));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(revokedRow);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT user_id, token, revoked_at"), any(RowCallbackHandler.class),
+                any(Object[].class));
+
+        store.syncChanges();
+
+        assertThat(store.find("token-1")).isEmpty();
+        assertThat(store.find("token-2")).isPresent();
+    }
+
+    @Test
+    void evictExpired_RemovesOnlyExpiredEntries() {
+        store.put(entry(1L, "expired", -1));
+        store.put(entry(2L, "valid", 5));
+
+        int evicted = store.evictExpired();
+
+        assertThat(evicted).isEqualTo(1);
+        assertThat(store.find("expired")).isEmpty();
+        assertThat(store.find("valid")).isPresent();
+    }
+
+    private RefreshTokenEntry entry(Long userId, String token, int minutesToExpiry) {
+        return new RefreshTokenEntry(userId, "user" + userId, RefreshTokenStore.hash(token),
+                LocalDateTime.now().plusMinutes(minutesToExpiry), LocalDateTime.now());
+    }
+}
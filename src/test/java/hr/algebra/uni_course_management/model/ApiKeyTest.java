@@ -0,0 +1,25 @@
+package hr.algebra.uni_course_management.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiKeyTest {
+    @Test
+    void getAllowedPathPatterns_SplitsAndTrims() {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setAllowedPaths("/api/courses/**, /api/schedule ,,");
+
+        assertThat(apiKey.getAllowedPathPatterns()).containsExactly("/api/courses/**", "/api/schedule");
+    }
+
+    @Test
+    void onCreate_SetsCreatedAt() {
+        ApiKey apiKey = new ApiKey();
+
+        apiKey.onCreate();
+
+        assertThat(apiKey.getCreatedAt()).isNotNull();
+        assertThat(apiKey.getIsActive()).isTrue();
+    }
+}
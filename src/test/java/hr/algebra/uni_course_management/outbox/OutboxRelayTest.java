@@ -0,0 +1,213 @@
+package hr.algebra.uni_course_management.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Publishing and relaying against the real outbox_event table, with a recording subscriber in place of email
+@SpringBootTest
+class OutboxRelayTest {
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<OutboxEvent> received = new ArrayList<>();
+    private final Set<Long> failingAggregates = new HashSet<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionTemplate transactionTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("DELETE FROM job_lease WHERE job_name = ?", OutboxRelay.LEASE);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        relay = newRelay();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("DELETE FROM job_lease WHERE job_name = ?", OutboxRelay.LEASE);
+    }
+
+    @Test
+    void relay_DeliversInIdOrderAcrossBatchesAndMarksPublished() {
+        List<Long> ids = publish(1L, 2L, 1L, 3L, 1L);
+
+        int delivered = relay.relay();
+
+        assertThat(delivered).isEqualTo(5);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactlyElementsOf(ids);
+        assertThat(received.get(0).getType()).isEqualTo(OutboxEventType.STUDENT_ENROLLED);
+        assertThat(received.get(0).getLong("courseId")).isEqualTo(40L);
+        assertThat(pendingCount()).isZero();
+        assertThat(relay.relay()).isZero();
+        assertThat(received).hasSize(5);
+        assertThat(meterRegistry.get("outbox.relay.delivered").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void relay_FailureHoldsBackLaterEventsOfTheSameAggregateOnly() {
+        List<Long> ids = publish(1L, 2L, 1L);
+        failingAggregates.add(1L);
+
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactly(ids.get(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM outbox_event WHERE id = ?", Integer.class, ids.get(0)))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM outbox_event WHERE id = ?", String.class, ids.get(0)))
+                .isEqualTo("Subscriber unavailable");
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM outbox_event WHERE id = ?", Integer.class, ids.get(2)))
+                .isZero();
+
+        failingAggregates.clear();
+        received.clear();
+
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactly(ids.get(0), ids.get(2));
+        assertThat(pendingCount()).isZero();
+    }
+
+    @Test
+    void relay_ParksEventAfterMaxAttemptsAndReplayRequeuesIt() {
+        Long id = publish(1L).get(0);
+        failingAggregates.add(1L);
+
+        relay.relay();
+        relay.relay();
+        relay.relay();
+        relay.relay();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT parked FROM outbox_event WHERE id = ?", Boolean.class, id)).isTrue();
+        assertThat(meterRegistry.get("outbox.relay.failed").counter().count()).isEqualTo(3.0);
+
+        failingAggregates.clear();
+        assertThat(relay.replayFrom(id)).isEqualTo(1);
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactly(id);
+    }
+
+    @Test
+    void replayFrom_RedeliversPublishedEvents() {
+        List<Long> ids = publish(1L, 2L, 3L);
+        relay.relay();
+        received.clear();
+
+        assertThat(relay.replayFrom(ids.get(1))).isEqualTo(2);
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactly(ids.get(1), ids.get(2));
+    }
+
+    @Test
+    void relay_OnlyTheLeaseHolderDelivers() {
+        OutboxRelay otherNode = newRelay();
+        publish(1L, 2L);
+        assertThat(relay.relay()).isEqualTo(2);
+        received.clear();
+        List<Long> ids = publish(3L);
+
+        assertThat(otherNode.relay()).isZero();
+        assertThat(received).isEmpty();
+
+        relay.releaseLease();
+
+        assertThat(otherNode.relay()).isEqualTo(1);
+        assertThat(received).extracting(OutboxEvent::getId).containsExactly(ids.get(2));
+        assertThat(relay.relay()).isZero();
+    }
+
+    @Test
+    void relay_ExpiredLeaseOfAnotherNodeIsTakenOver() {
+        jdbcTemplate.update("""
+                INSERT INTO job_lease (job_name, owner, expires_at)
+                VALUES (?, 'crashed-node', DATEADD('SECOND', -1, CURRENT_TIMESTAMP))
+                """, OutboxRelay.LEASE);
+        publish(1L);
+
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT owner FROM job_lease WHERE job_name = ?", String.class,
+                OutboxRelay.LEASE)).isNotEqualTo("crashed-node");
+    }
+
+    @Test
+    void publish_RolledBackTransaction_LeavesNoEvent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxPublisher.publish(OutboxPublisher.ENROLLMENT, 1L, OutboxEventType.STUDENT_DROPPED, Map.of());
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Integer.class)).isZero();
+    }
+
+    @Test
+    void publish_OutsideTransaction_IsRejected() {
+        assertThatThrownBy(() ->
+                outboxPublisher.publish(OutboxPublisher.ENROLLMENT, 1L, OutboxEventType.STUDENT_DROPPED, Map.of()))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void relay_PurgesPublishedEventsPastRetention() {
+        List<Long> ids = publish(1L, 2L);
+        jdbcTemplate.update("UPDATE outbox_event SET published_at = DATEADD('HOUR', -2, CURRENT_TIMESTAMP) WHERE id = ?",
+                ids.get(0));
+
+        relay.relay();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM outbox_event", Long.class)).containsExactly(ids.get(1));
+    }
+
+    private OutboxRelay newRelay() {
+        OutboxSubscriber recorder = event -> {
+            if (failingAggregates.contains(event.getAggregateId())) {
+                throw new IllegalStateException("Subscriber unavailable");
+            }
+            received.add(event);
+        };
+        OutboxRelay node = new OutboxRelay(jdbcTemplate, objectMapper, List.of(recorder), meterRegistry);
+        ReflectionTestUtils.setField(node, "batchSize", 2);
+        ReflectionTestUtils.setField(node, "maxAttempts", 3);
+        ReflectionTestUtils.setField(node, "retentionHours", 1L);
+        ReflectionTestUtils.setField(node, "leaseMillis", 30_000L);
+        return node;
+    }
+
+    private List<Long> publish(Long... aggregateIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long aggregateId : aggregateIds) {
+                outboxPublisher.publish(OutboxPublisher.ENROLLMENT, aggregateId, OutboxEventType.STUDENT_ENROLLED,
+                        Map.of("studentId", 7L, "courseId", 40L));
+            }
+        });
+        return jdbcTemplate.queryForList("SELECT id FROM outbox_event ORDER BY id", Long.class);
+    }
+
+    private int pendingCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE published_at IS NULL", Integer.class);
+    }
+}
@@ -0,0 +1,95 @@
+package hr.algebra.uni_course_management.scheduler;
+
+import hr.algebra.uni_course_management.model.Course;
+import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.Grade;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.outbox.OutboxEvent;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import hr.algebra.uni_course_management.repository.CourseRepository;
+import hr.algebra.uni_course_management.repository.GradeRepository;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import hr.algebra.uni_course_management.service.EnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailNotificationSubscriberTest {
+    @Mock
+    private GradeRepository gradeRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailNotificationSubscriber subscriber;
+
+    @Test
+    void handle_GradeAssigned_SendsGradeNotification() {
+        User student = new User();
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        Grade grade = new Grade();
+        grade.setEnrollment(enrollment);
+        when(gradeRepository.findByEnrollmentId(10L)).thenReturn(Optional.of(grade));
+
+        subscriber.handle(event(OutboxEventType.GRADE_ASSIGNED, Map.of("studentId", 7, "courseId", 3, "gradeValue", 5)));
+
+        verify(emailService).sendGradeNotification(student, grade);
+    }
+
+    @Test
+    void handle_MailFailure_FailsTheEvent() {
+        User student = new User();
+        Course course = new Course();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(3L)).thenReturn(Optional.of(course));
+        doThrow(new MailSendException("smtp down")).when(emailService).sendWaitlistPromotion(student, course);
+
+        assertThatThrownBy(() -> subscriber.handle(event(OutboxEventType.STUDENT_ENROLLED,
+                Map.of("studentId", 7, "courseId", 3, "source", EnrollmentService.SOURCE_WAITLIST))))
+                .isInstanceOf(MailSendException.class);
+    }
+
+    @Test
+    void handle_WaitlistPromotion_SendsPromotionEmail() {
+        User student = new User();
+        Course course = new Course();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(3L)).thenReturn(Optional.of(course));
+
+        subscriber.handle(event(OutboxEventType.STUDENT_ENROLLED,
+                Map.of("studentId", 7, "courseId", 3, "source", EnrollmentService.SOURCE_WAITLIST)));
+
+        verify(emailService).sendWaitlistPromotion(student, course);
+    }
+
+    @Test
+    void handle_DirectEnrollmentAndDrop_SendNothing() {
+        subscriber.handle(event(OutboxEventType.STUDENT_ENROLLED,
+                Map.of("studentId", 7, "courseId", 3, "source", EnrollmentService.SOURCE_DIRECT)));
+        subscriber.handle(event(OutboxEventType.STUDENT_DROPPED,
+                Map.of("studentId", 7, "courseId", 3, "source", EnrollmentService.SOURCE_DIRECT)));
+
+        verifyNoInteractions(emailService, userRepository, courseRepository, gradeRepository);
+    }
+
+    private OutboxEvent event(OutboxEventType type, Map<String, Object> payload) {
+        return new OutboxEvent(1L, OutboxPublisher.ENROLLMENT, 10L, type, payload, LocalDateTime.now(), 0);
+    }
+}
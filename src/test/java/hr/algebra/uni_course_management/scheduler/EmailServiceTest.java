@@ -11,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
@@ -20,6 +21,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,14 +84,35 @@ class EmailServiceTest {
     }
 
     @Test
-    void sendGradeNotification_WhenMailSenderThrows_IsCaught() {
+    void sendGradeNotification_WhenMailSenderThrows_Propagates() {
         User student = buildStudent();
         Grade grade = buildGrade();
-        doThrow(new RuntimeException("mail down"))
+        doThrow(new MailSendException("mail down"))
                 .when(mailSender).send(any(SimpleMailMessage.class));
 
-        emailService.sendGradeNotification(student, grade);
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        assertThatThrownBy(() -> emailService.sendGradeNotification(student, grade))
+                .isInstanceOf(MailSendException.class)
+                .hasMessage("mail down");
+    }
+
+    @Test
+    void sendWaitlistPromotion_SendsMailWithCourse() {
+        User student = buildStudent();
+        Course course = new Course();
+        course.setCourseName("Algorithms");
+        course.setCourseCode("CS201");
+
+        emailService.sendWaitlistPromotion(student, course);
+
+        ArgumentCaptor<SimpleMailMessage> captor =
+                ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender).send(captor.capture());
+
+        SimpleMailMessage msg = captor.getValue();
+        assertThat(msg.getTo()).containsExactly("john@example.com");
+        assertThat(msg.getSubject()).isEqualTo("You are now enrolled in Algorithms");
+        assertThat(msg.getText()).contains("Dear John,");
+        assertThat(msg.getText()).contains("Algorithms (CS201)");
     }
 
     @Test
@@ -0,0 +1,97 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.model.ApiKey;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.service.ApiKeyService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyAuthenticationFilterTest {
+    @Mock
+    private ApiKeyService apiKeyService;
+    @Mock
+    private FilterChain filterChain;
+    @InjectMocks
+    private ApiKeyAuthenticationFilter filter;
+
+    @BeforeEach
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validKey_AuthenticatesWithKeyRole() throws Exception {
+        ApiKey apiKey = new ApiKey();
+        apiKey.setName("catalog");
+        apiKey.setRole(UserRole.PROFESSOR);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        request.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, "ucm_valid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiKeyService.authenticate("ucm_valid", "/api/courses")).thenReturn(Optional.of(apiKey));
+
+        filter.doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("api-key:catalog");
+        assertThat(authentication.getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_PROFESSOR");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void rejectedKey_ContinuesUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, "ucm_bad");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiKeyService.authenticate("ucm_bad", "/api/users")).thenReturn(Optional.empty());
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void noHeader_SkipsKeyLookup() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verifyNoInteractions(apiKeyService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void nonApiPath_IsIgnored() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/users");
+        request.addHeader(ApiKeyAuthenticationFilter.API_KEY_HEADER, "ucm_valid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(apiKeyService, never()).authenticate(any(), any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+}
@@ -0,0 +1,162 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.DisabledUserRegistry;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.UserRole;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtCookieAuthenticationFilterTest {
+    private static final String SECRET = "cookie-filter-test-secret-key-1234567890";
+
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+    @Mock
+    private DisabledUserRegistry disabledUserRegistry;
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtUtil jwtUtil;
+    private JwtCookieAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 900_000L);
+        filter = new JwtCookieAuthenticationFilter(jwtUtil, new JwtCookieIssuer(jwtUtil, false),
+                accessTokenDenylist, disabledUserRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void freshCookie_AuthenticatesWithoutReissuing() throws Exception {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedUser(7L, "sivanovic", "", UserRole.STUDENT, true));
+        MockHttpServletRequest request = requestWithCookie(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(accessTokenDenylist.isRevoked(any(), eq(7L))).thenReturn(false);
+
+        filter.doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getId()).isEqualTo(7L);
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_STUDENT");
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void agingCookie_IsSilentlyRefreshed() throws Exception {
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder()
+                .claim(JwtUtil.ROLE_CLAIM, "PROFESSOR")
+                .claim(JwtUtil.USER_ID_CLAIM, 3L)
+                .claim(JwtUtil.ACTIVE_CLAIM, true)
+                .id("old-jti")
+                .subject("mhorvat")
+                .issuedAt(new Date(now - 600_000))
+                .expiration(new Date(now + 300_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        MockHttpServletRequest request = requestWithCookie(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(accessTokenDenylist.isRevoked(any(), eq(3L))).thenReturn(false);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).startsWith(JwtCookieIssuer.COOKIE_NAME + "=").contains("HttpOnly").contains("SameSite=Lax");
+        String refreshed = setCookie.substring(JwtCookieIssuer.COOKIE_NAME.length() + 1, setCookie.indexOf(';'));
+        assertThat(jwtUtil.parseClaims(refreshed).getExpiration()).isAfter(new Date(now + 300_000));
+    }
+
+    @Test
+    void revokedCookie_IsClearedAndNotAuthenticated() throws Exception {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedUser(7L, "sivanovic", "", UserRole.STUDENT, true));
+        MockHttpServletRequest request = requestWithCookie(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(accessTokenDenylist.isRevoked(any(), eq(7L))).thenReturn(true);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void disabledUser_IsNotAuthenticated() throws Exception {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedUser(7L, "sivanovic", "", UserRole.STUDENT, true));
+        MockHttpServletRequest request = requestWithCookie(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(disabledUserRegistry.isDisabled(7L)).thenReturn(true);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+    }
+
+    @Test
+    void tamperedCookie_IsClearedAndNotAuthenticated() throws Exception {
+        MockHttpServletRequest request = requestWithCookie("not.a.jwt");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void noCookie_JustContinuesChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private static MockHttpServletRequest requestWithCookie(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/student/courses");
+        request.setCookies(new Cookie(JwtCookieIssuer.COOKIE_NAME, token));
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtCookieIssuerTest {
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "cookie-issuer-test-secret-key-1234567890");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 900_000L);
+    }
+
+    @Test
+    void issue_WritesHttpOnlyCookieMatchingTokenLifetime() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new JwtCookieIssuer(jwtUtil, true).issue(response, new AuthenticatedUser(1L, "admin", "", UserRole.ADMIN, true));
+
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie)
+                .startsWith(JwtCookieIssuer.COOKIE_NAME + "=")
+                .contains("Path=/")
+                .contains("HttpOnly")
+                .contains("Secure")
+                .contains("SameSite=Lax")
+                .contains("Max-Age=900;");
+        String token = setCookie.substring(JwtCookieIssuer.COOKIE_NAME.length() + 1, setCookie.indexOf(';'));
+        assertThat(jwtUtil.parseClaims(token).getSubject()).isEqualTo("admin");
+    }
+
+    @Test
+    void clear_ExpiresCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new JwtCookieIssuer(jwtUtil, false).clear(response);
+
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(JwtCookieIssuer.COOKIE_NAME + "=;")
+                .contains("Max-Age=0")
+                .doesNotContain("Secure");
+    }
+}
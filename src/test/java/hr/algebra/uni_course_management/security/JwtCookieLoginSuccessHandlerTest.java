@@ -0,0 +1,45 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class JwtCookieLoginSuccessHandlerTest {
+    @Mock
+    private JwtCookieIssuer jwtCookieIssuer;
+
+    @Test
+    void onAuthenticationSuccess_IssuesCookieAndRedirectsWithoutSession() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "sivanovic", "", UserRole.STUDENT, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new JwtCookieLoginSuccessHandler(jwtCookieIssuer, "/dashboard").onAuthenticationSuccess(request, response,
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        verify(jwtCookieIssuer).issue(response, principal);
+        assertThat(response.getRedirectedUrl()).isEqualTo("/dashboard");
+        assertThat(request.getSession(false)).isNull();
+    }
+
+    @Test
+    void onAuthenticationSuccess_UnexpectedPrincipal_Throws() {
+        JwtCookieLoginSuccessHandler handler = new JwtCookieLoginSuccessHandler(jwtCookieIssuer, "/dashboard");
+
+        assertThatThrownBy(() -> handler.onAuthenticationSuccess(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                new UsernamePasswordAuthenticationToken("plain", null)))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(jwtCookieIssuer);
+    }
+}
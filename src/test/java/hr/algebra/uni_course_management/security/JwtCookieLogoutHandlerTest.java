@@ -0,0 +1,64 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.JwtUtil;
+import hr.algebra.uni_course_management.model.UserRole;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class JwtCookieLogoutHandlerTest {
+    @Mock
+    private JwtCookieIssuer jwtCookieIssuer;
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+
+    private JwtUtil jwtUtil;
+    private JwtCookieLogoutHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "cookie-logout-test-secret-key-1234567890");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 900_000L);
+        handler = new JwtCookieLogoutHandler(jwtUtil, jwtCookieIssuer, accessTokenDenylist);
+    }
+
+    @Test
+    void logout_RevokesTokenAndClearsCookie() {
+        String token = jwtUtil.generateAccessToken(new AuthenticatedUser(7L, "sivanovic", "", UserRole.STUDENT, true));
+        String jti = jwtUtil.parseClaims(token).getId();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/logout");
+        request.setCookies(new Cookie(JwtCookieIssuer.COOKIE_NAME, token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.logout(request, response, null);
+
+        verify(accessTokenDenylist).revokeToken(eq(jti), eq(7L), any(Date.class));
+        verify(jwtCookieIssuer).clear(response);
+    }
+
+    @Test
+    void logout_WithoutCookie_OnlyClears() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.logout(new MockHttpServletRequest("POST", "/logout"), response, null);
+
+        verifyNoInteractions(accessTokenDenylist);
+        verify(jwtCookieIssuer).clear(response);
+    }
+}
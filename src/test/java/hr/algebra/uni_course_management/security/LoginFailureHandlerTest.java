@@ -0,0 +1,91 @@
+package hr.algebra.uni_course_management.security;
+
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import hr.algebra.uni_course_management.service.MyUserDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.Mockito.when;
+
+// Runs the failures through the real DaoAuthenticationProvider, which wraps what the user lookup throws
+@ExtendWith(MockitoExtension.class)
+class LoginFailureHandlerTest {
+    private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new DaoAuthenticationProvider(new MyUserDetailsService(userRepository));
+        provider.setPasswordEncoder(ENCODER);
+    }
+
+    @Test
+    void disabledUser_RedirectsToDisabledMessage() throws Exception {
+        when(userRepository.findByUsername("jane")).thenReturn(Optional.of(user("jane", false)));
+
+        MockHttpServletResponse response = fail("jane", "secret", false);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?error=true&disabled=true");
+    }
+
+    @Test
+    void wrongPassword_RedirectsToGenericError() throws Exception {
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user("john", true)));
+
+        MockHttpServletResponse response = fail("john", "wrong", false);
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?error=true");
+    }
+
+    @Test
+    void hashingBusy_KeepsItsOwnMapping() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LoginFailureHandler(false).onAuthenticationFailure(request, response,
+                new PasswordHashingBusyException("busy", new BadCredentialsException("inner")));
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?busy=true");
+    }
+
+    private MockHttpServletResponse fail(String username, String password, boolean allowSession) throws Exception {
+        AuthenticationException failure = catchThrowableOfType(
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken(username, password)),
+                AuthenticationException.class);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new LoginFailureHandler(allowSession).onAuthenticationFailure(request, response, failure);
+        assertThat(request.getSession(false)).isNull();
+        return response;
+    }
+
+    private static User user(String username, boolean active) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(username);
+        user.setPassword(ENCODER.encode("secret"));
+        user.setRole(UserRole.STUDENT);
+        user.setIsActive(active);
+        return user;
+    }
+}
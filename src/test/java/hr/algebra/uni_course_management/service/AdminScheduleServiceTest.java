@@ -28,6 +28,8 @@ class AdminScheduleServiceTest {
 
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private TimetableService timetableService;
 
     @InjectMocks
     private AdminScheduleService adminScheduleService;
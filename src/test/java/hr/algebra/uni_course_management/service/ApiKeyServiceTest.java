@@ -0,0 +1,186 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.exception.ResourceNotFoundException;
+import hr.algebra.uni_course_management.model.ApiKey;
+import hr.algebra.uni_course_management.model.UserRole;
+import hr.algebra.uni_course_management.repository.ApiKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyServiceTest {
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+    @InjectMocks
+    private ApiKeyService apiKeyService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(apiKeyService, "pepper", "test-pepper");
+    }
+
+    @Test
+    void issue_StoresOnlyDigestAndReturnsRawKeyOnce() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        String rawKey = apiKeyService.issue("grades-sync", UserRole.PROFESSOR, "/api/grades/**");
+
+        ArgumentCaptor<ApiKey> captor = ArgumentCaptor.forClass(ApiKey.class);
+        verify(apiKeyRepository).save(captor.capture());
+        ApiKey saved = captor.getValue();
+        assertThat(rawKey).startsWith(ApiKeyService.KEY_PREFIX);
+        assertThat(saved.getKeyHash()).hasSize(64).isEqualTo(apiKeyService.hash(rawKey));
+        assertThat(saved.getKeyHash()).doesNotContain(rawKey);
+        assertThat(rawKey).startsWith(saved.getKeyPrefix());
+        assertThat(saved.getIsActive()).isTrue();
+    }
+
+    @Test
+    void issue_GeneratesDistinctKeys() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        String first = apiKeyService.issue("a", UserRole.STUDENT, "/api/courses/**");
+        String second = apiKeyService.issue("b", UserRole.STUDENT, "/api/courses/**");
+
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void issue_MissingAllowedPaths_Throws() {
+        assertThatThrownBy(() -> apiKeyService.issue("a", UserRole.STUDENT, " "))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(apiKeyRepository);
+    }
+
+    @Test
+    void hash_DependsOnPepper() {
+        String digest = apiKeyService.hash("ucm_key");
+
+        ApiKeyService other = new ApiKeyService(apiKeyRepository);
+        ReflectionTestUtils.setField(other, "pepper", "other-pepper");
+
+        assertThat(other.hash("ucm_key")).isNotEqualTo(digest);
+        assertThat(apiKeyService.hash("ucm_key")).isEqualTo(digest);
+    }
+
+    @Test
+    void checkPepper_Blank_FailsStartup() {
+        ReflectionTestUtils.setField(apiKeyService, "pepper", " ");
+
+        assertThatThrownBy(() -> apiKeyService.checkPepper())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("API_KEY_PEPPER");
+    }
+
+    @Test
+    void checkPepper_SameAsJwtSecret_FailsStartup() {
+        ReflectionTestUtils.setField(apiKeyService, "jwtSecret", "test-pepper");
+
+        assertThatThrownBy(() -> apiKeyService.checkPepper())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.secret");
+    }
+
+    @Test
+    void checkPepper_OwnSecret_Passes() {
+        ReflectionTestUtils.setField(apiKeyService, "jwtSecret", "jwt-secret");
+
+        apiKeyService.checkPepper();
+    }
+
+    @Test
+    void authenticate_IssuedKeyWithinScope_ReturnsKeyWithoutDatabaseLookup() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+        String rawKey = apiKeyService.issue("catalog", UserRole.STUDENT, "/api/courses/**, /api/schedule");
+
+        assertThat(apiKeyService.authenticate(rawKey, "/api/courses/5")).isPresent();
+        assertThat(apiKeyService.authenticate(rawKey, "/api/schedule")).isPresent();
+        verify(apiKeyRepository, never()).findByIsActiveTrue();
+    }
+
+    @Test
+    void authenticate_OutOfScopePath_ReturnsEmpty() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+        String rawKey = apiKeyService.issue("catalog", UserRole.STUDENT, "/api/courses/**");
+
+        assertThat(apiKeyService.authenticate(rawKey, "/api/users")).isEmpty();
+    }
+
+    @Test
+    void authenticate_UnknownOrMalformedKey_ReturnsEmpty() {
+        assertThat(apiKeyService.authenticate("ucm_unknown", "/api/courses")).isEmpty();
+        assertThat(apiKeyService.authenticate("not-a-key", "/api/courses")).isEmpty();
+        assertThat(apiKeyService.authenticate(null, "/api/courses")).isEmpty();
+    }
+
+    @Test
+    void reload_LoadsActiveKeysFromRepository() {
+        ApiKey stored = new ApiKey();
+        stored.setName("reporting");
+        stored.setKeyHash(apiKeyService.hash("ucm_stored"));
+        stored.setRole(UserRole.ADMIN);
+        stored.setAllowedPaths("/api/admin/**");
+        when(apiKeyRepository.findByIsActiveTrue()).thenReturn(List.of(stored));
+
+        apiKeyService.reload();
+
+        assertThat(apiKeyService.authenticate("ucm_stored", "/api/admin/stats")).contains(stored);
+    }
+
+    @Test
+    void revoke_DeactivatesAndEvictsKey() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+        String rawKey = apiKeyService.issue("catalog", UserRole.STUDENT, "/api/courses/**");
+        ApiKey saved = apiKeyService.authenticate(rawKey, "/api/courses").orElseThrow();
+        when(apiKeyRepository.findById(3L)).thenReturn(Optional.of(saved));
+
+        apiKeyService.revoke(3L);
+
+        assertThat(saved.getIsActive()).isFalse();
+        assertThat(saved.getRevokedAt()).isNotNull();
+        assertThat(apiKeyService.authenticate(rawKey, "/api/courses")).isEmpty();
+    }
+
+    @Test
+    void syncChanges_AppliesKeysIssuedAndRevokedOnOtherNodes() {
+        when(apiKeyRepository.save(any(ApiKey.class))).thenAnswer(inv -> inv.getArgument(0));
+        String localKey = apiKeyService.issue("catalog", UserRole.STUDENT, "/api/courses/**");
+        ApiKey revoked = apiKeyService.authenticate(localKey, "/api/courses").orElseThrow();
+        revoked.setIsActive(false);
+        revoked.setRevokedAt(LocalDateTime.now());
+        ApiKey issued = new ApiKey();
+        issued.setKeyHash(apiKeyService.hash("ucm_remote"));
+        issued.setRole(UserRole.ADMIN);
+        issued.setAllowedPaths("/api/admin/**");
+        issued.setCreatedAt(LocalDateTime.now());
+        when(apiKeyRepository.findByCreatedAtAfterOrRevokedAtAfter(any(), any())).thenReturn(List.of(revoked, issued));
+
+        apiKeyService.syncChanges();
+
+        assertThat(apiKeyService.authenticate(localKey, "/api/courses")).isEmpty();
+        assertThat(apiKeyService.authenticate("ucm_remote", "/api/admin/stats")).contains(issued);
+    }
+
+    @Test
+    void revoke_UnknownId_Throws() {
+        when(apiKeyRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> apiKeyService.revoke(9L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
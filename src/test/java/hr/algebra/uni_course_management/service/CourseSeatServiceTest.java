@@ -0,0 +1,182 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseSeatServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private CourseSeatService courseSeatService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(courseSeatService, "hintRefreshMs", 60_000L);
+    }
+
+    private void stubCourse(Integer capacity, int enrolled) {
+        when(jdbcTemplate.query(contains("SELECT max_students"), any(ResultSetExtractor.class), eq(10L)))
+                .thenReturn(new CourseSeatService.SeatCounter(capacity, enrolled));
+    }
+
+    @Test
+    void checkAvailable_OpenSeats_Passes() {
+        stubCourse(30, 29);
+
+        assertThatNoException().isThrownBy(() -> courseSeatService.checkAvailable(10L));
+    }
+
+    @Test
+    void checkAvailable_FullCourse_RejectsFromMemoryAfterFirstLoad() {
+        stubCourse(30, 30);
+
+        assertThatThrownBy(() -> courseSeatService.checkAvailable(10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Course is full");
+        assertThatThrownBy(() -> courseSeatService.checkAvailable(10L))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(ResultSetExtractor.class), eq(10L));
+    }
+
+    @Test
+    void checkAvailable_StaleFullHint_IsResynced() {
+        ReflectionTestUtils.setField(courseSeatService, "hintRefreshMs", 0L);
+        when(jdbcTemplate.query(contains("SELECT max_students"), any(ResultSetExtractor.class), eq(10L)))
+                .thenReturn(new CourseSeatService.SeatCounter(30, 30))
+                .thenReturn(new CourseSeatService.SeatCounter(30, 29));
+
+        assertThatNoException().isThrownBy(() -> courseSeatService.checkAvailable(10L));
+    }
+
+    @Test
+    void checkAvailable_UnlimitedCourse_Passes() {
+        stubCourse(null, 500);
+
+        assertThatNoException().isThrownBy(() -> courseSeatService.checkAvailable(10L));
+    }
+
+    @Test
+    void reserveSeat_ConditionalUpdateSucceeds_UpdatesHint() {
+        stubCourse(30, 10);
+        courseSeatService.checkAvailable(10L);
+        when(jdbcTemplate.update(contains("COALESCE(enrolled_students, 0) + ?"), eq(1), eq(10L), eq(1))).thenReturn(1);
+
+        courseSeatService.reserveSeat(10L);
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(11);
+    }
+
+    @Test
+    void reserveSeat_NoSeatLeft_ThrowsAndResyncs() {
+        when(jdbcTemplate.update(contains("COALESCE(enrolled_students, 0) + ?"), eq(1), eq(10L), eq(1))).thenReturn(0);
+        stubCourse(30, 30);
+
+        assertThatThrownBy(() -> courseSeatService.reserveSeat(10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Course is full");
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(30);
+    }
+
+    @Test
+    void reserveSeats_GroupReservation_AddsAllSeatsToHint() {
+        stubCourse(30, 10);
+        courseSeatService.checkAvailable(10L);
+        when(jdbcTemplate.update(contains("COALESCE(enrolled_students, 0) + ?"), eq(5), eq(10L), eq(5))).thenReturn(1);
+
+        courseSeatService.reserveSeats(10L, 5);
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(15);
+    }
+
+    @Test
+    void reserveSeats_SeveralCourses_UsesOneBatch() {
+        stubCourse(30, 10);
+        courseSeatService.checkAvailable(10L);
+        when(jdbcTemplate.batchUpdate(contains("COALESCE(enrolled_students, 0) + ?"), anyList())).thenReturn(new int[]{1, 1});
+
+        courseSeatService.reserveSeats(new LinkedHashMap<>(Map.of(10L, 4, 11L, 2)));
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(14);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void reserveSeats_SeveralCoursesOneFull_ThrowsAndResyncsThatCourse() {
+        Map<Long, Integer> seats = new LinkedHashMap<>();
+        seats.put(11L, 1);
+        seats.put(10L, 3);
+        when(jdbcTemplate.batchUpdate(contains("COALESCE(enrolled_students, 0) + ?"), anyList())).thenReturn(new int[]{1, 0});
+        stubCourse(30, 30);
+
+        assertThatThrownBy(() -> courseSeatService.reserveSeats(seats))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Course is full");
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(30);
+    }
+
+    @Test
+    void releaseSeat_DecrementsHint() {
+        stubCourse(30, 30);
+        assertThatThrownBy(() -> courseSeatService.checkAvailable(10L)).isInstanceOf(IllegalStateException.class);
+        when(jdbcTemplate.update(contains("enrolled_students - ?"), eq(1), eq(10L), eq(1))).thenReturn(1);
+
+        courseSeatService.releaseSeat(10L);
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(29);
+        assertThatNoException().isThrownBy(() -> courseSeatService.checkAvailable(10L));
+    }
+
+    @Test
+    void releaseSeats_DecrementsHintByTheReleasedCount() {
+        stubCourse(30, 30);
+        assertThatThrownBy(() -> courseSeatService.checkAvailable(10L)).isInstanceOf(IllegalStateException.class);
+        when(jdbcTemplate.update(contains("enrolled_students - ?"), eq(3), eq(10L), eq(3))).thenReturn(1);
+
+        courseSeatService.releaseSeats(10L, 3);
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(27);
+    }
+
+    @Test
+    void releaseSeat_AlreadyZero_LeavesHintAlone() {
+        when(jdbcTemplate.update(contains("enrolled_students - ?"), eq(1), anyLong(), eq(1))).thenReturn(0);
+
+        courseSeatService.releaseSeat(10L);
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(-1);
+    }
+
+    @Test
+    void reconcile_RecountsFromEnrollmentsAndClearsHints() {
+        stubCourse(30, 30);
+        assertThatThrownBy(() -> courseSeatService.checkAvailable(10L)).isInstanceOf(IllegalStateException.class);
+        when(jdbcTemplate.update(contains("SELECT COUNT(*) FROM enrollment"))).thenReturn(12);
+
+        courseSeatService.reconcile();
+
+        assertThat(courseSeatService.cachedEnrolled(10L)).isEqualTo(-1);
+    }
+}
@@ -22,6 +22,10 @@ import static org.mockito.Mockito.*;
 class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
+    @Mock
+    private TranscriptService transcriptService;
+    @Mock
+    private TimetableService timetableService;
 
     @InjectMocks
     private CourseService courseService;
@@ -150,6 +154,7 @@ class CourseServiceTest {
         assertThat(result.getAcademicYear()).isEqualTo("2025/2026");
         assertThat(result.getIsActive()).isFalse();
         verify(courseRepository).save(result);
+        verify(transcriptService).evictAll();
     }
 
     @Test
@@ -172,6 +177,7 @@ class CourseServiceTest {
         courseService.deleteCourse(1L);
 
         verify(courseRepository).delete(course);
+        verify(transcriptService).evictAll();
     }
 
     @Test
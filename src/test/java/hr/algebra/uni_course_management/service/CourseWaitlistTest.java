@@ -0,0 +1,110 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseWaitlistTest {
+
+    @Test
+    void position_FollowsTicketOrder() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.add(1, 100L);
+        waitlist.add(2, 200L);
+        waitlist.add(3, 300L);
+
+        assertThat(waitlist.position(100L)).isEqualTo(1);
+        assertThat(waitlist.position(200L)).isEqualTo(2);
+        assertThat(waitlist.position(300L)).isEqualTo(3);
+        assertThat(waitlist.position(999L)).isZero();
+        assertThat(waitlist.size()).isEqualTo(3);
+    }
+
+    @Test
+    void remove_FromTheMiddle_ShiftsLaterPositions() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.add(1, 100L);
+        waitlist.add(2, 200L);
+        waitlist.add(3, 300L);
+
+        assertThat(waitlist.remove(200L)).isTrue();
+        assertThat(waitlist.remove(200L)).isFalse();
+
+        assertThat(waitlist.position(100L)).isEqualTo(1);
+        assertThat(waitlist.position(300L)).isEqualTo(2);
+        assertThat(waitlist.contains(200L)).isFalse();
+    }
+
+    @Test
+    void add_OutOfOrder_KeepsTicketOrder() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.add(8, 200L);
+        waitlist.add(5, 100L);
+
+        assertThat(waitlist.position(100L)).isEqualTo(1);
+        assertThat(waitlist.position(200L)).isEqualTo(2);
+    }
+
+    @Test
+    void add_SameStudentTwice_IsIgnored() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.add(1, 100L);
+        waitlist.add(2, 100L);
+
+        assertThat(waitlist.size()).isEqualTo(1);
+        assertThat(waitlist.position(100L)).isEqualTo(1);
+    }
+
+    @Test
+    void signature_TracksTheWaitingSet() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        waitlist.add(1, 100L);
+        waitlist.add(2, 200L);
+        CourseWaitlist.Signature both = waitlist.signature();
+
+        waitlist.remove(200L);
+        waitlist.add(2, 300L);
+
+        assertThat(both).isEqualTo(new CourseWaitlist.Signature(2, 300L, 500L));
+        assertThat(waitlist.signature()).isEqualTo(new CourseWaitlist.Signature(2, 400L, 700L));
+    }
+
+    @Test
+    void longRunningQueue_GrowsAndCompactsWithoutLosingOrder() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        List<Long> waiting = new ArrayList<>();
+        long student = 0;
+        // Many more tickets than the initial capacity pass through while the queue stays short
+        for (int round = 0; round < 2_000; round++) {
+            long id = ++student;
+            waitlist.add(round + 1, id);
+            waiting.add(id);
+            if (round % 3 != 0) {
+                waitlist.remove(waiting.remove(0));
+            }
+        }
+
+        assertThat(waitlist.size()).isEqualTo(waiting.size());
+        for (int i = 0; i < waiting.size(); i++) {
+            assertThat(waitlist.position(waiting.get(i))).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void drainingTheQueue_ThenRejoining_StartsAtPositionOne() {
+        CourseWaitlist waitlist = new CourseWaitlist();
+        for (long id = 1; id <= 100; id++) {
+            waitlist.add(id, id);
+        }
+        for (long id = 1; id <= 100; id++) {
+            waitlist.remove(id);
+        }
+        waitlist.add(101, 500L);
+
+        assertThat(waitlist.size()).isEqualTo(1);
+        assertThat(waitlist.position(500L)).isEqualTo(1);
+    }
+}
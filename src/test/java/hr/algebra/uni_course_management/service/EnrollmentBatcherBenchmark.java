@@ -0,0 +1,127 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=EnrollmentBatcherBenchmark
+@SpringBootTest
+class EnrollmentBatcherBenchmark {
+    private static final int STUDENTS = 2_000;
+    private static final int CLIENT_THREADS = 32;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CourseSeatService courseSeatService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    private TestData data;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        studentIds = data.students("bench", STUDENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollment_request WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'BENCH%')");
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'BENCH%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'BENCH%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'bench%'");
+    }
+
+    @Test
+    void perRequestTransactionsVersusGroupedCommits() throws Exception {
+        // Warm-up pass so JIT and connection pool state do not favour whichever mode runs last
+        perRequest(createCourse("BENCH0"));
+
+        long perRequestNanos = perRequest(createCourse("BENCH1"));
+        System.out.printf("Per-request enrollStudent (%d threads): %,d enrollments/s%n",
+                CLIENT_THREADS, throughput(perRequestNanos));
+
+        for (int batchSize : new int[]{1, 10, 50}) {
+            Long courseId = createCourse("BENCH-B" + batchSize);
+            long nanos = grouped(courseId, batchSize);
+            System.out.printf("Burst mode, batch size %-3d:               %,d enrollments/s%n",
+                    batchSize, throughput(nanos));
+            assertThat(jdbcTemplate.queryForObject("SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId))
+                    .isEqualTo(STUDENTS);
+        }
+    }
+
+    private long perRequest(Long courseId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long studentId : studentIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return enrollmentService.enrollStudent(studentId, courseId);
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long grouped(Long courseId, int batchSize) throws Exception {
+        EnrollmentBatcher batcher = new EnrollmentBatcher(jdbcTemplate, transactionManager, courseSeatService, waitlistService, transcriptService,
+                timetableService, outboxPublisher, new SimpleMeterRegistry(), true, batchSize, 5, 4, STUDENTS, 5_000, 300_000);
+        try {
+            long begin = System.nanoTime();
+            List<CompletableFuture<EnrollmentRequest>> futures = studentIds.stream()
+                    .map(id -> batcher.submit(id, courseId).asFuture())
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+            return System.nanoTime() - begin;
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    private Long createCourse(String code) {
+        return data.course(code).capacity(null).create();
+    }
+
+    private static long throughput(long nanos) {
+        return STUDENTS * 1_000_000_000L / nanos;
+    }
+}
@@ -0,0 +1,214 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs burst-mode groups against the real database
+@SpringBootTest
+class EnrollmentBatcherTest {
+    private static final int CAPACITY = 10;
+    private static final int STUDENTS = 40;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CourseSeatService courseSeatService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentBatcher batcher;
+    private Long courseId;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbcTemplate);
+        courseId = data.course("BURST101").capacity(CAPACITY).create();
+        studentIds = data.students("burst", STUDENTS);
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = newBatcher(8, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        batcher.shutdown();
+        jdbcTemplate.update("""
+                DELETE FROM outbox_event WHERE aggregate_type = 'Enrollment'
+                  AND aggregate_id IN (SELECT id FROM enrollment WHERE course_id = ?)
+                """, courseId);
+        jdbcTemplate.update("DELETE FROM enrollment_request WHERE course_id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'burst%'");
+    }
+
+    @Test
+    void burstOfRequests_FillsCourseExactlyAndRejectsTheRest() throws Exception {
+        List<EnrollmentRequest> requests = studentIds.stream()
+                .map(id -> batcher.submit(id, courseId))
+                .toList();
+        awaitAll(requests);
+
+        assertThat(requests).filteredOn(r -> r.getStatus() == EnrollmentRequest.Status.ENROLLED).hasSize(CAPACITY);
+        assertThat(requests).filteredOn(r -> r.getStatus() == EnrollmentRequest.Status.REJECTED)
+                .allSatisfy(r -> assertThat(r.getMessage()).isEqualTo(CourseSeatService.COURSE_FULL));
+        assertThat(enrolledCount()).isEqualTo(CAPACITY);
+        assertThat(seatCounter()).isEqualTo(CAPACITY);
+        assertThat(enrolledEvents(courseId, EnrollmentService.SOURCE_DIRECT)).isEqualTo(CAPACITY);
+        assertThat(meterRegistry.get("enrollment.burst.batch.size").summary().max()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void duplicateAndAlreadyEnrolledRequests_AreRejected() throws Exception {
+        Long seated = studentIds.get(0);
+        Long fresh = studentIds.get(1);
+        enrollmentService.enrollStudent(seated, courseId);
+
+        EnrollmentRequest again = batcher.submit(seated, courseId);
+        EnrollmentRequest first = batcher.submit(fresh, courseId);
+        EnrollmentRequest duplicate = batcher.submit(fresh, courseId);
+        awaitAll(List.of(again, first, duplicate));
+
+        assertThat(again.getStatus()).isEqualTo(EnrollmentRequest.Status.REJECTED);
+        assertThat(first.getStatus()).isEqualTo(EnrollmentRequest.Status.ENROLLED);
+        assertThat(duplicate.getStatus()).isEqualTo(EnrollmentRequest.Status.REJECTED);
+        assertThat(enrolledCount()).isEqualTo(2);
+        assertThat(seatCounter()).isEqualTo(2);
+    }
+
+    @Test
+    void droppedStudent_IsReenrolledInPlace() throws Exception {
+        Long studentId = studentIds.get(0);
+        enrollmentService.enrollStudent(studentId, courseId);
+        enrollmentService.dropStudent(studentId, courseId);
+
+        EnrollmentRequest request = batcher.submitAndWait(studentId, courseId);
+
+        assertThat(request.getStatus()).isEqualTo(EnrollmentRequest.Status.ENROLLED);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE course_id = ? AND student_id = ?", Integer.class, courseId, studentId))
+                .isEqualTo(1);
+        assertThat(seatCounter()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownStudent_IsRejectedWithoutAffectingTheGroup() throws Exception {
+        EnrollmentRequest unknown = batcher.submit(-1L, courseId);
+        EnrollmentRequest known = batcher.submit(studentIds.get(0), courseId);
+        awaitAll(List.of(unknown, known));
+
+        assertThat(unknown.getStatus()).isEqualTo(EnrollmentRequest.Status.REJECTED);
+        assertThat(unknown.getMessage()).isEqualTo("Student not found");
+        assertThat(known.getStatus()).isEqualTo(EnrollmentRequest.Status.ENROLLED);
+    }
+
+    @Test
+    void submit_QueueAtCapacity_Throws() throws Exception {
+        batcher.shutdown();
+        batcher = newBatcher(8, 0);
+
+        assertThatThrownBy(() -> batcher.submit(studentIds.get(0), courseId))
+                .isInstanceOf(EnrollmentQueueFullException.class);
+    }
+
+    @Test
+    void find_ReturnsSubmittedRequest() throws Exception {
+        EnrollmentRequest request = batcher.submitAndWait(studentIds.get(0), courseId);
+
+        assertThat(batcher.find(request.getId())).containsSame(request);
+        assertThat(batcher.find("missing")).isEmpty();
+    }
+
+    @Test
+    void find_RequestAcceptedByAnotherNode_IsReadFromTheTable() throws Exception {
+        EnrollmentBatcher otherNode = newBatcher(8, 10_000);
+        try {
+            EnrollmentRequest enrolled = batcher.submitAndWait(studentIds.get(0), courseId);
+            EnrollmentRequest rejected = batcher.submitAndWait(-1L, courseId);
+
+            assertThat(otherNode.find(enrolled.getId())).hasValueSatisfying(found -> {
+                assertThat(found.getStatus()).isEqualTo(EnrollmentRequest.Status.ENROLLED);
+                assertThat(found.getStudentId()).isEqualTo(studentIds.get(0));
+                assertThat(found.getCourseId()).isEqualTo(courseId);
+                assertThat(found.getMessage()).isEqualTo(enrolled.getMessage());
+                assertThat(found.getCompletedAt()).isPositive();
+            });
+            assertThat(otherNode.find(rejected.getId())).hasValueSatisfying(found -> {
+                assertThat(found.getStatus()).isEqualTo(EnrollmentRequest.Status.REJECTED);
+                assertThat(found.getMessage()).isEqualTo("Student not found");
+            });
+        } finally {
+            otherNode.shutdown();
+        }
+    }
+
+    @Test
+    void find_QueuedRequest_IsPendingOnOtherNodes() throws Exception {
+        EnrollmentBatcher otherNode = newBatcher(8, 10_000);
+        try {
+            EnrollmentRequest request = new EnrollmentRequest(studentIds.get(0), courseId);
+            jdbcTemplate.update("""
+                    INSERT INTO enrollment_request (id, student_id, course_id, status, submitted_at)
+                    VALUES (?, ?, ?, 'PENDING', CURRENT_TIMESTAMP)
+                    """, request.getId(), studentIds.get(0), courseId);
+
+            assertThat(otherNode.find(request.getId())).hasValueSatisfying(found ->
+                    assertThat(found.getStatus()).isEqualTo(EnrollmentRequest.Status.PENDING));
+        } finally {
+            otherNode.shutdown();
+        }
+    }
+
+    private int enrolledEvents(Long courseId, String source) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM outbox_event o JOIN enrollment e ON e.id = o.aggregate_id
+                WHERE o.aggregate_type = 'Enrollment' AND o.event_type = 'STUDENT_ENROLLED'
+                  AND e.course_id = ? AND e.status = 'ENROLLED' AND o.payload LIKE ?
+                """, Integer.class, courseId, "%\"source\":\"" + source + "\"%");
+    }
+
+    private EnrollmentBatcher newBatcher(int batchSize, int queueCapacity) {
+        return new EnrollmentBatcher(jdbcTemplate, transactionManager, courseSeatService, waitlistService, transcriptService, timetableService,
+                outboxPublisher, meterRegistry,
+                true, batchSize, 5, 4, queueCapacity, 5_000, 300_000);
+    }
+
+    private static void awaitAll(List<EnrollmentRequest> requests) throws Exception {
+        CompletableFuture.allOf(requests.stream().map(EnrollmentRequest::asFuture).toArray(CompletableFuture[]::new))
+                .get(30, TimeUnit.SECONDS);
+    }
+
+    private int enrolledCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE course_id = ? AND status = 'ENROLLED'", Integer.class, courseId);
+    }
+
+    private int seatCounter() {
+        return jdbcTemplate.queryForObject("SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId);
+    }
+}
@@ -0,0 +1,118 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Races many enroll/drop requests against one small course on the real database
+@SpringBootTest
+class EnrollmentCapacityStressTest {
+    private static final int CAPACITY = 10;
+    private static final int STUDENTS = 60;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbcTemplate);
+        courseId = data.course("STRESS101").capacity(CAPACITY).create();
+        studentIds = data.students("stress", STUDENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'stress%'");
+    }
+
+    @Test
+    void concurrentEnrollments_NeverOverbook() throws Exception {
+        List<Boolean> results = race(studentIds.stream()
+                .map(id -> (Runnable) () -> enrollmentService.enrollStudent(id, courseId))
+                .toList());
+
+        assertThat(results.stream().filter(Boolean::booleanValue).count()).isEqualTo(CAPACITY);
+        assertSeatCountConsistent();
+        assertThat(enrolledCount()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void concurrentEnrollAndDropRaces_KeepSeatCountConsistent() throws Exception {
+        List<Long> seated = studentIds.subList(0, CAPACITY);
+        seated.forEach(id -> enrollmentService.enrollStudent(id, courseId));
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (Long id : seated) {
+            // Each seated student drops twice concurrently; only one drop may free the seat
+            tasks.add(() -> enrollmentService.dropStudent(id, courseId));
+            tasks.add(() -> enrollmentService.dropStudent(id, courseId));
+            tasks.add(() -> enrollmentService.enrollStudent(id, courseId));
+        }
+        for (Long id : studentIds.subList(CAPACITY, STUDENTS)) {
+            tasks.add(() -> enrollmentService.enrollStudent(id, courseId));
+        }
+
+        race(tasks);
+
+        assertSeatCountConsistent();
+        assertThat(enrolledCount()).isLessThanOrEqualTo(CAPACITY);
+    }
+
+    private List<Boolean> race(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.run();
+                        return true;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int enrolledCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE course_id = ? AND status = 'ENROLLED'", Integer.class, courseId);
+    }
+
+    private void assertSeatCountConsistent() {
+        Integer counter = jdbcTemplate.queryForObject(
+                "SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId);
+        assertThat(counter).isEqualTo(enrolledCount());
+    }
+}
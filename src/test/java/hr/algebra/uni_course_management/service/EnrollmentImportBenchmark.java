@@ -0,0 +1,69 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=EnrollmentImportBenchmark
+@SpringBootTest
+class EnrollmentImportBenchmark {
+    private static final int STUDENTS = 20_000;
+    private static final int COURSES = 2_000;
+    private static final int COURSES_PER_STUDENT = 5;
+    private static final int PER_ROW_SAMPLE = 2_000;
+
+    @Autowired
+    private EnrollmentImportService enrollmentImportService;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'IB%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'IB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'ib%'");
+    }
+
+    @Test
+    void importHundredThousandRows() throws Exception {
+        TestData data = new TestData(jdbcTemplate);
+        List<Long> courseIds = data.course("IB").capacity(200).createMany(COURSES);
+        List<Long> studentIds = data.students("ib", STUDENTS);
+
+        StringBuilder csv = new StringBuilder("username,course_code\n");
+        for (int s = 0; s < STUDENTS; s++) {
+            for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                csv.append("ib").append(s).append(",IB").append((s + k * 397) % COURSES).append('\n');
+            }
+        }
+
+        ImportReport report = enrollmentImportService.importCsv(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        assertThat(report.getImported()).isEqualTo((long) STUDENTS * COURSES_PER_STUDENT);
+        System.out.printf("Bulk import: %,d rows in %,d ms (%,.0f rows/s)%n",
+                report.getRows(), report.getDurationMs(), report.getRows() * 1000.0 / report.getDurationMs());
+
+        // Per-row baseline through the regular enrollment API on a sample, extrapolated to the same file
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'IB%')");
+        jdbcTemplate.update("UPDATE course SET enrolled_students = 0 WHERE course_code LIKE 'IB%'");
+        long start = System.nanoTime();
+        for (int i = 0; i < PER_ROW_SAMPLE; i++) {
+            enrollmentService.enrollStudent(studentIds.get(i), courseIds.get(i % COURSES));
+        }
+        double perRowMs = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("Per-row enrollStudent: %,d rows in %,.0f ms (%,.0f rows/s, ~%,.0f s for %,d rows)%n",
+                PER_ROW_SAMPLE, perRowMs, PER_ROW_SAMPLE * 1000.0 / perRowMs,
+                perRowMs / PER_ROW_SAMPLE * report.getRows() / 1000.0, report.getRows());
+    }
+}
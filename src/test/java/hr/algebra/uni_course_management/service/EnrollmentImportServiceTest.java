@@ -0,0 +1,160 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import hr.algebra.uni_course_management.dto.ImportRowError;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Imports against the real database, with a tiny chunk size so rows span several transactions
+@SpringBootTest
+class EnrollmentImportServiceTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CourseSeatService courseSeatService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    private TestData data;
+    private EnrollmentImportService importService;
+    private Long small;
+    private Long large;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        importService = new EnrollmentImportService(jdbcTemplate, transactionManager, courseSeatService, waitlistService, transcriptService,
+                timetableService, outboxPublisher, 3);
+        small = data.course("IMP-SMALL").capacity(2).create();
+        large = data.course("IMP-LARGE").capacity(50).create();
+        data.course("IMP-OFF").active(false).create();
+        data.students("importer", 6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("""
+                DELETE FROM outbox_event WHERE aggregate_type = 'Enrollment'
+                  AND aggregate_id IN (SELECT id FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'IMP-%'))
+                """);
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'IMP-%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'IMP-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'importer%'");
+    }
+
+    @Test
+    void importCsv_WritesValidRowsAndReportsTheRest() throws Exception {
+        String csv = """
+                username,course_code
+                importer0,IMP-LARGE
+                importer1,IMP-LARGE
+                "importer2" , "IMP-LARGE"
+                nobody,IMP-LARGE
+                importer0,NOPE
+                importer0,IMP-OFF
+                importer0
+                importer1,IMP-LARGE
+
+                importer3,IMP-SMALL
+                importer4,IMP-SMALL
+                importer5,IMP-SMALL
+                """;
+
+        ImportReport report = importService.importCsv(stream(csv));
+
+        assertThat(report.getRows()).isEqualTo(11);
+        assertThat(report.getImported()).isEqualTo(5);
+        assertThat(report.getFailed()).isEqualTo(6);
+        assertThat(report.getErrors())
+                .extracting(ImportRowError::getLine, ImportRowError::getMessage)
+                .containsExactly(
+                        tuple(5L, EnrollmentImportService.STUDENT_NOT_FOUND),
+                        tuple(6L, EnrollmentImportService.COURSE_NOT_FOUND),
+                        tuple(7L, EnrollmentImportService.INACTIVE_COURSE),
+                        tuple(8L, EnrollmentImportService.MALFORMED_ROW),
+                        tuple(9L, EnrollmentImportService.DUPLICATE_ROW),
+                        tuple(13L, CourseSeatService.COURSE_FULL));
+        assertThat(enrolledCount(large)).isEqualTo(3);
+        assertThat(enrolledCount(small)).isEqualTo(2);
+        assertThat(seatCounter(large)).isEqualTo(3);
+        assertThat(seatCounter(small)).isEqualTo(2);
+        assertThat(enrolledEvents(large, EnrollmentService.SOURCE_IMPORT)).isEqualTo(3);
+        assertThat(enrolledEvents(small, EnrollmentService.SOURCE_IMPORT)).isEqualTo(2);
+    }
+
+    @Test
+    void importCsv_ReactivatesDroppedRowsAndRejectsCurrentOnes() throws Exception {
+        Long dropped = userId("importer0");
+        Long seated = userId("importer1");
+        enrollmentService.enrollStudent(dropped, large);
+        enrollmentService.dropStudent(dropped, large);
+        enrollmentService.enrollStudent(seated, large);
+
+        ImportReport report = importService.importCsv(stream("importer0,IMP-LARGE\nimporter1,IMP-LARGE\n"));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors())
+                .extracting(ImportRowError::getUsername, ImportRowError::getMessage)
+                .containsExactly(tuple("importer1", EnrollmentImportService.ALREADY_ENROLLED));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM enrollment WHERE student_id = ? AND course_id = ?", String.class, dropped, large))
+                .isEqualTo("ENROLLED");
+        assertThat(seatCounter(large)).isEqualTo(2);
+    }
+
+    @Test
+    void importCsv_EmptyInput_ReportsNothing() throws Exception {
+        ImportReport report = importService.importCsv(stream("username,course_code\n"));
+
+        assertThat(report.getRows()).isZero();
+        assertThat(report.getErrors()).isEqualTo(List.of());
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long userId(String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM app_user WHERE username = ?", Long.class, username);
+    }
+
+    private int enrolledEvents(Long courseId, String source) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM outbox_event o JOIN enrollment e ON e.id = o.aggregate_id
+                WHERE o.aggregate_type = 'Enrollment' AND o.event_type = 'STUDENT_ENROLLED'
+                  AND e.course_id = ? AND e.status = 'ENROLLED' AND o.payload LIKE ?
+                """, Integer.class, courseId, "%\"source\":\"" + source + "\"%");
+    }
+
+    private int enrolledCount(Long courseId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE course_id = ? AND status = 'ENROLLED'", Integer.class, courseId);
+    }
+
+    private int seatCounter(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId);
+    }
+}
@@ -1,6 +1,10 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.TranscriptRow;
 import hr.algebra.uni_course_management.model.*;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
 import hr.algebra.uni_course_management.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,7 +13,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -24,7 +30,17 @@ class EnrollmentServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private GradeRepository gradeRepository;
+    private CourseSeatService courseSeatService;
+    @Mock
+    private WaitlistService waitlistService;
+    @Mock
+    private OutboxPublisher outboxPublisher;
+    @Mock
+    private TranscriptService transcriptService;
+    @Mock
+    private TimetableService timetableService;
+    @Mock
+    private EnrollmentUpsertService enrollmentUpsertService;
 
     @InjectMocks
     private EnrollmentService enrollmentService;
@@ -52,147 +68,76 @@ class EnrollmentServiceTest {
     // ---------- enrollStudent ----------
 
     @Test
-    void enrollStudent_NewEnrollment_Succeeds() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
-        when(enrollmentRepository.findByStudentAndCourse(student, activeCourse))
-                .thenReturn(Optional.empty());
-        when(enrollmentRepository.save(any(Enrollment.class)))
-                .thenAnswer(inv -> inv.getArgument(0));
-
-        Enrollment result = enrollmentService.enrollStudent(1L, 10L);
-
-        assertThat(result.getStudent()).isEqualTo(student);
-        assertThat(result.getCourse()).isEqualTo(activeCourse);
-        assertThat(result.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
-        verify(enrollmentRepository).save(result);
-    }
-
-    @Test
-    void enrollStudent_ExistingEnrollmentPreviouslyDropped_Reenrolls() {
-        Enrollment existing = new Enrollment();
-        existing.setStudent(student);
-        existing.setCourse(activeCourse);
-        existing.setStatus(EnrollmentStatus.DROPPED);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
-        when(enrollmentRepository.findByStudentAndCourse(student, activeCourse))
-                .thenReturn(Optional.of(existing));
-        when(enrollmentRepository.save(existing)).thenReturn(existing);
-
-        Enrollment result = enrollmentService.enrollStudent(1L, 10L);
-
-        assertThat(result).isSameAs(existing);
-        assertThat(result.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
-        verify(enrollmentRepository).save(existing);
+    void enrollStudent_Upserted_ReservesSeatAndPublishesEvent() {
+        EnrollmentView upserted = new EnrollmentView(100L, 1L, 10L, "CS101", EnrollmentStatus.ENROLLED, LocalDateTime.now());
+        when(enrollmentUpsertService.enroll(1L, 10L)).thenReturn(upserted);
+
+        EnrollmentView result = enrollmentService.enrollStudent(1L, 10L);
+
+        assertThat(result).isSameAs(upserted);
+        verify(courseSeatService).reserveSeat(10L);
+        verify(waitlistService).remove(10L, List.of(1L));
+        verify(transcriptService).evict(1L);
+        verify(timetableService).recordEnrollment(1L, 10L);
+        verify(outboxPublisher).publish(OutboxPublisher.ENROLLMENT, 100L, OutboxEventType.STUDENT_ENROLLED,
+                Map.of("studentId", 1L, "courseId", 10L, "source", EnrollmentService.SOURCE_DIRECT));
+        verifyNoInteractions(userRepository, courseRepository, enrollmentRepository);
     }
 
     @Test
-    void enrollStudent_AlreadyEnrolled_Throws() {
-        Enrollment existing = new Enrollment();
-        existing.setStudent(student);
-        existing.setCourse(activeCourse);
-        existing.setStatus(EnrollmentStatus.ENROLLED);
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
-        when(enrollmentRepository.findByStudentAndCourse(student, activeCourse))
-                .thenReturn(Optional.of(existing));
+    void enrollStudent_CourseFull_ThrowsWithoutReserving() {
+        doThrow(new IllegalStateException(CourseSeatService.COURSE_FULL))
+                .when(courseSeatService).checkAvailable(10L);
 
         assertThatThrownBy(() -> enrollmentService.enrollStudent(1L, 10L))
                 .isInstanceOf(IllegalStateException.class)
-                .hasMessage("Student is already enrolled in this course");
+                .hasMessage("Course is full");
+        verifyNoInteractions(enrollmentUpsertService);
+        verify(courseSeatService, never()).reserveSeat(anyLong());
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
-    void enrollStudent_InactiveCourse_Throws() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(11L)).thenReturn(Optional.of(inactiveCourse));
+    void enrollStudent_TimetableClash_ThrowsWithoutReserving() {
+        doThrow(new IllegalStateException(TimetableService.CLASH + "CS101"))
+                .when(timetableService).checkClash(eq(1L), any(), eq(10L));
 
-        assertThatThrownBy(() -> enrollmentService.enrollStudent(1L, 11L))
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(1L, 10L))
                 .isInstanceOf(IllegalStateException.class)
-                .hasMessage("Cannot enroll in inactive course");
+                .hasMessage("Schedule clashes with CS101");
+        verifyNoInteractions(enrollmentUpsertService, courseSeatService);
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
-    void enrollStudent_StudentNotFound_Throws() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+    void enrollStudent_UpsertRejected_ThrowsWithoutReserving() {
+        when(enrollmentUpsertService.enroll(1L, 10L))
+                .thenThrow(new IllegalStateException("Student is already enrolled in this course"));
 
         assertThatThrownBy(() -> enrollmentService.enrollStudent(1L, 10L))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Student not found");
-    }
-
-    @Test
-    void enrollStudent_CourseNotFound_Throws() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-        when(courseRepository.findById(99L)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> enrollmentService.enrollStudent(1L, 99L))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Course not found");
-    }
-
-    // ---------- getEnrollmentsForStudent ----------
-
-    @Test
-    void getEnrollmentsForStudent_ReturnsWithTempGrades() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
-
-        Enrollment e1 = new Enrollment();
-        e1.setId(100L);
-        Enrollment e2 = new Enrollment();
-        e2.setId(101L);
-
-        when(enrollmentRepository.findByStudentAndStatusIn(student, List.of(EnrollmentStatus.ENROLLED, EnrollmentStatus.COMPLETED)))
-                .thenReturn(List.of(e1, e2));
-
-        Grade g1 = new Grade(); g1.setGradeValue(5);
-        when(gradeRepository.findByEnrollmentId(100L)).thenReturn(Optional.of(g1));
-        when(gradeRepository.findByEnrollmentId(101L)).thenReturn(Optional.empty());
-
-        List<Enrollment> result = enrollmentService.getEnrollmentsForStudent(1L);
-
-        assertThat(result).containsExactlyInAnyOrder(e1, e2);
-        assertThat(e1.getTempGrade()).isEqualTo(g1);
-        assertThat(e2.getTempGrade()).isNull();
-    }
-
-    @Test
-    void getEnrollmentsForStudent_StudentNotFound_Throws() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> enrollmentService.getEnrollmentsForStudent(1L))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Student not found");
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Student is already enrolled in this course");
+        verify(courseSeatService).checkAvailable(10L);
+        verify(courseSeatService, never()).reserveSeat(anyLong());
+        verifyNoInteractions(outboxPublisher);
     }
 
-    // ---------- findByStudentUsername ----------
+    // ---------- getTranscript ----------
 
     @Test
-    void findByStudentUsername_ReturnsWithTempGrades() {
-        when(userRepository.findByUsername("student")).thenReturn(Optional.of(student));
-
-        Enrollment e1 = new Enrollment();
-        e1.setId(200L);
-        when(enrollmentRepository.findByStudentAndStatusIn(student, List.of(EnrollmentStatus.ENROLLED, EnrollmentStatus.COMPLETED)))
-                .thenReturn(List.of(e1));
-
-        Grade g = new Grade(); g.setGradeValue(4);
-        when(gradeRepository.findByEnrollmentId(200L)).thenReturn(Optional.of(g));
-
-        List<Enrollment> result = enrollmentService.findByStudentUsername("student");
+    void getTranscript_ById_DelegatesToTranscriptService() {
+        List<TranscriptRow> rows = List.of(new TranscriptRow(100L, 10L, "CS101", "Programming", 6, null, null, true,
+                EnrollmentStatus.COMPLETED, LocalDateTime.now(), 5, LocalDateTime.now()));
+        when(transcriptService.getTranscript(1L)).thenReturn(rows);
 
-        assertThat(result).containsExactly(e1);
-        assertThat(e1.getTempGrade()).isEqualTo(g);
+        assertThat(enrollmentService.getTranscript(1L)).isSameAs(rows);
     }
 
     @Test
-    void findByStudentUsername_StudentNotFound_Throws() {
-        when(userRepository.findByUsername("missing")).thenReturn(Optional.empty());
+    void getTranscript_UnknownUsername_Throws() {
+        when(transcriptService.getTranscript("missing")).thenThrow(new IllegalArgumentException("Student not found"));
 
-        assertThatThrownBy(() -> enrollmentService.findByStudentUsername("missing"))
+        assertThatThrownBy(() -> enrollmentService.getTranscript("missing"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Student not found");
     }
@@ -221,6 +166,26 @@ class EnrollmentServiceTest {
         assertThat(result).containsExactly(e1);
     }
 
+    // ---------- countActiveEnrollments ----------
+
+    @Test
+    void countActiveEnrollments_RunsOneQuery_AndFillsMissingCoursesWithZero() {
+        List<Long> courseIds = List.of(10L, 11L, 12L);
+        when(enrollmentRepository.countByCourseIdsAndStatus(courseIds, EnrollmentStatus.ENROLLED))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 3L}, new Object[]{12L, 1L}));
+
+        Map<Long, Integer> counts = enrollmentService.countActiveEnrollments(courseIds);
+
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(Map.of(10L, 3, 11L, 0, 12L, 1));
+        verify(enrollmentRepository, times(1)).countByCourseIdsAndStatus(any(), any());
+    }
+
+    @Test
+    void countActiveEnrollments_NoCourses_SkipsQuery() {
+        assertThat(enrollmentService.countActiveEnrollments(List.of())).isEmpty();
+        verifyNoInteractions(enrollmentRepository);
+    }
+
     // ---------- dropStudent ----------
 
     @Test
@@ -233,27 +198,46 @@ class EnrollmentServiceTest {
         e.setCourse(activeCourse);
         e.setStatus(EnrollmentStatus.ENROLLED);
 
-        when(enrollmentRepository.findByStudentAndCourseAndStatus(
-                student, activeCourse, EnrollmentStatus.ENROLLED))
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse))
                 .thenReturn(Optional.of(e));
 
         enrollmentService.dropStudent(1L, 10L);
 
         assertThat(e.getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
         verify(enrollmentRepository).save(e);
+        verify(courseSeatService).releaseSeat(10L);
     }
 
     @Test
     void dropStudent_NoActiveEnrollment_Throws() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(student));
         when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
-        when(enrollmentRepository.findByStudentAndCourseAndStatus(
-                student, activeCourse, EnrollmentStatus.ENROLLED))
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> enrollmentService.dropStudent(1L, 10L))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("No active enrollment found");
+        verifyNoInteractions(courseSeatService);
+    }
+
+    @Test
+    void dropStudent_AlreadyDropped_DoesNotReleaseSeat() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+
+        Enrollment e = new Enrollment();
+        e.setStudent(student);
+        e.setCourse(activeCourse);
+        e.setStatus(EnrollmentStatus.DROPPED);
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse))
+                .thenReturn(Optional.of(e));
+
+        assertThatThrownBy(() -> enrollmentService.dropStudent(1L, 10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("No active enrollment found");
+        verify(enrollmentRepository, never()).save(any());
+        verifyNoInteractions(courseSeatService);
     }
 
     @Test
@@ -274,4 +258,129 @@ class EnrollmentServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Course not found");
     }
-}
\ No newline at end of file
+
+    // ---------- waitlist ----------
+
+    @Test
+    void dropStudent_WaitlistedStudent_IsPromotedAndNotified() {
+        User waiting = new User();
+        waiting.setId(2L);
+        waiting.setIsActive(true);
+        Enrollment e = new Enrollment();
+        e.setStatus(EnrollmentStatus.ENROLLED);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(waiting));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse)).thenReturn(Optional.of(e));
+        when(enrollmentRepository.lockByStudentAndCourse(waiting, activeCourse)).thenReturn(Optional.empty());
+        when(waitlistService.lockHead(eq(10L), anyInt())).thenReturn(List.of(2L));
+
+        enrollmentService.dropStudent(1L, 10L);
+
+        verify(courseSeatService).releaseSeat(10L);
+        verify(courseSeatService).reserveSeat(10L);
+        verify(enrollmentRepository).save(argThat(promoted -> promoted.getStudent() == waiting
+                && promoted.getStatus() == EnrollmentStatus.ENROLLED));
+        verify(waitlistService).remove(10L, List.of(2L));
+        verify(outboxPublisher).publish(eq(OutboxPublisher.ENROLLMENT), any(), eq(OutboxEventType.STUDENT_DROPPED),
+                eq(Map.of("studentId", 1L, "courseId", 10L, "source", EnrollmentService.SOURCE_DIRECT)));
+        verify(outboxPublisher).publish(eq(OutboxPublisher.ENROLLMENT), any(), eq(OutboxEventType.STUDENT_ENROLLED),
+                eq(Map.of("studentId", 2L, "courseId", 10L, "source", EnrollmentService.SOURCE_WAITLIST)));
+        verify(transcriptService).evict(1L);
+        verify(transcriptService).evict(2L);
+    }
+
+    @Test
+    void dropStudent_SkipsInactiveAndAlreadyEnrolledCandidates() {
+        User inactive = new User();
+        inactive.setId(2L);
+        inactive.setIsActive(false);
+        User enrolled = new User();
+        enrolled.setId(3L);
+        enrolled.setIsActive(true);
+        User next = new User();
+        next.setId(4L);
+        next.setIsActive(true);
+        Enrollment dropping = new Enrollment();
+        dropping.setStatus(EnrollmentStatus.ENROLLED);
+        Enrollment alreadyEnrolled = new Enrollment();
+        alreadyEnrolled.setStatus(EnrollmentStatus.ENROLLED);
+        Enrollment previouslyDropped = new Enrollment();
+        previouslyDropped.setStatus(EnrollmentStatus.DROPPED);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(inactive));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(enrolled));
+        when(userRepository.findById(4L)).thenReturn(Optional.of(next));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse)).thenReturn(Optional.of(dropping));
+        when(enrollmentRepository.lockByStudentAndCourse(enrolled, activeCourse)).thenReturn(Optional.of(alreadyEnrolled));
+        when(enrollmentRepository.lockByStudentAndCourse(next, activeCourse)).thenReturn(Optional.of(previouslyDropped));
+        when(waitlistService.lockHead(eq(10L), anyInt())).thenReturn(List.of(2L, 3L, 4L));
+
+        enrollmentService.dropStudent(1L, 10L);
+
+        assertThat(previouslyDropped.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        verify(waitlistService).remove(10L, List.of(2L, 3L, 4L));
+        verify(outboxPublisher).publish(eq(OutboxPublisher.ENROLLMENT), any(), eq(OutboxEventType.STUDENT_ENROLLED),
+                eq(Map.of("studentId", 4L, "courseId", 10L, "source", EnrollmentService.SOURCE_WAITLIST)));
+        verify(outboxPublisher, never()).publish(any(), any(), eq(OutboxEventType.STUDENT_ENROLLED),
+                eq(Map.of("studentId", 3L, "courseId", 10L, "source", EnrollmentService.SOURCE_WAITLIST)));
+    }
+
+    @Test
+    void dropStudent_CapacityLoweredBelowHeadcount_LeavesQueueWaiting() {
+        User waiting = new User();
+        waiting.setId(2L);
+        waiting.setIsActive(true);
+        Enrollment e = new Enrollment();
+        e.setStatus(EnrollmentStatus.ENROLLED);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(waiting));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+        when(enrollmentRepository.lockByStudentAndCourse(student, activeCourse)).thenReturn(Optional.of(e));
+        when(waitlistService.lockHead(eq(10L), anyInt())).thenReturn(List.of(2L));
+        doThrow(new IllegalStateException("Course is full")).when(courseSeatService).reserveSeat(10L);
+
+        enrollmentService.dropStudent(1L, 10L);
+
+        assertThat(e.getStatus()).isEqualTo(EnrollmentStatus.DROPPED);
+        verify(enrollmentRepository).save(e);
+        verify(waitlistService).remove(10L, List.of());
+        verify(outboxPublisher, never()).publish(any(), any(), eq(OutboxEventType.STUDENT_ENROLLED), any());
+    }
+
+    @Test
+    void joinWaitlist_ReturnsPosition() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+        when(enrollmentRepository.findByStudentAndCourseAndStatus(student, activeCourse, EnrollmentStatus.ENROLLED))
+                .thenReturn(Optional.empty());
+        when(waitlistService.join(10L, 1L)).thenReturn(3);
+
+        assertThat(enrollmentService.joinWaitlist(1L, 10L)).isEqualTo(3);
+    }
+
+    @Test
+    void joinWaitlist_AlreadyEnrolled_Throws() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(10L)).thenReturn(Optional.of(activeCourse));
+        when(enrollmentRepository.findByStudentAndCourseAndStatus(student, activeCourse, EnrollmentStatus.ENROLLED))
+                .thenReturn(Optional.of(new Enrollment()));
+
+        assertThatThrownBy(() -> enrollmentService.joinWaitlist(1L, 10L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Student is already enrolled in this course");
+        verifyNoInteractions(waitlistService);
+    }
+
+    @Test
+    void joinWaitlist_InactiveCourse_Throws() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
+        when(courseRepository.findById(11L)).thenReturn(Optional.of(inactiveCourse));
+
+        assertThatThrownBy(() -> enrollmentService.joinWaitlist(1L, 11L))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(waitlistService);
+    }
+}
@@ -0,0 +1,203 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.model.Enrollment;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import hr.algebra.uni_course_management.model.Grade;
+import hr.algebra.uni_course_management.repository.CourseRepository;
+import hr.algebra.uni_course_management.repository.EnrollmentRepository;
+import hr.algebra.uni_course_management.repository.GradeRepository;
+import hr.algebra.uni_course_management.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+// Not part of the default test run; execute with: mvn test -Dtest=EnrollmentUpsertBenchmark
+// Every key is written twice by different threads, so the entity path runs into its unique-constraint races
+@SpringBootTest
+class EnrollmentUpsertBenchmark {
+    private static final int STUDENTS = 500;
+    private static final int COURSES = 10;
+    private static final int CLIENT_THREADS = 8;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EnrollmentUpsertService upsertService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private GradeRepository gradeRepository;
+
+    private TestData data;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        studentIds = data.students("upb", STUDENTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'UPB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'upb%'");
+    }
+
+    @Test
+    void entityPathVersusMerge() throws Exception {
+        // Warm-up rounds so neither path pays for JIT and pool start-up alone
+        run(courses("UPBW1"), this::legacyEnroll);
+        run(courses("UPBW2"), key -> upsertService.enroll(key >>> 32, key & 0xFFFFFFFFL));
+
+        report("Enroll, entity path", run(courses("UPBE1"), this::legacyEnroll));
+        report("Enroll, MERGE      ", run(courses("UPBE2"), key -> upsertService.enroll(key >>> 32, key & 0xFFFFFFFFL)));
+
+        List<Long> legacyEnrollments = enrollments(courses("UPBG1"));
+        List<Long> mergeEnrollments = enrollments(courses("UPBG2"));
+        report("Grade, entity path ", run(legacyEnrollments, this::legacyAssignGrade));
+        report("Grade, MERGE       ", run(mergeEnrollments, enrollmentId -> upsertService.assignGrade(enrollmentId, 4)));
+    }
+
+    // What enrollStudent and assignGrade did before: load, look for an existing row, save
+    private void legacyEnroll(long key) {
+        var student = userRepository.findById(key >>> 32).orElseThrow();
+        var course = courseRepository.findById(key & 0xFFFFFFFFL).orElseThrow();
+        Enrollment enrollment = enrollmentRepository.findByStudentAndCourse(student, course).orElseGet(() -> {
+            Enrollment created = new Enrollment();
+            created.setStudent(student);
+            created.setCourse(course);
+            return created;
+        });
+        if (enrollment.getStatus() == EnrollmentStatus.ENROLLED) {
+            throw new IllegalStateException("Student is already enrolled in this course");
+        }
+        enrollment.setStatus(EnrollmentStatus.ENROLLED);
+        enrollmentRepository.save(enrollment);
+    }
+
+    private void legacyAssignGrade(long enrollmentId) {
+        var enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow();
+        Grade grade = gradeRepository.findByEnrollmentId(enrollmentId).orElseGet(() -> {
+            Grade created = new Grade();
+            created.setEnrollment(enrollment);
+            return created;
+        });
+        grade.setGradeValue(4);
+        grade.setGradedAt(LocalDateTime.now());
+        gradeRepository.save(grade);
+        enrollment.setStatus(EnrollmentStatus.COMPLETED);
+    }
+
+    // Keys pack student and course ids; each appears twice in a shuffled order
+    private List<Long> courses(String prefix) {
+        List<Long> keys = new ArrayList<>();
+        for (Long courseId : data.course(prefix + "-").capacity(null).createMany(COURSES)) {
+            for (Long studentId : studentIds) {
+                keys.add((studentId << 32) | courseId);
+                keys.add((studentId << 32) | courseId);
+            }
+        }
+        Collections.shuffle(keys, new Random(42));
+        return keys;
+    }
+
+    private List<Long> enrollments(List<Long> keys) {
+        List<Long> ids = new ArrayList<>();
+        for (Long key : keys) {
+            try {
+                ids.add(upsertService.enroll(key >>> 32, key & 0xFFFFFFFFL).getId());
+            } catch (IllegalStateException e) {
+                // second copy of the pair
+            }
+        }
+        List<Long> twice = new ArrayList<>(ids);
+        twice.addAll(ids);
+        Collections.shuffle(twice, new Random(7));
+        return twice;
+    }
+
+    private Result run(List<Long> keys, LongConsumer operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] latencies = new long[keys.size()];
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> operation.accept(keys.get(index)));
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - begin;
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+            return new Result(System.nanoTime() - begin, latencies, rejected.get(), failed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void report(String label, Result result) {
+        long[] sorted = result.latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s (%d threads): %,6d ops/s, p50 %,6d us, p99 %,6d us, %,d rejected, %,d failed%n",
+                label, CLIENT_THREADS, sorted.length * 1_000_000_000L / result.nanos,
+                sorted[sorted.length / 2] / 1_000, sorted[sorted.length * 99 / 100] / 1_000,
+                result.rejected, result.failed);
+    }
+
+    private static final class Result {
+        private final long nanos;
+        private final long[] latencies;
+        private final int rejected;
+        private final int failed;
+
+        private Result(long nanos, long[] latencies, int rejected, int failed) {
+            this.nanos = nanos;
+            this.latencies = latencies;
+            this.rejected = rejected;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.EnrollmentView;
+import hr.algebra.uni_course_management.dto.GradeView;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class EnrollmentUpsertServiceTest {
+    @Autowired
+    private EnrollmentUpsertService upsertService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TestData data;
+    private Long studentId;
+    private Long courseId;
+    private Long inactiveCourseId;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        studentId = data.user("upserter", "Una", "Upsert", "STUDENT");
+        courseId = data.course("UPS-1").create();
+        inactiveCourseId = data.course("UPS-2").active(false).create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'UPS-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username = 'upserter'");
+    }
+
+    @Test
+    void enroll_NewPair_InsertsEnrolledRow() {
+        EnrollmentView view = upsertService.enroll(studentId, courseId);
+
+        assertThat(view.getId()).isNotNull();
+        assertThat(view.getStudentId()).isEqualTo(studentId);
+        assertThat(view.getCourseCode()).isEqualTo("UPS-1");
+        assertThat(view.getStatus()).isEqualTo(EnrollmentStatus.ENROLLED);
+        assertThat(view.getEnrolledAt()).isNotNull();
+        assertThat(status(view.getId())).isEqualTo("ENROLLED");
+    }
+
+    @Test
+    void enroll_DroppedPair_ReactivatesSameRow() {
+        Long firstId = upsertService.enroll(studentId, courseId).getId();
+        jdbcTemplate.update("UPDATE enrollment SET status = 'DROPPED' WHERE id = ?", firstId);
+
+        EnrollmentView view = upsertService.enroll(studentId, courseId);
+
+        assertThat(view.getId()).isEqualTo(firstId);
+        assertThat(status(firstId)).isEqualTo("ENROLLED");
+    }
+
+    @Test
+    void enroll_AlreadyEnrolled_Throws() {
+        upsertService.enroll(studentId, courseId);
+
+        assertThatThrownBy(() -> upsertService.enroll(studentId, courseId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Student is already enrolled in this course");
+    }
+
+    @Test
+    void enroll_UnknownOrInactiveTargets_ExplainWhy() {
+        assertThatThrownBy(() -> upsertService.enroll(-1L, courseId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student not found");
+        assertThatThrownBy(() -> upsertService.enroll(studentId, -1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course not found");
+        assertThatThrownBy(() -> upsertService.enroll(studentId, inactiveCourseId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot enroll in inactive course");
+    }
+
+    @Test
+    void enroll_ConcurrentInsertOfSamePair_LoserSeesAlreadyEnrolled() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                upsertService.enroll(studentId, courseId);
+                firstInserted.countDown();
+                sleep(200);
+            }));
+            firstInserted.await(5, TimeUnit.SECONDS);
+            Future<?> second = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    upsertService.enroll(studentId, courseId)));
+
+            first.get(10, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Student is already enrolled in this course");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment WHERE student_id = ?",
+                Integer.class, studentId)).isEqualTo(1);
+    }
+
+    @Test
+    void assignGrade_InsertsThenUpdatesOneGradeAndCompletesEnrollment() {
+        Long enrollmentId = upsertService.enroll(studentId, courseId).getId();
+
+        EnrollmentUpsertService.GradedEnrollment firstWrite = upsertService.assignGrade(enrollmentId, 3);
+        EnrollmentUpsertService.GradedEnrollment secondWrite = upsertService.assignGrade(enrollmentId, 5);
+        GradeView first = firstWrite.grade();
+        GradeView second = secondWrite.grade();
+
+        assertThat(firstWrite.seatReleased()).isTrue();
+        assertThat(secondWrite.seatReleased()).isFalse();
+        assertThat(first.getId()).isNotNull();
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(second.getGradeValue()).isEqualTo(5);
+        assertThat(second.getStudentName()).isEqualTo("Una Upsert");
+        assertThat(second.getCourseCode()).isEqualTo("UPS-1");
+        assertThat(second.getGradedAt()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT grade_value FROM grade WHERE enrollment_id = ?",
+                Integer.class, enrollmentId)).isEqualTo(5);
+        assertThat(status(enrollmentId)).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void assignGrade_UnknownEnrollment_Throws() {
+        assertThatThrownBy(() -> upsertService.assignGrade(-1L, 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid enrollment ID: -1");
+    }
+
+    @Test
+    void assignGrades_WritesRosterAndCompletesEveryEnrollment() {
+        Long otherStudentId = data.user("upserter2", "Ivo", "Upsert", "STUDENT");
+        Long first = upsertService.enroll(studentId, courseId).getId();
+        Long second = upsertService.enroll(otherStudentId, courseId).getId();
+        upsertService.assignGrade(first, 2);
+        Map<Long, Integer> grades = new LinkedHashMap<>();
+        grades.put(second, 5);
+        grades.put(first, 4);
+
+        try {
+            List<EnrollmentUpsertService.GradedEnrollment> written = upsertService.assignGrades(courseId, grades);
+            List<GradeView> views = written.stream().map(EnrollmentUpsertService.GradedEnrollment::grade).toList();
+
+            // Only the enrollment that was still ENROLLED gives up a seat
+            assertThat(written).extracting(EnrollmentUpsertService.GradedEnrollment::seatReleased).containsExactly(true, false);
+
+            assertThat(views).extracting(GradeView::getEnrollmentId).containsExactly(second, first);
+            assertThat(views).extracting(GradeView::getGradeValue).containsExactly(5, 4);
+            assertThat(views).extracting(GradeView::getStudentName).containsExactly("Ivo Upsert", "Una Upsert");
+            assertThat(views).allSatisfy(view -> {
+                assertThat(view.getId()).isNotNull();
+                assertThat(view.getCourseCode()).isEqualTo("UPS-1");
+                assertThat(view.getGradedAt()).isNotNull();
+            });
+            assertThat(jdbcTemplate.queryForObject("SELECT grade_value FROM grade WHERE enrollment_id = ?",
+                    Integer.class, first)).isEqualTo(4);
+            assertThat(status(first)).isEqualTo("COMPLETED");
+            assertThat(status(second)).isEqualTo("COMPLETED");
+        } finally {
+            jdbcTemplate.update("DELETE FROM app_user WHERE username = 'upserter2'");
+        }
+    }
+
+    @Test
+    void foreignEnrollments_ListsIdsOutsideTheCourse() {
+        Long enrollmentId = upsertService.enroll(studentId, courseId).getId();
+
+        assertThat(upsertService.foreignEnrollments(courseId, List.of(enrollmentId, -1L))).containsExactly(-1L);
+        assertThat(upsertService.foreignEnrollments(inactiveCourseId, List.of(enrollmentId))).containsExactly(enrollmentId);
+    }
+
+    @Test
+    void assignGrades_EnrollmentOutsideCourse_Throws() {
+        Long enrollmentId = upsertService.enroll(studentId, courseId).getId();
+
+        assertThatThrownBy(() -> upsertService.assignGrades(inactiveCourseId, Map.of(enrollmentId, 3)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid enrollment ID: " + enrollmentId);
+    }
+
+    private String status(Long enrollmentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM enrollment WHERE id = ?", String.class, enrollmentId);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
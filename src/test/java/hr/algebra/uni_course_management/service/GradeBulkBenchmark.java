@@ -0,0 +1,106 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=GradeBulkBenchmark
+// Grades one 300-student roster per round, either one call per student or one bulk submission
+@SpringBootTest
+class GradeBulkBenchmark {
+    private static final int STUDENTS = 300;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE event_type = 'GRADE_ASSIGNED'");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code = 'GBB-1'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'gbb%'");
+    }
+
+    @Test
+    void gradeRosterPerStudentVersusBulk() {
+        List<Long> enrollmentIds = seedRoster();
+
+        long[] perStudent = measure(round -> {
+            for (Long enrollmentId : enrollmentIds) {
+                gradeService.assignGrade(enrollmentId, grade(enrollmentId, round));
+            }
+        });
+        long perStudentEvents = countEvents("GRADE_ASSIGNED");
+
+        long[] bulk = measure(round -> {
+            List<GradeEntry> entries = new ArrayList<>(STUDENTS);
+            for (Long enrollmentId : enrollmentIds) {
+                entries.add(new GradeEntry(enrollmentId, grade(enrollmentId, round)));
+            }
+            gradeService.assignGrades(course(), entries);
+        });
+        long bulkEvents = countEvents("GRADE_ASSIGNED") - perStudentEvents;
+
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM grade g JOIN enrollment e ON e.id = g.enrollment_id
+                WHERE e.course_id = ? AND e.status = 'COMPLETED'
+                """, Integer.class, course())).isEqualTo(STUDENTS);
+        System.out.printf("Per student: p50 %,d ms / max %,d ms per roster, %,d outbox events%n",
+                perStudent[ROUNDS / 2], perStudent[ROUNDS - 1], perStudentEvents);
+        System.out.printf("Bulk:        p50 %,d ms / max %,d ms per roster, %,d outbox events%n",
+                bulk[ROUNDS / 2], bulk[ROUNDS - 1], bulkEvents);
+    }
+
+    private long[] measure(Round round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run(i);
+        }
+        long[] millis = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long begin = System.nanoTime();
+            round.run(WARMUP_ROUNDS + i);
+            millis[i] = (System.nanoTime() - begin) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private List<Long> seedRoster() {
+        TestData data = new TestData(jdbcTemplate);
+        data.course("GBB-1").capacity(STUDENTS).create();
+        data.students("gbb", STUDENTS);
+        jdbcTemplate.update("""
+                INSERT INTO enrollment (student_id, course_id, status)
+                SELECT u.id, ?, 'ENROLLED' FROM app_user u WHERE u.username LIKE 'gbb%'
+                """, course());
+        return jdbcTemplate.queryForList("SELECT id FROM enrollment WHERE course_id = ? ORDER BY id", Long.class, course());
+    }
+
+    private Long course() {
+        return jdbcTemplate.queryForObject("SELECT id FROM course WHERE course_code = 'GBB-1'", Long.class);
+    }
+
+    private long countEvents(String type) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE event_type = ?", Long.class, type);
+    }
+
+    private static int grade(Long enrollmentId, int round) {
+        return (int) ((enrollmentId + round) % 5) + 1;
+    }
+
+    private interface Round {
+        void run(int round);
+    }
+}
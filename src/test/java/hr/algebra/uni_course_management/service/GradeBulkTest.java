@@ -0,0 +1,65 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.GradeView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Full-size roster through the real schema, outbox rows included
+@SpringBootTest
+class GradeBulkTest {
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private List<Long> enrollmentIds;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbcTemplate);
+        courseId = data.course("GBT-1").capacity(GradeService.MAX_BULK_GRADES).create();
+        data.students("gbt", GradeService.MAX_BULK_GRADES);
+        jdbcTemplate.update("""
+                INSERT INTO enrollment (student_id, course_id, status)
+                SELECT id, ?, 'ENROLLED' FROM app_user WHERE username LIKE 'gbt%'
+                """, courseId);
+        enrollmentIds = jdbcTemplate.queryForList(
+                "SELECT id FROM enrollment WHERE course_id = ? ORDER BY id", Long.class, courseId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_event WHERE aggregate_type = 'Enrollment' AND event_type = 'GRADE_ASSIGNED'");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code = 'GBT-1'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'gbt%'");
+    }
+
+    @Test
+    void assignGrades_LargestAllowedRoster_CommitsGradesAndOneEventPerEnrollment() {
+        List<GradeEntry> entries = enrollmentIds.stream().map(id -> new GradeEntry(id, 4)).toList();
+
+        List<GradeView> assigned = gradeService.assignGrades(courseId, entries);
+
+        assertThat(assigned).hasSize(GradeService.MAX_BULK_GRADES);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM grade g JOIN enrollment e ON e.id = g.enrollment_id
+                WHERE e.course_id = ? AND e.status = 'COMPLETED'
+                """, Integer.class, courseId)).isEqualTo(GradeService.MAX_BULK_GRADES);
+        List<Long> eventAggregates = jdbcTemplate.queryForList("""
+                SELECT aggregate_id FROM outbox_event
+                WHERE aggregate_type = 'Enrollment' AND event_type = 'GRADE_ASSIGNED'
+                ORDER BY aggregate_id
+                """, Long.class);
+        assertThat(eventAggregates).containsExactlyElementsOf(enrollmentIds);
+    }
+}
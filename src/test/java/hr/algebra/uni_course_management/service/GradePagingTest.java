@@ -0,0 +1,117 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import hr.algebra.uni_course_management.dto.GradeView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GradePagingTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private Long otherCourseId;
+    private Long studentId;
+
+    // Five students graded 1..5 in one course on consecutive days; the first student also has a grade elsewhere
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbcTemplate);
+        courseId = data.course("GPG-1").capacity(null).create();
+        otherCourseId = data.course("GPG-2").capacity(null).create();
+        List<Long> students = data.students("gpg", 5);
+        for (int i = 1; i <= 5; i++) {
+            grade(students.get(i - 1), courseId, i, BASE.plusDays(i));
+        }
+        studentId = students.get(0);
+        grade(studentId, otherCourseId, 2, BASE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'GPG-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'gpg%'");
+    }
+
+    @Test
+    void getGradesByCourse_WalksPagesInIdOrder() {
+        GradePage first = gradeService.getGradesByCourse(courseId, GradeFilter.NONE, null, 2);
+        GradePage second = gradeService.getGradesByCourse(courseId, GradeFilter.NONE, first.getNextAfterId(), 2);
+        GradePage last = gradeService.getGradesByCourse(courseId, GradeFilter.NONE, second.getNextAfterId(), 2);
+
+        assertThat(values(first)).containsExactly(1, 2);
+        assertThat(values(second)).containsExactly(3, 4);
+        assertThat(values(last)).containsExactly(5);
+        assertThat(first.getNextAfterId()).isEqualTo(first.getGrades().get(1).getId());
+        assertThat(last.getNextAfterId()).isNull();
+        assertThat(last.getGrades().get(0).getCourseCode()).isEqualTo("GPG-1");
+    }
+
+    @Test
+    void getGradesByCourse_ExactlyOnePageLeft_HasNoNextPage() {
+        GradePage page = gradeService.getGradesByCourse(courseId, GradeFilter.NONE, null, 5);
+
+        assertThat(page.getGrades()).hasSize(5);
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void getGradesByCourse_GradeRange_KeepsBoundsInclusive() {
+        GradePage page = gradeService.getGradesByCourse(courseId, new GradeFilter(2, 4, null, null), null, 10);
+
+        assertThat(values(page)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    void getGradesByCourse_GradedAtRange_ExcludesUpperBound() {
+        GradePage page = gradeService.getGradesByCourse(courseId,
+                new GradeFilter(null, null, BASE.plusDays(2), BASE.plusDays(4)), null, 10);
+
+        assertThat(values(page)).containsExactly(2, 3);
+    }
+
+    @Test
+    void getGradesByStudent_OnlyReturnsThatStudentsGrades() {
+        GradePage page = gradeService.getGradesByStudent(studentId, GradeFilter.NONE, null, 10);
+
+        assertThat(page.getGrades()).extracting(GradeView::getCourseCode).containsExactly("GPG-1", "GPG-2");
+        assertThat(page.getGrades()).allMatch(grade -> grade.getStudentId().equals(studentId));
+    }
+
+    @Test
+    void getGradesByStudent_FilterAndCursorCombine() {
+        GradePage all = gradeService.getGradesByStudent(studentId, GradeFilter.NONE, null, 10);
+
+        GradePage page = gradeService.getGradesByStudent(studentId, new GradeFilter(2, null, null, null),
+                all.getGrades().get(0).getId(), 10);
+
+        assertThat(page.getGrades()).extracting(GradeView::getCourseId).containsExactly(otherCourseId);
+    }
+
+    private void grade(Long student, Long course, int value, LocalDateTime gradedAt) {
+        jdbcTemplate.update("INSERT INTO enrollment (student_id, course_id, status) VALUES (?, ?, 'COMPLETED')", student, course);
+        jdbcTemplate.update("""
+                INSERT INTO grade (enrollment_id, grade_value, graded_at)
+                SELECT id, ?, ? FROM enrollment WHERE student_id = ? AND course_id = ?
+                """, value, gradedAt, student, course);
+    }
+
+    private static List<Integer> values(GradePage page) {
+        return page.getGrades().stream().map(GradeView::getGradeValue).toList();
+    }
+}
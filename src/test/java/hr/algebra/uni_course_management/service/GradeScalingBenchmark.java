@@ -0,0 +1,98 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=GradeScalingBenchmark
+@SpringBootTest
+class GradeScalingBenchmark {
+    private static final int[] TOTAL_GRADES = {10_000, 100_000, 500_000};
+    private static final int COURSE_SIZE = 250;
+    private static final int COURSES_PER_STUDENT = 10;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'GSB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'gsb%'");
+    }
+
+    // The measured course and student keep the same grades while filler grades grow the table around them
+    @Test
+    void pageLatencyAsGradesGrow() {
+        addGrades("t", COURSE_SIZE * COURSES_PER_STUDENT);
+        Long courseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM course WHERE course_code LIKE 'GSBt%'", Long.class);
+        Long studentId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM app_user WHERE username LIKE 'gsbt%'", Long.class);
+        GradeFilter filter = new GradeFilter(3, 4, null, null);
+
+        for (int level = 0; level < TOTAL_GRADES.length; level++) {
+            int existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM grade", Integer.class);
+            addGrades("f" + level, Math.max(0, TOTAL_GRADES[level] - existing));
+            int total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM grade", Integer.class);
+
+            GradePage first = gradeService.getGradesByCourse(courseId, GradeFilter.NONE, null, PAGE_SIZE);
+            assertThat(first.getGrades()).hasSize(PAGE_SIZE);
+            Long afterId = first.getNextAfterId();
+
+            System.out.printf("%,9d grades: course first page %s, course second page %s, course filtered %s, student %s%n",
+                    total,
+                    measure(() -> gradeService.getGradesByCourse(courseId, GradeFilter.NONE, null, PAGE_SIZE)),
+                    measure(() -> gradeService.getGradesByCourse(courseId, GradeFilter.NONE, afterId, PAGE_SIZE)),
+                    measure(() -> gradeService.getGradesByCourse(courseId, filter, null, PAGE_SIZE)),
+                    measure(() -> gradeService.getGradesByStudent(studentId, GradeFilter.NONE, null, PAGE_SIZE)));
+        }
+    }
+
+    private static String measure(Supplier<GradePage> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            query.get();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        return String.format("p50 %,d us / p99 %,d us",
+                latencies[ITERATIONS / 2] / 1_000, latencies[ITERATIONS * 99 / 100] / 1_000);
+    }
+
+    // Each student takes COURSES_PER_STUDENT distinct courses and every course ends up with COURSE_SIZE graded enrollments
+    private void addGrades(String batch, int grades) {
+        int students = Math.max(1, grades / COURSES_PER_STUDENT);
+        int courses = Math.max(COURSES_PER_STUDENT, students * COURSES_PER_STUDENT / COURSE_SIZE);
+        TestData data = new TestData(jdbcTemplate);
+        Long firstCourse = data.course("GSB" + batch + "_").capacity(null).createMany(courses).get(0);
+        Long firstStudent = data.students("gsb" + batch + "_", students).get(0);
+        // Student k takes courses k, k + step, k + 2 * step, ... (mod courses), so no pair repeats
+        jdbcTemplate.update("""
+                INSERT INTO enrollment (student_id, course_id, status)
+                SELECT ? + X / ?, ? + MOD(X / ? + MOD(X, ?) * ?, ?), 'COMPLETED'
+                FROM SYSTEM_RANGE(0, ?)
+                """, firstStudent, COURSES_PER_STUDENT, firstCourse, COURSES_PER_STUDENT, COURSES_PER_STUDENT,
+                courses / COURSES_PER_STUDENT, courses, students * COURSES_PER_STUDENT - 1);
+        jdbcTemplate.update("""
+                INSERT INTO grade (enrollment_id, grade_value, graded_at)
+                SELECT e.id, MOD(e.id, 5) + 1, CURRENT_TIMESTAMP FROM enrollment e
+                WHERE e.student_id >= ? AND NOT EXISTS (SELECT 1 FROM grade g WHERE g.enrollment_id = e.id)
+                """, firstStudent);
+    }
+}
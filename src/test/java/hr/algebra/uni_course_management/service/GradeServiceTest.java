@@ -1,19 +1,29 @@
 package hr.algebra.uni_course_management.service;
 
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import hr.algebra.uni_course_management.dto.GradeFilter;
+import hr.algebra.uni_course_management.dto.GradePage;
+import hr.algebra.uni_course_management.dto.GradeView;
+import hr.algebra.uni_course_management.model.Course;
 import hr.algebra.uni_course_management.model.Enrollment;
 import hr.algebra.uni_course_management.model.Grade;
-import hr.algebra.uni_course_management.repository.EnrollmentRepository;
+import hr.algebra.uni_course_management.model.User;
+import hr.algebra.uni_course_management.outbox.OutboxEventType;
+import hr.algebra.uni_course_management.outbox.OutboxPublisher;
 import hr.algebra.uni_course_management.repository.GradeRepository;
-import hr.algebra.uni_course_management.scheduler.EmailService;
+import hr.algebra.uni_course_management.service.EnrollmentUpsertService.GradedEnrollment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -24,9 +34,15 @@ class GradeServiceTest {
     @Mock
     private GradeRepository gradeRepository;
     @Mock
-    private EnrollmentRepository enrollmentRepository;
+    private OutboxPublisher outboxPublisher;
     @Mock
-    private EmailService emailService;
+    private TranscriptService transcriptService;
+    @Mock
+    private TimetableService timetableService;
+    @Mock
+    private EnrollmentUpsertService enrollmentUpsertService;
+    @Mock
+    private CourseSeatService courseSeatService;
 
     @InjectMocks
     private GradeService gradeService;
@@ -38,6 +54,12 @@ class GradeServiceTest {
     void setUp() {
         enrollment = new Enrollment();
         enrollment.setId(10L);
+        User student = new User();
+        student.setId(7L);
+        enrollment.setStudent(student);
+        Course course = new Course();
+        course.setId(3L);
+        enrollment.setCourse(course);
 
         existingGrade = new Grade();
         existingGrade.setId(1L);
@@ -49,68 +71,113 @@ class GradeServiceTest {
     // ---------- assignGrade ----------
 
     @Test
-    void assignGrade_NewGrade_CreatesAndSavesAndSendsEmail() {
-        when(enrollmentRepository.findById(10L)).thenReturn(Optional.of(enrollment));
-        when(gradeRepository.findByEnrollmentId(10L)).thenReturn(Optional.empty());
-        when(gradeRepository.save(any(Grade.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        Grade result = gradeService.assignGrade(10L, 4);
-
-        assertThat(result.getGradeValue()).isEqualTo(4);
-        assertThat(result.getEnrollment()).isEqualTo(enrollment);
-        assertThat(result.getGradedAt()).isNotNull();
-
-        verify(gradeRepository).save(any(Grade.class));
-        verify(emailService).sendGradeNotification(enrollment.getStudent(), result);
+    void assignGrade_Upserted_EvictsAndPublishesEvent() {
+        GradeView upserted = new GradeView(1L, 10L, 7L, "Ana Anic", 3L, "CS101", 4, LocalDateTime.now());
+        when(enrollmentUpsertService.assignGrade(10L, 4)).thenReturn(new GradedEnrollment(upserted, false));
+
+        GradeView result = gradeService.assignGrade(10L, 4);
+
+        assertThat(result).isSameAs(upserted);
+        verify(outboxPublisher).publish(OutboxPublisher.ENROLLMENT, 10L, OutboxEventType.GRADE_ASSIGNED,
+                Map.of("studentId", 7L, "courseId", 3L, "gradeValue", 4));
+        verify(transcriptService).evict(7L);
+        verify(timetableService).recordRelease(7L, 3L);
+        verifyNoInteractions(gradeRepository, courseSeatService);
     }
 
     @Test
-    void assignGrade_ExistingGrade_UpdatesValueAndTimestamp() {
-        when(enrollmentRepository.findById(10L)).thenReturn(Optional.of(enrollment));
-        when(gradeRepository.findByEnrollmentId(10L)).thenReturn(Optional.of(existingGrade));
-        when(gradeRepository.save(any(Grade.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        LocalDateTime beforeCall = existingGrade.getGradedAt();
+    void assignGrade_CompletesEnrolledRow_ReleasesSeat() {
+        GradeView upserted = new GradeView(1L, 10L, 7L, "Ana Anic", 3L, "CS101", 4, LocalDateTime.now());
+        when(enrollmentUpsertService.assignGrade(10L, 4)).thenReturn(new GradedEnrollment(upserted, true));
 
-        Grade result = gradeService.assignGrade(10L, 5);
+        gradeService.assignGrade(10L, 4);
 
-        assertThat(result).isSameAs(existingGrade);
-        assertThat(result.getGradeValue()).isEqualTo(5);
-        assertThat(result.getGradedAt()).isAfter(beforeCall);
-        verify(emailService).sendGradeNotification(enrollment.getStudent(), result);
+        verify(courseSeatService).releaseSeats(3L, 1);
     }
 
     @Test
     void assignGrade_InvalidEnrollment_ThrowsException() {
-        when(enrollmentRepository.findById(99L)).thenReturn(Optional.empty());
+        when(enrollmentUpsertService.assignGrade(99L, 3))
+                .thenThrow(new IllegalArgumentException("Invalid enrollment ID: 99"));
 
         assertThatThrownBy(() -> gradeService.assignGrade(99L, 3))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Invalid enrollment ID: 99");
 
-        verifyNoInteractions(gradeRepository, emailService);
+        verifyNoInteractions(gradeRepository, outboxPublisher);
     }
 
     @Test
     void assignGrade_GradeBelowRange_ThrowsException() {
-        when(enrollmentRepository.findById(10L)).thenReturn(Optional.of(enrollment));
-
         assertThatThrownBy(() -> gradeService.assignGrade(10L, 0))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Grade value must be between 1 and 5.");
 
-        verifyNoInteractions(gradeRepository, emailService);
+        verifyNoInteractions(enrollmentUpsertService, outboxPublisher);
     }
 
     @Test
     void assignGrade_GradeAboveRange_ThrowsException() {
-        when(enrollmentRepository.findById(10L)).thenReturn(Optional.of(enrollment));
-
         assertThatThrownBy(() -> gradeService.assignGrade(10L, 6))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Grade value must be between 1 and 5.");
 
-        verifyNoInteractions(gradeRepository, emailService);
+        verifyNoInteractions(enrollmentUpsertService, outboxPublisher);
+    }
+
+    // ---------- assignGrades ----------
+
+    @Test
+    void assignGrades_ValidRoster_WritesOnceAndPublishesOneEventPerEnrollment() {
+        List<GradeEntry> entries = List.of(new GradeEntry(10L, 4), new GradeEntry(11L, 5));
+        List<GradeView> written = List.of(
+                new GradeView(1L, 10L, 7L, "Ana Anic", 3L, "CS101", 4, LocalDateTime.now()),
+                new GradeView(2L, 11L, 8L, "Ivo Ivic", 3L, "CS101", 5, LocalDateTime.now()));
+        when(enrollmentUpsertService.foreignEnrollments(eq(3L), anyCollection())).thenReturn(List.of());
+        when(enrollmentUpsertService.assignGrades(3L, Map.of(10L, 4, 11L, 5))).thenReturn(List.of(
+                new GradedEnrollment(written.get(0), true), new GradedEnrollment(written.get(1), false)));
+
+        List<GradeView> result = gradeService.assignGrades(3L, entries);
+
+        assertThat(result).containsExactlyElementsOf(written);
+        verify(transcriptService).evict(List.of(7L, 8L));
+        verify(timetableService).recordReleases(3L, List.of(7L, 8L));
+        verify(courseSeatService).releaseSeats(3L, 1);
+        verify(outboxPublisher).publishGrades(written);
+        verify(outboxPublisher, never()).publish(any(), any(), any(), any());
+        verify(enrollmentUpsertService, never()).assignGrade(any(), any());
+    }
+
+    @Test
+    void assignGrades_InvalidEntries_ReportsEveryProblemAndWritesNothing() {
+        List<GradeEntry> entries = List.of(
+                new GradeEntry(10L, 6), new GradeEntry(11L, 3), new GradeEntry(11L, 4),
+                new GradeEntry(null, 2), new GradeEntry(12L, 5));
+        when(enrollmentUpsertService.foreignEnrollments(eq(3L), anyCollection())).thenReturn(List.of(12L));
+
+        assertThatThrownBy(() -> gradeService.assignGrades(3L, entries))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid grades: enrollment 10 has a grade outside 1-5; enrollment 11 is listed more than once; "
+                        + "missing enrollment ID; enrollment 12 is not part of this course.");
+
+        verify(enrollmentUpsertService, never()).assignGrades(any(), any());
+        verifyNoInteractions(outboxPublisher, transcriptService, timetableService);
+    }
+
+    @Test
+    void assignGrades_EmptyOrOversizedRoster_Throws() {
+        List<GradeEntry> oversized = new ArrayList<>();
+        for (long id = 0; id <= GradeService.MAX_BULK_GRADES; id++) {
+            oversized.add(new GradeEntry(id, 3));
+        }
+
+        assertThatThrownBy(() -> gradeService.assignGrades(3L, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No grades submitted.");
+        assertThatThrownBy(() -> gradeService.assignGrades(3L, oversized))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most");
+        verifyNoInteractions(enrollmentUpsertService, outboxPublisher);
     }
 
     // ---------- getGradeForEnrollment ----------
@@ -136,39 +203,75 @@ class GradeServiceTest {
     // ---------- getGradesByCourse ----------
 
     @Test
-    void getGradesByCourse_FiltersByEnrollments() {
-        Enrollment e1 = new Enrollment();
-        e1.setId(1L);
-        Enrollment e2 = new Enrollment();
-        e2.setId(2L);
-        when(enrollmentRepository.findByCourseId(100L)).thenReturn(List.of(e1, e2));
-
-        Grade g1 = new Grade(); g1.setEnrollment(e1);
-        Grade g2 = new Grade(); g2.setEnrollment(e2);
-        Enrollment otherEnrollment = new Enrollment(); otherEnrollment.setId(99L);
-        Grade g3 = new Grade(); g3.setEnrollment(otherEnrollment);
-        when(gradeRepository.findAll()).thenReturn(List.of(g1, g2, g3));
+    void getGradesByCourse_ReturnsProjectedRows() {
+        GradeView view = new GradeView(1L, 10L, 7L, "Ivo Ivic", 100L, "CS101", 4, LocalDateTime.now());
+        when(gradeRepository.findViewsByCourseId(100L)).thenReturn(List.of(view));
 
-        List<Grade> result = gradeService.getGradesByCourse(100L);
+        List<GradeView> result = gradeService.getGradesByCourse(100L);
 
-        assertThat(result).containsExactlyInAnyOrder(g1, g2);
+        assertThat(result).containsExactly(view);
+        verify(gradeRepository, never()).findAll();
     }
 
     // ---------- getGradesByStudent ----------
 
     @Test
-    void getGradesByStudent_FiltersByEnrollments() {
-        Enrollment e1 = new Enrollment();
-        e1.setId(5L);
-        when(enrollmentRepository.findByStudentId(7L)).thenReturn(List.of(e1));
+    void getGradesByStudent_ReturnsProjectedRows() {
+        GradeView view = new GradeView(1L, 5L, 7L, "Ivo Ivic", 100L, "CS101", 5, LocalDateTime.now());
+        when(gradeRepository.findViewsByStudentId(7L)).thenReturn(List.of(view));
+
+        List<GradeView> result = gradeService.getGradesByStudent(7L);
+
+        assertThat(result).containsExactly(view);
+        verify(gradeRepository, never()).findAll();
+    }
+
+    // ---------- paged listings ----------
+
+    @Test
+    void getGradesByCourse_Paged_FetchesOneExtraRowAndReturnsCursor() {
+        GradeView first = new GradeView(4L, 10L, 7L, "Ivo Ivic", 100L, "CS101", 4, LocalDateTime.now());
+        GradeView second = new GradeView(9L, 11L, 8L, "Ana Anic", 100L, "CS101", 5, LocalDateTime.now());
+        when(gradeRepository.findViewPageByCourseId(100L, 0L, null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
 
-        Grade g1 = new Grade(); g1.setEnrollment(e1);
-        Enrollment otherEnrollment = new Enrollment(); otherEnrollment.setId(8L);
-        Grade g2 = new Grade(); g2.setEnrollment(otherEnrollment);
-        when(gradeRepository.findAll()).thenReturn(List.of(g1, g2));
+        GradePage page = gradeService.getGradesByCourse(100L, GradeFilter.NONE, null, 1);
 
-        List<Grade> result = gradeService.getGradesByStudent(7L);
+        assertThat(page.getGrades()).containsExactly(first);
+        assertThat(page.getNextAfterId()).isEqualTo(4L);
+    }
 
-        assertThat(result).containsExactly(g1);
+    @Test
+    void getGradesByStudent_Paged_LastPageHasNoCursor() {
+        GradeView view = new GradeView(4L, 10L, 7L, "Ivo Ivic", 100L, "CS101", 4, LocalDateTime.now());
+        when(gradeRepository.findViewPageByStudentId(7L, 3L, 3, 5, null, null,
+                PageRequest.of(0, GradeService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(view));
+
+        GradePage page = gradeService.getGradesByStudent(7L, new GradeFilter(3, 5, null, null), 3L, null);
+
+        assertThat(page.getGrades()).containsExactly(view);
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void getGradesByCourse_Paged_RejectsOutOfRangeLimit() {
+        assertThatThrownBy(() -> gradeService.getGradesByCourse(100L, GradeFilter.NONE, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> gradeService.getGradesByCourse(100L, GradeFilter.NONE, null, GradeService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(gradeRepository);
+    }
+
+    @Test
+    void getGradesByStudent_Paged_RejectsInvertedRanges() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThatThrownBy(() -> gradeService.getGradesByStudent(7L, new GradeFilter(4, 2, null, null), null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("minGrade");
+        assertThatThrownBy(() -> gradeService.getGradesByStudent(7L, new GradeFilter(null, null, now, now), null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("gradedFrom");
+        verifyNoInteractions(gradeRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=LotteryAllocatorBenchmark
+class LotteryAllocatorBenchmark {
+    private static final int STUDENTS = 50_000;
+    private static final int COURSES = 2_000;
+    private static final int PREFERENCES = 5;
+    private static final int CAPACITY = 30;
+    private static final int RUNS = 5;
+
+    @Test
+    void sequentialVersusForkJoin() {
+        int[][] preferences = skewedPreferences();
+        int[] capacities = new int[COURSES];
+        Arrays.fill(capacities, CAPACITY);
+
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long sequential = measure(1, preferences, capacities);
+        long parallel = measure(parallelism, preferences, capacities);
+
+        System.out.printf("Lottery %,d students x %,d courses, fork-join parallelism 1:  %,d ms%n",
+                STUDENTS, COURSES, sequential);
+        System.out.printf("Lottery %,d students x %,d courses, fork-join parallelism %d: %,d ms%n",
+                STUDENTS, COURSES, parallelism, parallel);
+    }
+
+    private static long measure(int parallelism, int[][] preferences, int[] capacities) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            LotteryAllocator allocator = new LotteryAllocator(pool);
+            allocator.allocate(preferences, capacities, 0L);
+            long best = Long.MAX_VALUE;
+            for (int run = 1; run <= RUNS; run++) {
+                long start = System.nanoTime();
+                int[] assignment = allocator.allocate(preferences, capacities, run);
+                best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+                assertThat(Arrays.stream(assignment).filter(c -> c != LotteryAllocator.UNASSIGNED).count())
+                        .isLessThanOrEqualTo((long) COURSES * CAPACITY);
+            }
+            return best;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Popularity falls off quadratically, so the first few dozen courses are heavily oversubscribed
+    private static int[][] skewedPreferences() {
+        SplittableRandom random = new SplittableRandom(2024L);
+        int[][] preferences = new int[STUDENTS][];
+        for (int s = 0; s < STUDENTS; s++) {
+            preferences[s] = random.ints(0, COURSES * COURSES)
+                    .map(v -> COURSES - 1 - (int) Math.sqrt(v))
+                    .distinct()
+                    .limit(PREFERENCES)
+                    .toArray();
+        }
+        return preferences;
+    }
+}
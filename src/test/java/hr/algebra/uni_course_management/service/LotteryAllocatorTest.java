@@ -0,0 +1,121 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LotteryAllocatorTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final LotteryAllocator allocator = new LotteryAllocator(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void allocate_UncontestedPreferences_GetFirstChoice() {
+        int[][] preferences = {{0, 1}, {1, 0}, {2}};
+        int[] capacities = {1, 1, 1};
+
+        int[] assignment = allocator.allocate(preferences, capacities, 42L);
+
+        assertThat(assignment).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void allocate_OversubscribedCourse_FallsBackToLaterChoices() {
+        int[][] preferences = {{0, 1}, {0, 1}, {0, 1}};
+        int[] capacities = {1, 1};
+
+        int[] assignment = allocator.allocate(preferences, capacities, 7L);
+
+        assertThat(Arrays.stream(assignment).filter(c -> c == 0).count()).isEqualTo(1);
+        assertThat(Arrays.stream(assignment).filter(c -> c == 1).count()).isEqualTo(1);
+        assertThat(Arrays.stream(assignment).filter(c -> c == LotteryAllocator.UNASSIGNED).count()).isEqualTo(1);
+    }
+
+    @Test
+    void allocate_EmptyPreferencesAndZeroCapacity_StayUnassigned() {
+        int[][] preferences = {{}, {0}};
+        int[] capacities = {0};
+
+        assertThat(allocator.allocate(preferences, capacities, 1L))
+                .containsExactly(LotteryAllocator.UNASSIGNED, LotteryAllocator.UNASSIGNED);
+    }
+
+    @Test
+    void allocate_SpareSeats_StillPlaceEachStudentInOneCourse() {
+        int[][] preferences = {{0, 1, 2}, {1, 2, 0}};
+        int[] capacities = {5, 5, 5};
+
+        assertThat(allocator.allocate(preferences, capacities, 3L)).containsExactly(0, 1);
+    }
+
+    @Test
+    void allocate_SameSeed_IsReproducibleAcrossParallelism() {
+        int[][] preferences = randomPreferences(2_000, 50, 5, 11L);
+        int[] capacities = new int[50];
+        Arrays.fill(capacities, 25);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            int[] sequential = new LotteryAllocator(single).allocate(preferences, capacities, 99L);
+            int[] parallel = allocator.allocate(preferences, capacities, 99L);
+
+            assertThat(parallel).isEqualTo(sequential);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void allocate_RespectsCapacityAndIsStable() {
+        int students = 3_000;
+        int courses = 40;
+        int[][] preferences = randomPreferences(students, courses, 4, 5L);
+        int[] capacities = new int[courses];
+        Arrays.fill(capacities, 30);
+
+        int[] assignment = allocator.allocate(preferences, capacities, 1234L);
+
+        int[] seated = new int[courses];
+        for (int course : assignment) {
+            if (course != LotteryAllocator.UNASSIGNED) {
+                seated[course]++;
+            }
+        }
+        for (int c = 0; c < courses; c++) {
+            assertThat(seated[c]).isLessThanOrEqualTo(capacities[c]);
+        }
+        // No student is left out of, or placed below, a course they ranked higher that still has a free seat
+        for (int s = 0; s < students; s++) {
+            for (int preferred : preferences[s]) {
+                if (preferred == assignment[s]) {
+                    break;
+                }
+                assertThat(seated[preferred]).isEqualTo(capacities[preferred]);
+            }
+        }
+    }
+
+    // Skewed towards low course indexes so a handful of courses are heavily oversubscribed
+    private static int[][] randomPreferences(int students, int courses, int perStudent, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] preferences = new int[students][];
+        for (int s = 0; s < students; s++) {
+            preferences[s] = random.ints(0, courses * courses)
+                    .map(v -> (int) Math.sqrt(v))
+                    .map(v -> courses - 1 - v)
+                    .distinct()
+                    .limit(perStudent)
+                    .toArray();
+        }
+        return preferences;
+    }
+}
@@ -0,0 +1,66 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.LotteryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=LotteryServiceBenchmark
+@SpringBootTest
+class LotteryServiceBenchmark {
+    private static final int STUDENTS = 50_000;
+    private static final int COURSES = 2_000;
+    private static final int PREFERENCES = 5;
+    private static final int CAPACITY = 30;
+
+    @Autowired
+    private LotteryService lotteryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course_preference");
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'LB%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'LB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'lb%'");
+    }
+
+    @Test
+    void allocateFiftyThousandStudents() {
+        TestData data = new TestData(jdbcTemplate);
+        List<Long> courseIds = data.course("LB").capacity(CAPACITY).createMany(COURSES);
+        List<Long> studentIds = data.students("lb", STUDENTS);
+
+        SplittableRandom random = new SplittableRandom(2024L);
+        List<Object[]> preferences = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            int[] ranked = random.ints(0, COURSES * COURSES)
+                    .map(v -> COURSES - 1 - (int) Math.sqrt(v))
+                    .distinct()
+                    .limit(PREFERENCES)
+                    .toArray();
+            for (int rank = 0; rank < ranked.length; rank++) {
+                preferences.add(new Object[]{studentId, courseIds.get(ranked[rank]), rank + 1});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO course_preference (student_id, course_id, preference_rank) VALUES (?, ?, ?)", preferences);
+
+        LotteryResult result = lotteryService.allocate();
+
+        System.out.printf("Lottery end to end: %,d students, %,d preferences, %,d assigned; allocation %,d ms, total %,d ms%n",
+                result.getStudents(), preferences.size(), result.getAssigned(), result.getAllocationMs(), result.getTotalMs());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM course WHERE course_code LIKE 'LB%' AND enrolled_students > max_students", Integer.class))
+                .isZero();
+    }
+}
@@ -0,0 +1,164 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.LotteryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Preference submission and allocation against the real database
+@SpringBootTest
+class LotteryServiceTest {
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private LotteryService lotteryService;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData data;
+    private Long popular;
+    private Long fallback;
+    private Long inactive;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        popular = data.course("LOT-POP").capacity(5).create();
+        fallback = data.course("LOT-FALL").create();
+        inactive = data.course("LOT-OFF").active(false).create();
+        studentIds = data.students("lottery", STUDENTS);
+        lotteryService.openWindow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course_preference");
+        for (Long courseId : List.of(popular, fallback, inactive)) {
+            jdbcTemplate.update("""
+                    DELETE FROM outbox_event WHERE aggregate_type = 'Enrollment'
+                      AND aggregate_id IN (SELECT id FROM enrollment WHERE course_id = ?)
+                    """, courseId);
+            jdbcTemplate.update("DELETE FROM enrollment WHERE course_id = ?", courseId);
+            jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+        }
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'lottery%'");
+        jdbcTemplate.update("DELETE FROM app_setting WHERE setting_key = ?", LotteryService.WINDOW_SETTING);
+    }
+
+    @Test
+    void allocate_FillsPopularCourseThenFallback() {
+        studentIds.forEach(id -> lotteryService.submitPreferences(id, List.of(popular, fallback)));
+
+        LotteryResult result = lotteryService.allocate();
+
+        assertThat(result.getStudents()).isEqualTo(STUDENTS);
+        assertThat(result.getAssigned()).isEqualTo(15);
+        assertThat(result.getUnassigned()).isEqualTo(STUDENTS - 15);
+        assertThat(enrolledCount(popular)).isEqualTo(5);
+        assertThat(enrolledCount(fallback)).isEqualTo(10);
+        assertThat(seatCounter(popular)).isEqualTo(5);
+        assertThat(seatCounter(fallback)).isEqualTo(10);
+        assertThat(enrolledEvents(popular, EnrollmentService.SOURCE_LOTTERY)).isEqualTo(5);
+        assertThat(enrolledEvents(fallback, EnrollmentService.SOURCE_LOTTERY)).isEqualTo(10);
+        assertThat(lotteryService.isWindowOpen()).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_preference", Integer.class)).isZero();
+    }
+
+    @Test
+    void allocate_ReactivatesDroppedEnrollmentAndSkipsCurrentOnes() {
+        Long dropped = studentIds.get(0);
+        Long seated = studentIds.get(1);
+        enrollmentService.enrollStudent(dropped, popular);
+        enrollmentService.dropStudent(dropped, popular);
+        enrollmentService.enrollStudent(seated, popular);
+        lotteryService.submitPreferences(dropped, List.of(popular));
+        lotteryService.submitPreferences(seated, List.of(popular, fallback));
+
+        lotteryService.allocate();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM enrollment WHERE student_id = ? AND course_id = ?", String.class, dropped, popular))
+                .isEqualTo("ENROLLED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM enrollment WHERE student_id = ? AND course_id = ?", String.class, seated, fallback))
+                .isEqualTo("ENROLLED");
+        assertThat(seatCounter(popular)).isEqualTo(2);
+    }
+
+    @Test
+    void submitPreferences_ReplacesEarlierList() {
+        Long studentId = studentIds.get(0);
+        lotteryService.submitPreferences(studentId, List.of(popular, fallback));
+        lotteryService.submitPreferences(studentId, List.of(fallback));
+
+        assertThat(lotteryService.getPreferences(studentId)).containsExactly(fallback);
+    }
+
+    @Test
+    void submitPreferences_InvalidLists_AreRejected() {
+        Long studentId = studentIds.get(0);
+
+        assertThatThrownBy(() -> lotteryService.submitPreferences(studentId, List.of(popular, popular)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> lotteryService.submitPreferences(studentId, List.of(inactive)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Preferences may only list active courses");
+        assertThatThrownBy(() -> lotteryService.submitPreferences(studentId, List.of(1L, 2L, 3L, 4L, 5L, 6L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 5 preferences are allowed");
+    }
+
+    @Test
+    void submitPreferences_WindowClosed_Throws() {
+        lotteryService.allocate();
+
+        assertThatThrownBy(() -> lotteryService.submitPreferences(studentIds.get(0), List.of(popular)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The preference window is closed");
+    }
+
+    @Test
+    void windowState_IsStoredInTheDatabase() {
+        assertThat(windowSetting()).isEqualTo("true");
+
+        lotteryService.allocate();
+        assertThat(windowSetting()).isEqualTo("false");
+
+        // Another node, or this one after a restart, reads the stored state rather than its own default
+        jdbcTemplate.update("UPDATE app_setting SET setting_value = 'true' WHERE setting_key = ?", LotteryService.WINDOW_SETTING);
+        assertThat(lotteryService.isWindowOpen()).isTrue();
+    }
+
+    private String windowSetting() {
+        return jdbcTemplate.queryForObject(
+                "SELECT setting_value FROM app_setting WHERE setting_key = ?", String.class, LotteryService.WINDOW_SETTING);
+    }
+
+    private int enrolledEvents(Long courseId, String source) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM outbox_event o JOIN enrollment e ON e.id = o.aggregate_id
+                WHERE o.aggregate_type = 'Enrollment' AND o.event_type = 'STUDENT_ENROLLED'
+                  AND e.course_id = ? AND e.status = 'ENROLLED' AND o.payload LIKE ?
+                """, Integer.class, courseId, "%\"source\":\"" + source + "\"%");
+    }
+
+    private int enrolledCount(Long courseId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE course_id = ? AND status = 'ENROLLED'", Integer.class, courseId);
+    }
+
+    private int seatCounter(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId);
+    }
+}
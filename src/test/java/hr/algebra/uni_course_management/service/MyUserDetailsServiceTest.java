@@ -3,6 +3,7 @@ package hr.algebra.uni_course_management.service;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
 import hr.algebra.uni_course_management.repository.UserRepository;
+import hr.algebra.uni_course_management.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +18,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +35,7 @@ class MyUserDetailsServiceTest {
     @BeforeEach
     void setUp() {
         activeUser = new User();
+        activeUser.setId(3L);
         activeUser.setUsername("john");
         activeUser.setPassword("encodedPass");
         activeUser.setRole(UserRole.STUDENT);
@@ -57,6 +60,9 @@ class MyUserDetailsServiceTest {
                 .extracting("authority")
                 .containsExactly("ROLE_STUDENT");
         assertThat(details.isEnabled()).isTrue();
+        assertThat(details).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) details).getId()).isEqualTo(3L);
+        assertThat(((AuthenticatedUser) details).getRole()).isEqualTo(UserRole.STUDENT);
     }
 
     @Test
@@ -68,6 +74,26 @@ class MyUserDetailsServiceTest {
                 .hasMessage("User not found: missing");
     }
 
+    @Test
+    void loadUserById_RenamedUser_ResolvesCurrentUsername() {
+        activeUser.setUsername("john.renamed");
+        when(userRepository.findById(3L)).thenReturn(Optional.of(activeUser));
+
+        AuthenticatedUser details = myUserDetailsService.loadUserById(3L);
+
+        assertThat(details.getId()).isEqualTo(3L);
+        assertThat(details.getUsername()).isEqualTo("john.renamed");
+    }
+
+    @Test
+    void loadUserById_DeletedUser_ThrowsUsernameNotFoundException() {
+        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> myUserDetailsService.loadUserById(9L))
+                .isInstanceOf(UsernameNotFoundException.class)
+                .hasMessage("User not found with id: 9");
+    }
+
     @Test
     void loadUserByUsername_DisabledUser_ThrowsDisabledException() {
         when(userRepository.findByUsername("jane")).thenReturn(Optional.of(disabledUser));
@@ -76,4 +102,16 @@ class MyUserDetailsServiceTest {
                 .isInstanceOf(DisabledException.class)
                 .hasMessage("User account is disabled");
     }
-}
\ No newline at end of file
+
+    @Test
+    void updatePassword_SavesNewHashAndReturnsUpdatedPrincipal() {
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(activeUser));
+        when(userRepository.save(activeUser)).thenReturn(activeUser);
+
+        UserDetails details = myUserDetailsService.updatePassword(AuthenticatedUser.from(activeUser), "rehashed");
+
+        assertThat(activeUser.getPassword()).isEqualTo("rehashed");
+        assertThat(details.getPassword()).isEqualTo("rehashed");
+        verify(userRepository).save(activeUser);
+    }
+}
@@ -0,0 +1,59 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.model.Semester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=SemesterCloseBenchmark
+@SpringBootTest
+class SemesterCloseBenchmark {
+    private static final String YEAR = "2039/2040";
+    private static final int STUDENTS = 20_000;
+    private static final int COURSES = 1_000;
+    private static final int COURSES_PER_STUDENT = 10;
+
+    @Autowired
+    private SemesterCloseService semesterCloseService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'SCB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'scb%'");
+    }
+
+    @Test
+    void closeTwoHundredThousandEnrollments() {
+        TestData data = new TestData(jdbcTemplate);
+        data.course("SCB").capacity(500).term("SUMMER", YEAR).createMany(COURSES);
+        data.students("scb", STUDENTS);
+        jdbcTemplate.update("""
+                INSERT INTO enrollment (student_id, course_id, status)
+                SELECT u.id, c.id, 'ENROLLED'
+                FROM app_user u JOIN course c ON c.course_code LIKE 'SCB%' AND MOD(u.id + c.id, ?) = 0
+                WHERE u.username LIKE 'scb%'
+                """, COURSES / COURSES_PER_STUDENT);
+        // Every other enrollment is graded and completes, the rest are dropped
+        jdbcTemplate.update("""
+                INSERT INTO grade (enrollment_id, grade_value)
+                SELECT e.id, 3 FROM enrollment e JOIN course c ON c.id = e.course_id
+                WHERE c.course_code LIKE 'SCB%' AND MOD(e.id, 2) = 0
+                """);
+
+        long start = System.nanoTime();
+        SemesterCloseJob job = semesterCloseService.close(Semester.SUMMER, YEAR);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(job.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo((long) STUDENTS * COURSES_PER_STUDENT);
+        System.out.printf("Semester close: %,d enrollments (%,d completed, %,d dropped) in %,d ms (%,.0f rows/s)%n",
+                job.getProcessed(), job.getCompleted(), job.getDropped(), ms, job.getProcessed() * 1000.0 / ms);
+    }
+}
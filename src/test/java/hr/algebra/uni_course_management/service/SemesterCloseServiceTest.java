@@ -0,0 +1,208 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.model.Semester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Semester close against the real database, with chunks small enough to take several rounds
+@SpringBootTest
+class SemesterCloseServiceTest {
+    private static final String YEAR = "2031/2032";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private CourseSeatService courseSeatService;
+    @Autowired
+    private WaitlistService waitlistService;
+
+    private TestData data;
+    private SemesterCloseService closeService;
+    private Long summerA;
+    private Long summerB;
+    private Long winter;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        closeService = newNode(600_000);
+        summerA = createCourse("SC-SUM-A", "SUMMER");
+        summerB = createCourse("SC-SUM-B", "SUMMER");
+        winter = createCourse("SC-WIN", "WINTER");
+        studentIds = data.students("closer", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeService.shutdown();
+        jdbcTemplate.update("DELETE FROM semester_close_job WHERE academic_year = ?", YEAR);
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'SC-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'closer%'");
+    }
+
+    @Test
+    void close_CompletesGradedAndDropsUngradedEnrollmentsOfTheTerm() {
+        Long graded = enroll(studentIds.get(0), summerA, "ENROLLED");
+        jdbcTemplate.update("INSERT INTO grade (enrollment_id, grade_value) VALUES (?, 4)", graded);
+        Long ungraded = enroll(studentIds.get(1), summerA, "ENROLLED");
+        // Three enrolled rows exceed the chunk size of two, so summerA is split by enrollment id
+        Long ungradedToo = enroll(studentIds.get(2), summerA, "ENROLLED");
+        Long otherCourse = enroll(studentIds.get(2), summerB, "ENROLLED");
+        Long gradedB = enroll(studentIds.get(3), summerB, "ENROLLED");
+        jdbcTemplate.update("INSERT INTO grade (enrollment_id, grade_value) VALUES (?, 2)", gradedB);
+        Long alreadyDropped = enroll(studentIds.get(3), summerA, "DROPPED");
+        Long otherTerm = enroll(studentIds.get(0), winter, "ENROLLED");
+        jdbcTemplate.update("UPDATE course SET enrolled_students = 2 WHERE id IN (?, ?)", summerA, summerB);
+        jdbcTemplate.update("INSERT INTO course_waitlist (course_id, student_id, position) VALUES (?, ?, 1)",
+                summerA, studentIds.get(1));
+        courseSeatService.checkAvailable(summerA);
+        assertThat(courseSeatService.cachedEnrolled(summerA)).isEqualTo(2);
+        waitlistService.syncChanges();
+        assertThat(waitlistService.size(summerA)).isEqualTo(1);
+
+        SemesterCloseJob job = closeService.close(Semester.SUMMER, YEAR);
+
+        assertThat(job.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+        assertThat(job.getCourses()).isEqualTo(2);
+        assertThat(job.getTotal()).isEqualTo(5);
+        assertThat(job.getCompleted()).isEqualTo(2);
+        assertThat(job.getDropped()).isEqualTo(3);
+        assertThat(job.getProcessed()).isEqualTo(5);
+        assertThat(status(graded)).isEqualTo("COMPLETED");
+        assertThat(status(gradedB)).isEqualTo("COMPLETED");
+        assertThat(status(ungraded)).isEqualTo("DROPPED");
+        assertThat(status(ungradedToo)).isEqualTo("DROPPED");
+        assertThat(status(otherCourse)).isEqualTo("DROPPED");
+        assertThat(status(alreadyDropped)).isEqualTo("DROPPED");
+        assertThat(status(otherTerm)).isEqualTo("ENROLLED");
+        assertThat(jdbcTemplate.queryForList("SELECT is_active FROM course WHERE id IN (?, ?)", Boolean.class, summerA, summerB))
+                .containsOnly(false);
+        assertThat(jdbcTemplate.queryForObject("SELECT is_active FROM course WHERE id = ?", Boolean.class, winter)).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT enrolled_students FROM course WHERE id IN (?, ?)", Integer.class, summerA, summerB))
+                .containsOnly(0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM course_waitlist WHERE course_id = ?", Integer.class, summerA))
+                .isZero();
+        assertThat(courseSeatService.cachedEnrolled(summerA)).isEqualTo(-1);
+        assertThat(waitlistService.size(summerA)).isZero();
+    }
+
+    @Test
+    void close_RunTwice_SecondRunFindsNothingLeft() {
+        enroll(studentIds.get(0), summerA, "ENROLLED");
+        closeService.close(Semester.SUMMER, YEAR);
+
+        SemesterCloseJob again = closeService.close(Semester.SUMMER, YEAR);
+
+        assertThat(again.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+        assertThat(again.getProcessed()).isZero();
+    }
+
+    @Test
+    void start_RunsInBackgroundAndIsFoundById() throws Exception {
+        enroll(studentIds.get(0), summerA, "ENROLLED");
+
+        SemesterCloseJob job = closeService.start(Semester.SUMMER, YEAR);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() == SemesterCloseJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(closeService.find(job.getId())).containsSame(job);
+        assertThat(job.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+        assertThat(job.getDropped()).isEqualTo(1);
+        assertThat(closeService.find("missing")).isEmpty();
+    }
+
+    @Test
+    void find_JobRunOnAnotherNode_IsReadFromTable() {
+        enroll(studentIds.get(0), summerA, "ENROLLED");
+        SemesterCloseJob job = closeService.close(Semester.SUMMER, YEAR);
+
+        SemesterCloseService otherNode = newNode(600_000);
+        try {
+            SemesterCloseJob found = otherNode.find(job.getId()).orElseThrow();
+            assertThat(found.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+            assertThat(found.getCourses()).isEqualTo(2);
+            assertThat(found.getTotal()).isEqualTo(1);
+            assertThat(found.getDropped()).isEqualTo(1);
+            assertThat(found.getMessage()).isEqualTo(job.getMessage());
+            assertThat(found.getFinishedAt()).isPositive();
+        } finally {
+            otherNode.shutdown();
+        }
+    }
+
+    @Test
+    void close_TermRunningOnAnotherNode_IsRejected() {
+        insertRunningJob(System.currentTimeMillis());
+
+        assertThatThrownBy(() -> closeService.close(Semester.SUMMER, YEAR))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(SemesterCloseService.ALREADY_RUNNING);
+    }
+
+    @Test
+    void close_AbandonedRunningJob_IsTakenOver() {
+        insertRunningJob(System.currentTimeMillis() - 120_000);
+        SemesterCloseService node = newNode(60_000);
+        try {
+            SemesterCloseJob job = node.close(Semester.SUMMER, YEAR);
+
+            assertThat(job.getStatus()).isEqualTo(SemesterCloseJob.Status.COMPLETED);
+            assertThat(node.find("abandoned").orElseThrow().getStatus()).isEqualTo(SemesterCloseJob.Status.FAILED);
+        } finally {
+            node.shutdown();
+        }
+    }
+
+    @Test
+    void close_MissingAcademicYear_IsRejected() {
+        assertThatThrownBy(() -> closeService.close(Semester.SUMMER, " "))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Semester and academic year are required");
+    }
+
+    private SemesterCloseService newNode(long staleAfterMs) {
+        return new SemesterCloseService(jdbcTemplate, transactionManager, transcriptService, timetableService,
+                courseSeatService, waitlistService, 2, staleAfterMs);
+    }
+
+    private void insertRunningJob(long updatedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO semester_close_job (id, semester, academic_year, running_term, status, started_at, updated_at)
+                VALUES ('abandoned', 'SUMMER', ?, ?, 'RUNNING', ?, ?)
+                """, YEAR, "SUMMER " + YEAR, new Timestamp(updatedAt), new Timestamp(updatedAt));
+    }
+
+    private Long createCourse(String code, String semester) {
+        return data.course(code).term(semester, YEAR).create();
+    }
+
+    private Long enroll(Long studentId, Long courseId, String status) {
+        jdbcTemplate.update("INSERT INTO enrollment (student_id, course_id, status) VALUES (?, ?, ?)", studentId, courseId, status);
+        return jdbcTemplate.queryForObject("SELECT id FROM enrollment WHERE student_id = ? AND course_id = ?",
+                Long.class, studentId, courseId);
+    }
+
+    private String status(Long enrollmentId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM enrollment WHERE id = ?", String.class, enrollmentId);
+    }
+}
@@ -0,0 +1,139 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.CourseContentView;
+import hr.algebra.uni_course_management.dto.StudentOverview;
+import hr.algebra.uni_course_management.repository.CourseContentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class StudentOverviewServiceTest {
+    // A Monday
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+    @Autowired
+    private StudentOverviewService studentOverviewService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TranscriptService transcriptService = mock(TranscriptService.class);
+    private final GradeService gradeService = mock(GradeService.class);
+    private final ScheduleViewService scheduleViewService = mock(ScheduleViewService.class);
+    private final CourseContentRepository courseContentRepository = mock(CourseContentRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'OV-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username = 'overviewer'");
+    }
+
+    @Test
+    void getOverview_ComposesEverySectionFromTheDatabase() {
+        TestData data = new TestData(jdbcTemplate);
+        Long studentId = data.student("overviewer");
+        Long enrolled = data.course("OV-1").create();
+        Long other = data.course("OV-2").create();
+        jdbcTemplate.update("INSERT INTO enrollment (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')", studentId, enrolled);
+        data.schedule(enrolled, DayOfWeek.MONDAY, "09:00", "11:00");
+        data.schedule(enrolled, DayOfWeek.TUESDAY, "09:00", "11:00");
+        addAssignment(enrolled, "Due soon", NOW.plusDays(3), true);
+        addAssignment(enrolled, "Due later", NOW.plusDays(9), true);
+        addAssignment(enrolled, "Draft", NOW.plusDays(3), false);
+        addAssignment(enrolled, "Past", NOW.minusDays(1), true);
+        addAssignment(other, "Not my course", NOW.plusDays(3), true);
+
+        StudentOverview overview = studentOverviewService.getOverview(studentId, NOW);
+
+        assertThat(overview.getUnavailableSections()).isEmpty();
+        assertThat(overview.getEnrollments()).extracting("courseCode").containsExactly("OV-1");
+        assertThat(overview.getGrades()).isEmpty();
+        assertThat(overview.getTodaySchedule()).extracting("dayOfWeek").containsExactly("MONDAY");
+        assertThat(overview.getUpcomingAssignments()).extracting(CourseContentView::getContentTitle)
+                .containsExactly("Due soon", "Due later");
+    }
+
+    @Test
+    void getOverview_SlowSection_IsLeftOutWhenTheDeadlinePasses() {
+        StudentOverviewService service = mockedService(4, 8, 100);
+        when(gradeService.getGradesByStudent(1L)).thenAnswer(inv -> {
+            Thread.sleep(2_000);
+            return List.of();
+        });
+        when(transcriptService.getTranscript(1L)).thenReturn(List.of());
+        when(scheduleViewService.getStudentSchedule(1L, DayOfWeek.MONDAY)).thenReturn(List.of());
+        when(courseContentRepository.findUpcomingAssignmentViewsForStudent(1L, NOW)).thenReturn(List.of());
+
+        long started = System.currentTimeMillis();
+        StudentOverview overview = service.getOverview(1L, NOW);
+
+        assertThat(System.currentTimeMillis() - started).isLessThan(1_000);
+        assertThat(overview.getUnavailableSections()).containsExactly(StudentOverviewService.GRADES);
+        assertThat(overview.getGrades()).isNull();
+        assertThat(overview.getEnrollments()).isEmpty();
+        service.shutdown();
+    }
+
+    @Test
+    void getOverview_FailingSection_IsLeftOutAndTheRestReturned() {
+        StudentOverviewService service = mockedService(4, 8, 1_000);
+        when(courseContentRepository.findUpcomingAssignmentViewsForStudent(any(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+        when(transcriptService.getTranscript(1L)).thenReturn(List.of());
+        when(gradeService.getGradesByStudent(1L)).thenReturn(List.of());
+        when(scheduleViewService.getStudentSchedule(1L, DayOfWeek.MONDAY)).thenReturn(List.of());
+
+        StudentOverview overview = service.getOverview(1L, NOW);
+
+        assertThat(overview.getUnavailableSections()).containsExactly(StudentOverviewService.UPCOMING_ASSIGNMENTS);
+        assertThat(overview.getUpcomingAssignments()).isNull();
+        assertThat(overview.getTodaySchedule()).isEmpty();
+        service.shutdown();
+    }
+
+    @Test
+    void getOverview_PoolFull_RejectsSectionsInsteadOfQueueingWithoutBound() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StudentOverviewService service = new StudentOverviewService(transcriptService, gradeService, scheduleViewService,
+                courseContentRepository, meterRegistry, 1, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transcriptService.getTranscript(1L)).thenAnswer(inv -> {
+            release.await();
+            return List.of();
+        });
+
+        StudentOverview overview = service.getOverview(1L, NOW);
+        release.countDown();
+
+        assertThat(overview.getUnavailableSections()).containsExactlyInAnyOrder(StudentOverviewService.ENROLLMENTS,
+                StudentOverviewService.GRADES, StudentOverviewService.TODAY_SCHEDULE, StudentOverviewService.UPCOMING_ASSIGNMENTS);
+        assertThat(meterRegistry.get("student.overview.section.unavailable").tag("reason", "rejected").counters())
+                .hasSize(2);
+        service.shutdown();
+    }
+
+    private StudentOverviewService mockedService(int poolSize, int queueCapacity, long timeoutMs) {
+        return new StudentOverviewService(transcriptService, gradeService, scheduleViewService, courseContentRepository,
+                new SimpleMeterRegistry(), poolSize, queueCapacity, timeoutMs);
+    }
+
+    private void addAssignment(Long courseId, String title, LocalDateTime dueDate, boolean published) {
+        jdbcTemplate.update("""
+                INSERT INTO course_content (course_id, content_type, content_title, due_date, is_published)
+                VALUES (?, 'ASSIGNMENT', ?, ?, ?)
+                """, courseId, title, dueDate, published);
+    }
+}
@@ -0,0 +1,125 @@
+package hr.algebra.uni_course_management.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+// Course, user and schedule rows for the database-backed tests and benchmarks, written straight through JDBC so
+// the setup never depends on the services under test. Users get username@test.com as their email.
+final class TestData {
+    private final JdbcTemplate jdbcTemplate;
+
+    TestData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Active, 5 credits, 10 seats and no term or professor unless the test says otherwise
+    CourseRow course(String code) {
+        return new CourseRow(code);
+    }
+
+    Long student(String username) {
+        return user(username, "Test", "Student", "STUDENT");
+    }
+
+    Long user(String username, String firstName, String lastName, String role) {
+        jdbcTemplate.update("""
+                INSERT INTO app_user (username, password, first_name, last_name, email, role_user)
+                VALUES (?, 'x', ?, ?, ?, ?)
+                """, username, firstName, lastName, username + "@test.com", role);
+        return jdbcTemplate.queryForObject("SELECT id FROM app_user WHERE username = ?", Long.class, username);
+    }
+
+    // Students prefix0 .. prefix(count - 1) in one batch; ids come back in that order. The prefix must not start
+    // any other username in the database
+    List<Long> students(String prefix, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{prefix + i, prefix + i + "@test.com"});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO app_user (username, password, first_name, last_name, email, role_user)
+                VALUES (?, 'x', 'Test', 'Student', ?, 'STUDENT')
+                """, rows);
+        return jdbcTemplate.queryForList("SELECT id FROM app_user WHERE username LIKE ? ORDER BY id",
+                Long.class, startingWith(prefix));
+    }
+
+    void schedule(Long courseId, DayOfWeek day, String start, String end) {
+        jdbcTemplate.update("""
+                INSERT INTO schedule_entry (course_id, day_of_week, start_time, end_time, room)
+                VALUES (?, ?, ?, ?, 'Test Room')
+                """, courseId, day.name(), start, end);
+    }
+
+    private static String startingWith(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("_", "\\_").replace("%", "\\%") + "%";
+    }
+
+    final class CourseRow {
+        private final String code;
+        private Integer capacity = 10;
+        private boolean active = true;
+        private String semester;
+        private String academicYear;
+        private Long professorId;
+
+        private CourseRow(String code) {
+            this.code = code;
+        }
+
+        // null leaves the course without a seat limit
+        CourseRow capacity(Integer capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        CourseRow active(boolean active) {
+            this.active = active;
+            return this;
+        }
+
+        CourseRow semester(String semester) {
+            this.semester = semester;
+            return this;
+        }
+
+        CourseRow term(String semester, String academicYear) {
+            this.semester = semester;
+            this.academicYear = academicYear;
+            return this;
+        }
+
+        CourseRow professor(Long professorId) {
+            this.professorId = professorId;
+            return this;
+        }
+
+        Long create() {
+            jdbcTemplate.update("""
+                    INSERT INTO course (course_code, course_name, credits, max_students, semester, academic_year,
+                                        is_active, professor_id)
+                    VALUES (?, ?, 5, ?, ?, ?, ?, ?)
+                    """, code, "Test " + code, capacity, semester, academicYear, active, professorId);
+            return jdbcTemplate.queryForObject("SELECT id FROM course WHERE course_code = ?", Long.class, code);
+        }
+
+        // Courses code0 .. code(count - 1) sharing these settings, in one batch; ids come back in that order. The
+        // code must not start any other course code in the database
+        List<Long> createMany(int count) {
+            List<Object[]> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new Object[]{code + i, "Test " + code + i, capacity, semester, academicYear, active, professorId});
+            }
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO course (course_code, course_name, credits, max_students, semester, academic_year,
+                                        is_active, professor_id)
+                    VALUES (?, ?, 5, ?, ?, ?, ?, ?)
+                    """, rows);
+            return jdbcTemplate.queryForList("SELECT id FROM course WHERE course_code LIKE ? ORDER BY id",
+                    Long.class, startingWith(code));
+        }
+    }
+}
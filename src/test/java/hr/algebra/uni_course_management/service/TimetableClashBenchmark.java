@@ -0,0 +1,118 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not part of the default test run; execute with: mvn test -Dtest=TimetableClashBenchmark
+@SpringBootTest
+class TimetableClashBenchmark {
+    private static final int COURSES = 500;
+    private static final int SLOTS_PER_COURSE = 3;
+    private static final int ENROLLED = 12;
+    private static final int CHECKS = 20_000;
+
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'TB%')");
+        jdbcTemplate.update("DELETE FROM schedule_entry WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'TB%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'TB%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username = 'tbstudent'");
+        timetableService.evictAll();
+    }
+
+    @Test
+    void clashCheckAgainstNaiveScheduleScan() {
+        SplittableRandom random = new SplittableRandom(3L);
+        TestData data = new TestData(jdbcTemplate);
+        List<Long> courseIds = data.course("TB").capacity(100).term("SUMMER", "2030/2031").createMany(COURSES);
+        List<Object[]> entries = new ArrayList<>();
+        for (Long courseId : courseIds) {
+            for (int i = 0; i < SLOTS_PER_COURSE; i++) {
+                int hour = random.nextInt(8, 19);
+                entries.add(new Object[]{courseId, DayOfWeek.of(random.nextInt(1, 6)).name(),
+                        LocalTime.of(hour, 0), LocalTime.of(hour + 1, 30)});
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO schedule_entry (course_id, day_of_week, start_time, end_time, room)
+                VALUES (?, ?, ?, ?, 'Room TB')
+                """, entries);
+        Long studentId = data.student("tbstudent");
+        for (int i = 0; i < ENROLLED; i++) {
+            jdbcTemplate.update("INSERT INTO enrollment (student_id, course_id, status) VALUES (?, ?, 'ENROLLED')",
+                    studentId, courseIds.get(i * (COURSES / ENROLLED)));
+        }
+        timetableService.evictAll();
+
+        long coldStart = System.nanoTime();
+        boolean firstClash = timetableService.clashReason(studentId, courseIds.get(1)) != null;
+        double coldMs = (System.nanoTime() - coldStart) / 1_000_000.0;
+
+        int indexedClashes = 0;
+        long indexedStart = System.nanoTime();
+        for (int i = 0; i < CHECKS; i++) {
+            if (timetableService.clashReason(studentId, courseIds.get(i % COURSES)) != null) {
+                indexedClashes++;
+            }
+        }
+        double indexedUs = (System.nanoTime() - indexedStart) / 1_000.0 / CHECKS;
+
+        int naiveClashes = 0;
+        long naiveStart = System.nanoTime();
+        for (int i = 0; i < CHECKS; i++) {
+            if (naiveClash(studentId, courseIds.get(i % COURSES))) {
+                naiveClashes++;
+            }
+        }
+        double naiveUs = (System.nanoTime() - naiveStart) / 1_000.0 / CHECKS;
+
+        assertThat(indexedClashes).isEqualTo(naiveClashes);
+        assertThat(firstClash).isEqualTo(naiveClash(studentId, courseIds.get(1)));
+        System.out.printf("Clash check, first call (loads %,d courses and the student): %.2f ms%n", COURSES, coldMs);
+        System.out.printf("Clash check, occupancy index: %.2f us/check (%,d of %,d clash)%n", indexedUs, indexedClashes, CHECKS);
+        System.out.printf("Clash check, schedule rows per check: %.2f us/check%n", naiveUs);
+    }
+
+    // Loads every schedule row of the student's enrolled courses and compares them pairwise with the candidate
+    private boolean naiveClash(Long studentId, Long courseId) {
+        List<int[]> enrolled = slots("""
+                SELECT s.day_of_week, s.start_time, s.end_time
+                FROM enrollment e JOIN schedule_entry s ON s.course_id = e.course_id
+                WHERE e.student_id = ? AND e.status = 'ENROLLED'
+                """, studentId);
+        List<int[]> candidate = slots("SELECT day_of_week, start_time, end_time FROM schedule_entry WHERE course_id = ?", courseId);
+        for (int[] a : enrolled) {
+            for (int[] b : candidate) {
+                if (a[0] < b[1] && b[0] < a[1]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<int[]> slots(String sql, Long id) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            int day = (DayOfWeek.valueOf(rs.getString(1)).getValue() - 1) * 1440;
+            LocalTime start = rs.getObject(2, LocalTime.class);
+            LocalTime end = rs.getObject(3, LocalTime.class);
+            return new int[]{day + start.getHour() * 60 + start.getMinute(), day + end.getHour() * 60 + end.getMinute()};
+        }, id);
+    }
+}
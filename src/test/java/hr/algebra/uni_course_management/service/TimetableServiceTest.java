@@ -0,0 +1,148 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.ImportReport;
+import hr.algebra.uni_course_management.dto.ImportRowError;
+import hr.algebra.uni_course_management.model.ScheduleEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Clash checks through the enrollment paths against the real schedule_entry table
+@SpringBootTest
+class TimetableServiceTest {
+    @Autowired
+    private TimetableService timetableService;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private EnrollmentImportService importService;
+    @Autowired
+    private AdminScheduleService adminScheduleService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData data;
+    private Long studentId;
+    private Long morning;
+    private Long overlapping;
+    private Long afterwards;
+    private Long otherTerm;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        morning = createCourse("TT-MORNING", "SUMMER", DayOfWeek.MONDAY, "09:00", "11:00");
+        overlapping = createCourse("TT-OVERLAP", "SUMMER", DayOfWeek.MONDAY, "10:00", "12:00");
+        afterwards = createCourse("TT-AFTER", "SUMMER", DayOfWeek.MONDAY, "11:00", "13:00");
+        otherTerm = createCourse("TT-WINTER", "WINTER", DayOfWeek.MONDAY, "09:00", "11:00");
+        studentId = data.student("timetabler");
+        timetableService.evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM enrollment WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'TT-%')");
+        jdbcTemplate.update("DELETE FROM schedule_entry WHERE course_id IN (SELECT id FROM course WHERE course_code LIKE 'TT-%')");
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'TT-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username = 'timetabler'");
+        timetableService.evictAll();
+    }
+
+    @Test
+    void enrollStudent_OverlappingCourseInSameTerm_IsRejected() {
+        enrollmentService.enrollStudent(studentId, morning);
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(studentId, overlapping))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(TimetableService.CLASH + "TT-MORNING");
+        assertThat(enrolled(overlapping)).isZero();
+
+        enrollmentService.enrollStudent(studentId, afterwards);
+        enrollmentService.enrollStudent(studentId, otherTerm);
+        assertThat(enrolled(afterwards)).isEqualTo(1);
+        assertThat(enrolled(otherTerm)).isEqualTo(1);
+    }
+
+    @Test
+    void enrollStudent_SameCourseTwice_IsReportedAsDuplicateNotClash() {
+        enrollmentService.enrollStudent(studentId, morning);
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(studentId, morning))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Student is already enrolled in this course");
+        assertThat(enrolled(morning)).isEqualTo(1);
+    }
+
+    @Test
+    void dropStudent_FreesTheSlot() {
+        enrollmentService.enrollStudent(studentId, morning);
+        enrollmentService.dropStudent(studentId, morning);
+
+        enrollmentService.enrollStudent(studentId, overlapping);
+
+        assertThat(enrolled(overlapping)).isEqualTo(1);
+    }
+
+    @Test
+    void scheduleEdit_IsSeenByTheNextCheck() {
+        enrollmentService.enrollStudent(studentId, morning);
+        Long entryId = jdbcTemplate.queryForObject("SELECT id FROM schedule_entry WHERE course_id = ?", Long.class, overlapping);
+
+        ScheduleEntry moved = new ScheduleEntry();
+        moved.setDayOfWeek(DayOfWeek.TUESDAY);
+        moved.setStartTime(LocalTime.of(10, 0));
+        moved.setEndTime(LocalTime.of(12, 0));
+        moved.setRoom("Room TT");
+        adminScheduleService.updateScheduleEntry(entryId, overlapping, moved);
+
+        enrollmentService.enrollStudent(studentId, overlapping);
+        assertThat(enrolled(overlapping)).isEqualTo(1);
+    }
+
+    @Test
+    void importCsv_RejectsRowClashingWithAnEarlierRowOfTheSameFile() throws Exception {
+        String csv = "timetabler,TT-MORNING\ntimetabler,TT-OVERLAP\ntimetabler,TT-AFTER\n";
+
+        ImportReport report = importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors())
+                .extracting(ImportRowError::getCourseCode, ImportRowError::getMessage)
+                .containsExactly(tuple("TT-OVERLAP", TimetableService.CLASH + "TT-MORNING"));
+    }
+
+    @Test
+    void termWeek_DependsOnlyOnTheTerm() {
+        int summer = TimetableService.termWeek("SUMMER", "2030/2031");
+
+        assertThat(TimetableService.termWeek("SUMMER", "2030/2031")).isEqualTo(summer);
+        assertThat(TimetableService.termWeek("WINTER", "2030/2031")).isNotEqualTo(summer);
+        assertThat(TimetableService.termWeek("SUMMER", "2031/2032")).isNotEqualTo(summer);
+        assertThat(TimetableService.termWeek(null, "2030/2031")).isNotEqualTo(summer);
+        assertThat(TimetableService.termWeek("SUMMER", "not a year")).isEqualTo(TimetableService.termWeek("SUMMER", null));
+    }
+
+    private Long createCourse(String code, String semester, DayOfWeek day, String start, String end) {
+        Long courseId = data.course(code).term(semester, "2030/2031").create();
+        data.schedule(courseId, day, start, end);
+        return courseId;
+    }
+
+    private int enrolled(Long courseId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollment WHERE student_id = ? AND course_id = ? AND status = 'ENROLLED'",
+                Integer.class, studentId, courseId);
+    }
+}
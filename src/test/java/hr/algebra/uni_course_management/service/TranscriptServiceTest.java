@@ -0,0 +1,116 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.TranscriptRow;
+import hr.algebra.uni_course_management.model.EnrollmentStatus;
+import hr.algebra.uni_course_management.model.Semester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Joined transcript reads and cache eviction against the real database
+@SpringBootTest
+class TranscriptServiceTest {
+    @Autowired
+    private TranscriptService transcriptService;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData data;
+    private Long studentId;
+    private Long professorId;
+    private Long graded;
+    private Long ongoing;
+    private Long dropped;
+
+    @BeforeEach
+    void setUp() {
+        data = new TestData(jdbcTemplate);
+        studentId = data.user("transcript-student", "Tara", "Script", "STUDENT");
+        professorId = data.user("transcript-prof", "Petra", "Prof", "PROFESSOR");
+        graded = createCourse("TR-GRADED");
+        ongoing = createCourse("TR-ONGOING");
+        dropped = createCourse("TR-DROPPED");
+        enrollmentService.enrollStudent(studentId, graded);
+        enrollmentService.enrollStudent(studentId, ongoing);
+        enrollmentService.enrollStudent(studentId, dropped);
+        enrollmentService.dropStudent(studentId, dropped);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'TR-%'");
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'transcript-%'");
+        transcriptService.evictAll();
+    }
+
+    @Test
+    void getTranscript_JoinsCourseProfessorAndGrade() {
+        gradeService.assignGrade(enrollmentId(graded), 4);
+
+        List<TranscriptRow> transcript = transcriptService.getTranscript(studentId);
+
+        assertThat(transcript).extracting(TranscriptRow::getCourseId).containsExactly(graded, ongoing);
+        TranscriptRow first = transcript.get(0);
+        assertThat(first.getCourseCode()).isEqualTo("TR-GRADED");
+        assertThat(first.getSemester()).isEqualTo(Semester.WINTER);
+        assertThat(first.getProfessorName()).isEqualTo("Petra Prof");
+        assertThat(first.getStatus()).isEqualTo(EnrollmentStatus.COMPLETED);
+        assertThat(first.getGradeValue()).isEqualTo(4);
+        assertThat(first.getGradedAt()).isNotNull();
+        assertThat(transcript.get(1).isGraded()).isFalse();
+    }
+
+    @Test
+    void getTranscript_IsCachedUntilAWriteEvictsIt() {
+        List<TranscriptRow> first = transcriptService.getTranscript(studentId);
+        assertThat(transcriptService.getTranscript("transcript-student")).isSameAs(first);
+
+        gradeService.assignGrade(enrollmentId(ongoing), 5);
+        List<TranscriptRow> afterGrade = transcriptService.getTranscript(studentId);
+        assertThat(afterGrade).isNotSameAs(first);
+        assertThat(afterGrade.get(1).getGradeValue()).isEqualTo(5);
+
+        enrollmentService.enrollStudent(studentId, dropped);
+        assertThat(transcriptService.getTranscript(studentId)).hasSize(3);
+    }
+
+    @Test
+    void getTranscript_WriteFromAnotherNode_IsSeenOnceTheEntryExpires() throws InterruptedException {
+        TranscriptService otherNode = new TranscriptService(jdbcTemplate, 100, 200);
+        assertThat(otherNode.getTranscript(studentId)).hasSize(2);
+
+        gradeService.assignGrade(enrollmentId(ongoing), 5);
+        assertThat(otherNode.getTranscript(studentId).get(1).isGraded()).isFalse();
+
+        Thread.sleep(300);
+        assertThat(otherNode.getTranscript(studentId).get(1).getGradeValue()).isEqualTo(5);
+    }
+
+    @Test
+    void getTranscript_UnknownUsername_Throws() {
+        assertThatThrownBy(() -> transcriptService.getTranscript("transcript-nobody"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Student not found");
+    }
+
+    private Long createCourse(String code) {
+        return data.course(code).semester("WINTER").professor(professorId).create();
+    }
+
+    private Long enrollmentId(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM enrollment WHERE student_id = ? AND course_id = ?",
+                Long.class, studentId, courseId);
+    }
+}
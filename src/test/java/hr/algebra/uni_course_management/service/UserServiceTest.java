@@ -1,4 +1,7 @@
 package hr.algebra.uni_course_management.service;
+import hr.algebra.uni_course_management.jwt.AccessTokenDenylist;
+import hr.algebra.uni_course_management.jwt.DisabledUserRegistry;
+import hr.algebra.uni_course_management.jwt.RefreshTokenStore;
 import hr.algebra.uni_course_management.model.User;
 import hr.algebra.uni_course_management.model.UserRole;
 import hr.algebra.uni_course_management.repository.UserRepository;
@@ -27,6 +30,14 @@ class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private DisabledUserRegistry disabledUserRegistry;
+    @Mock
+    private AccessTokenDenylist accessTokenDenylist;
+    @Mock
+    private TranscriptService transcriptService;
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
 
     @InjectMocks
     private UserService userService;
@@ -210,6 +221,23 @@ class UserServiceTest {
         assertThat(testUser.getRole()).isEqualTo(UserRole.PROFESSOR);
         assertThat(testUser.getIsActive()).isFalse();
         assertThat(testUser.getPassword()).isEqualTo("oldEncoded"); // password unchanged
+        verify(disabledUserRegistry).markDisabled(1L);
+        verify(accessTokenDenylist).revokeAllForUser(1L);
+        verify(transcriptService).evictAll();
+        verifyNoInteractions(refreshTokenStore);
+    }
+
+    @Test
+    void updateUser_ProfileOnlyChange_KeepsIssuedTokens() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updateUser(1L, "testuser", "Updated", "User",
+                "updated@example.com", UserRole.STUDENT, "", true);
+
+        verify(disabledUserRegistry).markActive(1L);
+        verifyNoInteractions(accessTokenDenylist);
+        verifyNoInteractions(transcriptService);
     }
 
     @Test
@@ -239,6 +267,9 @@ class UserServiceTest {
         assertThat(testUser.getPassword()).isEqualTo("newEncodedPass");
         verify(passwordEncoder).encode("newpass123");
         verify(userRepository).save(any(User.class));
+        verify(disabledUserRegistry).markActive(1L);
+        verify(accessTokenDenylist).revokeAllForUser(1L);
+        verify(refreshTokenStore).removeForUser(1L);
     }
 
     // -------- deleteUser --------
@@ -250,5 +281,8 @@ class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository).deleteById(1L);
+        verify(disabledUserRegistry).markDisabled(1L);
+        verify(accessTokenDenylist).revokeAllForUser(1L);
+        verify(refreshTokenStore).removeForUser(1L);
     }
 }
\ No newline at end of file
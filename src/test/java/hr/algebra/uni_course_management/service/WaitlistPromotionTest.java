@@ -0,0 +1,189 @@
+package hr.algebra.uni_course_management.service;
+
+import hr.algebra.uni_course_management.dto.GradeEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Drops, grades and waitlist promotions against the real database
+@SpringBootTest
+class WaitlistPromotionTest {
+    private static final int COURSES = 8;
+    private static final int WAITING_PER_COURSE = 4;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private WaitlistService waitlistService;
+    @Autowired
+    private GradeService gradeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> courseIds = new ArrayList<>();
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        TestData data = new TestData(jdbcTemplate);
+        for (int c = 0; c < COURSES; c++) {
+            courseIds.add(data.course("WAIT" + c).capacity(1).create());
+        }
+        studentIds = data.students("waiter", WAITING_PER_COURSE + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long courseId : courseIds) {
+            jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ?", courseId);
+            jdbcTemplate.update("DELETE FROM enrollment WHERE course_id = ?", courseId);
+            jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+        }
+        jdbcTemplate.update("DELETE FROM app_user WHERE username LIKE 'waiter%'");
+    }
+
+    @Test
+    void drop_PromotesHeadOfQueueAndShiftsPositions() {
+        Long courseId = courseIds.get(0);
+        enrollmentService.enrollStudent(studentIds.get(0), courseId);
+        for (int i = 1; i <= WAITING_PER_COURSE; i++) {
+            assertThat(enrollmentService.joinWaitlist(studentIds.get(i), courseId)).isEqualTo(i);
+        }
+
+        enrollmentService.leaveWaitlist(studentIds.get(2), courseId);
+        enrollmentService.dropStudent(studentIds.get(0), courseId);
+
+        assertThat(statusOf(studentIds.get(1), courseId)).isEqualTo("ENROLLED");
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(1), courseId)).isEmpty();
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(3), courseId)).contains(1);
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(4), courseId)).contains(2);
+        assertThat(seatCounter(courseId)).isEqualTo(1);
+    }
+
+    @Test
+    void grade_FreesTheSeatForTheNextEnrollment() {
+        Long courseId = courseIds.get(0);
+        Long enrollmentId = enrollmentService.enrollStudent(studentIds.get(0), courseId).getId();
+        assertThatThrownBy(() -> enrollmentService.enrollStudent(studentIds.get(1), courseId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(CourseSeatService.COURSE_FULL);
+
+        gradeService.assignGrade(enrollmentId, 4);
+        gradeService.assignGrade(enrollmentId, 5);
+
+        assertThat(seatCounter(courseId)).isZero();
+        enrollmentService.enrollStudent(studentIds.get(1), courseId);
+        assertThat(statusOf(studentIds.get(1), courseId)).isEqualTo("ENROLLED");
+        assertThat(seatCounter(courseId)).isEqualTo(1);
+    }
+
+    @Test
+    void gradeRoster_ReleasesSeatWithoutPromoting() {
+        Long courseId = courseIds.get(0);
+        Long enrollmentId = enrollmentService.enrollStudent(studentIds.get(0), courseId).getId();
+        enrollmentService.joinWaitlist(studentIds.get(1), courseId);
+        enrollmentService.joinWaitlist(studentIds.get(2), courseId);
+
+        gradeService.assignGrades(courseId, List.of(new GradeEntry(enrollmentId, 3)));
+
+        assertThat(statusOf(studentIds.get(0), courseId)).isEqualTo("COMPLETED");
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(1), courseId)).contains(1);
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(2), courseId)).contains(2);
+        assertThat(seatCounter(courseId)).isZero();
+    }
+
+    @Test
+    void join_CourseWithFreeSeat_IsRejected() {
+        assertThatThrownBy(() -> enrollmentService.joinWaitlist(studentIds.get(0), courseIds.get(0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(WaitlistService.SEATS_AVAILABLE);
+    }
+
+    @Test
+    void join_AfterAJoinOnAnotherNode_TakesTheNextTicket() {
+        Long courseId = courseIds.get(0);
+        enrollmentService.enrollStudent(studentIds.get(0), courseId);
+        enrollmentService.joinWaitlist(studentIds.get(1), courseId);
+        jdbcTemplate.update("INSERT INTO course_waitlist (course_id, student_id, position) VALUES (?, ?, 2)",
+                courseId, studentIds.get(2));
+
+        assertThat(enrollmentService.joinWaitlist(studentIds.get(3), courseId)).isEqualTo(3);
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(2), courseId)).contains(2);
+        assertThat(enrollmentService.getWaitlistPositions(studentIds.get(3))).containsEntry(courseId, 3);
+    }
+
+    @Test
+    void leaveOnAnotherNode_IsPickedUpByTheSync() {
+        Long courseId = courseIds.get(0);
+        enrollmentService.enrollStudent(studentIds.get(0), courseId);
+        enrollmentService.joinWaitlist(studentIds.get(1), courseId);
+        enrollmentService.joinWaitlist(studentIds.get(2), courseId);
+        jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ? AND student_id = ?",
+                courseId, studentIds.get(1));
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(2), courseId)).contains(2);
+
+        waitlistService.syncChanges();
+
+        assertThat(enrollmentService.getWaitlistPosition(studentIds.get(2), courseId)).contains(1);
+        assertThat(waitlistService.size(courseId)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDropsAcrossCourses_EachPromotesItsOwnHead() throws Exception {
+        for (Long courseId : courseIds) {
+            enrollmentService.enrollStudent(studentIds.get(0), courseId);
+            for (int i = 1; i <= WAITING_PER_COURSE; i++) {
+                enrollmentService.joinWaitlist(studentIds.get(i), courseId);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(COURSES);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long courseId : courseIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    enrollmentService.dropStudent(studentIds.get(0), courseId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Long courseId : courseIds) {
+            assertThat(statusOf(studentIds.get(1), courseId)).isEqualTo("ENROLLED");
+            assertThat(seatCounter(courseId)).isEqualTo(1);
+            assertThat(waitlistService.size(courseId)).isEqualTo(WAITING_PER_COURSE - 1);
+        }
+        assertThat(enrollmentService.getWaitlistPositions(studentIds.get(2))).hasSize(COURSES).containsValue(1);
+    }
+
+    private String statusOf(Long studentId, Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM enrollment WHERE student_id = ? AND course_id = ?",
+                String.class, studentId, courseId);
+    }
+
+    private int seatCounter(Long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled_students FROM course WHERE id = ?", Integer.class, courseId);
+    }
+}
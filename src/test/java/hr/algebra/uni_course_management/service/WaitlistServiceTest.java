@@ -0,0 +1,202 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private void stubCourseFull(Boolean full) {
+        when(jdbcTemplate.query(contains("FOR UPDATE"), any(ResultSetExtractor.class), eq(10L))).thenReturn(full);
+    }
+
+    // Feeds (student_id, position) rows to the query that reads one course's queue back
+    private void stubQueue(long... studentAndTicket) throws Exception {
+        List<ResultSet> rows = new ArrayList<>();
+        for (int i = 0; i < studentAndTicket.length; i += 2) {
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong(1)).thenReturn(studentAndTicket[i]);
+            when(row.getLong(2)).thenReturn(studentAndTicket[i + 1]);
+            rows.add(row);
+        }
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("SELECT student_id, position"), any(RowCallbackHandler.class), eq(10L));
+    }
+
+    private void joinAsSecond() throws Exception {
+        stubCourseFull(true);
+        stubQueue(1L, 1, 2L, 2);
+        waitlistService.join(10L, 2L);
+    }
+
+    @Test
+    void join_FullCourse_TakesNextTicketFromTable() throws Exception {
+        stubCourseFull(true);
+        stubQueue(1L, 1, 2L, 2);
+
+        assertThat(waitlistService.join(10L, 2L)).isEqualTo(2);
+
+        verify(jdbcTemplate).update(contains("COALESCE(MAX(position), 0) + 1"), eq(10L), eq(2L), eq(10L));
+    }
+
+    @Test
+    void position_AfterJoin_IsAnsweredFromTheMirror() throws Exception {
+        joinAsSecond();
+
+        assertThat(waitlistService.position(10L, 1L)).contains(1);
+        assertThat(waitlistService.position(10L, 2L)).contains(2);
+        assertThat(waitlistService.size(10L)).isEqualTo(2);
+        verify(jdbcTemplate, never()).queryForObject(contains("COUNT(*)"), eq(Integer.class), any(Object[].class));
+    }
+
+    @Test
+    void leave_DropsTheStudentFromTheMirror() throws Exception {
+        joinAsSecond();
+        when(jdbcTemplate.update(contains("DELETE FROM course_waitlist"), eq(10L), eq(1L))).thenReturn(1);
+
+        waitlistService.leave(10L, 1L);
+
+        assertThat(waitlistService.position(10L, 2L)).contains(1);
+    }
+
+    @Test
+    void remove_DropsTheStudentsFromTheMirror() throws Exception {
+        joinAsSecond();
+
+        waitlistService.remove(10L, List.of(1L, 99L));
+
+        assertThat(waitlistService.position(10L, 2L)).contains(1);
+        assertThat(waitlistService.size(10L)).isEqualTo(1);
+    }
+
+    @Test
+    void syncChanges_ReloadsOnlyCoursesWhoseChecksumDiffers() throws Exception {
+        ResultSet signature = mock(ResultSet.class);
+        when(signature.getLong(1)).thenReturn(10L);
+        when(signature.getInt(2)).thenReturn(2);
+        when(signature.getLong(3)).thenReturn(300L);
+        when(signature.getLong(4)).thenReturn(500L);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(signature);
+            return null;
+        }).when(jdbcTemplate).query(contains("GROUP BY course_id"), any(RowCallbackHandler.class));
+        ResultSet first = mock(ResultSet.class);
+        when(first.getLong(1)).thenReturn(10L);
+        when(first.getLong(2)).thenReturn(100L);
+        when(first.getLong(3)).thenReturn(1L);
+        ResultSet second = mock(ResultSet.class);
+        when(second.getLong(1)).thenReturn(10L);
+        when(second.getLong(2)).thenReturn(200L);
+        when(second.getLong(3)).thenReturn(2L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(first);
+            handler.processRow(second);
+            return null;
+        }).when(jdbcTemplate).query(contains("WHERE course_id IN ("), any(RowCallbackHandler.class), eq(10L));
+
+        waitlistService.syncChanges();
+        waitlistService.syncChanges();
+
+        assertThat(waitlistService.position(10L, 200L)).contains(2);
+        verify(jdbcTemplate, times(1)).query(contains("WHERE course_id IN ("), any(RowCallbackHandler.class), eq(10L));
+    }
+
+    @Test
+    void join_CourseWithFreeSeats_Throws() {
+        stubCourseFull(false);
+
+        assertThatThrownBy(() -> waitlistService.join(10L, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(WaitlistService.SEATS_AVAILABLE);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void join_UnknownCourse_Throws() {
+        stubCourseFull(null);
+
+        assertThatThrownBy(() -> waitlistService.join(10L, 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Course not found");
+    }
+
+    @Test
+    void join_AlreadyWaiting_Throws() {
+        stubCourseFull(true);
+        when(jdbcTemplate.update(contains("INSERT INTO course_waitlist"), any(), any(), any()))
+                .thenThrow(new DuplicateKeyException("uq_waitlist_course_student"));
+
+        assertThatThrownBy(() -> waitlistService.join(10L, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(WaitlistService.ALREADY_WAITLISTED);
+    }
+
+    @Test
+    void leave_NotWaiting_Throws() {
+        when(jdbcTemplate.update(contains("DELETE FROM course_waitlist"), eq(10L), eq(1L))).thenReturn(0);
+
+        assertThatThrownBy(() -> waitlistService.leave(10L, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage(WaitlistService.NOT_WAITLISTED);
+    }
+
+    @Test
+    void remove_LargeBatch_DeletesInChunks() {
+        List<Long> studentIds = LongStream.rangeClosed(1, 1500).boxed().toList();
+
+        waitlistService.remove(10L, studentIds);
+
+        verify(jdbcTemplate, times(2)).update(contains("student_id IN ("), any(Object[].class));
+    }
+
+    @Test
+    void remove_NoStudents_SkipsDatabase() {
+        waitlistService.remove(10L, List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void position_NotMirrored_FallsBackToTheTable() {
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Integer.class), eq(1L), eq(10L))).thenReturn(3);
+
+        assertThat(waitlistService.position(10L, 1L)).contains(3);
+    }
+
+    @Test
+    void position_NotWaiting_IsEmpty() {
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Integer.class), eq(1L), eq(10L))).thenReturn(0);
+
+        assertThat(waitlistService.position(10L, 1L)).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package hr.algebra.uni_course_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyOccupancyTest {
+    @Test
+    void findClash_OverlappingSlot_ReturnsCourse() {
+        WeeklyOccupancy occupancy = WeeklyOccupancy.EMPTY.with(1L, new int[]{540, 660, 3420, 3540});
+
+        assertThat(occupancy.findClash(new int[]{600, 720})).isEqualTo(1L);
+        assertThat(occupancy.findClash(new int[]{3000, 3060, 3400, 3430})).isEqualTo(1L);
+    }
+
+    @Test
+    void findClash_BackToBackSlots_DoNotClash() {
+        WeeklyOccupancy occupancy = WeeklyOccupancy.EMPTY.with(1L, new int[]{540, 660});
+
+        assertThat(occupancy.findClash(new int[]{660, 780})).isNull();
+        assertThat(occupancy.findClash(new int[]{420, 540})).isNull();
+        assertThat(WeeklyOccupancy.EMPTY.findClash(new int[]{0, 10})).isNull();
+    }
+
+    @Test
+    void findClash_LongEarlierIntervalCoveringSlot_IsFound() {
+        WeeklyOccupancy occupancy = WeeklyOccupancy.EMPTY
+                .with(1L, new int[]{100, 1000})
+                .with(2L, new int[]{200, 300});
+
+        assertThat(occupancy.findClash(new int[]{500, 600})).isEqualTo(1L);
+    }
+
+    @Test
+    void without_RemovesOnlyThatCourse() {
+        WeeklyOccupancy occupancy = WeeklyOccupancy.EMPTY
+                .with(1L, new int[]{100, 200, 900, 1000})
+                .with(2L, new int[]{300, 400});
+
+        WeeklyOccupancy remaining = occupancy.without(1L);
+
+        assertThat(remaining.size()).isEqualTo(1);
+        assertThat(remaining.findClash(new int[]{150, 160})).isNull();
+        assertThat(remaining.findClash(new int[]{350, 360})).isEqualTo(2L);
+        assertThat(occupancy.without(3L)).isSameAs(occupancy);
+    }
+
+    @Test
+    void findClash_MatchesPairwiseComparison() {
+        SplittableRandom random = new SplittableRandom(17L);
+        for (int round = 0; round < 200; round++) {
+            WeeklyOccupancy occupancy = WeeklyOccupancy.EMPTY;
+            List<int[]> enrolled = new ArrayList<>();
+            for (long course = 1; course <= 8; course++) {
+                int[] slots = randomSlots(random);
+                occupancy = occupancy.with(course, slots);
+                enrolled.add(slots);
+            }
+            int[] candidate = randomSlots(random);
+
+            boolean expected = enrolled.stream().anyMatch(slots -> overlaps(slots, candidate));
+            assertThat(occupancy.findClash(candidate) != null).isEqualTo(expected);
+        }
+    }
+
+    private static int[] randomSlots(SplittableRandom random) {
+        int[] slots = new int[2 * random.nextInt(1, 4)];
+        for (int i = 0; i < slots.length; i += 2) {
+            slots[i] = random.nextInt(0, 7 * 24 * 60 - 240);
+            slots[i + 1] = slots[i] + random.nextInt(30, 240);
+        }
+        return slots;
+    }
+
+    private static boolean overlaps(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i += 2) {
+            for (int j = 0; j < b.length; j += 2) {
+                if (a[i] < b[j + 1] && b[j] < a[i + 1]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}